@@ -0,0 +1,59 @@
+package uk.gov.justice.digital.delius.config;
+
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-process caches for reference data that only changes with a Delius release. Cached entities are detached, so
+ * only their columns and eager associations should be read, or they can be used as the target of an association.
+ */
+@Configuration
+@EnableCaching
+public class CachingConfig {
+    public static final String STANDARD_REFERENCE_CACHE = "standardReference";
+    public static final String CONTACT_TYPE_CACHE = "contactType";
+    public static final String BUSINESS_INTERACTION_CACHE = "businessInteraction";
+    public static final String BUSINESS_INTERACTION_XML_MAP_CACHE = "businessInteractionXmlMap";
+    public static final String PROBATION_AREA_CACHE = "probationArea";
+    public static final String TRANSFER_REASON_CACHE = "transferReason";
+
+    public static final List<String> REFERENCE_DATA_CACHES = List.of(
+            STANDARD_REFERENCE_CACHE,
+            CONTACT_TYPE_CACHE,
+            BUSINESS_INTERACTION_CACHE,
+            BUSINESS_INTERACTION_XML_MAP_CACHE,
+            PROBATION_AREA_CACHE,
+            TRANSFER_REASON_CACHE);
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     @Value("${reference-data.cache.time-to-live:1h}") Duration timeToLive,
+                                     @Value("${reference-data.cache.maximum-size:1000}") long maximumSize) {
+        final var cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(REFERENCE_DATA_CACHES.stream()
+                .map(name -> {
+                    final var cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+                            .maximumSize(maximumSize)
+                            .recordStats()
+                            .build();
+                    GuavaCacheMetrics.monitor(meterRegistry, cache, name);
+                    return new ExpiringCache(name, cache);
+                })
+                .collect(toList()));
+        return cacheManager;
+    }
+}
@@ -45,6 +45,10 @@ public class DeliusApiConfig {
     @NotNull
     private ExchangeFilterFunction addAuthHeaderFilterFunction() {
         return (request, next) -> {
+            // requests sent after the call has returned carry the token taken when the call was made
+            if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+                return next.exchange(request);
+            }
             ClientRequest filtered = ClientRequest.from(request)
                 .header(HttpHeaders.AUTHORIZATION, UserContext.getAuthToken())
                 .build();
@@ -40,9 +40,19 @@ public class FeatureSwitches {
     public static class Registers {
         private String courtCodeAllowedPattern;
     }
+    @Data
+    public static class Documents {
+        private boolean parallelFetch;
+    }
+    @Data
+    public static class Notifications {
+        private boolean outbox;
+    }
 
     private NomsFeatures noms = new NomsFeatures();
     private Registers registers = new Registers();
+    private Documents documents = new Documents();
+    private Notifications notifications = new Notifications();
 
 
     @PostConstruct
@@ -0,0 +1,15 @@
+package uk.gov.justice.digital.delius.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller, or one of its handler methods, whose requests are not given an entity manager for the whole
+ * request (see OpenEntityManagerInViewConfiguration).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface NoOpenEntityManagerInView {
+}
@@ -0,0 +1,77 @@
+package uk.gov.justice.digital.delius.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.context.request.WebRequestInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.WebRequestHandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the standard entity manager open for the whole request, as Spring Boot would, except for the handlers marked
+ * with {@link NoOpenEntityManagerInView}, such as those that call the Delius API. Those read what they need in a
+ * transaction before making the call, so the request holds no entity manager, and so no connection, while it waits
+ * on Delius.
+ */
+@Configuration
+@Log4j2
+public class OpenEntityManagerInViewConfiguration implements WebMvcConfigurer {
+
+    // Spring Boot registers its own interceptor for every request unless one is defined
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        log.info("Adding open entity manager in view interceptor");
+        registry.addInterceptor(new UnlessMarkedInterceptorAdapter(openEntityManagerInViewInterceptor()));
+    }
+
+    private static boolean isMarked(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod
+                && (handlerMethod.hasMethodAnnotation(NoOpenEntityManagerInView.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), NoOpenEntityManagerInView.class));
+    }
+
+    private static class UnlessMarkedInterceptorAdapter extends WebRequestHandlerInterceptorAdapter {
+        UnlessMarkedInterceptorAdapter(WebRequestInterceptor requestInterceptor) {
+            super(requestInterceptor);
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+            return isMarked(handler) || super.preHandle(request, response, handler);
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) throws Exception {
+            if (!isMarked(handler)) {
+                super.postHandle(request, response, handler, modelAndView);
+            }
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+            if (!isMarked(handler)) {
+                super.afterCompletion(request, response, handler, ex);
+            }
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (!isMarked(handler)) {
+                super.afterConcurrentHandlingStarted(request, response, handler);
+            }
+        }
+    }
+}
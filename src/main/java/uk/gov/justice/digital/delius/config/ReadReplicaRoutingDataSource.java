@@ -0,0 +1,117 @@
+package uk.gov.justice.digital.delius.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out connections from the replica pool while a read-only transaction is in progress, and from the primary pool
+ * otherwise. Each transaction takes its connection when it first needs one and releases it as it completes, so
+ * everything the transaction does, including any work through a {@link org.springframework.jdbc.core.JdbcTemplate},
+ * runs against the same database, and a later transaction in the same request is routed afresh.
+ * <p>
+ * If the replica cannot supply a connection it is skipped for a while and read-only transactions use the primary.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final ThreadLocal<Deque<Boolean>> readOnlyTransactions = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration retryReplicaAfter;
+    private final Clock clock;
+    private final AtomicReference<Instant> replicaUnavailableUntil = new AtomicReference<>(Instant.MIN);
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryReplicaAfter, MeterRegistry meterRegistry) {
+        this(primary, replica, retryReplicaAfter, meterRegistry, Clock.systemUTC());
+    }
+
+    ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryReplicaAfter, MeterRegistry meterRegistry, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryReplicaAfter = retryReplicaAfter;
+        this.clock = clock;
+        this.primaryConnections = meterRegistry.counter("delius.datasource.connections", "target", "primary");
+        this.replicaConnections = meterRegistry.counter("delius.datasource.connections", "target", "replica");
+        this.replicaFallbacks = meterRegistry.counter("delius.datasource.replica.fallbacks");
+    }
+
+    /**
+     * Records that a transaction has begun on this thread; until it completes any connection taken is routed by
+     * whether it is read-only. Transactions begun while another is suspended are stacked on top of it.
+     */
+    public static void transactionBegun(boolean readOnly) {
+        if (readOnlyTransactions.get() == null) {
+            readOnlyTransactions.set(new ArrayDeque<>());
+        }
+        readOnlyTransactions.get().push(readOnly);
+    }
+
+    /**
+     * Records that the most recently begun transaction on this thread has completed.
+     */
+    public static void transactionCompleted() {
+        final var transactions = readOnlyTransactions.get();
+        if (transactions != null) {
+            transactions.poll();
+            if (transactions.isEmpty()) {
+                readOnlyTransactions.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isReadOnlyTransactionInProgress() && isReplicaAvailable()) {
+            try {
+                final var connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Unable to get a replica connection, using the primary for the next {}", retryReplicaAfter, e);
+                replicaUnavailableUntil.set(clock.instant().plus(retryReplicaAfter));
+                replicaFallbacks.increment();
+            }
+        }
+        final var connection = primary.getConnection();
+        primaryConnections.increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (final var pool : new DataSource[]{replica, primary}) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean isReadOnlyTransactionInProgress() {
+        final var transactions = readOnlyTransactions.get();
+        return transactions != null && Boolean.TRUE.equals(transactions.peek());
+    }
+
+    private boolean isReplicaAvailable() {
+        return clock.instant().isAfter(replicaUnavailableUntil.get());
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.justice.digital.delius.config;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Database and LDAP activity for the request being handled by the current thread. Statistics are only gathered
+ * between {@link #start()} and {@link #stop()}, which are called by {@link RequestStatisticsInterceptor}.
+ */
+public class RequestStatistics {
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder databaseNanos = new LongAdder();
+    private final LongAdder connectionWaitNanos = new LongAdder();
+    private final LongAdder ldapCalls = new LongAdder();
+
+    public static RequestStatistics start() {
+        final var statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static Optional<RequestStatistics> stop() {
+        final var statistics = Optional.ofNullable(CURRENT.get());
+        CURRENT.remove();
+        return statistics;
+    }
+
+    public static Optional<RequestStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public void recordStatement(long nanos) {
+        statements.increment();
+        databaseNanos.add(nanos);
+    }
+
+    public void recordConnectionWait(long nanos) {
+        connectionWaitNanos.add(nanos);
+    }
+
+    public void recordLdapCall() {
+        ldapCalls.increment();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos.sum();
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos.sum();
+    }
+
+    public long getLdapCalls() {
+        return ldapCalls.sum();
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.justice.digital.delius.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Feeds {@link RequestStatistics} with the time spent waiting for a pooled connection, the number and duration of
+ * JDBC statement executions and the number of LDAP operations. Connections are only instrumented when they are
+ * obtained while a request is being measured.
+ */
+@Component
+@Aspect
+public class RequestStatisticsAspect {
+
+    @Around("execution (* javax.sql.DataSource.getConnection(..))")
+    public Connection instrumentConnection(ProceedingJoinPoint joinPoint) throws Throwable {
+        final var statistics = RequestStatistics.current();
+        if (statistics.isEmpty()) {
+            return (Connection) joinPoint.proceed();
+        }
+
+        final var start = System.nanoTime();
+        final var connection = (Connection) joinPoint.proceed();
+        statistics.get().recordConnectionWait(System.nanoTime() - start);
+        return instrument(connection);
+    }
+
+    @Around("execution (* org.springframework.ldap.core.LdapOperations+.*(..))")
+    public Object countLdapCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestStatistics.current().ifPresent(RequestStatistics::recordLdapCall);
+        return joinPoint.proceed();
+    }
+
+    static Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            final var result = invoke(connection, method, args);
+            return result instanceof Statement ? instrument((Statement) result) : result;
+        });
+    }
+
+    private static Statement instrument(Statement statement) {
+        final Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            final var start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                final var elapsed = System.nanoTime() - start;
+                RequestStatistics.current().ifPresent(statistics -> statistics.recordStatement(elapsed));
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.justice.digital.delius.config;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Log4j2
+@AllArgsConstructor
+public class RequestStatisticsConfiguration implements WebMvcConfigurer {
+    private final RequestStatisticsInterceptor requestStatisticsInterceptor;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        log.info("Adding request statistics interceptor");
+        registry.addInterceptor(requestStatisticsInterceptor).addPathPatterns("/**");
+    }
+}
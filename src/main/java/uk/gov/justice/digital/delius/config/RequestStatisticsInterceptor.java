@@ -0,0 +1,84 @@
+package uk.gov.justice.digital.delius.config;
+
+import com.microsoft.applicationinsights.web.internal.ThreadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Optional;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Publishes the {@link RequestStatistics} gathered while each handler runs as metrics tagged with the handler name
+ * and as application insights request properties, warning when a handler issues more statements than the budget.
+ */
+@Slf4j
+@Component
+public class RequestStatisticsInterceptor implements AsyncHandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final long statementBudget;
+
+    public RequestStatisticsInterceptor(MeterRegistry meterRegistry,
+                                        @Value("${request-statistics.statement-budget:50}") long statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, @NotNull final HttpServletResponse response, @NotNull final Object handler) {
+        // the dispatch at the end of an async request has already been measured when it started
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            RequestStatistics.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NotNull final HttpServletRequest request, @NotNull final HttpServletResponse response, @NotNull final Object handler) {
+        // streamed responses carry on in other threads, so only the work done before streaming started is recorded
+        RequestStatistics.stop().ifPresent(statistics -> record(handlerNameOf(handler), statistics));
+    }
+
+    @Override
+    public void afterCompletion(@NotNull final HttpServletRequest request, @NotNull final HttpServletResponse response, @NotNull final Object handler, final Exception ex) {
+        RequestStatistics.stop().ifPresent(statistics -> record(handlerNameOf(handler), statistics));
+    }
+
+    private void record(String handlerName, RequestStatistics statistics) {
+        final var tags = Tags.of("handler", handlerName);
+        meterRegistry.summary("delius.request.jdbc.statements", tags).record(statistics.getStatements());
+        meterRegistry.timer("delius.request.jdbc.time", tags).record(statistics.getDatabaseNanos(), NANOSECONDS);
+        meterRegistry.timer("delius.request.jdbc.connection_wait", tags).record(statistics.getConnectionWaitNanos(), NANOSECONDS);
+        meterRegistry.summary("delius.request.ldap.calls", tags).record(statistics.getLdapCalls());
+
+        Optional.ofNullable(ThreadContext.getRequestTelemetryContext())
+                .map(context -> context.getHttpRequestTelemetry().getProperties())
+                .ifPresent(properties -> {
+                    properties.put("jdbcStatements", String.valueOf(statistics.getStatements()));
+                    properties.put("jdbcTimeMs", String.valueOf(NANOSECONDS.toMillis(statistics.getDatabaseNanos())));
+                    properties.put("connectionWaitMs", String.valueOf(NANOSECONDS.toMillis(statistics.getConnectionWaitNanos())));
+                    properties.put("ldapCalls", String.valueOf(statistics.getLdapCalls()));
+                });
+
+        if (statistics.getStatements() > statementBudget) {
+            log.warn("{} issued {} SQL statements which exceeds the budget of {}", handlerName, statistics.getStatements(), statementBudget);
+        }
+    }
+
+    private static String handlerNameOf(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            final var handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
@@ -1,8 +1,13 @@
 package uk.gov.justice.digital.delius.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -12,8 +17,10 @@ import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.HashMap;
 
 @Configuration
@@ -42,21 +49,68 @@ public class StandardDatasourceConfig {
                 env.getProperty("hibernate.hbm2ddl.auto"));
         properties.put("hibernate.dialect",
                 env.getProperty("hibernate.dialect"));
+        // inserts of many rows of the same entity, such as SPG notifications, are sent in JDBC batches
+        properties.put("hibernate.jdbc.batch_size",
+                env.getProperty("hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_inserts", "true");
+        // the entity manager kept open for a request by open-session-in-view would otherwise hold the first connection
+        // it is given for the whole request; releasing it as each transaction completes means each transaction takes
+        // a connection from the pool it is routed to, and none is held while the request waits on anything else
+        properties.put("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
         em.setJpaPropertyMap(properties);
 
         return em;
     }
 
+    /**
+     * The primary pool, or when spring.datasource.replica is configured, a data source that sends read-only
+     * transactions to a pool for the replica and everything else to the primary pool.
+     */
     @Primary
     @Bean
-    public DataSource standardDataSource(DataSourceProperties dataSourceProperties) {
-        return dataSourceProperties.initializeDataSourceBuilder().build();
+    public DataSource standardDataSource(DataSourceProperties dataSourceProperties,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${spring.datasource.replica-retry-after:30s}") Duration retryReplicaAfter) {
+        final var primary = dataSourceProperties.initializeDataSourceBuilder().build();
+        return Binder.get(env)
+                .bind("spring.datasource.replica", HikariConfig.class)
+                .map(replicaConfig -> {
+                    // neither pool is a bean so their metrics are not bound automatically
+                    if (primary instanceof HikariDataSource primaryPool) {
+                        primaryPool.setPoolName("standard-primary");
+                        primaryPool.setMetricRegistry(meterRegistry);
+                    }
+                    final var replicaPool = new HikariDataSource(replicaConfig);
+                    replicaPool.setMetricRegistry(meterRegistry);
+                    return (DataSource) new ReadReplicaRoutingDataSource(primary, replicaPool, retryReplicaAfter, meterRegistry);
+                })
+                .orElse(primary);
     }
 
     @Primary
     @Bean(name = "standardTransactionManager")
     public PlatformTransactionManager standardTransactionManager(@Qualifier("standardEntityManager") LocalContainerEntityManagerFactoryBean standardEntityManager) {
-        JpaTransactionManager transactionManager = new JpaTransactionManager();
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+                ReadReplicaRoutingDataSource.transactionBegun(definition.isReadOnly());
+                try {
+                    super.doBegin(transaction, definition);
+                } catch (RuntimeException | Error e) {
+                    ReadReplicaRoutingDataSource.transactionCompleted();
+                    throw e;
+                }
+            }
+
+            @Override
+            protected void doCleanupAfterCompletion(Object transaction) {
+                try {
+                    super.doCleanupAfterCompletion(transaction);
+                } finally {
+                    ReadReplicaRoutingDataSource.transactionCompleted();
+                }
+            }
+        };
         transactionManager.setEntityManagerFactory(standardEntityManager.getObject());
         return transactionManager;
     }
@@ -10,17 +10,20 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.digital.delius.data.api.AccessLimitation;
 import uk.gov.justice.digital.delius.data.api.Count;
 import uk.gov.justice.digital.delius.data.api.DocumentMeta;
@@ -29,7 +32,9 @@ import uk.gov.justice.digital.delius.data.api.OffenderDetailSummary;
 import uk.gov.justice.digital.delius.data.api.OffenderDocuments;
 import uk.gov.justice.digital.delius.data.api.OffenderIdsResource;
 import uk.gov.justice.digital.delius.data.api.OffenderManager;
+import uk.gov.justice.digital.delius.data.api.OffenderUserAccess;
 import uk.gov.justice.digital.delius.data.api.ResponsibleOfficer;
+import uk.gov.justice.digital.delius.data.api.UserAccessRequest;
 import uk.gov.justice.digital.delius.jwt.Jwt;
 import uk.gov.justice.digital.delius.jwt.JwtValidation;
 import uk.gov.justice.digital.delius.service.AlfrescoService;
@@ -37,7 +42,11 @@ import uk.gov.justice.digital.delius.service.DocumentService;
 import uk.gov.justice.digital.delius.service.OffenderService;
 import uk.gov.justice.digital.delius.service.UserService;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -50,7 +59,9 @@ import static org.springframework.http.HttpStatus.OK;
 @Slf4j
 @Api(tags = "Offenders resources")
 @RequestMapping(value = "api", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
 public class OffenderController {
+    private static final int MAX_OFFENDER_IDS_LIMIT = 10000;
 
     private final OffenderService offenderService;
     private final AlfrescoService alfrescoService;
@@ -228,31 +239,31 @@ public class OffenderController {
 
     @RequestMapping(value = "/offenders/crn/{crn}/documents/{documentId}", method = RequestMethod.GET)
     @JwtValidation
-    public ResponseEntity<Resource> getOffenderDocumentByCrn(final @RequestHeader HttpHeaders httpHeaders,
+    public ResponseEntity<StreamingResponseBody> getOffenderDocumentByCrn(final @RequestHeader HttpHeaders httpHeaders,
                                                              final @PathVariable("crn") String crn,
                                                              final @PathVariable("documentId") String documentId) {
-        return alfrescoService.getDocument(documentId, crn);
+        return alfrescoService.getDocument(documentId, crn, httpHeaders);
     }
 
     @RequestMapping(value = "/offenders/offenderId/{offenderId}/documents/{documentId}", method = RequestMethod.GET)
     @JwtValidation
-    public ResponseEntity<Resource> getOffenderDocumentByOffenderId(final @RequestHeader HttpHeaders httpHeaders,
+    public ResponseEntity<StreamingResponseBody> getOffenderDocumentByOffenderId(final @RequestHeader HttpHeaders httpHeaders,
                                                                     final @PathVariable("offenderId") Long offenderId,
                                                                     final @PathVariable("documentId") String documentId
     ) {
         return offenderService.crnOf(offenderId)
-                .map(crn -> alfrescoService.getDocument(documentId, crn))
+                .map(crn -> alfrescoService.getDocument(documentId, crn, httpHeaders))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
     @RequestMapping(value = "/offenders/nomsNumber/{nomsNumber}/documents/{documentId}", method = RequestMethod.GET)
     @JwtValidation
-    public ResponseEntity<Resource> getOffenderDocumentByOffenderId(final @RequestHeader HttpHeaders httpHeaders,
+    public ResponseEntity<StreamingResponseBody> getOffenderDocumentByOffenderId(final @RequestHeader HttpHeaders httpHeaders,
                                                                     final @PathVariable("nomsNumber") String nomsNumber,
                                                                     final @PathVariable("documentId") String documentId
     ) {
         return offenderService.crnOf(nomsNumber)
-                .map(crn -> alfrescoService.getDocument(documentId, crn))
+                .map(crn -> alfrescoService.getDocument(documentId, crn, httpHeaders))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
@@ -271,6 +282,29 @@ public class OffenderController {
         return new ResponseEntity<>(OffenderIdsResource.builder().offenderIds(offenderIds).build(), OK);
     }
 
+    @RequestMapping(value = "/offenders/offenderIds", params = "afterOffenderId", method = RequestMethod.GET)
+    @ApiOperation(value = "Returns offender IDs in ascending order starting after the supplied offender ID",
+            notes = "Pages are stable and each costs the same however far through the offenders it is; request the next page with the last ID returned. An empty list indicates there are no more offenders")
+    @JwtValidation
+    public OffenderIdsResource getOffenderIdsAfter(
+            final @RequestHeader HttpHeaders httpHeaders,
+            @ApiParam(value = "Offender ID to start after, 0 for the first page", example = "0") final @RequestParam long afterOffenderId,
+            @ApiParam(defaultValue = "1000") final @RequestParam(defaultValue = "${offender.ids.pagesize:1000}") @Positive @Max(MAX_OFFENDER_IDS_LIMIT) int limit) {
+
+        final var offenderIds = offenderService.offenderIdsAfter(afterOffenderId, limit);
+        return OffenderIdsResource.builder().offenderIds(offenderIds.stream().map(BigDecimal::valueOf).collect(Collectors.toList())).build();
+    }
+
+    @RequestMapping(value = "/offenders/offenderIds/stream", method = RequestMethod.GET, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Streams every offender ID in ascending order as newline delimited JSON",
+            notes = "Optionally starts after the supplied offender ID so an interrupted export can be resumed from the last ID received")
+    @JwtValidation
+    public Flux<Long> streamOffenderIds(
+            final @RequestHeader HttpHeaders httpHeaders,
+            @ApiParam(value = "Offender ID to start after", example = "0") final @RequestParam(defaultValue = "0") long afterOffenderId) {
+        return offenderService.streamOffenderIdsAfter(afterOffenderId);
+    }
+
     @RequestMapping(value = "/offenders/count", method = RequestMethod.GET)
     @JwtValidation
     public ResponseEntity<Count> offenderCount(final @RequestHeader HttpHeaders httpHeaders) {
@@ -328,6 +362,23 @@ public class OffenderController {
         return accessLimitationResponseEntityOf(httpHeaders, maybeOffender);
     }
 
+    @RequestMapping(value = "/offenders/userAccess", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @JwtValidation
+    @ApiOperation(value = "Reveals the user's access to each of the supplied offenders, in the order requested",
+            notes = "Equivalent to calling /offenders/crn/{crn}/userAccess for each CRN, but excluded or restricted offenders are reported in the body rather than with a 403")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The access limitation for each CRN, or a status of NOT_FOUND"),
+            @ApiResponse(code = 400, message = "No CRNs, or too many CRNs, were supplied"),
+            @ApiResponse(code = 401, message = "Request is missing Authorization header (no JWT)"),
+            @ApiResponse(code = 404, message = "No such User (see body for detail)")
+    })
+    public List<OffenderUserAccess> checkUserAccessByCrns(final @RequestHeader HttpHeaders httpHeaders,
+                                                          final @RequestBody @Valid UserAccessRequest request) {
+        Claims claims = jwt.parseAuthorizationHeader(httpHeaders.getFirst(HttpHeaders.AUTHORIZATION)).get();
+
+        return userService.offenderUserAccessOf((String) claims.get(Jwt.UID), request.getCrns());
+    }
+
     @RequestMapping(value = "/offenders/nomsNumber/{nomsNumber}/userAccess", method = RequestMethod.GET)
     @JwtValidation
     @ApiResponses(value = {
@@ -374,10 +425,10 @@ public class OffenderController {
 
     @RequestMapping(value = "/documents/{documentId}", method = RequestMethod.GET)
     @JwtValidation
-    public ResponseEntity<Resource> getDocumentById(final @RequestHeader HttpHeaders httpHeaders,
+    public ResponseEntity<StreamingResponseBody> getDocumentById(final @RequestHeader HttpHeaders httpHeaders,
                                                     final @PathVariable("documentId") String documentId
     ) {
-        return alfrescoService.getDocument(documentId);
+        return alfrescoService.getDocument(documentId, httpHeaders);
     }
 
     @RequestMapping(value = "/offenders/nomsNumber/{nomsNumber}/responsibleOfficers", method = RequestMethod.GET)
@@ -10,27 +10,39 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.digital.delius.config.NoOpenEntityManagerInView;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateResponse;
+import uk.gov.justice.digital.delius.data.api.AppointmentCreateResult;
 import uk.gov.justice.digital.delius.data.api.AppointmentRescheduleResponse;
 import uk.gov.justice.digital.delius.data.api.AppointmentUpdateResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeRequest;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeUpdate;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
 import uk.gov.justice.digital.delius.service.AppointmentService;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.util.List;
+
 @RestController
 @Api(tags = {"Appointments"})
 @PreAuthorize("hasRole('ROLE_COMMUNITY_INTERVENTIONS_UPDATE')")
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
+@NoOpenEntityManagerInView
+@Validated
 public class AppointmentBookingController {
+    public static final int MAX_BULK_APPOINTMENTS = 100;
 
     private final AppointmentService appointmentService;
 
@@ -47,12 +59,12 @@ public class AppointmentBookingController {
             })
 
     @ApiOperation(value = "Creates an Contact appointment")
-    public ResponseEntity<AppointmentCreateResponse> createAppointment(final @PathVariable("crn") String crn,
-                                                                       final @PathVariable("sentenceId") Long sentenceId,
-                                                                       final @RequestBody AppointmentCreateRequest appointmentCreateRequest) {
+    public Mono<ResponseEntity<AppointmentCreateResponse>> createAppointment(final @PathVariable("crn") String crn,
+                                                                             final @PathVariable("sentenceId") Long sentenceId,
+                                                                             final @RequestBody AppointmentCreateRequest appointmentCreateRequest) {
 
-        AppointmentCreateResponse response = appointmentService.createAppointment(crn, sentenceId, appointmentCreateRequest);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return appointmentService.createAppointment(crn, sentenceId, appointmentCreateRequest)
+            .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
     }
 
     @RequestMapping(value = "/offenders/crn/{crn}/sentence/{sentenceId}/appointments/context/{contextName}",
@@ -68,14 +80,38 @@ public class AppointmentBookingController {
         })
 
     @ApiOperation(value = "Creates an Contact appointment for a specified context")
-    public ResponseEntity<AppointmentCreateResponse> createAppointmentWithContextName(final @PathVariable("crn") String crn,
-                                                                                      final @PathVariable("sentenceId") Long sentenceId,
-                                                                                      final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
-                                                                                          @PathVariable("contextName") String contextName,
-                                                                                      final @RequestBody ContextlessAppointmentCreateRequest contextlessAppointmentCreateRequest) {
+    public Mono<ResponseEntity<AppointmentCreateResponse>> createAppointmentWithContextName(final @PathVariable("crn") String crn,
+                                                                                            final @PathVariable("sentenceId") Long sentenceId,
+                                                                                            final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                                                @PathVariable("contextName") String contextName,
+                                                                                            final @RequestBody ContextlessAppointmentCreateRequest contextlessAppointmentCreateRequest) {
+
+        return appointmentService.createAppointment(crn, sentenceId, contextName, contextlessAppointmentCreateRequest)
+            .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @RequestMapping(value = "/offenders/crn/{crn}/sentence/{sentenceId}/appointments/bulk/context/{contextName}",
+                method = RequestMethod.POST,
+                consumes = "application/json")
+    @ApiResponses(
+        value = {
+                @ApiResponse(code = 201, message = "Created", response = String.class),
+                @ApiResponse(code = 207, message = "Some appointments were not created, see the result for each"),
+                @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY_INTERVENTIONS_UPDATE"),
+                @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+        })
+
+    @ApiOperation(value = "Creates many Contact appointments for a specified context", notes = "Between 1 and 100 appointments may be created at once. A result is returned for each appointment in the order they were requested, with either the created appointment or why it was not created. One appointment failing does not stop the others being created")
+    public Mono<ResponseEntity<List<AppointmentCreateResult>>> createAppointmentsWithContextName(final @PathVariable("crn") String crn,
+                                                                                                   final @PathVariable("sentenceId") Long sentenceId,
+                                                                                                   final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                                                       @PathVariable("contextName") String contextName,
+                                                                                                   final @RequestBody @Size(min = 1, max = MAX_BULK_APPOINTMENTS) List<@Valid ContextlessAppointmentCreateRequest> contextlessAppointmentCreateRequests) {
 
-        AppointmentCreateResponse response = appointmentService.createAppointment(crn, sentenceId, contextName, contextlessAppointmentCreateRequest);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return appointmentService.createAppointments(crn, sentenceId, contextName, contextlessAppointmentCreateRequests)
+            .collectList()
+            .map(results -> new ResponseEntity<>(results, results.stream().allMatch(AppointmentCreateResult::isCreated) ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS));
     }
 
     @RequestMapping(value = "/offenders/crn/{crn}/appointments/{appointmentId}/reschedule/context/{contextName}",
@@ -90,11 +126,11 @@ public class AppointmentBookingController {
         })
 
     @ApiOperation(value = "Reschedules an appointment")
-    public AppointmentRescheduleResponse rescheduleAppointmentWithContextName(final @PathVariable("crn") String crn,
-                                                                              final @PathVariable("appointmentId") Long appointmentId,
-                                                                              final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
-                                                                                    @PathVariable("contextName") String context,
-                                                                              final @RequestBody ContextlessAppointmentRescheduleRequest appointmentRescheduleRequest) {
+    public Mono<AppointmentRescheduleResponse> rescheduleAppointmentWithContextName(final @PathVariable("crn") String crn,
+                                                                                    final @PathVariable("appointmentId") Long appointmentId,
+                                                                                    final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                                          @PathVariable("contextName") String context,
+                                                                                    final @RequestBody ContextlessAppointmentRescheduleRequest appointmentRescheduleRequest) {
 
         return appointmentService.rescheduleAppointment(crn, appointmentId, context, appointmentRescheduleRequest);
     }
@@ -111,12 +147,32 @@ public class AppointmentBookingController {
         })
 
     @ApiOperation(value = "Updates an Contact appointment outcome")
-    public AppointmentUpdateResponse updateAppointmentOutcomeWithContext(final @PathVariable("crn") String crn,
-                                                                         final @PathVariable("appointmentId") Long appointmentId,
-                                                                         final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
-                                                                             @PathVariable("contextName") String context,
-                                                                         final @RequestBody ContextlessAppointmentOutcomeRequest appointmentOutcomeRequest) {
+    public Mono<AppointmentUpdateResponse> updateAppointmentOutcomeWithContext(final @PathVariable("crn") String crn,
+                                                                               final @PathVariable("appointmentId") Long appointmentId,
+                                                                               final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                                   @PathVariable("contextName") String context,
+                                                                               final @RequestBody ContextlessAppointmentOutcomeRequest appointmentOutcomeRequest) {
 
         return appointmentService.updateAppointmentOutcome(crn, appointmentId, context, appointmentOutcomeRequest);
     }
+
+    @RequestMapping(value = "/offenders/crn/{crn}/appointments/outcome/bulk/context/{contextName}",
+        method = RequestMethod.POST,
+        consumes = "application/json")
+    @ApiResponses(
+        value = {
+            @ApiResponse(code = 200, message = "Updated", response = String.class),
+            @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+            @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY_INTERVENTIONS_UPDATE"),
+            @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+        })
+
+    @ApiOperation(value = "Updates many Contact appointment outcomes", notes = "Between 1 and 100 outcomes may be updated at once. The updated appointments are returned in the order they were requested. Outcomes updated before a failure are kept")
+    public Mono<List<AppointmentUpdateResponse>> updateAppointmentOutcomesWithContext(final @PathVariable("crn") String crn,
+                                                                                      final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                                          @PathVariable("contextName") String context,
+                                                                                      final @RequestBody @Size(min = 1, max = MAX_BULK_APPOINTMENTS) List<@Valid ContextlessAppointmentOutcomeUpdate> appointmentOutcomeUpdates) {
+
+        return appointmentService.updateAppointmentOutcomes(crn, context, appointmentOutcomeUpdates).collectList();
+    }
 }
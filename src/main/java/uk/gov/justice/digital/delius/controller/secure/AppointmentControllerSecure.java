@@ -9,19 +9,26 @@ import lombok.AllArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.data.api.Appointment.Attended;
 import uk.gov.justice.digital.delius.data.api.AppointmentDetail;
+import uk.gov.justice.digital.delius.data.api.AppointmentDetailPage;
 import uk.gov.justice.digital.delius.jpa.filters.AppointmentFilter;
+import uk.gov.justice.digital.delius.jpa.filters.AppointmentKeyset;
 import uk.gov.justice.digital.delius.service.AppointmentService;
 import uk.gov.justice.digital.delius.service.OffenderService;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -31,7 +38,10 @@ import java.util.Optional;
 @PreAuthorize("hasRole('ROLE_COMMUNITY')")
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
+@Validated
 public class AppointmentControllerSecure {
+    private static final int MAX_APPOINTMENTS_PAGE_SIZE = 100;
+
     private final AppointmentService appointmentService;
     private final OffenderService offenderService;
 
@@ -53,9 +63,56 @@ public class AppointmentControllerSecure {
             .from(from).to(to)
             .attended(attended)
             .build();
-        final var id = offenderService.offenderIdOfCrn(crn)
-            .orElseThrow(() -> new NotFoundException(String.format("Offender with crn %s does not exist", crn)));
-        return appointmentService.appointmentDetailsFor(id, filter);
+        return appointmentService.appointmentDetailsFor(offenderIdOf(crn), filter);
+    }
+
+    @RequestMapping(value = "/offenders/crn/{crn}/appointments/page", method = RequestMethod.GET)
+    @ApiResponses(
+        value = {
+            @ApiResponse(code = 400, message = "Invalid cursor or page size"),
+            @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY"),
+            @ApiResponse(code = 404, message = "Offender not found"),
+            @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+        })
+    @ApiOperation(value = "Gets a page of appointments for a specific offender by CRN, most recent first",
+        notes = "Appointments on the same day are ordered by appointment id. Request the following page with the next cursor returned, "
+            + "each page costs the same however far back it is; there are no more appointments when no next cursor is returned")
+    public AppointmentDetailPage getOffenderAppointmentsPageByCrn(
+        final @PathVariable("crn") String crn,
+        final @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "from", required = false) @ApiParam(value = "date of the earliest appointment") Optional<LocalDate> from,
+        final @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "to", required = false) @ApiParam(value = "date of the latest appointment") Optional<LocalDate> to,
+        final @RequestParam(value = "attended", required = false) Optional<Attended> attended,
+        final @RequestParam(value = "cursor", required = false) @ApiParam(value = "next cursor of the previous page, omitted for the first page") Optional<String> cursor,
+        final @RequestParam(value = "pageSize", defaultValue = "20") @ApiParam(defaultValue = "20") @Positive @Max(MAX_APPOINTMENTS_PAGE_SIZE) int pageSize) {
+
+        final var filter = AppointmentFilter.builder()
+            .from(from).to(to)
+            .attended(attended)
+            .after(cursor.map(AppointmentControllerSecure::keysetOf))
+            .build();
+        return appointmentService.appointmentDetailsPageFor(offenderIdOf(crn), filter, pageSize);
+    }
+
+    @RequestMapping(value = "/offenders/crn/{crn}/appointments/stream", method = RequestMethod.GET, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiResponses(
+        value = {
+            @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY"),
+            @ApiResponse(code = 404, message = "Offender not found"),
+            @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+        })
+    @ApiOperation(value = "Streams all appointments for a specific offender by CRN, most recent first, as newline delimited JSON",
+        notes = "Intended for exports; appointments are read a page at a time as the client consumes them")
+    public Flux<AppointmentDetail> streamOffenderAppointmentsByCrn(
+        final @PathVariable("crn") String crn,
+        final @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "from", required = false) @ApiParam(value = "date of the earliest appointment") Optional<LocalDate> from,
+        final @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "to", required = false) @ApiParam(value = "date of the latest appointment") Optional<LocalDate> to,
+        final @RequestParam(value = "attended", required = false) Optional<Attended> attended) {
+
+        final var filter = AppointmentFilter.builder()
+            .from(from).to(to)
+            .attended(attended)
+            .build();
+        return appointmentService.streamAppointmentDetailsFor(offenderIdOf(crn), filter);
     }
 
     @RequestMapping(value = "/offenders/crn/{crn}/appointments/{appointmentId}", method = RequestMethod.GET)
@@ -67,9 +124,20 @@ public class AppointmentControllerSecure {
         })
     @ApiOperation(value = "Gets offender appointment by CRN & appointment id")
     public AppointmentDetail getOffenderAppointmentByCrn(final @PathVariable("crn") String crn, final @PathVariable("appointmentId") Long appointmentId) {
-        final var offenderId = offenderService.offenderIdOfCrn(crn)
-            .orElseThrow(() -> new NotFoundException(String.format("Offender with crn %s does not exist", crn)));
-        return appointmentService.getAppointment(appointmentId, offenderId)
+        return appointmentService.getAppointment(appointmentId, offenderIdOf(crn))
             .orElseThrow(() -> new NotFoundException(String.format("Appointment with id %d does not exist", appointmentId)));
     }
+
+    private Long offenderIdOf(String crn) {
+        return offenderService.offenderIdOfCrn(crn)
+            .orElseThrow(() -> new NotFoundException(String.format("Offender with crn %s does not exist", crn)));
+    }
+
+    private static AppointmentKeyset keysetOf(String cursor) {
+        try {
+            return AppointmentKeyset.fromCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
 }
@@ -8,15 +8,18 @@ import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import springfox.documentation.annotations.ApiIgnore;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
@@ -122,22 +125,24 @@ public class DocumentResource {
 
     @ApiOperation(value = "Returns the document contents meta data for a given document associated with an offender", tags = "Documents")
     @GetMapping(value = "/offenders/nomsNumber/{nomsNumber}/documents/{documentId}")
-    public HttpEntity<Resource> getOffenderDocument(
+    public HttpEntity<StreamingResponseBody> getOffenderDocument(
         @ApiParam(name = "nomsNumber", value = "Nomis number for the offender", example = "G9542VP", required = true) @NotNull final @PathVariable("nomsNumber") String nomsNumber,
-        @ApiParam(name = "documentId", value = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId) {
+        @ApiParam(name = "documentId", value = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId,
+        @ApiIgnore final @RequestHeader HttpHeaders httpHeaders) {
 
         return offenderService.crnOf(nomsNumber)
-            .map(crn -> alfrescoService.getDocument(documentId, crn))
+            .map(crn -> alfrescoService.getDocument(documentId, crn, httpHeaders))
             .orElseThrow(() -> new NotFoundException(String.format("document with id %s not found", documentId)));
     }
 
     @ApiOperation(value = "Returns the document contents meta data for a given document associated with an offender", tags = "Documents")
     @GetMapping(value = "/offenders/crn/{crn}/documents/{documentId}")
-    public HttpEntity<Resource> getOffenderDocumentByCrn(
+    public HttpEntity<StreamingResponseBody> getOffenderDocumentByCrn(
         @ApiParam(name = "crn", value = "CRN for the offender", example = "X12345", required = true) @NotNull final @PathVariable("crn") String crn,
-        @ApiParam(name = "documentId", value = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId) {
+        @ApiParam(name = "documentId", value = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId,
+        @ApiIgnore final @RequestHeader HttpHeaders httpHeaders) {
 
-        return Optional.ofNullable(alfrescoService.getDocument(documentId, crn))
+        return Optional.ofNullable(alfrescoService.getDocument(documentId, crn, httpHeaders))
             .orElseThrow(() -> new NotFoundException(String.format("document with id %s not found", documentId)));
     }
 
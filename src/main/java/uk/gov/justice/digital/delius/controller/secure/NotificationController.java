@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.digital.delius.config.NoOpenEntityManagerInView;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessNotificationCreateRequest;
 import uk.gov.justice.digital.delius.data.api.NotificationResponse;
@@ -23,6 +25,7 @@ import uk.gov.justice.digital.delius.service.NotificationService;
 @PreAuthorize("hasRole('ROLE_COMMUNITY_INTERVENTIONS_UPDATE')")
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
+@NoOpenEntityManagerInView
 public class NotificationController {
 
     private NotificationService notificationService;
@@ -40,7 +43,7 @@ public class NotificationController {
         })
 
     @ApiOperation(value = "Creates a Contact Log for a specified context")
-    public NotificationResponse notifyWithContextName(final @PathVariable("crn") String crn,
+    public Mono<NotificationResponse> notifyWithContextName(final @PathVariable("crn") String crn,
                                                                       final @PathVariable("sentenceId") Long sentenceId,
                                                                       final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
                                                                            @PathVariable("contextName") String contextName,
@@ -11,13 +11,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.jpa.dao.OffenderDelta;
 import uk.gov.justice.digital.delius.service.OffenderDeltaService;
@@ -25,6 +28,7 @@ import uk.gov.justice.digital.delius.service.OffenderDeltaService;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @Slf4j
@@ -50,6 +54,44 @@ public class OffenderDeltaControllerSecure {
         return offenderDeltaService.findAll();
     }
 
+    @ApiOperation(
+            value = "Streams, as newline delimited JSON, all offender deltas after the supplied offender delta ID in ID order",
+            notes = "The last offenderDeltaId received can be supplied on a subsequent call to resume the stream")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                    @ApiResponse(code = 403, message = "Requires role ROLE_PROBATION_OFFENDER_EVENTS"),
+                    @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+            })
+    @GetMapping(value = "/offenderDeltaIds/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OffenderDelta> streamOffenderDeltas(@ApiParam(name = "afterOffenderDeltaId", value = "Only return deltas after this offender delta ID", example = "341256")
+                                                    final @RequestParam(value = "afterOffenderDeltaId", required = false, defaultValue = "0") long afterOffenderDeltaId) {
+        log.info("Call to streamOffenderDeltas after {}", afterOffenderDeltaId);
+        return offenderDeltaService.streamDeltasAfter(afterOffenderDeltaId);
+    }
+
+    @ApiOperation(
+            value = "Server-sent event feed of offender deltas after the supplied offender delta ID, pushing new deltas as they appear",
+            notes = "Each event ID is the offenderDeltaId so reconnecting clients resume from the Last-Event-ID header")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                    @ApiResponse(code = 403, message = "Requires role ROLE_PROBATION_OFFENDER_EVENTS"),
+                    @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+            })
+    @GetMapping(value = "/offenderDeltaIds/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OffenderDelta>> offenderDeltaEvents(@ApiParam(name = "afterOffenderDeltaId", value = "Only return deltas after this offender delta ID", example = "341256")
+                                                                    final @RequestParam(value = "afterOffenderDeltaId", required = false) Optional<Long> afterOffenderDeltaId,
+                                                                    final @RequestHeader(value = "Last-Event-ID", required = false) Optional<Long> lastEventId) {
+        final var highWaterMark = lastEventId.or(() -> afterOffenderDeltaId).orElse(0L);
+        log.info("Call to offenderDeltaEvents after {}", highWaterMark);
+        return offenderDeltaService.followDeltasAfter(highWaterMark)
+                .map(delta -> ServerSentEvent.builder(delta)
+                        .id(String.valueOf(delta.getOffenderDeltaId()))
+                        .event("offender-delta")
+                        .build());
+    }
+
     @ApiOperation(
             value = "Deletes delta data before the date supplied")
     @ApiResponses(
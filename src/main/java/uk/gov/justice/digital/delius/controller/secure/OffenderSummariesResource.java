@@ -0,0 +1,46 @@
+package uk.gov.justice.digital.delius.controller.secure;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest;
+import uk.gov.justice.digital.delius.data.api.OffenderSummaryResult;
+import uk.gov.justice.digital.delius.service.OffenderSummaryService;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@Api(tags = "Core offender")
+@RestController
+@Slf4j
+@RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
+@AllArgsConstructor
+@PreAuthorize("hasRole('ROLE_COMMUNITY')")
+public class OffenderSummariesResource {
+    private final OffenderSummaryService offenderSummaryService;
+
+    @ApiOperation(
+            value = "Returns the offender summaries for a list of CRNs, NOMS numbers or offender IDs in the order requested",
+            notes = "Each offender is subject to the same exclusion and restriction checks as /offenders/crn/{crn}; rather than failing the whole request an offender that can not be viewed is returned with a status of EXCLUDED or RESTRICTED. Adopting the client scopes SCOPE_IGNORE_DELIUS_INCLUSIONS_ALWAYS and SCOPE_IGNORE_DELIUS_EXCLUSIONS_ALWAYS can bypass these restrictions.",
+            tags = "-- Popular core APIs --")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request, for instance too many identifiers", response = ErrorResponse.class),
+                    @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+            })
+    @PostMapping(value = "offenders/summaries", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<OffenderSummaryResult> getOffenderSummaries(final @RequestBody @Valid OffenderSummariesRequest request, Authentication authentication) {
+        return offenderSummaryService.getOffenderSummaries(request, authentication.getAuthorities());
+    }
+}
@@ -2,30 +2,43 @@ package uk.gov.justice.digital.delius.controller.secure;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.data.api.OffenderUpdate;
 import uk.gov.justice.digital.delius.service.OffenderUpdatesService;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
+
 @Api(tags = "Events")
 @RestController
 @Slf4j
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
 @PreAuthorize("hasRole('ROLE_COMMUNITY_EVENTS')")
+@Validated
 public class OffenderUpdatesResource {
+    static final int MAX_BATCH_SIZE = 500;
+
     private final OffenderUpdatesService offenderUpdatesService;
 
     @ApiOperation(
@@ -66,5 +79,40 @@ public class OffenderUpdatesResource {
         offenderUpdatesService.markAsFailed(offenderDeltaId);
     }
 
+    @ApiOperation(
+            value = "Returns a batch of the next updates for any offender, locking each one. If none, will look for failed updates and set them in progress again. Updates locked by other callers are skipped rather than waited for", notes = "requires ROLE_COMMUNITY_EVENTS")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                    @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY_EVENTS")
+            })
+    @GetMapping(value = "offenders/nextUpdates")
+    public List<OffenderUpdate> getAndLockNextOffenderUpdates(
+            final @ApiParam(name = "limit", value = "Maximum number of updates to return", example = "100") @RequestParam(name = "limit", required = false, defaultValue = "100") @Positive @Max(MAX_BATCH_SIZE) int limit) {
+        return offenderUpdatesService.getAndLockNextUpdates(limit);
+    }
 
+    @ApiOperation(
+            value = "Deletes a batch of offender updates previously retrieved by `/offenders/nextUpdates`. Updates that no longer exist are ignored", notes = "requires ROLE_COMMUNITY_EVENTS")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                    @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY_EVENTS")
+            })
+    @DeleteMapping(value = "offenders/updates")
+    public void deleteOffenderUpdates(final @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> offenderDeltaIds) {
+        offenderUpdatesService.deleteUpdates(offenderDeltaIds);
+    }
+
+    @ApiOperation(
+            value = "Mark a batch of offender updates as failed. Updates that no longer exist are ignored", notes = "requires ROLE_COMMUNITY_EVENTS")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
+                    @ApiResponse(code = 403, message = "Requires role ROLE_COMMUNITY_EVENTS")
+            })
+    @PutMapping(value = "offenders/updates/markAsFailed")
+    public void markAllAsFailed(final @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> offenderDeltaIds) {
+        offenderUpdatesService.markAllAsFailed(offenderDeltaIds);
+    }
 }
@@ -46,12 +46,14 @@ import uk.gov.justice.digital.delius.data.api.OffenderAssessments;
 import uk.gov.justice.digital.delius.data.api.OffenderDetail;
 import uk.gov.justice.digital.delius.data.api.OffenderDetailSummary;
 import uk.gov.justice.digital.delius.data.api.OffenderLatestRecall;
+import uk.gov.justice.digital.delius.data.api.OffenderUserAccess;
 import uk.gov.justice.digital.delius.data.api.PersonalContact;
 import uk.gov.justice.digital.delius.data.api.PrimaryIdentifiers;
 import uk.gov.justice.digital.delius.data.api.ProbationStatusDetail;
 import uk.gov.justice.digital.delius.data.api.ResponsibleOfficer;
 import uk.gov.justice.digital.delius.data.api.ResponsibleOfficerSwitch;
 import uk.gov.justice.digital.delius.data.api.SentenceStatus;
+import uk.gov.justice.digital.delius.data.api.UserAccessRequest;
 import uk.gov.justice.digital.delius.data.filters.OffenderFilter;
 import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.filters.ContactFilter;
@@ -672,6 +674,18 @@ public class OffendersResource {
             .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
+    @ApiOperation(value = "Reveals if the logged on user can access details about each of the supplied offenders, in the order requested", tags = "Authentication and users",
+            notes = "Equivalent to calling /offenders/crn/{crn}/userAccess for each CRN, but excluded or restricted offenders are reported in the body rather than with a 403")
+    @PostMapping(value = "/offenders/userAccess", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "No CRNs, or too many CRNs, were supplied"),
+            @ApiResponse(code = 404, message = "No such User (see body for detail)")
+    })
+    @PreAuthorize("hasAnyRole('ROLE_COMMUNITY', 'ROLE_PROBATION')")
+    public List<OffenderUserAccess> checkUserAccessByCrns(final @RequestBody @Valid UserAccessRequest request) {
+        return userService.offenderUserAccessOf(currentUserSupplier.username().orElseThrow(), request.getCrns());
+    }
+
     @ApiOperation(value = "Reveals if the specified user can access details about the supplied offender", tags = "Authentication and users")
     @RequestMapping(value = "/offenders/crn/{crn}/user/{username}/userAccess", method = RequestMethod.GET)
     @ApiResponses(value = {
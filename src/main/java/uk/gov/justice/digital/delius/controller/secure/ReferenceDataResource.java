@@ -9,12 +9,15 @@ import io.swagger.annotations.Authorization;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
@@ -136,4 +139,17 @@ public class ReferenceDataResource {
                 .referenceDataSets(referenceDataService.getReferenceDataSets())
                 .build();
     }
+
+    @ApiOperation(value = "Evicts all cached reference data", notes = "requires ROLE_MAINTAIN_REF_DATA and write scope. Cached reference data otherwise expires after reference-data.cache.time-to-live")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 403, message = "Requires role ROLE_MAINTAIN_REF_DATA and write scope"),
+                    @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)
+            })
+    @DeleteMapping(value = "/referenceData/cache")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasRole('ROLE_MAINTAIN_REF_DATA') and hasAuthority('SCOPE_write')")
+    public void evictReferenceDataCache() {
+        referenceDataService.evictCachedReferenceData();
+    }
 }
@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.digital.delius.config.NoOpenEntityManagerInView;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessReferralEndRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessReferralStartRequest;
@@ -27,6 +29,7 @@ import javax.validation.Valid;
 @PreAuthorize("hasRole('ROLE_COMMUNITY_INTERVENTIONS_UPDATE')")
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
+@NoOpenEntityManagerInView
 public class ReferralController {
 
     private final ReferralService referralService;
@@ -43,10 +46,10 @@ public class ReferralController {
         })
 
     @ApiOperation(value = "Starts an NSI referral")
-    public ReferralStartResponse startReferralContextLess(final @PathVariable("crn") String crn,
-                                                          final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
-                                                                @PathVariable("context") String context,
-                                                          final @RequestBody @Valid ContextlessReferralStartRequest referralStartRequest) {
+    public Mono<ReferralStartResponse> startReferralContextLess(final @PathVariable("crn") String crn,
+                                                                final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                      @PathVariable("context") String context,
+                                                                final @RequestBody @Valid ContextlessReferralStartRequest referralStartRequest) {
         return referralService.startNsiReferral(crn, context, referralStartRequest);
     }
 
@@ -62,10 +65,10 @@ public class ReferralController {
         })
 
     @ApiOperation(value = "Ends a NSI referral")
-    public ReferralEndResponse endReferralContextLess(final @PathVariable("crn") String crn,
-                                                      final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
-                                                            @PathVariable("context") String context,
-                                                      final @RequestBody @Valid ContextlessReferralEndRequest referralEndRequest) {
+    public Mono<ReferralEndResponse> endReferralContextLess(final @PathVariable("crn") String crn,
+                                                            final @ApiParam(value = "Name identifying preprocessing applied to the request", example = "commissioned-rehabilitation-services")
+                                                                  @PathVariable("context") String context,
+                                                            final @RequestBody @Valid ContextlessReferralEndRequest referralEndRequest) {
         return referralService.endNsiReferral(crn, context, referralEndRequest);
     }
 }
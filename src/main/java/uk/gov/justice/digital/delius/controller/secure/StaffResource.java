@@ -3,8 +3,12 @@ package uk.gov.justice.digital.delius.controller.secure;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.controller.advice.ErrorResponse;
@@ -13,7 +17,10 @@ import uk.gov.justice.digital.delius.data.api.StaffDetails;
 import uk.gov.justice.digital.delius.service.StaffService;
 
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 @Slf4j
@@ -21,21 +28,30 @@ import java.util.Set;
 @RequestMapping(value = "secure", produces = MediaType.APPLICATION_JSON_VALUE)
 @AllArgsConstructor
 @RestController
+@Validated
 @PreAuthorize("hasRole('ROLE_COMMUNITY')")
 public class StaffResource {
 
     private final StaffService staffService;
 
-    @ApiOperation(value = "Return list of of currently managed offenders for one responsible officer (RO)", notes = "Accepts a Delius staff officer identifier")
+    @ApiOperation(value = "Return list of of currently managed offenders for one responsible officer (RO)", notes = "Accepts a Delius staff officer identifier. " +
+            "Every managed offender is returned unless a page size is given, in offender id order unless sorted")
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = "Invalid request", response = ErrorResponse.class),
             @ApiResponse(code = 404, message = "Not found", response = ErrorResponse.class),
             @ApiResponse(code = 500, message = "Unrecoverable error whilst processing request.", response = ErrorResponse.class)})
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "sort", dataType = "java.lang.String", paramType = "query", example = "offenderSurname,asc",
+                    value = "Sort by offenderId, crnNumber, nomsNumber, offenderSurname, omStartDate or omEndDate and direction. Multiple sort params allowed.")})
     @GetMapping(path = "/staff/staffIdentifier/{staffIdentifier}/managedOffenders")
     public List<ManagedOffender> getOffendersForResponsibleOfficerIdentifier(
             @ApiParam(name = "staffIdentifier", value = "Delius officer identifier of the responsible officer", example = "123456", required = true) @NotNull @PathVariable(value = "staffIdentifier") final Long staffIdentifier,
-            @ApiParam(name = "current", value = "Current only", example = "false") @RequestParam(name = "current", required = false, defaultValue = "false") final boolean current) {
-        return staffService.getManagedOffendersByStaffIdentifier(staffIdentifier, current)
+            @ApiParam(name = "current", value = "Current only", example = "false") @RequestParam(name = "current", required = false, defaultValue = "false") final boolean current,
+            @ApiParam(name = "page", value = "Results page you want to retrieve (0..N), when a page size is given", example = "0") @RequestParam(name = "page", required = false, defaultValue = "0") @PositiveOrZero final int page,
+            @ApiParam(name = "size", value = "Number of managed offenders per page", example = "50") @RequestParam(name = "size", required = false) final Optional<@Positive Integer> size,
+            @ApiParam(hidden = true) final Sort sort) {
+        final var pageable = size.<Pageable>map(pageSize -> PageRequest.of(page, pageSize)).orElse(Pageable.unpaged());
+        return staffService.getManagedOffendersByStaffIdentifier(staffIdentifier, current, sort, pageable)
                 .orElseThrow(() -> new NotFoundException(String.format("Staff member with identifier %d", staffIdentifier)));
     }
 
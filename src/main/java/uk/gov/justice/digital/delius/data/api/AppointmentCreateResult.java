@@ -0,0 +1,28 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentCreateResult {
+    @ApiModelProperty(value = "The appointment, when it was created")
+    private AppointmentCreateResponse appointment;
+    @ApiModelProperty(value = "Http status code returned when the appointment was not created", example = "409")
+    private Integer errorStatus;
+    @ApiModelProperty(value = "Reason the appointment was not created", example = "Conflicts with another appointment")
+    private String errorMessage;
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return appointment != null;
+    }
+}
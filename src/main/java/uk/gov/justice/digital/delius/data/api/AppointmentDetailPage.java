@@ -0,0 +1,23 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDetailPage {
+    @NotNull
+    @ApiModelProperty(value = "Appointments, most recent first", required = true)
+    private List<AppointmentDetail> content;
+
+    @ApiModelProperty(value = "Cursor to request the following page with, absent when there can be no more appointments")
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContextlessAppointmentOutcomeUpdate {
+
+    @NotNull
+    @ApiModelProperty(required = true)
+    private Long appointmentId;
+
+    @Valid
+    @NotNull
+    @ApiModelProperty(required = true)
+    private ContextlessAppointmentOutcomeRequest outcome;
+}
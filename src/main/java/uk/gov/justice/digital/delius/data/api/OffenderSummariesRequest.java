@@ -0,0 +1,30 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffenderSummariesRequest {
+    public enum IdentifierType {
+        CRN, NOMS_NUMBER, OFFENDER_ID
+    }
+
+    @NotNull
+    @ApiModelProperty(required = true, value = "The type of identifier supplied", example = "CRN", allowableValues = "CRN,NOMS_NUMBER,OFFENDER_ID")
+    private IdentifierType identifierType;
+
+    @NotEmpty
+    @ApiModelProperty(required = true, value = "The offender identifiers, summaries are returned in the same order", example = "[\"X320741\", \"X320811\"]")
+    private List<@NotBlank String> identifiers;
+}
@@ -0,0 +1,26 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffenderSummaryResult {
+    public enum Status {
+        FOUND, NOT_FOUND, DUPLICATE, EXCLUDED, RESTRICTED
+    }
+
+    @ApiModelProperty(required = true, value = "The identifier as supplied in the request", example = "X320741")
+    private String identifier;
+    @ApiModelProperty(required = true, value = "Whether the offender was found and can be viewed by the current user", example = "FOUND", allowableValues = "FOUND,NOT_FOUND,DUPLICATE,EXCLUDED,RESTRICTED")
+    private Status status;
+    @ApiModelProperty(value = "The exclusion or restriction message when the offender can not be viewed")
+    private String message;
+    @ApiModelProperty(value = "The offender summary, only present when the status is FOUND")
+    private OffenderDetailSummary offender;
+}
@@ -0,0 +1,24 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffenderUserAccess {
+    public enum Status {
+        FOUND, NOT_FOUND
+    }
+
+    @ApiModelProperty(required = true, value = "The CRN as supplied in the request", example = "X320741")
+    private String crn;
+    @ApiModelProperty(required = true, value = "Whether an offender with the CRN exists", example = "FOUND", allowableValues = "FOUND,NOT_FOUND")
+    private Status status;
+    @ApiModelProperty(value = "The user's access to the offender, only present when the status is FOUND")
+    private AccessLimitation accessLimitation;
+}
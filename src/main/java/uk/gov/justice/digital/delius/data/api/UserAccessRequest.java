@@ -0,0 +1,25 @@
+package uk.gov.justice.digital.delius.data.api;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAccessRequest {
+    public static final int MAX_CRNS = 500;
+
+    @NotEmpty
+    @Size(max = MAX_CRNS)
+    @ApiModelProperty(required = true, value = "The CRNs of the offenders to check, results are returned in the same order", example = "[\"X320741\", \"X320811\"]")
+    private List<@NotBlank String> crns;
+}
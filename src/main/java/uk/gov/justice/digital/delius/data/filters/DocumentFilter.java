@@ -83,24 +83,24 @@ public class DocumentFilter {
     }
 
     public <T> List<T> documentsFor(Type type, Supplier<List<T>> documentReader) {
-        if (allowType(type)) {
+        if (allowsType(type)) {
             return documentReader.get();
         }
         return List.of();
     }
 
     public <T> List<T> documentsFor(Type type, Function<SubType, List<T>> documentReader) {
-        if (allowType(type)) {
+        if (allowsType(type)) {
             return documentReader.apply(subType);
         }
         return List.of();
     }
 
     public <T> Predicate<T> hasDocument(Type type, Predicate<T> predicate) {
-        return (entity) -> allowType(type) && predicate.test(entity);
+        return (entity) -> allowsType(type) && predicate.test(entity);
     }
 
-    private boolean allowType(Type type) {
+    public boolean allowsType(Type type) {
         return this == NO_FILTER || type == this.type;
     }
 
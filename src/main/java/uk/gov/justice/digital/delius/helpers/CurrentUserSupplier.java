@@ -6,11 +6,13 @@ import uk.gov.justice.digital.delius.config.SecurityUserContext;
 import uk.gov.justice.digital.delius.jwt.Jwt;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Component
 public class CurrentUserSupplier {
     private static final ThreadLocal<Claims> threadLocalClaims = new ThreadLocal<>();
     private static final ThreadLocal<Boolean> threadLocalNationalUserOverride = new ThreadLocal<>();
+    private static final ThreadLocal<String> threadLocalDelegatedUsername = new ThreadLocal<>();
 
     public static final String NATIONAL_USER = "NationalUser";
     public static final String API_USER = "APIUser";
@@ -23,6 +25,12 @@ public class CurrentUserSupplier {
     }
 
     public Optional<String> username() {
+        final var delegatedUsername = threadLocalDelegatedUsername.get();
+
+        if (delegatedUsername != null) {
+            return Optional.of(delegatedUsername);
+        }
+
         Boolean overrideNationalUser = Optional.ofNullable(threadLocalNationalUserOverride.get()).orElse(false);
 
         if (overrideNationalUser) {
@@ -58,4 +66,23 @@ public class CurrentUserSupplier {
     public static void unsetNationalUserOverride() {
         CurrentUserSupplier.threadLocalNationalUserOverride.set(false);
     }
+
+    /**
+     * Runs a task on a worker thread as the user captured on the request thread, so any connection it opens
+     * carries the same VPD client identifier as the request that submitted it. Calls may be nested, in which case
+     * the outer user is restored once the inner task completes.
+     */
+    public static <T> T onBehalfOf(Optional<String> username, Supplier<T> task) {
+        final var previousUsername = threadLocalDelegatedUsername.get();
+        username.ifPresent(threadLocalDelegatedUsername::set);
+        try {
+            return task.get();
+        } finally {
+            if (previousUsername == null) {
+                threadLocalDelegatedUsername.remove();
+            } else {
+                threadLocalDelegatedUsername.set(previousUsername);
+            }
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package uk.gov.justice.digital.delius.jpa.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import uk.gov.justice.digital.delius.jpa.standard.entity.OfficeLocation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Just the columns of a contact and the reference data shown in a contact summary, so contact lists do not load each
+ * contact's eager associations.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ContactSummaryRow {
+    private Long contactId;
+    private LocalDate contactDate;
+    private LocalTime contactStartTime;
+    private LocalTime contactEndTime;
+    private String contactTypeCode;
+    private String contactTypeDescription;
+    private String contactTypeShortDescription;
+    private Boolean attendanceContact;
+    private OfficeLocation officeLocation;
+    private String notes;
+    private String probationAreaCode;
+    private String probationAreaDescription;
+    private String teamCode;
+    private String teamDescription;
+    private String staffCode;
+    private String staffForename;
+    private String staffForename2;
+    private String staffSurname;
+    private String sensitive;
+    private String outcomeCode;
+    private String outcomeDescription;
+    private String attended;
+    private String complied;
+    private Double hoursCredited;
+    private String rarActivity;
+}
@@ -0,0 +1,26 @@
+package uk.gov.justice.digital.delius.jpa.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One offender manager or prison offender manager allocation in a member of staff's caseload, with just the columns
+ * of the offender that are shown alongside it.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ManagedOffenderRow {
+    private Long offenderId;
+    private String nomsNumber;
+    private String crnNumber;
+    private String offenderSurname;
+    private boolean currentRo;
+    private boolean currentOm;
+    private boolean currentPom;
+    private LocalDate omStartDate;
+    private LocalDate omEndDate;
+}
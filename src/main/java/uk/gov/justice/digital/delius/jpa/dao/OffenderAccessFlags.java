@@ -0,0 +1,29 @@
+package uk.gov.justice.digital.delius.jpa.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Just the columns of an offender needed to decide whether a user may see them, so access checks do not have to load
+ * the full offender graph.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class OffenderAccessFlags {
+    private Long offenderId;
+    private String crn;
+    private Long currentExclusion;
+    private String exclusionMessage;
+    private Long currentRestriction;
+    private String restrictionMessage;
+
+    public boolean hasCurrentExclusion() {
+        return Long.valueOf(1).equals(currentExclusion);
+    }
+
+    public boolean hasCurrentRestriction() {
+        return Long.valueOf(1).equals(currentRestriction);
+    }
+}
@@ -31,6 +31,8 @@ public class AppointmentFilter implements Specification<Contact> {
     @Builder.Default
     private Optional<Attended> attended = Optional.empty();
     private Long offenderId;
+    @Builder.Default
+    private Optional<AppointmentKeyset> after = Optional.empty();
 
     @Override
     public Predicate toPredicate(Root<Contact> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
@@ -57,6 +59,13 @@ public class AppointmentFilter implements Specification<Contact> {
 
         attended.ifPresent(attendedFlag -> predicateBuilder.add(mapAttended.apply(attendedFlag)));
 
+        // appointments are paged newest first, so the next page is everything before the last appointment seen
+        after.ifPresent(keyset -> predicateBuilder.add(cb.or(
+            cb.lessThan(root.get("contactDate"), keyset.contactDate()),
+            cb.and(
+                cb.equal(root.get("contactDate"), keyset.contactDate()),
+                cb.lessThan(root.get("contactId"), keyset.contactId())))));
+
         predicateBuilder.add(cb.and(cb.equal(root.get("contactType").get("attendanceContact"), true)));
         predicateBuilder.add(cb.and(cb.equal(root.get("softDeleted"), 0L)));
 
@@ -0,0 +1,30 @@
+package uk.gov.justice.digital.delius.jpa.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * The position of an appointment in date then contact ID order, handed to clients as an opaque cursor so the next page
+ * can be read after it without counting or skipping over the appointments before it.
+ */
+public record AppointmentKeyset(LocalDate contactDate, Long contactId) {
+    private static final String SEPARATOR = "/";
+
+    public String toCursor() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((contactDate + SEPARATOR + contactId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #toCursor()}
+     */
+    public static AppointmentKeyset fromCursor(String cursor) {
+        try {
+            final var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 2);
+            return new AppointmentKeyset(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("%s is not an appointment cursor", cursor), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package uk.gov.justice.digital.delius.jpa.oracle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the VPD client identifier currently set on each physical pooled connection so that it is only set when
+ * the user changes, and only cleared when a connection is next checked out without a user, rather than on every
+ * checkout and close.
+ */
+@Component
+@Profile("oracle")
+@Slf4j
+public class ClientIdentifierTracker {
+    private final Map<Connection, String> clientIdentifiers = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Counter setCounter;
+    private final Counter clearCounter;
+    private final Counter savedCounter;
+
+    public ClientIdentifierTracker(MeterRegistry meterRegistry) {
+        this.setCounter = meterRegistry.counter("delius.vpd.client_identifier", "action", "set");
+        this.clearCounter = meterRegistry.counter("delius.vpd.client_identifier", "action", "clear");
+        this.savedCounter = meterRegistry.counter("delius.vpd.client_identifier.round_trips_saved");
+    }
+
+    public void apply(final Connection connection, final Optional<String> username) throws SQLException {
+        final var session = connection.unwrap(Connection.class);
+        final var current = clientIdentifiers.get(session);
+
+        if (username.isPresent()) {
+            if (username.get().equals(current)) {
+                // previously this would both set and then clear the identifier
+                savedCounter.increment(2);
+                return;
+            }
+            setClientIdentifier(connection, session, username.get());
+            // the clear on close is no longer required since the next user simply replaces the identifier
+            savedCounter.increment();
+        } else if (current != null) {
+            clearClientIdentifier(connection, session);
+        }
+    }
+
+    private void setClientIdentifier(final Connection connection, final Connection session, final String username) throws SQLException {
+        clientIdentifiers.remove(session);
+        try (final var statement = connection.prepareStatement("call PKG_VPD_CTX.SET_CLIENT_IDENTIFIER(?)")) {
+            statement.setString(1, username);
+            statement.execute();
+        }
+        clientIdentifiers.put(session, username);
+        setCounter.increment();
+    }
+
+    private void clearClientIdentifier(final Connection connection, final Connection session) throws SQLException {
+        try (final var statement = connection.prepareStatement("call PKG_VPD_CTX.CLEAR_CLIENT_IDENTIFIER()")) {
+            statement.execute();
+        }
+        clientIdentifiers.remove(session);
+        clearCounter.increment();
+    }
+}
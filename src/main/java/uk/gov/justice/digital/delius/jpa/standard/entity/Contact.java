@@ -22,7 +22,42 @@ import java.time.LocalTime;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Table(name = "CONTACT")
+// the to-one associations read by ContactTransformer.contactsOf; the NSI managers, the only collection read, are batch
+// fetched for all the NSIs instead
+@NamedEntityGraph(name = Contact.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("contactType"),
+        @NamedAttributeNode(value = "requirement", subgraph = "requirement"),
+        @NamedAttributeNode("explanation"),
+        @NamedAttributeNode("licenceCondition"),
+        @NamedAttributeNode(value = "nsi", subgraph = "nsi"),
+        @NamedAttributeNode("contactOutcomeType"),
+        @NamedAttributeNode("providerLocation"),
+        @NamedAttributeNode("providerEmployee"),
+        @NamedAttributeNode("providerTeam"),
+        @NamedAttributeNode("staff"),
+        @NamedAttributeNode("team"),
+        @NamedAttributeNode("probationArea"),
+        @NamedAttributeNode("partitionArea"),
+        @NamedAttributeNode("event")
+}, subgraphs = {
+        @NamedSubgraph(name = "requirement", attributeNodes = {
+                @NamedAttributeNode("requirementTypeMainCategory"),
+                @NamedAttributeNode("requirementTypeSubCategory"),
+                @NamedAttributeNode("adRequirementTypeMainCategory"),
+                @NamedAttributeNode("adRequirementTypeSubCategory"),
+                @NamedAttributeNode("terminationReason")
+        }),
+        @NamedSubgraph(name = "nsi", attributeNodes = {
+                @NamedAttributeNode("nsiType"),
+                @NamedAttributeNode("nsiSubType"),
+                @NamedAttributeNode("nsiOutcome"),
+                @NamedAttributeNode("nsiStatus"),
+                @NamedAttributeNode("rqmnt"),
+                @NamedAttributeNode("intendedProvider")
+        })
+})
 public class Contact {
+    public static final String DETAIL_GRAPH = "Contact.detail";
 
     @Id
     @SequenceGenerator(name = "CONTACT_ID_GENERATOR", sequenceName = "CONTACT_ID_SEQ", allocationSize = 1)
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -77,6 +78,7 @@ public class Custody extends AuditableEntity {
     private RInstitution institution;
 
     @OneToMany(cascade = {CascadeType.ALL}, orphanRemoval=true, mappedBy = "custody")
+    @BatchSize(size = 100)
     private List<KeyDate> keyDates;
 
     @OneToMany
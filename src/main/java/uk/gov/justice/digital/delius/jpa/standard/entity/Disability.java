@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -30,6 +31,7 @@ public class Disability {
     @Column(name = "NOTES")
     private String notes;
     @OneToMany(mappedBy = "disability", fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<Provision> provisions;
     @Column(name = "SOFT_DELETED")
     private Long softDeleted;
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -16,6 +17,9 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
@@ -30,8 +34,25 @@ import java.util.List;
 @Builder(toBuilder = true)
 @Entity
 @Table(name = "EVENT")
+// the to-one associations read by ConvictionTransformer.convictionOf; the collections are left out as fetching more
+// than one list in a single query is not supported by Hibernate, they are batch fetched for all the events instead
+@NamedEntityGraph(name = Event.CONVICTION_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "mainOffence", subgraph = "mainOffence"),
+        @NamedAttributeNode(value = "disposal", subgraph = "disposal"),
+        @NamedAttributeNode("OGRSAssessment"),
+        @NamedAttributeNode("court")
+}, subgraphs = {
+        @NamedSubgraph(name = "mainOffence", attributeNodes = @NamedAttributeNode("offence")),
+        @NamedSubgraph(name = "disposal", attributeNodes = {
+                @NamedAttributeNode("disposalType"),
+                @NamedAttributeNode(value = "custody", subgraph = "custody"),
+                @NamedAttributeNode("unpaidWorkDetails")
+        }),
+        @NamedSubgraph(name = "custody", attributeNodes = @NamedAttributeNode("institution"))
+})
 @ToString(exclude = {"mainOffence", "additionalOffences", "courtAppearances", "orderManagers"})
 public class Event {
+    public static final String CONVICTION_GRAPH = "Event.conviction";
 
     @Id
     @SequenceGenerator(name = "EVENT_ID_GENERATOR", sequenceName = "EVENT_ID_SEQ", allocationSize = 1)
@@ -80,6 +101,7 @@ public class Event {
     private MainOffence mainOffence;
 
     @OneToMany(mappedBy = "event", cascade = {CascadeType.ALL})
+    @BatchSize(size = 100)
     private List<AdditionalOffence> additionalOffences;
 
     @OneToOne(mappedBy = "event", cascade = {CascadeType.ALL}, fetch = FetchType.LAZY)
@@ -89,6 +111,7 @@ public class Event {
     private OGRSAssessment OGRSAssessment;
 
     @OneToMany(mappedBy = "event", cascade = {CascadeType.ALL})
+    @BatchSize(size = 100)
     private List<CourtAppearance> courtAppearances;
 
     @OneToMany(mappedBy = "event", cascade = {CascadeType.ALL})
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -71,6 +72,7 @@ public class Nsi {
     private Long length;
 
     @OneToMany(mappedBy = "nsi")
+    @BatchSize(size = 100)
     private List<NsiManager> nsiManagers;
 
     @Column(name = "NOTES")
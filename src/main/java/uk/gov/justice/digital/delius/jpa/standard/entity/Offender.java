@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Where;
 
 import javax.persistence.CascadeType;
@@ -15,6 +16,9 @@ import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.time.LocalDate;
@@ -30,8 +34,41 @@ import java.util.Optional;
 @Builder(toBuilder = true)
 @Entity
 @Table(name = "OFFENDER")
+@NamedEntityGraphs({
+        // reference data read by OffenderTransformer.offenderSummaryOf
+        @NamedEntityGraph(name = Offender.SUMMARY_GRAPH, attributeNodes = {
+                @NamedAttributeNode("title"),
+                @NamedAttributeNode("gender"),
+                @NamedAttributeNode("ethnicity"),
+                @NamedAttributeNode("nationality"),
+                @NamedAttributeNode("secondNationality"),
+                @NamedAttributeNode("immigrationStatus"),
+                @NamedAttributeNode("language"),
+                @NamedAttributeNode("religion"),
+                @NamedAttributeNode("sexualOrientation"),
+                @NamedAttributeNode("partitionArea")
+        }),
+        // as above plus the tier read by OffenderTransformer.fullOffenderOf; the collections are
+        // left out as fetching more than one list in a single query is not supported by Hibernate,
+        // they are loaded with one select each and their children are batch fetched
+        @NamedEntityGraph(name = Offender.FULL_GRAPH, attributeNodes = {
+                @NamedAttributeNode("title"),
+                @NamedAttributeNode("gender"),
+                @NamedAttributeNode("ethnicity"),
+                @NamedAttributeNode("nationality"),
+                @NamedAttributeNode("secondNationality"),
+                @NamedAttributeNode("immigrationStatus"),
+                @NamedAttributeNode("language"),
+                @NamedAttributeNode("religion"),
+                @NamedAttributeNode("sexualOrientation"),
+                @NamedAttributeNode("partitionArea"),
+                @NamedAttributeNode("currentTier")
+        })
+})
 @ToString(exclude = {"events", "previousConvictionsCreatedByUser", "offenderManagers", "prisonOffenderManagers"})
 public class Offender {
+    public static final String SUMMARY_GRAPH = "Offender.summary";
+    public static final String FULL_GRAPH = "Offender.full";
 
     @Id
     @Column(name = "OFFENDER_ID")
@@ -169,6 +206,7 @@ public class Offender {
 
     @OneToMany
     @JoinColumn(name = "OFFENDER_ID")
+    @BatchSize(size = 100)
     private List<Disability> disabilities;
 
     @ManyToOne(fetch = FetchType.LAZY)
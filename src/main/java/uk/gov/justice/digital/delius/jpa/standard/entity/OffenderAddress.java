@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Where;
 
 import javax.persistence.Column;
@@ -88,10 +89,12 @@ public class OffenderAddress {
     @OneToMany
     @JoinColumn(name = "OFFENDER_ADDRESS_ID")
     @Where(clause = "SOFT_DELETED != 1")
+    @BatchSize(size = 100)
     private List<PersonalCircumstance> personalCircumstances;
 
     @OneToMany
     @JoinColumn(name = "OFFENDER_ADDRESS_ID")
     @Where(clause = "SOFT_DELETED != 1")
+    @BatchSize(size = 100)
     private List<AddressAssessment> addressAssessments;
 }
\ No newline at end of file
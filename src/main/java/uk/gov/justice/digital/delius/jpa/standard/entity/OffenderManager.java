@@ -1,6 +1,7 @@
 package uk.gov.justice.digital.delius.jpa.standard.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
@@ -89,6 +90,7 @@ public class OffenderManager implements Serializable {
                     referencedColumnName = "OFFENDER_ID", insertable = false, updatable = false)
     })
     @Builder.Default
+    @BatchSize(size = 100)
     private List<ResponsibleOfficer> responsibleOfficers = new ArrayList<>();
 
     @OneToOne
@@ -0,0 +1,58 @@
+package uk.gov.justice.digital.delius.jpa.standard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * A notification recorded in the same transaction as the change it is about, waiting to be written as SPG and IAPS
+ * notifications by the outbox dispatcher.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "PENDING_NOTIFICATION")
+public class PendingNotification {
+    @Id
+    @SequenceGenerator(name = "PENDING_NOTIFICATION_ID_GENERATOR", sequenceName = "PENDING_NOTIFICATION_ID_SEQ", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PENDING_NOTIFICATION_ID_GENERATOR")
+    @Column(name = "PENDING_NOTIFICATION_ID")
+    private Long pendingNotificationId;
+    @Column(name = "NOTIFICATION_TYPE")
+    private String notificationType;
+    @Column(name = "OFFENDER_ID")
+    private Long offenderId;
+    @Column(name = "UNIQUE_ID")
+    private Long uniqueId;
+    @Column(name = "PARENT_ENTITY_ID")
+    private Long parentEntityId;
+    /**
+     * The CRC an SPG notification is for, found when the notification was recorded; null for IAPS notifications
+     */
+    @Column(name = "RECEIVER_PROBATION_AREA_ID")
+    private Long receiverProbationAreaId;
+    @Column(name = "CREATED_DATETIME")
+    private LocalDateTime createdDatetime;
+    /**
+     * When the notification is next due to be dispatched, or null once it has failed too many times
+     */
+    @Column(name = "NEXT_ATTEMPT_DATETIME")
+    private LocalDateTime nextAttemptDatetime;
+    @Column(name = "ATTEMPTS")
+    @Builder.Default
+    private Long attempts = 0L;
+    @Column(name = "LAST_ERROR")
+    private String lastError;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -18,6 +19,7 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "R_REFERENCE_DATA_MASTER")
+@BatchSize(size = 100)
 public class ReferenceDataMaster {
     @Id
     @Column(name = "REFERENCE_DATA_MASTER_ID")
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 
@@ -15,6 +16,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "R_STANDARD_REFERENCE_LIST")
 @ToString(exclude = "referenceDataMaster")
+@BatchSize(size = 100)
 public class StandardReference {
     @Id
     @Column(name = "STANDARD_REFERENCE_LIST_ID")
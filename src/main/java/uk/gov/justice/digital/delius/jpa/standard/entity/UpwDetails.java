@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -65,6 +66,7 @@ public class UpwDetails {
     @Column(name = "LAST_UPDATED_DATETIME")
     private LocalDateTime lastUpdatedDatetime;
     @OneToMany(mappedBy = "upwDetails")
+    @BatchSize(size = 100)
     private List<UpwAppointment> appointments;
 
 
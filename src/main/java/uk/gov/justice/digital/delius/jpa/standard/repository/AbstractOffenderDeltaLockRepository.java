@@ -0,0 +1,56 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public abstract class AbstractOffenderDeltaLockRepository implements OffenderDeltaLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    protected AbstractOffenderDeltaLockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    protected abstract String lockClause();
+
+    @Override
+    public List<Long> lockNextDeltaIds(String status, LocalDateTime cutOffTime, int limit) {
+        // Rows are locked as they are fetched, so restricting the fetch rather than the SQL keeps the locks to the batch
+        // and avoids database specific row limiting syntax which cannot be combined with FOR UPDATE
+        return jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(
+                    "SELECT OFFENDER_DELTA_ID FROM OFFENDER_DELTA " +
+                            "WHERE STATUS = ? AND LAST_UPDATED_DATETIME <= ? " +
+                            "ORDER BY CREATED_DATETIME " + lockClause());
+            statement.setString(1, status);
+            statement.setTimestamp(2, Timestamp.valueOf(cutOffTime));
+            statement.setMaxRows(limit);
+            statement.setFetchSize(limit);
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getLong("OFFENDER_DELTA_ID"));
+    }
+
+    @Override
+    public List<Long> lockDuplicateDeltaIds(List<Long> offenderDeltaIds) {
+        if (offenderDeltaIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT DUPLICATE.OFFENDER_DELTA_ID FROM OFFENDER_DELTA DUPLICATE " +
+                        "WHERE DUPLICATE.OFFENDER_DELTA_ID NOT IN (:offenderDeltaIds) AND EXISTS (" +
+                        "   SELECT 1 FROM OFFENDER_DELTA ORIGINAL " +
+                        "   WHERE ORIGINAL.OFFENDER_DELTA_ID IN (:offenderDeltaIds) " +
+                        "   AND ORIGINAL.OFFENDER_ID = DUPLICATE.OFFENDER_ID " +
+                        "   AND ORIGINAL.SOURCE_TABLE = DUPLICATE.SOURCE_TABLE " +
+                        "   AND ORIGINAL.SOURCE_RECORD_ID = DUPLICATE.SOURCE_RECORD_ID) " + lockClause(),
+                new MapSqlParameterSource("offenderDeltaIds", offenderDeltaIds),
+                Long.class);
+    }
+}
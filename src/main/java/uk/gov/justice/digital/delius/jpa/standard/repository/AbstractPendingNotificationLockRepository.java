@@ -0,0 +1,38 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public abstract class AbstractPendingNotificationLockRepository implements PendingNotificationLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    protected AbstractPendingNotificationLockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    protected abstract String lockClause();
+
+    @Override
+    public List<Long> lockDuePendingNotificationIds(LocalDateTime dueBy, int limit) {
+        // as with offender deltas the fetch rather than the SQL is restricted, since FOR UPDATE cannot be row limited.
+        // Only an offender's earliest notification can be claimed; the rest wait for it to be written, even while it
+        // is locked by another dispatcher, backed off or parked, so an offender's notifications are written in order
+        return jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(
+                    "SELECT PENDING.PENDING_NOTIFICATION_ID FROM PENDING_NOTIFICATION PENDING " +
+                            "WHERE PENDING.NEXT_ATTEMPT_DATETIME <= ? AND NOT EXISTS (" +
+                            "   SELECT 1 FROM PENDING_NOTIFICATION EARLIER " +
+                            "   WHERE EARLIER.OFFENDER_ID = PENDING.OFFENDER_ID " +
+                            "   AND EARLIER.PENDING_NOTIFICATION_ID < PENDING.PENDING_NOTIFICATION_ID) " +
+                            "ORDER BY PENDING.PENDING_NOTIFICATION_ID " + lockClause());
+            statement.setTimestamp(1, Timestamp.valueOf(dueBy));
+            statement.setMaxRows(limit);
+            statement.setFetchSize(limit);
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getLong("PENDING_NOTIFICATION_ID"));
+    }
+}
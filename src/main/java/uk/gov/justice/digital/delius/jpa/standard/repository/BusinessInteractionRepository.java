@@ -1,10 +1,13 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import uk.gov.justice.digital.delius.config.CachingConfig;
 import uk.gov.justice.digital.delius.jpa.standard.entity.BusinessInteraction;
 
 import java.util.Optional;
 
 public interface BusinessInteractionRepository extends JpaRepository<BusinessInteraction, Long> {
+    @Cacheable(cacheNames = CachingConfig.BUSINESS_INTERACTION_CACHE, unless = "#result == null")
     Optional<BusinessInteraction> findByBusinessInteractionCode(String code);
 }
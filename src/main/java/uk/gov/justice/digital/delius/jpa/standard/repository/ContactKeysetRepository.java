@@ -0,0 +1,15 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
+
+import java.util.List;
+
+public interface ContactKeysetRepository {
+    /**
+     * At most limit contacts matching the specification, in sort order. Unlike a {@link org.springframework.data.domain.Page}
+     * no count is run, so a keyset page costs a single select.
+     */
+    List<Contact> findAll(Specification<Contact> specification, Sort sort, int limit);
+}
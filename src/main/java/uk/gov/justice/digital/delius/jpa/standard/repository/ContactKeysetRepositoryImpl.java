@@ -0,0 +1,29 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+public class ContactKeysetRepositoryImpl implements ContactKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Contact> findAll(Specification<Contact> specification, Sort sort, int limit) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(Contact.class);
+        final var contact = query.from(Contact.class);
+        query.select(contact)
+                .where(specification.toPredicate(contact, query, cb))
+                .orderBy(QueryUtils.toOrders(sort, contact, cb));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
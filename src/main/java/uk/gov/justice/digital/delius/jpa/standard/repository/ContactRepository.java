@@ -3,13 +3,20 @@ package uk.gov.justice.digital.delius.jpa.standard.repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
 
-public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {
+public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact>, ContactSummaryRepository, ContactKeysetRepository {
+
+    @Override
+    @EntityGraph(Contact.DETAIL_GRAPH)
+    List<Contact> findAll(Specification<Contact> specification, Sort sort);
 
     @Query("SELECT contact FROM Contact contact "
         + "WHERE contact.offenderId = :offenderId "
@@ -0,0 +1,15 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import uk.gov.justice.digital.delius.jpa.dao.ContactSummaryRow;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
+
+public interface ContactSummaryRepository {
+    /**
+     * The summary columns of the contacts matching the specification, selected in one statement plus a count when
+     * the page is full.
+     */
+    Page<ContactSummaryRow> findSummaries(Specification<Contact> specification, Pageable pageable);
+}
@@ -0,0 +1,119 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import uk.gov.justice.digital.delius.jpa.dao.ContactSummaryRow;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
+import uk.gov.justice.digital.delius.jpa.standard.entity.OfficeLocation;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.JoinType;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class ContactSummaryRepositoryImpl implements ContactSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ContactSummaryRow> findSummaries(Specification<Contact> specification, Pageable pageable) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createTupleQuery();
+        final var contact = query.from(Contact.class);
+        final var contactType = contact.join("contactType");
+        final var officeLocation = contact.join("officeLocation", JoinType.LEFT);
+        final var probationArea = contact.join("probationArea", JoinType.LEFT);
+        final var team = contact.join("team", JoinType.LEFT);
+        final var staff = contact.join("staff", JoinType.LEFT);
+        final var outcome = contact.join("contactOutcomeType", JoinType.LEFT);
+
+        query.multiselect(
+                contact.get("contactId").alias("contactId"),
+                contact.get("contactDate").alias("contactDate"),
+                contact.get("contactStartTime").alias("contactStartTime"),
+                contact.get("contactEndTime").alias("contactEndTime"),
+                contactType.get("code").alias("contactTypeCode"),
+                contactType.get("description").alias("contactTypeDescription"),
+                contactType.get("shortDescription").alias("contactTypeShortDescription"),
+                contactType.get("attendanceContact").alias("attendanceContact"),
+                // office locations have no associations so the joined row is selected whole, in the same statement
+                officeLocation.alias("officeLocation"),
+                contact.get("notes").alias("notes"),
+                probationArea.get("code").alias("probationAreaCode"),
+                probationArea.get("description").alias("probationAreaDescription"),
+                team.get("code").alias("teamCode"),
+                team.get("description").alias("teamDescription"),
+                staff.get("officerCode").alias("staffCode"),
+                staff.get("forename").alias("staffForename"),
+                staff.get("forname2").alias("staffForename2"),
+                staff.get("surname").alias("staffSurname"),
+                contact.get("sensitive").alias("sensitive"),
+                outcome.get("code").alias("outcomeCode"),
+                outcome.get("description").alias("outcomeDescription"),
+                contact.get("attended").alias("attended"),
+                contact.get("complied").alias("complied"),
+                contact.get("hoursCredited").alias("hoursCredited"),
+                contact.get("rarActivity").alias("rarActivity"));
+        query.where(specification.toPredicate(contact, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), contact, cb));
+
+        final var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        final List<ContactSummaryRow> rows = typedQuery.getResultList()
+                .stream()
+                .map(ContactSummaryRepositoryImpl::contactSummaryRowOf)
+                .collect(toList());
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Contact> specification) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(Long.class);
+        final var contact = query.from(Contact.class);
+        query.select(cb.count(contact));
+        query.where(specification.toPredicate(contact, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static ContactSummaryRow contactSummaryRowOf(Tuple tuple) {
+        return ContactSummaryRow.builder()
+                .contactId(tuple.get("contactId", Long.class))
+                .contactDate(tuple.get("contactDate", LocalDate.class))
+                .contactStartTime(tuple.get("contactStartTime", LocalTime.class))
+                .contactEndTime(tuple.get("contactEndTime", LocalTime.class))
+                .contactTypeCode(tuple.get("contactTypeCode", String.class))
+                .contactTypeDescription(tuple.get("contactTypeDescription", String.class))
+                .contactTypeShortDescription(tuple.get("contactTypeShortDescription", String.class))
+                .attendanceContact(tuple.get("attendanceContact", Boolean.class))
+                .officeLocation(tuple.get("officeLocation", OfficeLocation.class))
+                .notes(tuple.get("notes", String.class))
+                .probationAreaCode(tuple.get("probationAreaCode", String.class))
+                .probationAreaDescription(tuple.get("probationAreaDescription", String.class))
+                .teamCode(tuple.get("teamCode", String.class))
+                .teamDescription(tuple.get("teamDescription", String.class))
+                .staffCode(tuple.get("staffCode", String.class))
+                .staffForename(tuple.get("staffForename", String.class))
+                .staffForename2(tuple.get("staffForename2", String.class))
+                .staffSurname(tuple.get("staffSurname", String.class))
+                .sensitive(tuple.get("sensitive", String.class))
+                .outcomeCode(tuple.get("outcomeCode", String.class))
+                .outcomeDescription(tuple.get("outcomeDescription", String.class))
+                .attended(tuple.get("attended", String.class))
+                .complied(tuple.get("complied", String.class))
+                .hoursCredited(tuple.get("hoursCredited", Double.class))
+                .rarActivity(tuple.get("rarActivity", String.class))
+                .build();
+    }
+}
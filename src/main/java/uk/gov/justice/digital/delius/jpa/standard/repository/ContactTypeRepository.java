@@ -1,13 +1,16 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import uk.gov.justice.digital.delius.config.CachingConfig;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ContactType;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ContactTypeRepository extends JpaRepository<ContactType, Long> {
+    @Cacheable(cacheNames = CachingConfig.CONTACT_TYPE_CACHE, unless = "#result == null")
     Optional<ContactType> findByCode(String code);
 
     /*
@@ -0,0 +1,35 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Document;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DocumentIndexRepository extends JpaRepository<Document, Long> {
+    /**
+     * All of an offender's documents of the given types in one statement. As with a join to the owning entity, a
+     * document is only returned when the row it is attached to exists.
+     */
+    @Query("select document from Document document " +
+            "where document.offenderId = :offenderId " +
+            "and document.softDeleted = false " +
+            "and type(document) in :documentTypes " +
+            "and (type(document) = OffenderDocument " +
+            "or (type(document) = EventDocument and exists (select entity from Event entity where entity.eventId = document.primaryKeyId)) " +
+            "or (type(document) = CourtReportDocument and exists (select entity from CourtReport entity where entity.courtReportId = document.primaryKeyId)) " +
+            "or (type(document) = InstitutionalReportDocument and exists (select entity from InstitutionalReport entity where entity.institutionalReportId = document.primaryKeyId)) " +
+            "or (type(document) = ApprovedPremisesReferralDocument and exists (select entity from ApprovedPremisesReferral entity where entity.approvedPremisesReferralId = document.primaryKeyId)) " +
+            "or (type(document) = AssessmentDocument and exists (select entity from Assessment entity where entity.assessmentId = document.primaryKeyId)) " +
+            "or (type(document) = CaseAllocationDocument and exists (select entity from CaseAllocation entity where entity.caseAllocationId = document.primaryKeyId)) " +
+            "or (type(document) = ReferralDocument and exists (select entity from Referral entity where entity.referralId = document.primaryKeyId)) " +
+            "or (type(document) = NsiDocument and exists (select entity from Nsi entity where entity.nsiId = document.primaryKeyId)) " +
+            "or (type(document) = UPWAppointmentDocument and exists (select entity from UpwAppointment entity where entity.upwAppointmentId = document.primaryKeyId)) " +
+            "or (type(document) = ContactDocument and exists (select entity from Contact entity where entity.contactId = document.primaryKeyId)) " +
+            "or (type(document) = AddressAssessmentDocument and exists (select entity from AddressAssessment entity where entity.addressAssessmentId = document.primaryKeyId)) " +
+            "or (type(document) = PersonalContactDocument and exists (select entity from PersonalContact entity where entity.personalContactId = document.primaryKeyId)) " +
+            "or (type(document) = PersonalCircumstanceDocument and exists (select entity from PersonalCircumstance entity where entity.personalCircumstanceId = document.primaryKeyId)))")
+    List<Document> findByOffenderId(@Param("offenderId") Long offenderId, @Param("documentTypes") Collection<Class<? extends Document>> documentTypes);
+}
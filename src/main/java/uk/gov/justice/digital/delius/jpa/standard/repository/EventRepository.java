@@ -1,5 +1,6 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +16,11 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByOffenderId(Long offenderId);
 
     List<Event> findByOffenderIdAndActiveFlagTrue(Long offenderId);
+
+    @EntityGraph(Event.CONVICTION_GRAPH)
+    @Query("select event from Event event where event.offenderId = :offenderId and event.softDeleted = false " +
+            "and (event.activeFlag = true or :activeOnly = false) order by event.referralDate desc, event.eventId desc")
+    List<Event> findConvictionsByOffenderId(@Param("offenderId") Long offenderId, @Param("activeOnly") boolean activeOnly);
     Optional<Event> findByOffenderIdAndEventIdAndActiveFlagTrue(Long offenderId, Long eventId);
     @Query("select event from Event event join DISPOSAL disposal on disposal.event = event join CUSTODY custody on custody.disposal = disposal where custody.prisonerNumber = :prisonBookingNumber")
     List<Event> findByPrisonBookingNumber(@Param("prisonBookingNumber") String prisonBookingNumber);
@@ -0,0 +1,18 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import uk.gov.justice.digital.delius.jpa.dao.ManagedOffenderRow;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ManagedOffenderRepository {
+    Set<String> MANAGED_OFFENDER_SORT_PROPERTIES = Set.of("offenderId", "crnNumber", "nomsNumber", "offenderSurname", "omStartDate", "omEndDate");
+
+    /**
+     * The active offender manager and prison offender manager allocations of a member of staff, filtered, sorted and
+     * paged in one statement. Allocations are sorted by offender id when no sort is given.
+     */
+    List<ManagedOffenderRow> findManagedOffenders(Long staffId, boolean current, Sort sort, Pageable pageable);
+}
@@ -0,0 +1,98 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import uk.gov.justice.digital.delius.jpa.dao.ManagedOffenderRow;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+public class ManagedOffenderRepositoryImpl implements ManagedOffenderRepository {
+    private static final String CASELOAD_SQL =
+            "SELECT OFFENDER_ID, NOMS_NUMBER, CRN, SURNAME, CURRENT_RO, CURRENT_OM, CURRENT_POM, OM_START_DATE, OM_END_DATE FROM (" +
+            "SELECT 0 SOURCE, om.OFFENDER_MANAGER_ID MANAGER_ID, om.OFFENDER_ID, o.NOMS_NUMBER, o.CRN, o.SURNAME, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM RESPONSIBLE_OFFICER ro WHERE ro.OFFENDER_MANAGER_ID = om.OFFENDER_MANAGER_ID " +
+            "AND ro.OFFENDER_ID = om.OFFENDER_ID AND ro.END_DATE IS NULL) THEN 1 ELSE 0 END CURRENT_RO, " +
+            "CASE WHEN om.END_DATE IS NULL THEN 1 ELSE 0 END CURRENT_OM, 0 CURRENT_POM, " +
+            "om.ALLOCATION_DATE OM_START_DATE, om.END_DATE OM_END_DATE " +
+            "FROM OFFENDER_MANAGER om LEFT JOIN OFFENDER o ON o.OFFENDER_ID = om.OFFENDER_ID AND o.SOFT_DELETED != 1 " +
+            "WHERE om.ALLOCATION_STAFF_ID = :staffId AND om.ACTIVE_FLAG = 1 AND om.SOFT_DELETED != 1 " +
+            "UNION ALL " +
+            "SELECT 1, pom.PRISON_OFFENDER_MANAGER_ID, pom.OFFENDER_ID, o.NOMS_NUMBER, o.CRN, o.SURNAME, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM RESPONSIBLE_OFFICER ro WHERE ro.PRISON_OFFENDER_MANAGER_ID = pom.PRISON_OFFENDER_MANAGER_ID " +
+            "AND ro.OFFENDER_ID = pom.OFFENDER_ID AND ro.END_DATE IS NULL) THEN 1 ELSE 0 END, " +
+            "0, CASE WHEN pom.END_DATE IS NULL THEN 1 ELSE 0 END, NULL, NULL " +
+            "FROM PRISON_OFFENDER_MANAGER pom LEFT JOIN OFFENDER o ON o.OFFENDER_ID = pom.OFFENDER_ID AND o.SOFT_DELETED != 1 " +
+            "WHERE pom.ALLOCATION_STAFF_ID = :staffId AND pom.ACTIVE_FLAG = 1 AND pom.SOFT_DELETED != 1" +
+            ") caseload " +
+            "WHERE :current = 0 OR CURRENT_RO = 1 OR CURRENT_OM = 1 OR CURRENT_POM = 1 " +
+            "ORDER BY ";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "offenderId", "OFFENDER_ID",
+            "crnNumber", "CRN",
+            "nomsNumber", "NOMS_NUMBER",
+            "offenderSurname", "SURNAME",
+            "omStartDate", "OM_START_DATE",
+            "omEndDate", "OM_END_DATE");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ManagedOffenderRow> findManagedOffenders(Long staffId, boolean current, Sort sort, Pageable pageable) {
+        // the allocation is always last so that pages of offenders with equal sort values do not overlap
+        final var orderBy = sort.stream()
+                .map(order -> sortColumnOf(order.getProperty()) + " " + order.getDirection().name())
+                .collect(joining(", ", "", sort.isSorted() ? ", " : "")) + "OFFENDER_ID, SOURCE, MANAGER_ID";
+
+        final var query = entityManager.createNativeQuery(CASELOAD_SQL + orderBy)
+                .setParameter("staffId", staffId)
+                .setParameter("current", current ? 1 : 0);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        @SuppressWarnings("unchecked") final List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> ManagedOffenderRow.builder()
+                        .offenderId(((Number) row[0]).longValue())
+                        .nomsNumber((String) row[1])
+                        .crnNumber((String) row[2])
+                        .offenderSurname((String) row[3])
+                        .currentRo(((Number) row[4]).intValue() == 1)
+                        .currentOm(((Number) row[5]).intValue() == 1)
+                        .currentPom(((Number) row[6]).intValue() == 1)
+                        .omStartDate(localDateOf(row[7]))
+                        .omEndDate(localDateOf(row[8]))
+                        .build())
+                .collect(toList());
+    }
+
+    private static String sortColumnOf(String property) {
+        final var column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException(String.format("Managed offenders cannot be sorted by %s", property));
+        }
+        return column;
+    }
+
+    private static LocalDate localDateOf(Object value) {
+        // Oracle DATE columns are read as timestamps
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+}
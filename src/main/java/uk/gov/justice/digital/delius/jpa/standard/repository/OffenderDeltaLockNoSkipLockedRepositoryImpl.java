@@ -0,0 +1,22 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * H2 does not support SKIP LOCKED so concurrent claims will block rather than skip; fine for local and test use
+ */
+@Repository
+@Profile("!oracle")
+public class OffenderDeltaLockNoSkipLockedRepositoryImpl extends AbstractOffenderDeltaLockRepository {
+
+    public OffenderDeltaLockNoSkipLockedRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    protected String lockClause() {
+        return "FOR UPDATE";
+    }
+}
@@ -0,0 +1,18 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OffenderDeltaLockRepository {
+    /**
+     * Row locks up to <code>limit</code> deltas in the given status, oldest first, skipping any rows already locked by
+     * another transaction so that concurrent pollers each claim a distinct set of deltas.
+     */
+    List<Long> lockNextDeltaIds(String status, LocalDateTime cutOffTime, int limit);
+
+    /**
+     * Row locks any deltas for the same offender, source table and source record as the supplied deltas, skipping
+     * any that are already locked by another transaction.
+     */
+    List<Long> lockDuplicateDeltaIds(List<Long> offenderDeltaIds);
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDelta;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -26,4 +27,8 @@ public interface OffenderDeltaRepository extends JpaRepository<OffenderDelta, Lo
             "       duplicate.offenderDeltaId <> ?1)")
     @Modifying
     int deleteOtherDuplicates(Long offenderDeltaId);
+
+    @Query("delete from OffenderDelta offenderDelta where offenderDelta.offenderDeltaId in ?1")
+    @Modifying
+    int deleteAllByOffenderDeltaIdIn(List<Long> offenderDeltaIds);
 }
@@ -1,13 +0,0 @@
-package uk.gov.justice.digital.delius.jpa.standard.repository;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDocument;
-
-import java.util.List;
-
-public interface OffenderDocumentRepository extends JpaRepository<OffenderDocument, Long> {
-
-    @Query("select document from OffenderDocument document where document.offenderId = :offenderId and document.softDeleted = false")
-    List<OffenderDocument> findByOffenderId(Long offenderId);
-}
@@ -1,14 +1,18 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
 import io.vavr.control.Either;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Offender;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,17 +35,57 @@ public interface OffenderRepository extends JpaRepository<Offender, Long>, JpaSp
     @Query("select o from Offender o where o.softDeleted = 0 and upper(o.nomsNumber) = upper(:nomsNumber)")
     Optional<Offender> findByNomsNumber(@Param("nomsNumber") String nomsNumber);
 
+    // the Summary and Full variants fetch the reference data needed by OffenderTransformer in the same select
+    @EntityGraph(Offender.SUMMARY_GRAPH)
+    Optional<Offender> findSummaryByOffenderId(Long offenderId);
+
+    @EntityGraph(Offender.SUMMARY_GRAPH)
+    Optional<Offender> findSummaryByCrn(String crn);
+
+    @EntityGraph(Offender.SUMMARY_GRAPH)
+    @Query("select o from Offender o where o.softDeleted = 0 and upper(o.nomsNumber) = upper(:nomsNumber)")
+    Optional<Offender> findSummaryByNomsNumber(@Param("nomsNumber") String nomsNumber);
+
+    @EntityGraph(Offender.FULL_GRAPH)
+    Optional<Offender> findFullByOffenderId(Long offenderId);
+
+    @EntityGraph(Offender.FULL_GRAPH)
+    Optional<Offender> findFullByCrn(String crn);
+
+    @EntityGraph(Offender.FULL_GRAPH)
+    @Query("select o from Offender o where o.softDeleted = 0 and upper(o.nomsNumber) = upper(:nomsNumber)")
+    Optional<Offender> findFullByNomsNumber(@Param("nomsNumber") String nomsNumber);
+
     // there are a small number of offenders (100 as of April 2020) that have duplicate NOMS numbers
     // this allows features that can deal with duplicates to access all offenders with the same number
     @Query("select o from Offender o where o.softDeleted = 0 and upper(o.nomsNumber) = upper(:nomsNumber)")
     List<Offender> findAllByNomsNumber(@Param("nomsNumber") String nomsNumber);
 
+    List<Offender> findAllByCrnIn(Collection<String> crns);
+
+    List<Offender> findAllByOffenderIdIn(Collection<Long> offenderIds);
+
+    @Query("select o from Offender o where o.softDeleted = 0 and upper(o.nomsNumber) in :nomsNumbers")
+    List<Offender> findAllByNomsNumberIn(@Param("nomsNumbers") Collection<String> nomsNumbers);
+
+    @Query("select new uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags(o.offenderId, o.crn, o.currentExclusion, o.exclusionMessage, o.currentRestriction, o.restrictionMessage) " +
+            "from Offender o where o.crn = :crn")
+    Optional<OffenderAccessFlags> findAccessFlagsByCrn(@Param("crn") String crn);
+
+    @Query("select new uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags(o.offenderId, o.crn, o.currentExclusion, o.exclusionMessage, o.currentRestriction, o.restrictionMessage) " +
+            "from Offender o where o.crn in :crns")
+    List<OffenderAccessFlags> findAccessFlagsByCrnIn(@Param("crns") Collection<String> crns);
+
     @Query("select o.id from Offender o where o.crn = :crn")
     Optional<Long> getOffenderIdFrom(@Param("crn") String crn);
 
     @Query(value = "SELECT OFFENDER_ID FROM (SELECT QRY_PAG.*, ROWNUM rnum FROM (SELECT OFFENDER_ID FROM OFFENDER) QRY_PAG WHERE ROWNUM <= ?2) WHERE rnum >= ?1", nativeQuery = true)
     List<BigDecimal> listOffenderIds(int lower, int upper);
 
+    // keyset pagination, the cost of each page is independent of how far through the offenders it is
+    @Query("select o.offenderId from Offender o where o.offenderId > :afterOffenderId order by o.offenderId")
+    List<Long> findOffenderIdsAfter(@Param("afterOffenderId") long afterOffenderId, Pageable pageable);
+
     default Either<DuplicateOffenderException, Optional<Offender>> findMostLikelyByNomsNumber(String nomsNumber) {
         final var offenders = findAllByNomsNumber(nomsNumber);
         switch (offenders.size()) {
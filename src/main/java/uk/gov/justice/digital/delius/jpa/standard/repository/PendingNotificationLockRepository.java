@@ -0,0 +1,13 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PendingNotificationLockRepository {
+    /**
+     * Row locks up to <code>limit</code> pending notifications due by the given time, oldest first, skipping any rows
+     * already locked by another transaction so that concurrent dispatchers each claim a distinct set. A notification is
+     * only claimed once every earlier notification for the same offender has been written.
+     */
+    List<Long> lockDuePendingNotificationIds(LocalDateTime dueBy, int limit);
+}
@@ -0,0 +1,19 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("oracle")
+public class PendingNotificationLockRepositoryImpl extends AbstractPendingNotificationLockRepository {
+
+    public PendingNotificationLockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    protected String lockClause() {
+        return "FOR UPDATE SKIP LOCKED";
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select pn from PendingNotification pn where pn.pendingNotificationId = :pendingNotificationId")
+    Optional<PendingNotification> findLockedById(@Param("pendingNotificationId") Long pendingNotificationId);
+
+    @Query("select min(pn.createdDatetime) from PendingNotification pn where pn.nextAttemptDatetime is not null")
+    Optional<LocalDateTime> findOldestCreatedDatetimeOfUndispatched();
+}
@@ -1,9 +1,11 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import uk.gov.justice.digital.delius.config.CachingConfig;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
 
 import java.util.List;
@@ -12,6 +14,11 @@ import java.util.Optional;
 public interface ProbationAreaRepository extends JpaRepository<ProbationArea, Long>, JpaSpecificationExecutor<ProbationArea> {
     Optional<ProbationArea> findByCode(String code);
 
+    // cached so the teams, boroughs and provider teams can not be navigated, use findByCode when they are required
+    @Cacheable(cacheNames = CachingConfig.PROBATION_AREA_CACHE, unless = "#result == null")
+    @Query("select pa from ProbationArea pa where pa.code = :code")
+    Optional<ProbationArea> findCachedByCode(@Param("code") String code);
+
     @Query("select pa from ProbationArea pa, RInstitution institution where pa.institution = institution and institution.nomisCdeCode = :nomisCdeCode")
     Optional<ProbationArea> findByInstitutionByNomsCDECode(@Param("nomisCdeCode") String nomsPrisonInstitutionCode);
 
@@ -6,5 +6,5 @@ import java.util.List;
 
 public interface SpgNotificationHelperRepository {
     List<ProbationArea> getInterestedCRCs(String offenderId);
-    Long getNextControlSequence(String probationAreaCode);
+    List<Long> getNextControlSequences(String probationAreaCode, int count);
 }
@@ -13,6 +13,7 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Repository
 @Profile("oracle")
@@ -44,11 +45,18 @@ public class SpgNotificationHelperRepositoryImpl implements SpgNotificationHelpe
     }
 
 
-    public Long getNextControlSequence(String probationAreaCode) {
-        return ((BigDecimal) entityManager
-                .createNativeQuery("SELECT spgconfig.getNextControlReference(:probationAreaCode) FROM DUAL")
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> getNextControlSequences(String probationAreaCode, int count) {
+        // the function is evaluated for each generated row so this is the same as calling it count times
+        return ((List<BigDecimal>) entityManager
+                .createNativeQuery("SELECT spgconfig.getNextControlReference(:probationAreaCode) FROM DUAL CONNECT BY LEVEL <= :count")
                 .setParameter("probationAreaCode", probationAreaCode)
-                .getSingleResult()).longValue();
+                .setParameter("count", count)
+                .getResultList())
+                .stream()
+                .map(BigDecimal::longValue)
+                .collect(Collectors.toList());
     }
 
 }
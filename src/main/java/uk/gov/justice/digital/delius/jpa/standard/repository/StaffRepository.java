@@ -10,11 +10,15 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public interface StaffRepository extends JpaRepository<Staff, Long> {
+public interface StaffRepository extends JpaRepository<Staff, Long>, ManagedOffenderRepository {
     Optional<Staff> findByStaffId(Long staffId);
 
     Optional<Staff> findByOfficerCode(String officerCode);
 
+    Optional<StaffIdentifiers> findIdentifiersByStaffId(Long staffId);
+
+    Optional<StaffIdentifiers> findIdentifiersByOfficerCode(String officerCode);
+
     @Query("select u.staff from User u where upper(u.distinguishedName) = upper(:username)")
     Optional<Staff> findByUsername(@Param("username") String username);
 
@@ -25,4 +29,10 @@ public interface StaffRepository extends JpaRepository<Staff, Long> {
 
     @Query("select staff from Staff staff, StaffTeam staffTeam, Team team where staff.officerCode like '%U' and staffTeam.staffId = staff.staffId and staffTeam.teamId = :teamId" )
     Optional<Staff> findByUnallocatedByTeam(@Param("teamId") Long teamId);
+
+    interface StaffIdentifiers {
+        Long getStaffId();
+
+        String getOfficerCode();
+    }
 }
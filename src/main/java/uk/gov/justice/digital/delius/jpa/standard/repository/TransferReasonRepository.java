@@ -1,10 +1,13 @@
 package uk.gov.justice.digital.delius.jpa.standard.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import uk.gov.justice.digital.delius.config.CachingConfig;
 import uk.gov.justice.digital.delius.jpa.standard.entity.TransferReason;
 
 import java.util.Optional;
 
 public interface TransferReasonRepository extends JpaRepository<TransferReason, Long> {
+    @Cacheable(cacheNames = CachingConfig.TRANSFER_REASON_CACHE, unless = "#result == null")
     Optional<TransferReason> findByCode(String code);
 }
@@ -1,5 +1,10 @@
 package uk.gov.justice.digital.delius.ldap.repository;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,38 +15,76 @@ import org.springframework.ldap.core.LdapTemplate;
 import org.springframework.ldap.query.ContainerCriteria;
 import org.springframework.ldap.query.SearchScope;
 import org.springframework.ldap.support.LdapNameBuilder;
+import org.springframework.ldap.support.LdapUtils;
 import org.springframework.stereotype.Repository;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusRole;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusUser;
 
+import javax.naming.Name;
 import javax.naming.directory.Attribute;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.BasicAttribute;
 import javax.naming.directory.BasicAttributes;
 import javax.naming.ldap.LdapName;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static java.util.function.Function.identity;
+import static java.util.function.Predicate.not;
 import static org.springframework.ldap.query.LdapQueryBuilder.query;
 
+/**
+ * Users and their roles are held in memory for a short time, including users that were not found, so repeated lookups
+ * of the same user do not go back to LDAP. Changes made through this repository drop the user's entries straight away;
+ * changes made elsewhere are picked up when the entries expire.
+ */
 @Repository
 public class LdapRepository {
+    private static final int USERNAMES_PER_SEARCH = 100;
 
     private final LdapTemplate ldapTemplate;
     private final LdapTemplate authenticationTemplate;
-    @Value("${delius.ldap.users.base}")
-    private String ldapUserBase;
+    private final String ldapUserBase;
+    private final Cache<String, Optional<NDeliusUser>> usersByUsername;
+    private final Cache<Name, List<NDeliusRole>> rolesByDn;
 
     @Autowired
     public LdapRepository(
             @Qualifier(value = "ldapTemplate")
             final LdapTemplate ldapTemplate,
             @Qualifier(value = "authenticationTemplate")
-            final LdapTemplate authenticationTemplate) {
+            final LdapTemplate authenticationTemplate,
+            @Value("${delius.ldap.users.base}")
+            final String ldapUserBase,
+            final MeterRegistry meterRegistry,
+            @Value("${delius.ldap.cache.time-to-live:5m}")
+            final Duration timeToLive,
+            @Value("${delius.ldap.cache.maximum-size:10000}")
+            final long maximumSize) {
         this.ldapTemplate = ldapTemplate;
         this.authenticationTemplate = authenticationTemplate;
+        this.ldapUserBase = ldapUserBase;
+        this.usersByUsername = newCache(timeToLive, maximumSize);
+        this.rolesByDn = newCache(timeToLive, maximumSize);
+        GuavaCacheMetrics.monitor(meterRegistry, usersByUsername, "ldapUsers");
+        GuavaCacheMetrics.monitor(meterRegistry, rolesByDn, "ldapRoles");
+    }
+
+    private static <K, V> Cache<K, V> newCache(Duration timeToLive, long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
     }
 
     public Optional<String> getDeliusUid(final String distinguishedName) {
@@ -57,12 +100,35 @@ public class LdapRepository {
         // this is a two step process:
         //   1. find the user matching the supplied username in the delius LDAP.
         //   2. find the roles associated with the matched user and add them to the user entity.
-        final var nDeliusUser = authenticationTemplate.find(byUsername(username), NDeliusUser.class).stream().findAny();
+        final var nDeliusUser = getDeliusUserNoRoles(username);
         return nDeliusUser.map(user -> mapRolesForUser(user));
     }
 
     public Optional<NDeliusUser> getDeliusUserNoRoles(final String username) {
-        return authenticationTemplate.find(byUsername(username), NDeliusUser.class).stream().findAny();
+        return cached(usersByUsername, username.toLowerCase(),
+                key -> authenticationTemplate.find(byUsername(username), NDeliusUser.class).stream().findAny());
+    }
+
+    /**
+     * Each user found, without roles, keyed by the username as given. Users that are not cached are searched for
+     * together with a filter matching any of their usernames.
+     */
+    public Map<String, NDeliusUser> getDeliusUsersNoRoles(final Collection<String> usernames) {
+        final var keys = usernames.stream()
+                .collect(Collectors.toMap(identity(), String::toLowerCase, (one, another) -> one, LinkedHashMap::new));
+        final var cached = usersByUsername.getAllPresent(keys.values());
+        final var missing = keys.values().stream().filter(not(cached::containsKey)).distinct().collect(Collectors.toList());
+        final var loaded = Lists.partition(missing, USERNAMES_PER_SEARCH)
+                .stream()
+                .flatMap(chunk -> authenticationTemplate.find(byAnyUsername(chunk), NDeliusUser.class).stream())
+                .collect(Collectors.toMap(user -> user.getCn().toLowerCase(), identity(), (one, another) -> one));
+        missing.forEach(key -> usersByUsername.put(key, Optional.ofNullable(loaded.get(key))));
+
+        final var users = new HashMap<String, NDeliusUser>();
+        keys.forEach((username, key) -> Optional.ofNullable(loaded.get(key))
+                .or(() -> cached.getOrDefault(key, Optional.empty()))
+                .ifPresent(user -> users.put(username, user)));
+        return users;
     }
 
     public List<NDeliusUser> getDeliusUserByEmail(final String email) {
@@ -70,6 +136,7 @@ public class LdapRepository {
         //   1. find a list of users matching the supplied email address in the delius LDAP.
         //   2. find the roles associated with the matched users and add them to the user entities.
         final var users = authenticationTemplate.find(byEmail(email), NDeliusUser.class);
+        users.forEach(user -> usersByUsername.put(user.getCn().toLowerCase(), Optional.of(user)));
         return users.stream()
             .map(user -> mapRolesForUser(user))
             .collect(Collectors.toList());
@@ -77,17 +144,17 @@ public class LdapRepository {
 
     public NDeliusUser mapRolesForUser(final NDeliusUser user) {
         // query the delius LDAP for the roles associated with this user and return a new user object with the roles added.
-        final var roles = ldapTemplate
+        final var roles = cached(rolesByDn, user.getDn(), dn -> ldapTemplate
                 .search(
                         query()
-                                .base(user.getDn())
+                                .base(dn)
                                 .searchScope(SearchScope.ONELEVEL)
                                 .filter("(|(objectclass=NDRole)(objectclass=NDRoleAssociation))"),
                         (AttributesMapper<NDeliusRole>) attributes ->
                                 NDeliusRole
                                         .builder()
                                         .cn(attributes.get("cn").get().toString())
-                                        .build());
+                                        .build()));
 
         return user.toBuilder().roles(roles).build();
     }
@@ -109,6 +176,7 @@ public class LdapRepository {
                 .build();
 
         authenticationTemplate.rebind(newRoleAssociationContext, null, attributes);
+        evict(username);
     }
 
     private Attribute attribute(String id, String... values) {
@@ -134,9 +202,26 @@ public class LdapRepository {
         context.setAttributeValue("userpassword", password);
 
         authenticationTemplate.modifyAttributes(context);
+        evict(username);
         return true;
     }
 
+    private void evict(final String username) {
+        usersByUsername.invalidate(username.toLowerCase());
+        // the user's DN may be relative to the context base so match on the user's own RDN rather than the whole name
+        rolesByDn.asMap().keySet().removeIf(dn -> username.equalsIgnoreCase(LdapUtils.getStringValue(dn, dn.size() - 1)));
+    }
+
+    private static <K, V> V cached(final Cache<K, V> cache, final K key, final Function<K, V> loader) {
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final var loaded = loader.apply(key);
+        cache.put(key, loaded);
+        return loaded;
+    }
+
     private ContainerCriteria byEmail(final String email) {
         return query().base(ldapUserBase).where("mail").is(email);
     }
@@ -145,9 +230,15 @@ public class LdapRepository {
         return query().base(ldapUserBase).where("cn").is(username);
     }
 
-    public String getEmail(final String username) {
-        final var nDeliusUser = authenticationTemplate.find(byUsername(username), NDeliusUser.class).stream().findAny();
+    private ContainerCriteria byAnyUsername(final List<String> usernames) {
+        var criteria = byUsername(usernames.get(0));
+        for (final var username : usernames.subList(1, usernames.size())) {
+            criteria = criteria.or("cn").is(username);
+        }
+        return criteria;
+    }
 
-        return nDeliusUser.map(NDeliusUser::getMail).orElse(null);
+    public String getEmail(final String username) {
+        return getDeliusUserNoRoles(username).map(NDeliusUser::getMail).orElse(null);
     }
 }
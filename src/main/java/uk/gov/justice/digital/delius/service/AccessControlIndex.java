@@ -0,0 +1,236 @@
+package uk.gov.justice.digital.delius.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
+import uk.gov.justice.digital.delius.jpa.national.entity.Exclusion;
+import uk.gov.justice.digital.delius.jpa.national.entity.Restriction;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
+import uk.gov.justice.digital.delius.service.wrapper.UserRepositoryWrapper;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.function.Function.identity;
+import static java.util.function.Predicate.not;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Everything needed to decide whether a user is excluded from or restricted for an offender, held in memory for a
+ * short time. There are two parts: the exclusion and restriction flags of each offender, looked up by CRN, and each
+ * user's active exclusions and restrictions keyed by offender ID. Most offenders have neither flag set, so a check
+ * costs at most the indexed lookup of the offender's flags and usually nothing once the flags are cached.
+ * <p>
+ * Entries are dropped when OFFENDER_DELTA records a change to the offender or to any exclusion or restriction. Deltas
+ * can be consumed before they are polled, so the time to live is the backstop and should stay short.
+ */
+@Component
+@Slf4j
+public class AccessControlIndex {
+    static final int MAX_DELTAS_PER_POLL = 1000;
+    private static final int IN_LIST_SIZE = 1000;
+    private static final Set<String> ACCESS_LIST_TABLES = Set.of("EXCLUSION", "RESTRICTION");
+
+    private final OffenderRepository offenderRepository;
+    private final UserRepositoryWrapper userRepositoryWrapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration invalidationPollInterval;
+    private final Cache<String, Optional<OffenderAccessFlags>> offenderAccessFlags;
+    private final Cache<String, UserAccessLists> userAccessLists;
+    private final AtomicLong lastOffenderDeltaId = new AtomicLong(-1);
+    private Disposable invalidations;
+
+    @Autowired
+    public AccessControlIndex(OffenderRepository offenderRepository,
+                              UserRepositoryWrapper userRepositoryWrapper,
+                              JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${user-access.cache.offender-time-to-live:30s}") Duration offenderTimeToLive,
+                              @Value("${user-access.cache.user-time-to-live:1m}") Duration userTimeToLive,
+                              @Value("${user-access.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${user-access.cache.invalidation-poll-interval:5s}") Duration invalidationPollInterval) {
+        this.offenderRepository = offenderRepository;
+        this.userRepositoryWrapper = userRepositoryWrapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationPollInterval = invalidationPollInterval;
+        this.offenderAccessFlags = newCache(offenderTimeToLive, maximumSize);
+        this.userAccessLists = newCache(userTimeToLive, maximumSize);
+        GuavaCacheMetrics.monitor(meterRegistry, offenderAccessFlags, "offenderAccessFlags");
+        GuavaCacheMetrics.monitor(meterRegistry, userAccessLists, "userAccessLists");
+    }
+
+    private static <T> Cache<String, T> newCache(Duration timeToLive, long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<OffenderAccessFlags> offenderAccessFlagsOf(String crn) {
+        return cached(offenderAccessFlags, crn, offenderRepository::findAccessFlagsByCrn);
+    }
+
+    /**
+     * The flags of each offender found, by CRN. Offenders that are not cached are loaded together with IN-list queries.
+     */
+    public Map<String, OffenderAccessFlags> offenderAccessFlagsOf(Collection<String> crns) {
+        final var cached = offenderAccessFlags.getAllPresent(crns);
+        final var missing = crns.stream().filter(not(cached::containsKey)).distinct().collect(toList());
+        final var loaded = Lists.partition(missing, IN_LIST_SIZE)
+                .stream()
+                .flatMap(chunk -> offenderRepository.findAccessFlagsByCrnIn(chunk).stream())
+                .collect(toMap(OffenderAccessFlags::getCrn, identity(), (one, another) -> one));
+        missing.forEach(crn -> offenderAccessFlags.put(crn, Optional.ofNullable(loaded.get(crn))));
+
+        final var flags = new HashMap<>(loaded);
+        cached.forEach((crn, maybeFlags) -> maybeFlags.ifPresent(found -> flags.put(crn, found)));
+        return flags;
+    }
+
+    @Transactional(readOnly = true)
+    public UserAccessLists userAccessListsOf(String username) {
+        return cached(userAccessLists, username.toLowerCase(), key -> UserAccessLists.of(userRepositoryWrapper.getUser(username)));
+    }
+
+    private static <T> T cached(Cache<String, T> cache, String key, Function<String, T> loader) {
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final var loaded = loader.apply(key);
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void followOffenderDeltas() {
+        invalidations = Flux.interval(invalidationPollInterval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .subscribe(tick -> invalidateChangedEntries());
+    }
+
+    @PreDestroy
+    void stopFollowingOffenderDeltas() {
+        Optional.ofNullable(invalidations).ifPresent(Disposable::dispose);
+    }
+
+    void invalidateChangedEntries() {
+        try {
+            if (lastOffenderDeltaId.get() < 0) {
+                // nothing is cached from before now, so only later changes matter
+                lastOffenderDeltaId.set(Optional
+                        .ofNullable(jdbcTemplate.queryForObject("SELECT MAX(OFFENDER_DELTA_ID) FROM OFFENDER_DELTA", Long.class))
+                        .orElse(0L));
+                return;
+            }
+            invalidate(changesSince(lastOffenderDeltaId.get()));
+        } catch (RuntimeException e) {
+            log.warn("Unable to read offender deltas, access control entries will expire instead", e);
+        }
+    }
+
+    private List<OffenderChange> changesSince(long offenderDeltaId) {
+        return jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(
+                    "SELECT OFFENDER_DELTA_ID, OFFENDER_ID, SOURCE_TABLE FROM OFFENDER_DELTA " +
+                            "WHERE OFFENDER_DELTA_ID > ? ORDER BY OFFENDER_DELTA_ID");
+            statement.setLong(1, offenderDeltaId);
+            statement.setMaxRows(MAX_DELTAS_PER_POLL);
+            return statement;
+        }, (resultSet, rowNum) -> new OffenderChange(
+                resultSet.getLong("OFFENDER_DELTA_ID"),
+                resultSet.getLong("OFFENDER_ID"),
+                resultSet.getString("SOURCE_TABLE")));
+    }
+
+    private void invalidate(List<OffenderChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        final var offenderIds = changes.stream().map(OffenderChange::offenderId).collect(toSet());
+        // CRNs that were not found are dropped too, as the change may be the offender being created
+        offenderAccessFlags.asMap().values().removeIf(flags -> flags
+                .map(OffenderAccessFlags::getOffenderId)
+                .map(offenderIds::contains)
+                .orElse(true));
+        if (changes.stream().map(OffenderChange::sourceTable).anyMatch(ACCESS_LIST_TABLES::contains)) {
+            // a new exclusion or restriction is not in any user's lists yet, so there is no way to target the users
+            userAccessLists.invalidateAll();
+        }
+        lastOffenderDeltaId.set(changes.get(changes.size() - 1).offenderDeltaId());
+    }
+
+    private record OffenderChange(long offenderDeltaId, long offenderId, String sourceTable) {
+    }
+
+    /**
+     * A user's exclusions and restrictions by offender ID with the time each ends, so an entry that ends while cached
+     * stops applying straight away.
+     */
+    public static final class UserAccessLists {
+        private final Map<Long, LocalDateTime> exclusionsEndingAt;
+        private final Map<Long, LocalDateTime> restrictionsEndingAt;
+
+        UserAccessLists(Map<Long, LocalDateTime> exclusionsEndingAt, Map<Long, LocalDateTime> restrictionsEndingAt) {
+            this.exclusionsEndingAt = exclusionsEndingAt;
+            this.restrictionsEndingAt = restrictionsEndingAt;
+        }
+
+        static UserAccessLists of(uk.gov.justice.digital.delius.jpa.national.entity.User user) {
+            return new UserAccessLists(
+                    latestEndByOffender(user.getExclusions(), Exclusion::getOffenderId, Exclusion::getExclusionEnd),
+                    latestEndByOffender(user.getRestrictions(), Restriction::getOffenderId, Restriction::getRestrictionEnd));
+        }
+
+        public boolean isExcludedFrom(Long offenderId) {
+            return isActive(exclusionsEndingAt.get(offenderId));
+        }
+
+        public boolean isRestrictedUserFor(Long offenderId) {
+            return isActive(restrictionsEndingAt.get(offenderId));
+        }
+
+        private static boolean isActive(LocalDateTime endsAt) {
+            return endsAt != null && endsAt.isAfter(LocalDateTime.now());
+        }
+
+        private static <T> Map<Long, LocalDateTime> latestEndByOffender(List<T> entries,
+                                                                      Function<T, Long> offenderId,
+                                                                      Function<T, LocalDateTime> endsAt) {
+            return ImmutableMap.copyOf(Optional.ofNullable(entries).orElse(List.of())
+                    .stream()
+                    .collect(toMap(
+                            offenderId,
+                            entry -> Optional.ofNullable(endsAt.apply(entry)).orElse(LocalDateTime.MAX),
+                            (one, another) -> one.isAfter(another) ? one : another)));
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package uk.gov.justice.digital.delius.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,80 +17,220 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.data.api.alfresco.DocumentMeta;
 import uk.gov.justice.digital.delius.data.api.alfresco.SearchResult;
 
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 
 @Service
 public class AlfrescoService {
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.RANGE, HttpHeaders.IF_RANGE);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.ACCEPT_RANGES,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_RANGE,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED);
+
     private final WebClient webClient;
     private final MultiValueMap<String, String> headers;
+    private final Duration freshFor;
+    private final Cache<String, CachedResponse<SearchResult>> searchResults;
+    private final Cache<String, CachedResponse<DocumentMeta>> documentDetails;
 
     @Autowired
     public AlfrescoService(@Qualifier("alfrescoWebClient") WebClient webClient,
                            @Value("${alfresco.X-DocRepository-Remote-User}") String alfrescoRemoteUser,
-                           @Value("${alfresco.X-DocRepository-Real-Remote-User}") String alfrescoRealRemoteUser) {
+                           @Value("${alfresco.X-DocRepository-Real-Remote-User}") String alfrescoRealRemoteUser,
+                           MeterRegistry meterRegistry,
+                           @Value("${alfresco.cache.fresh-for:1m}") Duration freshFor,
+                           @Value("${alfresco.cache.time-to-live:1h}") Duration timeToLive,
+                           @Value("${alfresco.cache.maximum-size:10000}") long maximumSize) {
         this.webClient = webClient;
         headers = new LinkedMultiValueMap<>();
         headers.add("X-DocRepository-Remote-User", alfrescoRemoteUser);
         headers.add("X-DocRepository-Real-Remote-User", alfrescoRealRemoteUser);
+        this.freshFor = freshFor;
+        searchResults = GuavaCacheMetrics.monitor(meterRegistry, newCache(timeToLive, maximumSize), "alfrescoSearch");
+        documentDetails = GuavaCacheMetrics.monitor(meterRegistry, newCache(timeToLive, maximumSize), "alfrescoDocumentDetail");
+    }
+
+    private static <T> Cache<String, CachedResponse<T>> newCache(Duration timeToLive, long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
     }
 
 
     public SearchResult listDocuments(String crn) {
 
-        return webClient.get().uri(format("/search/%s", crn))
-                .headers(httpHeaders -> httpHeaders.addAll(headers))
-                .retrieve()
-                .bodyToMono(SearchResult.class)
-                .block();
+        return fetch(searchResults, crn, format("/search/%s", crn), SearchResult.class)
+                .orElse(null);
     }
 
     public Optional<DocumentMeta> getDocumentDetail(String documentId, String crn) {
 
-        return webClient.get().uri(format("/details/%s", documentId))
-                .headers(httpHeaders -> httpHeaders.addAll(headers))
-                .retrieve()
-                .bodyToMono(DocumentMeta.class)
-                .blockOptional()
+        return fetch(documentDetails, documentId, format("/details/%s", documentId), DocumentMeta.class)
                 .filter(documentMeta -> documentMeta.getCrn().equals(crn));
     }
 
-    public ResponseEntity<Resource> getDocument(String documentId, String crn) {
-        val maybeDocumentMeta = getDocumentDetail(documentId, crn);
+    /**
+     * Forgets everything cached for the offender's documents, so a newly linked document is seen straight away.
+     */
+    public void evictDocumentsFor(String crn, String documentId) {
+        searchResults.invalidate(crn);
+        Optional.ofNullable(documentId).ifPresent(documentDetails::invalidate);
+    }
+
+    public ResponseEntity<StreamingResponseBody> getDocument(String documentId, String crn, HttpHeaders requestHeaders) {
+        val maybeDocumentMeta = freshDocumentMeta(documentId, crn)
+                .or(() -> getDocumentDetail(documentId, crn));
 
         return maybeDocumentMeta
-                .map(documentMeta -> getDocument(documentId, Optional.of(documentMeta.getName())))
+                .map(documentMeta -> getDocument(documentId, Optional.of(documentMeta.getName()), requestHeaders))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
-    private ResponseEntity<Resource> getDocument(String documentId, Optional<String> filename) {
+    public ResponseEntity<StreamingResponseBody> getDocument(String documentId, HttpHeaders requestHeaders) {
+        return getDocument(documentId, Optional.empty(), requestHeaders);
+    }
+
+    // a fresh listing for the CRN already proves the document belongs to the offender and gives its name
+    private Optional<DocumentMeta> freshDocumentMeta(String documentId, String crn) {
+        return freshValue(documentDetails, documentId)
+                .filter(documentMeta -> documentMeta.getCrn().equals(crn))
+                .or(() -> freshValue(searchResults, crn)
+                        .map(SearchResult::getDocuments)
+                        .flatMap(documents -> documents.stream()
+                                .filter(documentMeta -> documentId.equals(documentMeta.getId()))
+                                .findFirst()));
+    }
+
+    private <T> Optional<T> freshValue(Cache<String, CachedResponse<T>> cache, String key) {
+        return Optional.ofNullable(cache.getIfPresent(key))
+                .filter(cached -> cached.isFresh(freshFor))
+                .map(CachedResponse::getValue);
+    }
+
+    /**
+     * Serves a fresh cached response without calling Alfresco. Once it is stale it is revalidated with
+     * If-None-Match / If-Modified-Since, and a 304 keeps the cached value for another freshness period.
+     */
+    private <T> Optional<T> fetch(Cache<String, CachedResponse<T>> cache, String key, String uri, Class<T> type) {
+        val cached = cache.getIfPresent(key);
+        if (cached != null && cached.isFresh(freshFor)) {
+            return Optional.of(cached.getValue());
+        }
+
+        final Optional<CachedResponse<T>> response = webClient.get().uri(uri)
+                .headers(httpHeaders -> {
+                    httpHeaders.addAll(headers);
+                    Optional.ofNullable(cached).ifPresent(previous -> previous.addConditionalHeaders(httpHeaders));
+                })
+                .<CachedResponse<T>>exchangeToMono(clientResponse -> {
+                    if (cached != null && clientResponse.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return clientResponse.releaseBody().thenReturn(cached.revalidated());
+                    }
+                    if (clientResponse.statusCode().isError()) {
+                        return clientResponse.createException().flatMap(Mono::error);
+                    }
+                    return clientResponse.bodyToMono(type)
+                            .map(body -> new CachedResponse<>(body, clientResponse.headers().asHttpHeaders(), Instant.now()));
+                })
+                .blockOptional();
+
+        response.ifPresent(value -> cache.put(key, value));
+        return response.map(CachedResponse::getValue);
+    }
+
+    /**
+     * Only waits for the Alfresco response headers; the body is relayed buffer by buffer when the
+     * servlet container asks for it, so a document is never held in memory in full. Range and If-Range
+     * are passed on so partial content (206) comes straight from Alfresco, as does a 416 for a range
+     * outside the document; any other error fails as before.
+     */
+    private ResponseEntity<StreamingResponseBody> getDocument(String documentId, Optional<String> filename, HttpHeaders requestHeaders) {
         return webClient.get().uri(format("/fetch/%s", documentId))
-                .headers(httpHeaders -> httpHeaders.addAll(headers))
+                .headers(httpHeaders -> {
+                    httpHeaders.addAll(headers);
+                    FORWARDED_REQUEST_HEADERS.forEach(header -> Optional.ofNullable(requestHeaders.get(header))
+                            .ifPresent(values -> httpHeaders.addAll(header, values)));
+                })
                 .retrieve()
-                .toEntity(Resource.class)
-                .map(resource -> new ResponseEntity<>(
-                        resource.getBody(),
-                        collectDocumentResourceHeaders(resource.getHeaders(), documentId, filename),
-                        resource.getStatusCode()))
+                .onStatus(status -> status == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, clientResponse -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(document -> new ResponseEntity<>(
+                        streamOf(document.getBody()),
+                        collectDocumentResourceHeaders(document.getHeaders(), document.getStatusCode(), documentId, filename),
+                        document.getStatusCode()))
+                .block();
+    }
+
+    private StreamingResponseBody streamOf(Flux<DataBuffer> body) {
+        return (OutputStream outputStream) -> DataBufferUtils.write(body, outputStream)
+                .doOnNext(DataBufferUtils::release)
+                .then()
                 .block();
     }
 
-    private HttpHeaders collectDocumentResourceHeaders(final HttpHeaders responseHeaders, final String documentId, final Optional<String> filename) {
+    private HttpHeaders collectDocumentResourceHeaders(final HttpHeaders responseHeaders, final HttpStatus status, final String documentId, final Optional<String> filename) {
         HttpHeaders newHeaders = new HttpHeaders();
-        newHeaders.add(HttpHeaders.ACCEPT_RANGES, responseHeaders.getFirst(HttpHeaders.ACCEPT_RANGES));
-        newHeaders.add(HttpHeaders.CONTENT_LENGTH, responseHeaders.getFirst(HttpHeaders.CONTENT_LENGTH));
-        newHeaders.add(HttpHeaders.CONTENT_TYPE, responseHeaders.getFirst(HttpHeaders.CONTENT_TYPE));
-        newHeaders.add(HttpHeaders.ETAG, responseHeaders.getFirst(HttpHeaders.ETAG));
-        newHeaders.add(HttpHeaders.LAST_MODIFIED, responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED));
-        newHeaders.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename.orElse(documentId) + "\"");
+        FORWARDED_RESPONSE_HEADERS.forEach(header -> Optional.ofNullable(responseHeaders.getFirst(header))
+                .ifPresent(value -> newHeaders.add(header, value)));
+        if (status.is2xxSuccessful()) {
+            newHeaders.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename.orElse(documentId) + "\"");
+        }
         return newHeaders;
     }
 
-    public ResponseEntity<Resource> getDocument(String documentId) {
-        return getDocument(documentId, Optional.empty());
+    private static final class CachedResponse<T> {
+        private final T value;
+        private final HttpHeaders validators;
+        private final Instant validatedAt;
+
+        private CachedResponse(T value, HttpHeaders responseHeaders, Instant validatedAt) {
+            this.value = value;
+            this.validators = new HttpHeaders();
+            Optional.ofNullable(responseHeaders.getFirst(HttpHeaders.ETAG))
+                    .ifPresent(eTag -> validators.set(HttpHeaders.IF_NONE_MATCH, eTag));
+            Optional.ofNullable(responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED))
+                    .ifPresent(lastModified -> validators.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+            this.validatedAt = validatedAt;
+        }
+
+        private CachedResponse(CachedResponse<T> previous, Instant validatedAt) {
+            this.value = previous.value;
+            this.validators = previous.validators;
+            this.validatedAt = validatedAt;
+        }
+
+        T getValue() {
+            return value;
+        }
+
+        boolean isFresh(Duration freshFor) {
+            return validatedAt.plus(freshFor).isAfter(Instant.now());
+        }
+
+        void addConditionalHeaders(HttpHeaders httpHeaders) {
+            httpHeaders.addAll(validators);
+        }
+
+        CachedResponse<T> revalidated() {
+            return new CachedResponse<>(this, Instant.now());
+        }
     }
 }
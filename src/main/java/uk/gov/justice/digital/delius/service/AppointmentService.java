@@ -3,26 +3,37 @@ package uk.gov.justice.digital.delius.service;
 import com.github.fge.jsonpatch.JsonPatch;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.data.api.Appointment;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateResponse;
+import uk.gov.justice.digital.delius.data.api.AppointmentCreateResult;
 import uk.gov.justice.digital.delius.data.api.AppointmentDetail;
+import uk.gov.justice.digital.delius.data.api.AppointmentDetailPage;
 import uk.gov.justice.digital.delius.data.api.AppointmentRescheduleRequest;
 import uk.gov.justice.digital.delius.data.api.AppointmentRescheduleResponse;
 import uk.gov.justice.digital.delius.data.api.AppointmentType;
 import uk.gov.justice.digital.delius.data.api.AppointmentUpdateResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeRequest;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeUpdate;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
+import uk.gov.justice.digital.delius.data.api.Nsi;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ContactDto;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewContact;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ReplaceContact;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.filters.AppointmentFilter;
+import uk.gov.justice.digital.delius.jpa.filters.AppointmentKeyset;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ContactRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ContactTypeRepository;
@@ -30,8 +41,12 @@ import uk.gov.justice.digital.delius.transformers.AppointmentTransformer;
 import uk.gov.justice.digital.delius.utils.DateConverter;
 import uk.gov.justice.digital.delius.utils.JsonPatchSupport;
 
+import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -42,9 +57,16 @@ import static uk.gov.justice.digital.delius.transformers.AppointmentPatchRequest
 import static uk.gov.justice.digital.delius.utils.DateConverter.toLondonLocalDate;
 import static uk.gov.justice.digital.delius.utils.DateConverter.toLondonLocalTime;
 
+/**
+ * Calls to the Delius API read what they need in a transaction that completes before the returned publisher sends
+ * anything, so no connection is held while waiting on Delius (see OpenEntityManagerInViewConfiguration). Those
+ * transactions are not read-only so that what decides a write to Delius is read from the primary, never a replica
+ * that may lag behind it.
+ */
 @Service
 @AllArgsConstructor
 public class AppointmentService {
+    private static final int APPOINTMENT_STREAM_PAGE_SIZE = 100;
 
     private final ContactTypeRepository contactTypeRepository;
     private final ContactRepository contactRepository;
@@ -52,6 +74,7 @@ public class AppointmentService {
     private final DeliusApiClient deliusApiClient;
     private final DeliusIntegrationContextConfig deliusIntegrationContextConfig;
     private final JsonPatchSupport jsonPatchSupport;
+    private final CurrentUserSupplier currentUserSupplier;
 
     public List<Appointment> appointmentsFor(Long offenderId, AppointmentFilter filter) {
         return AppointmentTransformer.appointmentsOf(
@@ -67,6 +90,50 @@ public class AppointmentService {
         return contacts.stream().map(AppointmentTransformer::appointmentDetailOf).collect(Collectors.toList());
     }
 
+    /**
+     * A page of appointments, most recent first, starting after the keyset in the filter. The next cursor is only
+     * returned for a full page, so the last page may be empty.
+     */
+    public AppointmentDetailPage appointmentDetailsPageFor(Long offenderId, AppointmentFilter filter, int pageSize) {
+        final var contacts = appointmentContactsFor(filter.toBuilder().offenderId(offenderId).build(), pageSize);
+        return AppointmentDetailPage.builder()
+            .content(contacts.stream().map(AppointmentTransformer::appointmentDetailOf).collect(Collectors.toList()))
+            .nextCursor(contacts.size() < pageSize ? null : keysetOf(contacts.get(contacts.size() - 1)).toCursor())
+            .build();
+    }
+
+    /**
+     * Streams every matching appointment, most recent first. Each page is read with its own keyset query so neither the
+     * appointments nor a connection are held between pages however long the client takes to consume them. The pages
+     * are read on worker threads as the user captured on the request thread.
+     */
+    public Flux<AppointmentDetail> streamAppointmentDetailsFor(Long offenderId, AppointmentFilter filter) {
+        final var offenderFilter = filter.toBuilder().offenderId(offenderId).build();
+        final var username = currentUserSupplier.username();
+        return Flux.defer(() -> Mono.just(appointmentContactsFor(offenderFilter, APPOINTMENT_STREAM_PAGE_SIZE, username)))
+            .expand(page -> page.size() < APPOINTMENT_STREAM_PAGE_SIZE
+                ? Mono.empty()
+                : Mono.fromCallable(() -> appointmentContactsFor(
+                    offenderFilter.toBuilder().after(Optional.of(keysetOf(page.get(page.size() - 1)))).build(),
+                    APPOINTMENT_STREAM_PAGE_SIZE,
+                    username)))
+            .flatMapIterable(page -> page)
+            .map(AppointmentTransformer::appointmentDetailOf)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<Contact> appointmentContactsFor(AppointmentFilter filter, int limit) {
+        return contactRepository.findAll(filter, Sort.by(DESC, "contactDate", "contactId"), limit);
+    }
+
+    private List<Contact> appointmentContactsFor(AppointmentFilter filter, int limit, Optional<String> username) {
+        return CurrentUserSupplier.onBehalfOf(username, () -> appointmentContactsFor(filter, limit));
+    }
+
+    private static AppointmentKeyset keysetOf(Contact contact) {
+        return new AppointmentKeyset(contact.getContactDate(), contact.getContactId());
+    }
+
     /**
      * Get appointment by offender id & appointment (contact) id.
      * This effectively validates that the appointment is associated to the specified offender.
@@ -77,39 +144,68 @@ public class AppointmentService {
     }
 
     @Transactional
-    public AppointmentCreateResponse createAppointment(String crn, Long sentenceId, AppointmentCreateRequest request) {
+    public Mono<AppointmentCreateResponse> createAppointment(String crn, Long sentenceId, AppointmentCreateRequest request) {
         this.assertAppointmentType(request.getContactType());
 
         final var newContact = makeNewContact(crn, sentenceId, request);
-        final var contactDto = deliusApiClient.createNewContact(newContact);
-
-        return makeResponse(contactDto);
+        return deliusApiClient.createNewContact(newContact).map(this::makeResponse);
     }
 
     @Transactional
-    public AppointmentCreateResponse createAppointment(String crn, Long sentenceId, String contextName, ContextlessAppointmentCreateRequest contextlessRequest) {
+    public Mono<AppointmentCreateResponse> createAppointment(String crn, Long sentenceId, String contextName, ContextlessAppointmentCreateRequest contextlessRequest) {
 
         final var context = getContext(contextName);
-        final var request = referralService.getExistingMatchingNsi(crn, contextName, sentenceId, contextlessRequest.getContractType(), contextlessRequest.getReferralStart(), contextlessRequest.getReferralId())
-            .map(existingNsi -> appointmentOf(contextlessRequest, existingNsi, context))
-            .orElseThrow(() -> new BadRequestException(format("Cannot find NSI for CRN: %s Sentence: %d and ContractType %s", crn, sentenceId, contextlessRequest.getContractType())));
+        final var request = appointmentCreateRequestOf(crn, sentenceId, contextName, context, contextlessRequest, new HashMap<>());
 
         return createAppointment(crn, sentenceId, request);
     }
 
+    /**
+     * Creates many appointments for the same sentence, with a result for each in the order of the requests. Nothing is
+     * created unless the NSI of every appointment is found. Otherwise every appointment is sent to Delius, and an
+     * appointment Delius fails to create is reported in its result without stopping the others.
+     */
+    @Transactional
+    public Flux<AppointmentCreateResult> createAppointments(String crn, Long sentenceId, String contextName, List<ContextlessAppointmentCreateRequest> contextlessRequests) {
+
+        final var context = getContext(contextName);
+        final var nsis = new HashMap<NsiKey, Optional<Nsi>>();
+        final var requests = contextlessRequests.stream()
+            .map(contextlessRequest -> appointmentCreateRequestOf(crn, sentenceId, contextName, context, contextlessRequest, nsis))
+            .collect(Collectors.toList());
+        requests.stream().map(AppointmentCreateRequest::getContactType).distinct().forEach(this::assertAppointmentType);
+
+        return deliusApiClient.sendAll(requests, request -> deliusApiClient.createNewContact(makeNewContact(crn, sentenceId, request))
+            .map(contactDto -> AppointmentCreateResult.builder().appointment(makeResponse(contactDto)).build())
+            .onErrorResume(Exception.class, e -> Mono.just(failedCreateOf(e))));
+    }
+
+    private static AppointmentCreateResult failedCreateOf(Exception e) {
+        if (e instanceof WebClientResponseException response) {
+            return AppointmentCreateResult.builder()
+                .errorStatus(response.getRawStatusCode())
+                .errorMessage(response.getResponseBodyAsString())
+                .build();
+        }
+        return AppointmentCreateResult.builder()
+            .errorStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())
+            .errorMessage(e.getMessage())
+            .build();
+    }
+
     @Transactional
-    public AppointmentRescheduleResponse rescheduleAppointment(String crn, Long appointmentId, AppointmentRescheduleRequest request) {
+    public Mono<AppointmentRescheduleResponse> rescheduleAppointment(String crn, Long appointmentId, AppointmentRescheduleRequest request) {
 
         final var existingContact = contactRepository.findById(appointmentId)
             .orElseThrow(() -> new BadRequestException(format("Cannot find Appointment for CRN: %s and Appointment Id %d", crn, appointmentId)));
         final var replacementContact = makeReplacementContact(crn, existingContact, request);
-        final var contactDto = deliusApiClient.replaceContact(appointmentId, replacementContact);
 
-        return AppointmentRescheduleResponse.builder().appointmentId(contactDto.getId()).build();
+        return deliusApiClient.replaceContact(appointmentId, replacementContact)
+            .map(contactDto -> AppointmentRescheduleResponse.builder().appointmentId(contactDto.getId()).build());
     }
 
     @Transactional
-    public AppointmentRescheduleResponse rescheduleAppointment(String crn, Long appointmentId, String contextName, ContextlessAppointmentRescheduleRequest contextlessRequest) {
+    public Mono<AppointmentRescheduleResponse> rescheduleAppointment(String crn, Long appointmentId, String contextName, ContextlessAppointmentRescheduleRequest contextlessRequest) {
 
         final var outcomeTypeMapping = getContext(contextName).getContactMapping().getInitiatedByServiceProviderToOutcomeType();
         final var rescheduleRequest = ofNullable(outcomeTypeMapping.get(contextlessRequest.getInitiatedByServiceProvider()))
@@ -125,21 +221,32 @@ public class AppointmentService {
     }
 
     @Transactional
-    public AppointmentUpdateResponse patchAppointment(String crn, Long appointmentId, JsonPatch jsonPatch) {
+    public Mono<AppointmentUpdateResponse> patchAppointment(String crn, Long appointmentId, JsonPatch jsonPatch) {
 
         this.assertAppointmentTypeIfExists(jsonPatch);
-        final var contactDto = deliusApiClient.patchContact(appointmentId, jsonPatch);
-        return new AppointmentUpdateResponse(contactDto.getId());
+        return deliusApiClient.patchContact(appointmentId, jsonPatch)
+            .map(contactDto -> new AppointmentUpdateResponse(contactDto.getId()));
     }
 
     @Transactional
-    public AppointmentUpdateResponse updateAppointmentOutcome(String crn, Long appointmentId, String contextName, ContextlessAppointmentOutcomeRequest request) {
+    public Mono<AppointmentUpdateResponse> updateAppointmentOutcome(String crn, Long appointmentId, String contextName, ContextlessAppointmentOutcomeRequest request) {
 
         final var context = getContext(contextName);
         final var mappedJsonPatch = mapAttendanceFieldsToOutcomeOf(request, context);
         return patchAppointment(crn, appointmentId, mappedJsonPatch);
     }
 
+    /**
+     * Updates the outcomes of many appointments, with the results in the order of the updates.
+     */
+    @Transactional
+    public Flux<AppointmentUpdateResponse> updateAppointmentOutcomes(String crn, String contextName, List<ContextlessAppointmentOutcomeUpdate> updates) {
+
+        final var context = getContext(contextName);
+        return deliusApiClient.sendAll(updates, update ->
+            patchAppointment(crn, update.getAppointmentId(), mapAttendanceFieldsToOutcomeOf(update.getOutcome(), context)));
+    }
+
     public List<AppointmentType> getAllAppointmentTypes() {
         return contactTypeRepository.findAllSelectableAppointmentTypes()
             .stream()
@@ -201,6 +308,17 @@ public class AppointmentService {
             contactDto.getTypeDescription(), contactDto.getSensitive());
     }
 
+    private AppointmentCreateRequest appointmentCreateRequestOf(String crn, Long sentenceId, String contextName, IntegrationContext context,
+                                                                ContextlessAppointmentCreateRequest contextlessRequest, Map<NsiKey, Optional<Nsi>> nsis) {
+        final var nsiKey = new NsiKey(contextlessRequest.getContractType(), contextlessRequest.getReferralStart(), contextlessRequest.getReferralId());
+        return nsis.computeIfAbsent(nsiKey, key -> referralService.getExistingMatchingNsi(crn, contextName, sentenceId, key.contractType(), key.referralStart(), key.referralId()))
+            .map(existingNsi -> appointmentOf(contextlessRequest, existingNsi, context))
+            .orElseThrow(() -> new BadRequestException(format("Cannot find NSI for CRN: %s Sentence: %d and ContractType %s", crn, sentenceId, contextlessRequest.getContractType())));
+    }
+
+    private record NsiKey(String contractType, OffsetDateTime referralStart, UUID referralId) {
+    }
+
     IntegrationContext getContext(String name) {
         var context = deliusIntegrationContextConfig.getIntegrationContexts().get(name);
         return ofNullable(context).orElseThrow(
@@ -50,13 +50,14 @@ public class ContactService {
     private final ContactRepository contactRepository;
     private final ContactTypeRepository contactTypeRepository;
 
+    @Transactional(readOnly = true)
     public List<Contact> contactsFor(final Long offenderId, final ContactFilter filter) {
-        return ContactTransformer.contactsOf(contactRepository.findAll(filter.toBuilder().offenderId(offenderId).build()));
+        return ContactTransformer.contactsOf(contactRepository.findAll(filter.toBuilder().offenderId(offenderId).build(), Sort.by("createdDateTime", "contactId")));
     }
 
     public Page<ContactSummary> contactSummariesFor(final Long offenderId, final ContactFilter filter, final int page, final int pageSize) {
         final var pagination = PageRequest.of(page, pageSize, Sort.by(DESC, "contactDate", "contactStartTime", "contactEndTime"));
-        return contactRepository.findAll(filter.toBuilder().offenderId(offenderId).build(), pagination)
+        return contactRepository.findSummaries(filter.toBuilder().offenderId(offenderId).build(), pagination)
             .map(ContactTransformer::contactSummaryOf);
     }
 
@@ -31,6 +31,7 @@ import uk.gov.justice.digital.delius.transformers.CustodyKeyDateTransformer;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -130,16 +131,8 @@ public class ConvictionService {
 
     @Transactional(readOnly = true)
     public List<Conviction> convictionsFor(Long offenderId, boolean activeOnly) {
-        List<uk.gov.justice.digital.delius.jpa.standard.entity.Event> events;
-        if (activeOnly) {
-            events = eventRepository.findByOffenderIdAndActiveFlagTrue(offenderId);
-        } else {
-            events = eventRepository.findByOffenderId(offenderId);
-        }
-        return events
+        return eventRepository.findConvictionsByOffenderId(offenderId, activeOnly)
             .stream()
-            .filter(event -> !event.isSoftDeleted())
-            .sorted(Comparator.comparing(uk.gov.justice.digital.delius.jpa.standard.entity.Event::getReferralDate).reversed())
             .map(ConvictionTransformer::convictionOf)
             .collect(toList());
     }
@@ -267,7 +260,7 @@ public class ConvictionService {
 
         return custodialEvents
             .stream()
-            .map(event -> addOrReplaceCustodyKeyDate(event, custodyKeyDateType, custodyKeyDate, true))
+            .map(event -> addOrReplaceCustodyKeyDate(event, custodyKeyDateType, custodyKeyDate))
             .reduce(this::any)
             .orElseThrow();
     }
@@ -278,7 +271,7 @@ public class ConvictionService {
 
     @Transactional
     public CustodyKeyDate addOrReplaceCustodyKeyDateByConvictionId(Long convictionId, String typeCode, CreateCustodyKeyDate custodyKeyDate) throws CustodyTypeCodeIsNotValidException {
-        return addOrReplaceCustodyKeyDate(eventRepository.getOne(convictionId), typeCode, custodyKeyDate, true);
+        return addOrReplaceCustodyKeyDate(eventRepository.getOne(convictionId), typeCode, custodyKeyDate);
     }
 
     @Transactional(readOnly = true)
@@ -313,12 +306,12 @@ public class ConvictionService {
             throw new SingleActiveCustodyConvictionNotFoundException(offenderId, custodialEvents.size());
         }
 
-        custodialEvents.forEach(event -> deleteCustodyKeyDate(event, typeCode, true));
+        custodialEvents.forEach(event -> deleteCustodyKeyDate(event, typeCode));
     }
 
     @Transactional
     public void deleteCustodyKeyDateByConvictionId(Long convictionId, String typeCode) {
-        deleteCustodyKeyDate(eventRepository.getOne(convictionId), typeCode, true);
+        deleteCustodyKeyDate(eventRepository.getOne(convictionId), typeCode);
     }
 
     @Transactional(readOnly = true)
@@ -362,11 +355,26 @@ public class ConvictionService {
             addContactForBulkCustodyKeyDateUpdate(offenderId, event, currentKeyDates, keyDatesToDelete, keyDatesToBeAddedOrUpdated);
             addBulkTelemetry(offenderId, event, currentKeyDates, keyDatesToDelete, keyDatesToBeAddedOrUpdated);
 
-            keyDatesToDelete
-                .forEach(keyDate -> deleteCustodyKeyDate(event, keyDate, false));
+            final var deletedKeyDates = keyDatesToDelete
+                .stream()
+                .flatMap(keyDate -> removeCustodyKeyDate(event, keyDate).stream())
+                .collect(toList());
 
+            final var addedKeyDates = new ArrayList<String>();
+            final var updatedKeyDates = new ArrayList<String>();
             keyDatesToBeAddedOrUpdated
-                .forEach((key, value) -> addOrReplaceCustodyKeyDate(event, key, value));
+                .forEach((key, value) -> {
+                    if (saveCustodyKeyDate(event, key, value)) {
+                        addedKeyDates.add(key);
+                    } else {
+                        updatedKeyDates.add(key);
+                    }
+                });
+
+            // notified per kind of change rather than per key date so each takes its control references in one call
+            spgNotificationService.notifyDeletedCustodyKeyDate(deletedKeyDates, event);
+            spgNotificationService.notifyNewCustodyKeyDate(addedKeyDates, event);
+            spgNotificationService.notifyUpdateOfCustodyKeyDate(updatedKeyDates, event);
 
         } else {
             log.warn("Update custody key dates will be ignored, this feature is switched off ");
@@ -586,28 +594,47 @@ public class ConvictionService {
         return keyDate -> keyDate.getKeyDateType().getCodeValue().equals(typeCode);
     }
 
-    private void addOrReplaceCustodyKeyDate(Event event, String typeCode, LocalDate date) {
-        try {
-            addOrReplaceCustodyKeyDate(event, typeCode, CreateCustodyKeyDate.builder().date(date).build(), false);
-        } catch (CustodyTypeCodeIsNotValidException e) {
-            throw new RuntimeException(e);
-        }
+    private boolean saveCustodyKeyDate(Event event, String typeCode, LocalDate date) {
+        final var custodyKeyDateType = lookupSupplier.custodyKeyDateTypeSupplier().apply(typeCode)
+            .orElseThrow(() -> new RuntimeException(new CustodyTypeCodeIsNotValidException(String.format("%s is not a valid custody key date", typeCode))));
+
+        return saveCustodyKeyDate(event, custodyKeyDateType, date);
     }
 
-    private CustodyKeyDate addOrReplaceCustodyKeyDate(Event event, String typeCode, CreateCustodyKeyDate custodyKeyDate, boolean shouldNotifyIAPS) throws CustodyTypeCodeIsNotValidException {
+    private CustodyKeyDate addOrReplaceCustodyKeyDate(Event event, String typeCode, CreateCustodyKeyDate custodyKeyDate) throws CustodyTypeCodeIsNotValidException {
         final var custodyKeyDateType = lookupSupplier.custodyKeyDateTypeSupplier().apply(typeCode)
             .orElseThrow(() -> new CustodyTypeCodeIsNotValidException(String.format("%s is not a valid custody key date", typeCode)));
 
-        return addOrReplaceCustodyKeyDate(event, custodyKeyDateType, custodyKeyDate, shouldNotifyIAPS);
+        return addOrReplaceCustodyKeyDate(event, custodyKeyDateType, custodyKeyDate);
     }
 
-    private CustodyKeyDate addOrReplaceCustodyKeyDate(Event event, StandardReference custodyKeyDateType, CreateCustodyKeyDate custodyKeyDate, boolean shouldNotifyIAPS) {
+    private CustodyKeyDate addOrReplaceCustodyKeyDate(Event event, StandardReference custodyKeyDateType, CreateCustodyKeyDate custodyKeyDate) {
+        final var typeCode = custodyKeyDateType.getCodeValue();
+
+        if (saveCustodyKeyDate(event, custodyKeyDateType, custodyKeyDate.getDate())) {
+            spgNotificationService.notifyNewCustodyKeyDate(typeCode, event);
+        } else {
+            spgNotificationService.notifyUpdateOfCustodyKeyDate(typeCode, event);
+        }
+
+        // Delius does not notify IAPS when the update comes from NOMIS only when done by probation - no idea why so this behaviour but it must be replicated given we have no user needs defined
+        if (KeyDate.isSentenceExpiryKeyDate(typeCode)) {
+            iapsNotificationService.notifyEventUpdated(event);
+        }
+
+        return getCustodyKeyDate(event, typeCode).orElseThrow(() -> new RuntimeException("Added/Updated keyDate has disappeared"));
+    }
+
+    /**
+     * @return true when the key date was added rather than replaced
+     */
+    private boolean saveCustodyKeyDate(Event event, StandardReference custodyKeyDateType, LocalDate date) {
         final var typeCode = custodyKeyDateType.getCodeValue();
         final var telemetryProperties = Map.of("offenderId", event.getOffenderId().toString(),
             "eventId", event.getEventId().toString(),
             "eventNumber", event.getEventNumber(),
             "type", typeCode,
-            "date", custodyKeyDate.getDate().toString());
+            "date", date.toString());
 
 
         final var maybeExistingKeyDate = event.getDisposal().getCustody().getKeyDates()
@@ -616,32 +643,25 @@ public class ConvictionService {
             .findAny();
 
         maybeExistingKeyDate.ifPresent(existingKeyDate -> {
-            existingKeyDate.setKeyDate(custodyKeyDate.getDate());
+            existingKeyDate.setKeyDate(date);
             existingKeyDate.setLastUpdatedDatetime(LocalDateTime.now());
             existingKeyDate.setLastUpdatedUserId(lookupSupplier.userSupplier().get().getUserId());
             eventRepository.save(event);
-            spgNotificationService.notifyUpdateOfCustodyKeyDate(typeCode, event);
             telemetryClient.trackEvent("KeyDateUpdated", telemetryProperties, null);
         });
 
         if (maybeExistingKeyDate.isEmpty()) {
-            final var keyDate = keyDateEntityBuilder.keyDateOf(event.getDisposal().getCustody(), custodyKeyDateType, custodyKeyDate.getDate());
+            final var keyDate = keyDateEntityBuilder.keyDateOf(event.getDisposal().getCustody(), custodyKeyDateType, date);
             event.getDisposal()
                 .getCustody()
                 .getKeyDates()
                 .add(keyDate);
 
             eventRepository.saveAndFlush(event);
-            spgNotificationService.notifyNewCustodyKeyDate(typeCode, event);
             telemetryClient.trackEvent("KeyDateAdded", telemetryProperties, null);
         }
 
-        // Delius does not notify IAPS when the update comes from NOMIS only when done by probation - no idea why so this behaviour but it must be replicated given we have no user needs defined
-        if (shouldNotifyIAPS && KeyDate.isSentenceExpiryKeyDate(typeCode)) {
-            iapsNotificationService.notifyEventUpdated(event);
-        }
-
-        return getCustodyKeyDate(event, typeCode).orElseThrow(() -> new RuntimeException("Added/Updated keyDate has disappeared"));
+        return maybeExistingKeyDate.isEmpty();
     }
 
     private List<CustodyKeyDate> getCustodyKeyDates(Event event) {
@@ -651,7 +671,16 @@ public class ConvictionService {
             .collect(toList());
     }
 
-    private void deleteCustodyKeyDate(Event event, String typeCode, boolean shouldNotifyIAPS) {
+    private void deleteCustodyKeyDate(Event event, String typeCode) {
+        removeCustodyKeyDate(event, typeCode).ifPresent(removedKeyDate -> {
+            spgNotificationService.notifyDeletedCustodyKeyDate(removedKeyDate, event);
+            if (KeyDate.isSentenceExpiryKeyDate(typeCode)) {
+                iapsNotificationService.notifyEventUpdated(event);
+            }
+        });
+    }
+
+    private Optional<KeyDate> removeCustodyKeyDate(Event event, String typeCode) {
         final var telemetryProperties = Map.of("offenderId", event.getOffenderId().toString(),
             "eventId", event.getEventId().toString(),
             "eventNumber", event.getEventNumber(),
@@ -666,12 +695,10 @@ public class ConvictionService {
         maybeKeyDateToRemove.ifPresent(keyDateToRemove -> {
             keyDates.remove(keyDateToRemove);
             eventRepository.save(event);
-            spgNotificationService.notifyDeletedCustodyKeyDate(keyDateToRemove, event);
-            if (shouldNotifyIAPS && KeyDate.isSentenceExpiryKeyDate(typeCode)) {
-                iapsNotificationService.notifyEventUpdated(event);
-            }
             telemetryClient.trackEvent("KeyDateDeleted", telemetryProperties, null);
         });
+
+        return maybeKeyDateToRemove;
     }
 
     private Optional<Long> firstEventId(List<Event> events) {
@@ -4,88 +4,117 @@ import com.github.fge.jsonpatch.JsonPatch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ContactDto;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewContact;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewNsi;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NsiDto;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ReplaceContact;
+import uk.gov.justice.digital.delius.utils.UserContext;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 
+/**
+ * Calls the Delius API. Nothing is sent until the returned publisher is subscribed to, but the caller's auth token is
+ * taken when the call is made, so the request can be sent from any thread.
+ */
 @Service
 @Slf4j
 public class DeliusApiClient {
     private final WebClient webClient;
+    private final int bulkConcurrency;
 
     @Autowired
-    public DeliusApiClient(@Qualifier("deliusApiWebClient") final WebClient webClient) {
+    public DeliusApiClient(@Qualifier("deliusApiWebClient") final WebClient webClient,
+                           @Value("${deliusApi.bulkConcurrency:4}") final int bulkConcurrency) {
         this.webClient = webClient;
+        this.bulkConcurrency = bulkConcurrency;
     }
 
-    public NsiDto createNewNsi(final NewNsi newNsiRequest) {
+    public Mono<NsiDto> createNewNsi(final NewNsi newNsiRequest) {
         return webClient.post()
             .uri("/v1/nsi")
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .headers(jsonHeaders())
             .bodyValue(newNsiRequest)
             .retrieve()
-            .bodyToMono(NsiDto.class)
-            .block();
+            .bodyToMono(NsiDto.class);
     }
 
-    public NsiDto patchNsi(Long nsiId, JsonPatch jsonPatch) {
+    public Mono<NsiDto> patchNsi(Long nsiId, JsonPatch jsonPatch) {
         return webClient.patch()
             .uri(fromPath("/v1/nsi/{id}").buildAndExpand(nsiId).toUriString())
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .headers(jsonHeaders())
             .bodyValue(jsonPatch)
             .retrieve()
-            .bodyToMono(NsiDto.class)
-            .block();
+            .bodyToMono(NsiDto.class);
     }
 
-    public ContactDto createNewContact(NewContact newContact) {
+    public Mono<ContactDto> createNewContact(NewContact newContact) {
         return webClient.post()
             .uri("/v1/contact")
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .headers(jsonHeaders())
             .bodyValue(newContact)
             .retrieve()
-            .bodyToMono(ContactDto.class)
-            .block();
+            .bodyToMono(ContactDto.class);
     }
 
-    public ContactDto replaceContact(Long contactId, ReplaceContact replaceContact) {
+    public Mono<ContactDto> replaceContact(Long contactId, ReplaceContact replaceContact) {
         return webClient.post()
             .uri(fromPath("/v1/contact/{id}/replace").buildAndExpand(contactId).toUriString())
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .headers(jsonHeaders())
             .bodyValue(replaceContact)
             .retrieve()
-            .bodyToMono(ContactDto.class)
-            .block();
+            .bodyToMono(ContactDto.class);
     }
 
-    public ContactDto patchContact(Long contactId, JsonPatch jsonPatch) {
+    public Mono<ContactDto> patchContact(Long contactId, JsonPatch jsonPatch) {
         return webClient.patch()
             .uri(fromPath("/v1/contact/{id}").buildAndExpand(contactId).toUriString())
-            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .headers(jsonHeaders())
             .bodyValue(jsonPatch)
             .retrieve()
-            .bodyToMono(ContactDto.class)
-            .block();
+            .bodyToMono(ContactDto.class);
     }
 
-    public Void deleteContact(Long contactId) {
+    public Mono<Void> deleteContact(Long contactId) {
         return webClient.delete()
             .uri(fromPath("/v1/contact/{id}").buildAndExpand(contactId).toUriString())
+            .headers(authorization())
             .retrieve()
-            .bodyToMono(Void.class)
-            .block();
+            .bodyToMono(Void.class);
+    }
+
+    /**
+     * Sends a call for each request with no more than deliusApi.bulkConcurrency in flight at once. The results are in
+     * the order of the requests, and the first failure cancels any calls still to be made.
+     */
+    public <T, R> Flux<R> sendAll(List<T> requests, Function<T, Mono<R>> call) {
+        // the calls are made here so they take this thread's auth token
+        final var calls = requests.stream().map(call).collect(toList());
+        return Flux.fromIterable(calls).flatMapSequential(Function.identity(), bulkConcurrency);
+    }
+
+    private static Consumer<HttpHeaders> jsonHeaders() {
+        return authorization().andThen(headers -> {
+            headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        });
+    }
+
+    private static Consumer<HttpHeaders> authorization() {
+        final var authToken = Optional.ofNullable(UserContext.getAuthToken());
+        return headers -> authToken.ifPresent(token -> headers.set(HttpHeaders.AUTHORIZATION, token));
     }
 }
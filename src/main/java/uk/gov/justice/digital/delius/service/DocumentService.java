@@ -1,19 +1,26 @@
 package uk.gov.justice.digital.delius.service;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.data.api.ConvictionDocuments;
 import uk.gov.justice.digital.delius.data.api.DocumentLink;
 import uk.gov.justice.digital.delius.data.api.OffenderDocumentDetail;
 import uk.gov.justice.digital.delius.data.api.OffenderDocumentDetail.Type;
 import uk.gov.justice.digital.delius.data.api.OffenderDocuments;
 import uk.gov.justice.digital.delius.data.filters.DocumentFilter;
-import uk.gov.justice.digital.delius.jpa.filters.CourtReportDocumentFilterTransformer;
+import uk.gov.justice.digital.delius.data.filters.DocumentFilter.SubType;
 import uk.gov.justice.digital.delius.jpa.national.repository.DocumentRepository;
 import uk.gov.justice.digital.delius.jpa.oracle.annotations.NationalUserOverride;
 import uk.gov.justice.digital.delius.jpa.standard.entity.*;
@@ -22,33 +29,46 @@ import uk.gov.justice.digital.delius.transformers.DocumentTransformer;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.digital.delius.helpers.FluentHelper.not;
+import static uk.gov.justice.digital.delius.jpa.standard.entity.RCourtReportType.PRE_SENTENCE_REPORT_TYPES;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class DocumentService {
+    public static final String DOCUMENTS_FETCH_TIMER = "delius.documents.fetch";
+
+    private static final Map<Type, Class<? extends Document>> DOCUMENT_TYPES = ImmutableMap.<Type, Class<? extends Document>>builder()
+            .put(Type.OFFENDER_DOCUMENT, OffenderDocument.class)
+            .put(Type.CONVICTION_DOCUMENT, EventDocument.class)
+            .put(Type.COURT_REPORT_DOCUMENT, CourtReportDocument.class)
+            .put(Type.INSTITUTION_REPORT_DOCUMENT, InstitutionalReportDocument.class)
+            .put(Type.ADDRESS_ASSESSMENT_DOCUMENT, AddressAssessmentDocument.class)
+            .put(Type.APPROVED_PREMISES_REFERRAL_DOCUMENT, ApprovedPremisesReferralDocument.class)
+            .put(Type.ASSESSMENT_DOCUMENT, AssessmentDocument.class)
+            .put(Type.CASE_ALLOCATION_DOCUMENT, CaseAllocationDocument.class)
+            .put(Type.PERSONAL_CONTACT_DOCUMENT, PersonalContactDocument.class)
+            .put(Type.REFERRAL_DOCUMENT, ReferralDocument.class)
+            .put(Type.NSI_DOCUMENT, NsiDocument.class)
+            .put(Type.PERSONAL_CIRCUMSTANCE_DOCUMENT, PersonalCircumstanceDocument.class)
+            .put(Type.UPW_APPOINTMENT_DOCUMENT, UPWAppointmentDocument.class)
+            .put(Type.CONTACT_DOCUMENT, ContactDocument.class)
+            .build();
 
     private final DocumentRepository documentRepository;
     private final OffenderRepository offenderRepository;
-    private final OffenderDocumentRepository offenderDocumentRepository;
-    private final EventDocumentRepository eventDocumentRepository;
-    private final CourtReportDocumentRepository courtReportDocumentRepository;
-    private final InstitutionReportDocumentRepository institutionReportDocumentRepository;
+    private final DocumentIndexRepository documentIndexRepository;
     private final EventRepository eventRepository;
-    private final AddressAssessmentDocumentRepository addressAssessmentDocumentRepository;
-    private final ApprovedPremisesReferralDocumentRepository approvedPremisesReferralDocumentRepository;
-    private final AssessmentDocumentRepository assessmentDocumentRepository;
-    private final CaseAllocationDocumentRepository caseAllocationDocumentRepository;
-    private final PersonalContactDocumentRepository personalContactDocumentRepository;
-    private final ReferralDocumentRepository referralDocumentRepository;
-    private final NsiDocumentRepository nsiDocumentRepository;
-    private final PersonalCircumstanceDocumentRepository personalCircumstanceDocumentRepository;
-    private final UPWAppointmentDocumentRepository upwAppointmentDocumentRepository;
-    private final ContactDocumentRepository contactDocumentRepository;
+    private final AlfrescoService alfrescoService;
+    private final ParallelQueryRunner parallelQueryRunner;
+    private final FeatureSwitches featureSwitches;
+    private final MeterRegistry meterRegistry;
 
 
     @NationalUserOverride
@@ -77,43 +97,43 @@ public class DocumentService {
                 .build();
 
         documentRepository.save(documentEntity);
+        alfrescoService.evictDocumentsFor(documentLink.getCrn(), documentLink.getAlfrescoId());
     }
 
-    @Transactional(readOnly = true)
     public OffenderDocuments offenderDocumentsFor(Long offenderId, DocumentFilter filter) {
-        final var eventCpsPackFilter = filter.hasDocument(Type.CPSPACK_DOCUMENT, Event::hasCpsPack);
-        final var hasPreviousConvictionsFilter = filter.hasDocument(Type.PRECONS_DOCUMENT, this::hasPreviousConvictions);
+        final var parallel = featureSwitches.getDocuments().isParallelFetch();
+        final var sample = Timer.start(meterRegistry);
+        try {
+            return parallel ? fetchInParallel(offenderId, filter) : fetchSequentially(offenderId, filter);
+        } finally {
+            sample.stop(meterRegistry.timer(DOCUMENTS_FETCH_TIMER, "mode", parallel ? "parallel" : "sequential"));
+        }
+    }
 
-        final var eventDocuments = eventDocumentsFor(offenderId, filter);
-        final var courtReportDocuments = courtReportDocumentsFor(offenderId, filter);
-        final var institutionReportDocuments = institutionReportDocumentsFor(offenderId, filter);
-        final var approvedPremisesReferralDocuments = approvedPremisesReferralDocumentsFor(offenderId, filter);
-        final var assessmentDocuments = assessmentDocumentsFor(offenderId, filter);
-        final var caseAllocationDocuments = caseAllocationDocumentsFor(offenderId, filter);
-        final var referralDocuments = referralDocumentsFor(offenderId, filter);
-        final var allNsiDocuments = nsiDocumentsFor(offenderId, filter);
-        final var nsiEventDocuments = allNsiDocuments.stream().filter(this::isEventRelated).collect(toList());
-        final var upwAppointmentDocuments = upwAppointmentDocumentsFor(offenderId, filter);
-        final var allContactDocuments = contactDocumentsFor(offenderId, filter);
-        final var contactEventDocuments = allContactDocuments.stream().filter(this::isEventRelated).collect(toList());
-        final var events = eventRepository.findByOffenderId(offenderId);
-        final var offender = offenderRepository
-                .findByOffenderId(offenderId)
-                .orElseThrow(() -> new RuntimeException(String.format("offenderDocumentsFor could not find offender %d", offenderId)));
+    private OffenderDocuments fetchSequentially(Long offenderId, DocumentFilter filter) {
+        return parallelQueryRunner.inTransaction(() -> offenderDocumentsOf(
+                previousConvictionsFor(offenderId, filter),
+                cpsPacksFor(offenderId, filter),
+                documentDetailsFor(offenderId, filter)));
+    }
 
+    private OffenderDocuments fetchInParallel(Long offenderId, DocumentFilter filter) {
+        final var previousConvictions = parallelQueryRunner.submit(() -> previousConvictionsFor(offenderId, filter));
+        final var cpsPacks = parallelQueryRunner.submit(() -> cpsPacksFor(offenderId, filter));
+        final var documentDetails = parallelQueryRunner.submit(() -> documentDetailsFor(offenderId, filter));
+
+        parallelQueryRunner.awaitAll(previousConvictions, cpsPacks, documentDetails);
+
+        return offenderDocumentsOf(previousConvictions.join(), cpsPacks.join(), documentDetails.join());
+    }
+
+    private OffenderDocuments offenderDocumentsOf(List<OffenderDocumentDetail> previousConvictions,
+                                                  Map<Long, OffenderDocumentDetail> cpsPacks,
+                                                  DocumentDetails documentDetails) {
         final var setOfRelatedEventIds = ImmutableSet
                 .<Long>builder()
-                .addAll(events.stream().filter(eventCpsPackFilter).map(Event::getEventId).collect(toList()))
-                .addAll(eventDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(courtReportDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(institutionReportDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(approvedPremisesReferralDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(assessmentDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(caseAllocationDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(referralDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(nsiEventDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(upwAppointmentDocuments.stream().map(this::eventId).collect(toList()))
-                .addAll(contactEventDocuments.stream().map(this::eventId).collect(toList()))
+                .addAll(cpsPacks.keySet())
+                .addAll(documentDetails.eventDocuments.keySet())
                 .build();
 
         final var convictions = setOfRelatedEventIds
@@ -123,77 +143,8 @@ public class DocumentService {
                         .convictionId(String.valueOf(eventId))
                         .documents(
                                 ImmutableList.<OffenderDocumentDetail>builder()
-                                        .addAll(toOffenderDocumentDetailList(eventWithCPsPack(events, eventId, eventCpsPackFilter)))
-                                        .addAll(
-                                            DocumentTransformer
-                                            .offenderDocumentsDetailsOfEventDocuments(
-                                                    eventDocuments
-                                                            .stream()
-                                                            .filter(document -> eventId(document).equals(eventId))
-                                                            .collect(toList())))
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfCourtReportDocuments(
-                                                        courtReportDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfInstitutionReportDocuments(
-                                                        institutionReportDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfContactDocuments(
-                                                        contactEventDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfApprovedPremisesReferralDocuments(
-                                                        approvedPremisesReferralDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfAssessmentDocuments(
-                                                        assessmentDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfCaseAllocationDocuments(
-                                                        caseAllocationDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfReferralDocuments(
-                                                        referralDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfNsiDocuments(
-                                                        nsiEventDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
-                                        .addAll(DocumentTransformer
-                                                .offenderDocumentsDetailsOfUPWAppointmentDocuments(
-                                                        upwAppointmentDocuments
-                                                                .stream()
-                                                                .filter(document -> eventId(document).equals(eventId))
-                                                                .collect(toList()))
-                                        )
+                                        .addAll(Optional.ofNullable(cpsPacks.get(eventId)).stream().iterator())
+                                        .addAll(documentDetails.eventDocuments.get(eventId))
                                         .build()
                         )
                         .build())
@@ -203,85 +154,122 @@ public class DocumentService {
                 .builder()
                 .documents(
                         ImmutableList.<OffenderDocumentDetail>builder()
-                                .addAll(previousConvictions(offender, hasPreviousConvictionsFilter))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfOffenderDocuments(
-                                            offenderRelatedDocumentsFor(offenderId, filter)))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfAddressAssessmentDocuments(
-                                            addressAssessmentDocumentsFor(offenderId, filter)))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfPersonalContactDocuments(
-                                            personalContactDocumentsFor(offenderId, filter)))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfPersonalCircumstanceDocuments(
-                                            personalCircumstanceDocumentsFor(offenderId, filter)))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfContactDocuments(
-                                                allContactDocuments.stream().filter(not(this::isEventRelated)).collect(toList())))
-                                .addAll(DocumentTransformer
-                                        .offenderDocumentsDetailsOfNsiDocuments(
-                                                allNsiDocuments.stream().filter(not(this::isEventRelated)).collect(toList())))
+                                .addAll(previousConvictions)
+                                .addAll(documentDetails.offenderDocuments)
                                 .build()
                 )
                 .convictions(convictions)
                 .build();
     }
 
-    private List<PersonalCircumstanceDocument> personalCircumstanceDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.PERSONAL_CIRCUMSTANCE_DOCUMENT, () -> personalCircumstanceDocumentRepository.findByOffenderId(offenderId));
-    }
-
-    private List<PersonalContactDocument> personalContactDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.PERSONAL_CONTACT_DOCUMENT, () -> personalContactDocumentRepository.findByOffenderId(offenderId));
-    }
+    private List<OffenderDocumentDetail> previousConvictionsFor(Long offenderId, DocumentFilter filter) {
+        final var hasPreviousConvictionsFilter = filter.hasDocument(Type.PRECONS_DOCUMENT, this::hasPreviousConvictions);
+        final var offender = offenderRepository
+                .findByOffenderId(offenderId)
+                .orElseThrow(() -> new RuntimeException(String.format("offenderDocumentsFor could not find offender %d", offenderId)));
 
-    private List<AddressAssessmentDocument> addressAssessmentDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.ADDRESS_ASSESSMENT_DOCUMENT, () -> addressAssessmentDocumentRepository.findByOffenderId(offenderId));
+        return previousConvictions(offender, hasPreviousConvictionsFilter);
     }
 
-    private List<OffenderDocument> offenderRelatedDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.OFFENDER_DOCUMENT, () -> offenderDocumentRepository.findByOffenderId(offenderId));
-    }
+    private Map<Long, OffenderDocumentDetail> cpsPacksFor(Long offenderId, DocumentFilter filter) {
+        final var eventCpsPackFilter = filter.hasDocument(Type.CPSPACK_DOCUMENT, Event::hasCpsPack);
 
-    private List<ContactDocument> contactDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.CONTACT_DOCUMENT, () -> contactDocumentRepository.findByOffenderId(offenderId));
+        return eventRepository.findByOffenderId(offenderId)
+                .stream()
+                .filter(eventCpsPackFilter)
+                .collect(toImmutableMap(Event::getEventId, DocumentTransformer::offenderDocumentDetailsOfCpsPack));
     }
 
-    private List<UPWAppointmentDocument> upwAppointmentDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.UPW_APPOINTMENT_DOCUMENT, () -> upwAppointmentDocumentRepository.findByOffenderId(offenderId));
-    }
+    private DocumentDetails documentDetailsFor(Long offenderId, DocumentFilter filter) {
+        final var documents = documentIndexFor(offenderId, filter);
+        final var allNsiDocuments = documents.of(NsiDocument.class);
+        final var allContactDocuments = documents.of(ContactDocument.class);
 
-    private List<NsiDocument> nsiDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.NSI_DOCUMENT, () -> nsiDocumentRepository.findByOffenderId(offenderId));
-    }
+        final var eventDocuments = Multimaps.index(documents.of(EventDocument.class), this::eventId);
+        final var courtReportDocuments = Multimaps.index(courtReportDocumentsFor(documents, filter), this::eventId);
+        final var institutionReportDocuments = Multimaps.index(documents.of(InstitutionalReportDocument.class), this::eventId);
+        final var approvedPremisesReferralDocuments = Multimaps.index(documents.of(ApprovedPremisesReferralDocument.class), this::eventId);
+        final var assessmentDocuments = Multimaps.index(documents.of(AssessmentDocument.class), this::eventId);
+        final var caseAllocationDocuments = Multimaps.index(documents.of(CaseAllocationDocument.class), this::eventId);
+        final var referralDocuments = Multimaps.index(documents.of(ReferralDocument.class), this::eventId);
+        final var nsiEventDocuments = Multimaps.index(allNsiDocuments.stream().filter(this::isEventRelated).iterator(), this::eventId);
+        final var upwAppointmentDocuments = Multimaps.index(documents.of(UPWAppointmentDocument.class), this::eventId);
+        final var contactEventDocuments = Multimaps.index(allContactDocuments.stream().filter(this::isEventRelated).iterator(), this::eventId);
 
-    private List<ReferralDocument> referralDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.REFERRAL_DOCUMENT, () -> referralDocumentRepository.findByOffenderId(offenderId));
-    }
+        final var setOfRelatedEventIds = ImmutableSet
+                .<Long>builder()
+                .addAll(eventDocuments.keySet())
+                .addAll(courtReportDocuments.keySet())
+                .addAll(institutionReportDocuments.keySet())
+                .addAll(approvedPremisesReferralDocuments.keySet())
+                .addAll(assessmentDocuments.keySet())
+                .addAll(caseAllocationDocuments.keySet())
+                .addAll(referralDocuments.keySet())
+                .addAll(nsiEventDocuments.keySet())
+                .addAll(upwAppointmentDocuments.keySet())
+                .addAll(contactEventDocuments.keySet())
+                .build();
 
-    private List<CaseAllocationDocument> caseAllocationDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.CASE_ALLOCATION_DOCUMENT, () -> caseAllocationDocumentRepository.findByOffenderId(offenderId));
-    }
+        final var documentsByEvent = ImmutableListMultimap.<Long, OffenderDocumentDetail>builder();
+        setOfRelatedEventIds.forEach(eventId -> documentsByEvent
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfEventDocuments(eventDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfCourtReportDocuments(courtReportDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfInstitutionReportDocuments(institutionReportDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfContactDocuments(contactEventDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfApprovedPremisesReferralDocuments(approvedPremisesReferralDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfAssessmentDocuments(assessmentDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfCaseAllocationDocuments(caseAllocationDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfReferralDocuments(referralDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfNsiDocuments(nsiEventDocuments.get(eventId)))
+                .putAll(eventId, DocumentTransformer.offenderDocumentsDetailsOfUPWAppointmentDocuments(upwAppointmentDocuments.get(eventId))));
+
+        final var offenderDocuments = ImmutableList.<OffenderDocumentDetail>builder()
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfOffenderDocuments(documents.of(OffenderDocument.class)))
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfAddressAssessmentDocuments(documents.of(AddressAssessmentDocument.class)))
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfPersonalContactDocuments(documents.of(PersonalContactDocument.class)))
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfPersonalCircumstanceDocuments(documents.of(PersonalCircumstanceDocument.class)))
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfContactDocuments(
+                                allContactDocuments.stream().filter(not(this::isEventRelated)).collect(toList())))
+                .addAll(DocumentTransformer
+                        .offenderDocumentsDetailsOfNsiDocuments(
+                                allNsiDocuments.stream().filter(not(this::isEventRelated)).collect(toList())))
+                .build();
 
-    private List<AssessmentDocument> assessmentDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.ASSESSMENT_DOCUMENT, () -> assessmentDocumentRepository.findByOffenderId(offenderId));
+        return new DocumentDetails(documentsByEvent.build(), offenderDocuments);
     }
 
-    private List<ApprovedPremisesReferralDocument> approvedPremisesReferralDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.APPROVED_PREMISES_REFERRAL_DOCUMENT, () -> approvedPremisesReferralDocumentRepository.findByOffenderId(offenderId));
-    }
+    private DocumentIndex documentIndexFor(Long offenderId, DocumentFilter filter) {
+        final var documentTypes = DOCUMENT_TYPES
+                .entrySet()
+                .stream()
+                .filter(documentType -> filter.allowsType(documentType.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(toList());
 
-    private List<InstitutionalReportDocument> institutionReportDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.INSTITUTION_REPORT_DOCUMENT, () -> institutionReportDocumentRepository.findByOffenderId(offenderId));
+        if (documentTypes.isEmpty()) {
+            return new DocumentIndex(List.of());
+        }
+        return new DocumentIndex(documentIndexRepository.findByOffenderId(offenderId, documentTypes));
     }
 
-    private List<CourtReportDocument> courtReportDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.COURT_REPORT_DOCUMENT, type -> courtReportDocumentRepository.findAll(CourtReportDocumentFilterTransformer.of(offenderId, type)));
+    private List<CourtReportDocument> courtReportDocumentsFor(DocumentIndex documents, DocumentFilter filter) {
+        return filter.documentsFor(Type.COURT_REPORT_DOCUMENT, subType -> documents
+                .of(CourtReportDocument.class)
+                .stream()
+                .filter(document -> subType != SubType.PSR || isPreSentenceReport(document))
+                .collect(toList()));
     }
 
-    private List<EventDocument> eventDocumentsFor(Long offenderId, DocumentFilter filter) {
-        return filter.documentsFor(Type.CONVICTION_DOCUMENT, () -> eventDocumentRepository.findByOffenderId(offenderId));
+    private boolean isPreSentenceReport(CourtReportDocument document) {
+        return Optional.ofNullable(document.getCourtReport().getCourtReportType())
+                .map(RCourtReportType::getCode)
+                .filter(PRE_SENTENCE_REPORT_TYPES::contains)
+                .isPresent();
     }
 
     private boolean isEventRelated(ContactDocument contactDocument) {
@@ -331,20 +319,6 @@ public class DocumentService {
         return Optional.ofNullable(document.getContact().getEvent()).map(Event::getEventId).orElseThrow(() -> new RuntimeException("requested eventId even when this is offender related"));
     }
 
-    private Optional<Event> eventWithCPsPack(List<Event> events, Long eventId, Predicate<Event> eventCpsPackFilter) {
-        return events
-                .stream()
-                .filter(event -> event.getEventId().equals(eventId))
-                .filter(eventCpsPackFilter)
-                .findAny();
-    }
-
-    private List<OffenderDocumentDetail> toOffenderDocumentDetailList(Optional<Event> maybeEvent) {
-        return maybeEvent
-                .map(event -> ImmutableList.of(DocumentTransformer.offenderDocumentDetailsOfCpsPack(event)))
-                .orElseGet(ImmutableList::of);
-    }
-
     private List<OffenderDocumentDetail> previousConvictions(Offender offender, Predicate<Offender> previousConvictionCheck) {
         return Optional.of(offender)
                 .filter(previousConvictionCheck)
@@ -355,5 +329,35 @@ public class DocumentService {
     private boolean hasPreviousConvictions(Offender offender) {
         return StringUtils.hasText(offender.getPreviousConvictionsAlfrescoDocumentId());
     }
-}
 
+    /**
+     * An offender's documents split by entity type in a single pass over the unified document query.
+     */
+    private static final class DocumentIndex {
+        private final Map<Class<?>, List<Document>> documentsByType;
+
+        private DocumentIndex(List<Document> documents) {
+            documentsByType = documents
+                    .stream()
+                    .map(document -> (Document) Hibernate.unproxy(document))
+                    .collect(groupingBy(Object::getClass));
+        }
+
+        private <T extends Document> List<T> of(Class<T> type) {
+            return documentsByType.getOrDefault(type, List.of()).stream().map(type::cast).collect(toList());
+        }
+    }
+
+    /**
+     * Transformed documents, as the entities they came from may have been loaded on another thread and connection.
+     */
+    private static final class DocumentDetails {
+        private final ListMultimap<Long, OffenderDocumentDetail> eventDocuments;
+        private final List<OffenderDocumentDetail> offenderDocuments;
+
+        private DocumentDetails(ListMultimap<Long, OffenderDocumentDetail> eventDocuments, List<OffenderDocumentDetail> offenderDocuments) {
+            this.eventDocuments = eventDocuments;
+            this.offenderDocuments = offenderDocuments;
+        }
+    }
+}
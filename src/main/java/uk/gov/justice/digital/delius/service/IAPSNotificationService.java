@@ -3,8 +3,16 @@ package uk.gov.justice.digital.delius.service;
 import lombok.Getter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
 import uk.gov.justice.digital.delius.jpa.standard.repository.IAPSEventRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
 
 /*
  * Service for recording notifications to IAPS - Intermin Accredited Programme System
@@ -12,16 +20,42 @@ import uk.gov.justice.digital.delius.jpa.standard.repository.IAPSEventRepository
  */
 @Service
 public class IAPSNotificationService {
+    static final String EVENT_UPDATED = "IAPS_EVENT_UPDATED";
+
     private final IAPSEventRepository iapsEventRepository;
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final FeatureSwitches featureSwitches;
 
-    public IAPSNotificationService(IAPSEventRepository iapsEventRepository) {
+    public IAPSNotificationService(IAPSEventRepository iapsEventRepository, PendingNotificationRepository pendingNotificationRepository, FeatureSwitches featureSwitches) {
         this.iapsEventRepository = iapsEventRepository;
+        this.pendingNotificationRepository = pendingNotificationRepository;
+        this.featureSwitches = featureSwitches;
     }
 
     @Transactional
     public void notifyEventUpdated(Event event) {
-        iapsEventRepository.findById(event.getEventId())
-                .ifPresent(iapsEvent -> iapsEvent.setIapsFlag(IAPSFlag.UPDATED.getValue()));
+        if (featureSwitches.getNotifications().isOutbox()) {
+            final var now = LocalDateTime.now();
+            pendingNotificationRepository.save(PendingNotification
+                    .builder()
+                    .notificationType(EVENT_UPDATED)
+                    .offenderId(event.getOffenderId())
+                    .uniqueId(event.getEventId())
+                    .createdDatetime(now)
+                    .nextAttemptDatetime(now)
+                    .build());
+        } else {
+            iapsEventRepository.findById(event.getEventId())
+                    .ifPresent(iapsEvent -> iapsEvent.setIapsFlag(IAPSFlag.UPDATED.getValue()));
+        }
+    }
+
+    /**
+     * Flags the events as updated for notifications recorded while the outbox was in use.
+     */
+    void writePendingNotifications(List<PendingNotification> pendingNotifications) {
+        iapsEventRepository.findAllById(pendingNotifications.stream().map(PendingNotification::getUniqueId).distinct().collect(toList()))
+                .forEach(iapsEvent -> iapsEvent.setIapsFlag(IAPSFlag.UPDATED.getValue()));
     }
 
     @Getter
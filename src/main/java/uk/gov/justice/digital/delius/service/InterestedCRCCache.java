@@ -0,0 +1,120 @@
+package uk.gov.justice.digital.delius.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
+import uk.gov.justice.digital.delius.jpa.standard.repository.SpgNotificationHelperRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CRCs with an interest in an offender, which receive their SPG notifications. Each offender's CRCs are looked up
+ * once per transaction however many notifications it sends, and can also be shared between transactions for a short
+ * time. Both are dropped when this service changes the offender's managers.
+ */
+@Component
+public class InterestedCRCCache {
+    private final SpgNotificationHelperRepository spgNotificationHelperRepository;
+    private final Optional<Cache<Long, List<ProbationArea>>> sharedInterestedCRCs;
+
+    @Autowired
+    public InterestedCRCCache(SpgNotificationHelperRepository spgNotificationHelperRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${spg.interested-crcs.cache.time-to-live:0s}") Duration timeToLive,
+                              @Value("${spg.interested-crcs.cache.maximum-size:10000}") long maximumSize) {
+        this.spgNotificationHelperRepository = spgNotificationHelperRepository;
+        this.sharedInterestedCRCs = Optional.of(timeToLive)
+                .filter(ttl -> !ttl.isZero())
+                .map(ttl -> {
+                    final Cache<Long, List<ProbationArea>> cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                            .maximumSize(maximumSize)
+                            .recordStats()
+                            .build();
+                    GuavaCacheMetrics.monitor(meterRegistry, cache, "interestedCRCs");
+                    return cache;
+                });
+    }
+
+    public List<ProbationArea> interestedCRCsOf(Long offenderId) {
+        return transactionInterestedCRCs()
+                .map(interestedCRCs -> interestedCRCs.computeIfAbsent(offenderId, this::sharedInterestedCRCsOf))
+                .orElseGet(() -> sharedInterestedCRCsOf(offenderId));
+    }
+
+    public void invalidate(Long offenderId) {
+        transactionInterestedCRCs().ifPresent(interestedCRCs -> interestedCRCs.remove(offenderId));
+        sharedInterestedCRCs.ifPresent(cache -> {
+            cache.invalidate(offenderId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // other transactions still see the old managers until this one commits
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.invalidate(offenderId);
+                    }
+                });
+            }
+        });
+    }
+
+    private List<ProbationArea> sharedInterestedCRCsOf(Long offenderId) {
+        return sharedInterestedCRCs
+                .map(cache -> {
+                    try {
+                        return cache.get(offenderId, () -> lookupInterestedCRCs(offenderId));
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException(e.getCause());
+                    }
+                })
+                .orElseGet(() -> lookupInterestedCRCs(offenderId));
+    }
+
+    private List<ProbationArea> lookupInterestedCRCs(Long offenderId) {
+        return List.copyOf(spgNotificationHelperRepository.getInterestedCRCs(String.valueOf(offenderId)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Map<Long, List<ProbationArea>>> transactionInterestedCRCs() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        final var bound = (Map<Long, List<ProbationArea>>) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return Optional.of(bound);
+        }
+        final var interestedCRCs = new HashMap<Long, List<ProbationArea>>();
+        TransactionSynchronizationManager.bindResource(this, interestedCRCs);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // a transaction started while this one is suspended looks its CRCs up afresh
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(InterestedCRCCache.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(InterestedCRCCache.this, interestedCRCs);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InterestedCRCCache.this);
+            }
+        });
+        return Optional.of(interestedCRCs);
+    }
+}
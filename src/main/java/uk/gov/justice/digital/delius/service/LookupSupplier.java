@@ -131,6 +131,6 @@ public class LookupSupplier {
         return standardReferenceRepository.findByCodeAndCodeSetName(code, COURT_TYPE_REF_DATASET);
     }
     public Optional<ProbationArea> probationAreaByCode(String code) {
-        return probationAreaRepository.findByCode(code);
+        return probationAreaRepository.findCachedByCode(code);
     }
 }
@@ -0,0 +1,180 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationLockRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.function.Predicate.not;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Writes the SPG and IAPS notifications recorded in PENDING_NOTIFICATION while features.notifications.outbox is on.
+ * Each poll claims batches of due notifications, skipping any claimed by another instance, and writes each batch in
+ * one transaction. An offender's notifications are written in the order they were recorded: only the earliest for
+ * each offender is claimed, so the next is claimed by a later batch once it has been written. If a batch fails its
+ * notifications are retried one at a time so that a single bad notification only delays itself and the offender's
+ * later notifications; that one is retried with a doubling backoff and left in place for investigation, holding back
+ * the offender's later notifications, once it has failed too many times.
+ */
+@Component
+@Slf4j
+public class NotificationOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final PendingNotificationLockRepository pendingNotificationLockRepository;
+    private final SpgNotificationService spgNotificationService;
+    private final IAPSNotificationService iapsNotificationService;
+    private final FeatureSwitches featureSwitches;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter dispatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private Disposable dispatching;
+
+    @Autowired
+    public NotificationOutboxDispatcher(PendingNotificationRepository pendingNotificationRepository,
+                                        PendingNotificationLockRepository pendingNotificationLockRepository,
+                                        SpgNotificationService spgNotificationService,
+                                        IAPSNotificationService iapsNotificationService,
+                                        FeatureSwitches featureSwitches,
+                                        @Qualifier("standardTransactionManager") PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${notification-outbox.poll-interval:5s}") Duration pollInterval,
+                                        @Value("${notification-outbox.batch-size:100}") int batchSize,
+                                        @Value("${notification-outbox.max-attempts:10}") int maxAttempts,
+                                        @Value("${notification-outbox.retry-backoff:30s}") Duration retryBackoff) {
+        this.pendingNotificationRepository = pendingNotificationRepository;
+        this.pendingNotificationLockRepository = pendingNotificationLockRepository;
+        this.spgNotificationService = spgNotificationService;
+        this.iapsNotificationService = iapsNotificationService;
+        this.featureSwitches = featureSwitches;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.dispatchedCounter = meterRegistry.counter("delius.notifications.outbox", "result", "dispatched");
+        this.retriedCounter = meterRegistry.counter("delius.notifications.outbox", "result", "retried");
+        this.failedCounter = meterRegistry.counter("delius.notifications.outbox", "result", "failed");
+        meterRegistry.more().timeGauge("delius.notifications.outbox.lag", Tags.empty(), lagSeconds, TimeUnit.SECONDS, AtomicLong::doubleValue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void followOutbox() {
+        // PENDING_NOTIFICATION is only expected to exist where the outbox is in use
+        if (featureSwitches.getNotifications().isOutbox()) {
+            dispatching = Flux.interval(pollInterval, Schedulers.boundedElastic())
+                    .onBackpressureDrop()
+                    .subscribe(tick -> dispatchDue());
+        }
+    }
+
+    @PreDestroy
+    void stopFollowingOutbox() {
+        Optional.ofNullable(dispatching).ifPresent(Disposable::dispose);
+    }
+
+    void dispatchDue() {
+        try {
+            // a batch holds at most one notification per offender, so keep going until there is nothing left to claim
+            int claimed;
+            do {
+                claimed = dispatchNextBatch();
+            } while (claimed > 0);
+            lagSeconds.set(pendingNotificationRepository.findOldestCreatedDatetimeOfUndispatched()
+                    .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toSeconds())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            log.warn("Unable to dispatch pending notifications, will try again on the next poll", e);
+        }
+    }
+
+    private int dispatchNextBatch() {
+        final var claimedIds = new ArrayList<Long>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                claimedIds.addAll(pendingNotificationLockRepository.lockDuePendingNotificationIds(LocalDateTime.now(), batchSize));
+                if (!claimedIds.isEmpty()) {
+                    write(pendingNotificationRepository.findAllById(claimedIds));
+                }
+            });
+        } catch (RuntimeException e) {
+            if (claimedIds.isEmpty()) {
+                throw e;
+            }
+            log.warn("Unable to write a batch of {} pending notifications, writing them one at a time", claimedIds.size(), e);
+            claimedIds.forEach(this::dispatchOne);
+        }
+        return claimedIds.size();
+    }
+
+    private void dispatchOne(Long pendingNotificationId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> pendingNotificationRepository.findLockedById(pendingNotificationId)
+                    .filter(pendingNotification -> pendingNotification.getNextAttemptDatetime() != null)
+                    .ifPresent(pendingNotification -> write(List.of(pendingNotification))));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> pendingNotificationRepository.findLockedById(pendingNotificationId)
+                    .ifPresent(pendingNotification -> retryLater(pendingNotification, e)));
+        }
+    }
+
+    private void write(List<PendingNotification> pendingNotifications) {
+        final var spgNotifications = pendingNotifications.stream().filter(SpgNotificationService::isSpgNotification).collect(toList());
+        final var iapsNotifications = pendingNotifications.stream().filter(not(SpgNotificationService::isSpgNotification)).collect(toList());
+        if (!spgNotifications.isEmpty()) {
+            spgNotificationService.writePendingNotifications(spgNotifications);
+        }
+        if (!iapsNotifications.isEmpty()) {
+            iapsNotificationService.writePendingNotifications(iapsNotifications);
+        }
+        pendingNotificationRepository.deleteAll(pendingNotifications);
+        dispatchedCounter.increment(pendingNotifications.size());
+    }
+
+    private void retryLater(PendingNotification pendingNotification, RuntimeException error) {
+        final var attempts = pendingNotification.getAttempts() + 1;
+        pendingNotification.setAttempts(attempts);
+        pendingNotification.setLastError(StringUtils.abbreviate(error.toString(), MAX_ERROR_LENGTH));
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on pending notification {} after {} attempts", pendingNotification.getPendingNotificationId(), attempts, error);
+            pendingNotification.setNextAttemptDatetime(null);
+            failedCounter.increment();
+        } else {
+            pendingNotification.setNextAttemptDatetime(LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16))));
+            retriedCounter.increment();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.justice.digital.delius.service;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
@@ -29,18 +30,17 @@ public class NotificationService {
     private final DeliusIntegrationContextConfig deliusIntegrationContextConfig;
 
     @Transactional
-    public NotificationResponse notifyContact(final String crn, final Long sentenceId, final NotificationCreateRequest request) {
+    public Mono<NotificationResponse> notifyContact(final String crn, final Long sentenceId, final NotificationCreateRequest request) {
 
         assertAppointmentType(request.getContactType());
 
         final var newContact = makeNewContact(crn, sentenceId, request);
-        final var contactDto = deliusApiClient.createNewContact(newContact);
-
-        return NotificationResponse.builder().contactId(contactDto.getId()).build();
+        return deliusApiClient.createNewContact(newContact)
+            .map(contactDto -> NotificationResponse.builder().contactId(contactDto.getId()).build());
     }
 
     @Transactional
-    public NotificationResponse notifyContact(final String crn, final Long sentenceId, final String contextName, final ContextlessNotificationCreateRequest contextlessRequest) {
+    public Mono<NotificationResponse> notifyContact(final String crn, final Long sentenceId, final String contextName, final ContextlessNotificationCreateRequest contextlessRequest) {
 
         final var context = getContext(contextName);
         final var request = referralService.getExistingMatchingNsi(crn, contextName, sentenceId, contextlessRequest.getContractType(), contextlessRequest.getReferralStart(), contextlessRequest.getReferralId())
@@ -1,17 +1,29 @@
 package uk.gov.justice.digital.delius.service;
 
+import com.google.common.collect.Lists;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.OffenderUpdate;
-import uk.gov.justice.digital.delius.jpa.dao.OffenderDelta;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+import uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDelta;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderDeltaLockRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderDeltaRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
@@ -21,6 +33,8 @@ public class OffenderDeltaService {
 
     private final JdbcTemplate jdbcTemplate;
     private final OffenderDeltaRepository offenderDeltaRepository;
+    private final OffenderDeltaLockRepository offenderDeltaLockRepository;
+    private final CurrentUserSupplier currentUserSupplier;
     @SuppressWarnings({"FieldCanBeLocal"})
     static final int IN_PROGRESS_IS_FAILED_AFTER_MINUTES = 10;
     /*
@@ -28,22 +42,84 @@ public class OffenderDeltaService {
      * that to avoid clashes
      */
     static final int WAIT_BEFORE_LOCKING_DELTA_SECONDS = 2;
-
-    public OffenderDeltaService(JdbcTemplate jdbcTemplate, OffenderDeltaRepository offenderDeltaRepository) {
+    private static final Comparator<OffenderDelta> OLDEST_FIRST =
+            Comparator.comparing(OffenderDelta::getCreatedDateTime)
+                    .thenComparing(OffenderDelta::getOffenderDeltaId);
+    static final int MAX_DELTAS = 1000;
+    static final int STREAM_FETCH_SIZE = 500;
+    // Oracle allows at most 1000 expressions in an IN list
+    private static final int IN_LIST_SIZE = 1000;
+
+    private final Duration feedPollInterval;
+
+    public OffenderDeltaService(JdbcTemplate jdbcTemplate,
+                                OffenderDeltaRepository offenderDeltaRepository,
+                                OffenderDeltaLockRepository offenderDeltaLockRepository,
+                                CurrentUserSupplier currentUserSupplier,
+                                @Value("${offender-delta.feed.poll-interval:5s}") Duration feedPollInterval) {
         this.jdbcTemplate = jdbcTemplate;
         this.offenderDeltaRepository = offenderDeltaRepository;
+        this.offenderDeltaLockRepository = offenderDeltaLockRepository;
+        this.currentUserSupplier = currentUserSupplier;
+        this.feedPollInterval = feedPollInterval;
     }
 
-    public List<OffenderDelta> findAll() {
-        return jdbcTemplate.query("SELECT * FROM OFFENDER_DELTA", (resultSet, rowNum) ->
-                OffenderDelta.builder()
+    public List<uk.gov.justice.digital.delius.jpa.dao.OffenderDelta> findAll() {
+        // limit to 1000 without using database specific syntax by only fetching that many rows from the cursor
+        return jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement("SELECT OFFENDER_ID, DATE_CHANGED, ACTION FROM OFFENDER_DELTA");
+            statement.setMaxRows(MAX_DELTAS);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (resultSet, rowNum) ->
+                uk.gov.justice.digital.delius.jpa.dao.OffenderDelta.builder()
                         .offenderId(resultSet.getLong("OFFENDER_ID"))
                         .dateChanged(resultSet.getTimestamp("DATE_CHANGED").toLocalDateTime())
                         .action(resultSet.getString("ACTION"))
-                        .build())
-                .stream()
-                .limit(1000) // limit to 1000 without using database specific syntax specific technology
-                .collect(toList());
+                        .build());
+    }
+
+    /**
+     * Streams every delta after the supplied high-water mark in ID order, reading the cursor in batches of the fetch
+     * size so the table is never materialised. The connection is held only until the stream completes or is cancelled.
+     */
+    public Flux<uk.gov.justice.digital.delius.jpa.dao.OffenderDelta> streamDeltasAfter(final long afterOffenderDeltaId) {
+        return streamDeltasAfter(afterOffenderDeltaId, currentUserSupplier.username());
+    }
+
+    /**
+     * An unbounded feed of deltas after the supplied high-water mark; once the existing deltas have been streamed the
+     * table is polled for new ones, resuming after the last delta emitted
+     */
+    public Flux<uk.gov.justice.digital.delius.jpa.dao.OffenderDelta> followDeltasAfter(final long afterOffenderDeltaId) {
+        final var username = currentUserSupplier.username();
+        final var highWaterMark = new AtomicLong(afterOffenderDeltaId);
+        return Flux.defer(() -> streamDeltasAfter(highWaterMark.get(), username))
+                .doOnNext(delta -> highWaterMark.set(delta.getOffenderDeltaId()))
+                .repeatWhen(completed -> completed.delayElements(feedPollInterval));
+    }
+
+    // the cursor is opened on a worker thread, so as the user captured on the request thread
+    private Flux<uk.gov.justice.digital.delius.jpa.dao.OffenderDelta> streamDeltasAfter(final long afterOffenderDeltaId, final Optional<String> username) {
+        return Flux.defer(() -> Flux.fromStream(CurrentUserSupplier.onBehalfOf(username, () -> jdbcTemplate.queryForStream(connection -> {
+            final var statement = connection.prepareStatement(
+                    "SELECT OFFENDER_DELTA_ID, OFFENDER_ID, DATE_CHANGED, ACTION FROM OFFENDER_DELTA " +
+                            "WHERE OFFENDER_DELTA_ID > ? ORDER BY OFFENDER_DELTA_ID");
+            statement.setLong(1, afterOffenderDeltaId);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, offenderDeltaWithIdMapper()))))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private RowMapper<uk.gov.justice.digital.delius.jpa.dao.OffenderDelta> offenderDeltaWithIdMapper() {
+        return (resultSet, rowNum) ->
+                uk.gov.justice.digital.delius.jpa.dao.OffenderDelta.builder()
+                        .offenderDeltaId(resultSet.getLong("OFFENDER_DELTA_ID"))
+                        .offenderId(resultSet.getLong("OFFENDER_ID"))
+                        .dateChanged(resultSet.getTimestamp("DATE_CHANGED").toLocalDateTime())
+                        .action(resultSet.getString("ACTION"))
+                        .build();
     }
 
     @Transactional
@@ -60,6 +136,49 @@ public class OffenderDeltaService {
         return transformAndLock(mayBeDelta);
     }
 
+    @Transactional
+    public List<OffenderUpdate> lockNextUpdates(final int limit) {
+        final var offenderDeltaIds = offenderDeltaLockRepository.lockNextDeltaIds("CREATED", getCreatedCutOffTime(), limit);
+        if (offenderDeltaIds.isEmpty()) {
+            return List.of();
+        }
+
+        final var claimed = new ArrayList<OffenderDelta>();
+        final var duplicateIds = new ArrayList<>(offenderDeltaLockRepository.lockDuplicateDeltaIds(offenderDeltaIds));
+        final var seen = new HashSet<DeltaSource>();
+        offenderDeltaRepository.findAllById(offenderDeltaIds)
+                .stream()
+                .sorted(OLDEST_FIRST)
+                .forEach(delta -> {
+                    if (!DeltaSource.isComplete(delta) || seen.add(DeltaSource.of(delta))) {
+                        claimed.add(delta);
+                    } else {
+                        duplicateIds.add(delta.getOffenderDeltaId());
+                    }
+                });
+
+        deleteAllByOffenderDeltaIdIn(duplicateIds);
+        return claimed.stream()
+                .map(OffenderDelta::setInProgress)
+                .map(this::transformDelta)
+                .collect(toList());
+    }
+
+    @Transactional
+    public List<OffenderUpdate> lockNextFailedUpdates(final int limit) {
+        final var offenderDeltaIds = offenderDeltaLockRepository.lockNextDeltaIds("INPROGRESS", getFailedCutoffDateTime(), limit);
+        if (offenderDeltaIds.isEmpty()) {
+            return List.of();
+        }
+        return offenderDeltaRepository.findAllById(offenderDeltaIds)
+                .stream()
+                .sorted(OLDEST_FIRST)
+                .map(OffenderDelta::setInProgress)
+                .map(this::transformDelta)
+                .map(OffenderUpdate::setAsFailed)
+                .collect(toList());
+    }
+
     private LocalDateTime getCreatedCutOffTime() {
         return LocalDateTime.now().minusSeconds(WAIT_BEFORE_LOCKING_DELTA_SECONDS);
     }
@@ -77,13 +196,13 @@ public class OffenderDeltaService {
     }
 
     @NotNull
-    private Optional<OffenderUpdate> transformAndLock(final Optional<uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDelta> mayBeDelta) {
+    private Optional<OffenderUpdate> transformAndLock(final Optional<OffenderDelta> mayBeDelta) {
         return mayBeDelta
-                .map(uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDelta::setInProgress)
+                .map(OffenderDelta::setInProgress)
                 .map(this::transformDelta);
     }
 
-    private OffenderUpdate transformDelta(final uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDelta delta) {
+    private OffenderUpdate transformDelta(final OffenderDelta delta) {
         return OffenderUpdate.builder()
                 .offenderDeltaId(delta.getOffenderDeltaId())
                 .offenderId(delta.getOffenderId())
@@ -104,4 +223,28 @@ public class OffenderDeltaService {
                 .orElseThrow(() -> new NotFoundException(format("Cannot mark as failed for offenderDeltaId %s", offenderDeltaId)))
                 .markAsFailed();
     }
+
+    public void deleteDeltas(final List<Long> offenderDeltaIds) {
+        deleteAllByOffenderDeltaIdIn(offenderDeltaIds);
+    }
+
+    private void deleteAllByOffenderDeltaIdIn(final List<Long> offenderDeltaIds) {
+        Lists.partition(offenderDeltaIds, IN_LIST_SIZE).forEach(offenderDeltaRepository::deleteAllByOffenderDeltaIdIn);
+    }
+
+    public void markAllAsFailed(final List<Long> offenderDeltaIds) {
+        offenderDeltaRepository.findAllById(offenderDeltaIds)
+                .forEach(OffenderDelta::markAsFailed);
+    }
+
+    // SQL equality never matches nulls, so as with the duplicates found in the database a delta without a source is never a duplicate
+    private record DeltaSource(Long offenderId, String sourceTable, Long sourceRecordId) {
+        static boolean isComplete(final OffenderDelta delta) {
+            return delta.getOffenderId() != null && delta.getSourceTable() != null && delta.getSourceRecordId() != null;
+        }
+
+        static DeltaSource of(final OffenderDelta delta) {
+            return new DeltaSource(delta.getOffenderId(), delta.getSourceTable(), delta.getSourceRecordId());
+        }
+    }
 }
@@ -54,6 +54,7 @@ public class OffenderManagerService {
     private final ReferenceDataService referenceDataService;
     private final ContactService contactService;
     private final TelemetryClient telemetryClient;
+    private final InterestedCRCCache interestedCRCCache;
 
     @Transactional(readOnly = true)
     public Optional<List<CommunityOrPrisonOffenderManager>> getAllOffenderManagersForNomsNumber(final String nomsNumber, final boolean includeProbationAreaTeams) {
@@ -167,6 +168,7 @@ public class OffenderManagerService {
         }, () -> contactService.addContactForPOMAllocation(newPrisonOffenderManager));
 
         offender.getPrisonOffenderManagers().add(newPrisonOffenderManager);
+        interestedCRCCache.invalidate(offender.getOffenderId());
         telemetryClient.trackEvent("POMAllocated", telemetryProperties, null);
 
         return OffenderManagerTransformer.offenderManagerOf(newPrisonOffenderManager, true);
@@ -228,6 +230,7 @@ public class OffenderManagerService {
             } else {
                 switchResponsibleOfficerToPrisonOffenderManager(offender);
             }
+            interestedCRCCache.invalidate(offender.getOffenderId());
             return currentResponsibleOfficer(offender).orElseThrow();
         }).orElseThrow(() -> new NotFoundException(String.format("Offender with nomsNumber %s not found", nomsNumber)));
     }
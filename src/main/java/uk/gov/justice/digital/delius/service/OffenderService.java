@@ -4,9 +4,13 @@ import io.vavr.control.Either;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.justice.digital.delius.controller.CustodyNotFoundException;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.OffenderDetail;
@@ -18,6 +22,7 @@ import uk.gov.justice.digital.delius.data.api.PersonalContact;
 import uk.gov.justice.digital.delius.data.api.PrimaryIdentifiers;
 import uk.gov.justice.digital.delius.data.api.ResponsibleOfficer;
 import uk.gov.justice.digital.delius.data.filters.OffenderFilter;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.filters.OffenderFilterTransformer;
 import uk.gov.justice.digital.delius.jpa.oracle.annotations.NationalUserOverride;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Custody;
@@ -42,15 +47,17 @@ import static java.util.function.Predicate.not;
 @Slf4j
 @AllArgsConstructor
 public class OffenderService {
+    private static final int OFFENDER_ID_STREAM_PAGE_SIZE = 1000;
 
     private final OffenderRepository offenderRepository;
     private final OffenderPrimaryIdentifiersRepository offenderPrimaryIdentifiersRepository;
     private final ConvictionService convictionService;
+    private final CurrentUserSupplier currentUserSupplier;
 
     @Transactional(readOnly = true)
     public Optional<OffenderDetail> getOffenderByOffenderId(Long offenderId) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByOffenderId(offenderId);
+        Optional<Offender> maybeOffender = offenderRepository.findFullByOffenderId(offenderId);
 
         return maybeOffender.map(OffenderTransformer::fullOffenderOf);
     }
@@ -58,7 +65,7 @@ public class OffenderService {
     @Transactional(readOnly = true)
     public Optional<OffenderDetail> getOffenderByCrn(String crn) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByCrn(crn);
+        Optional<Offender> maybeOffender = offenderRepository.findFullByCrn(crn);
 
         return maybeOffender.map(OffenderTransformer::fullOffenderOf);
     }
@@ -66,7 +73,7 @@ public class OffenderService {
     @Transactional(readOnly = true)
     public Optional<OffenderDetail> getOffenderByNomsNumber(String nomsNumber) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByNomsNumber(nomsNumber);
+        Optional<Offender> maybeOffender = offenderRepository.findFullByNomsNumber(nomsNumber);
 
         return maybeOffender.map(OffenderTransformer::fullOffenderOf);
     }
@@ -74,7 +81,7 @@ public class OffenderService {
     @Transactional(readOnly = true)
     public Optional<OffenderDetailSummary> getOffenderSummaryByOffenderId(Long offenderId) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByOffenderId(offenderId);
+        Optional<Offender> maybeOffender = offenderRepository.findSummaryByOffenderId(offenderId);
 
         return maybeOffender.map(OffenderTransformer::offenderSummaryOf);
     }
@@ -82,7 +89,7 @@ public class OffenderService {
     @Transactional(readOnly = true)
     public Optional<OffenderDetailSummary> getOffenderSummaryByCrn(String crn) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByCrn(crn);
+        Optional<Offender> maybeOffender = offenderRepository.findSummaryByCrn(crn);
 
         return maybeOffender.map(OffenderTransformer::offenderSummaryOf);
     }
@@ -90,7 +97,7 @@ public class OffenderService {
     @Transactional(readOnly = true)
     public Optional<OffenderDetailSummary> getOffenderSummaryByNomsNumber(String nomsNumber) {
 
-        Optional<Offender> maybeOffender = offenderRepository.findByNomsNumber(nomsNumber);
+        Optional<Offender> maybeOffender = offenderRepository.findSummaryByNomsNumber(nomsNumber);
 
         return maybeOffender.map(OffenderTransformer::offenderSummaryOf);
     }
@@ -171,6 +178,29 @@ public class OffenderService {
         return offenderIds;
     }
 
+    public List<Long> offenderIdsAfter(long afterOffenderId, int limit) {
+        return offenderRepository.findOffenderIdsAfter(afterOffenderId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Streams every offender ID after the one supplied in ID order. Each page is read with its own keyset query so no
+     * connection is held between pages however long the client takes to consume them. The pages are read on worker
+     * threads as the user captured on the request thread.
+     */
+    public Flux<Long> streamOffenderIdsAfter(long afterOffenderId) {
+        final var username = currentUserSupplier.username();
+        return Flux.defer(() -> Mono.just(offenderIdsAfter(afterOffenderId, OFFENDER_ID_STREAM_PAGE_SIZE, username)))
+                .expand(page -> page.size() < OFFENDER_ID_STREAM_PAGE_SIZE
+                        ? Mono.empty()
+                        : Mono.fromCallable(() -> offenderIdsAfter(page.get(page.size() - 1), OFFENDER_ID_STREAM_PAGE_SIZE, username)))
+                .flatMapIterable(page -> page)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<Long> offenderIdsAfter(long afterOffenderId, int limit, Optional<String> username) {
+        return CurrentUserSupplier.onBehalfOf(username, () -> offenderIdsAfter(afterOffenderId, limit));
+    }
+
     public Long getOffenderCount() {
         return offenderRepository.count();
     }
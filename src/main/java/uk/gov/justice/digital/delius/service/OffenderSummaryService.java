@@ -0,0 +1,139 @@
+package uk.gov.justice.digital.delius.service;
+
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.digital.delius.controller.BadRequestException;
+import uk.gov.justice.digital.delius.data.api.AccessLimitation;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest.IdentifierType;
+import uk.gov.justice.digital.delius.data.api.OffenderSummaryResult;
+import uk.gov.justice.digital.delius.data.api.OffenderSummaryResult.Status;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Offender;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
+import uk.gov.justice.digital.delius.transformers.OffenderTransformer;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+@Service
+@Slf4j
+public class OffenderSummaryService {
+    // Oracle limits IN lists to 1000 expressions
+    private static final int IN_LIST_SIZE = 1000;
+
+    private final OffenderRepository offenderRepository;
+    private final UserAccessService userAccessService;
+    private final int maxIdentifiers;
+
+    public OffenderSummaryService(OffenderRepository offenderRepository,
+                                  UserAccessService userAccessService,
+                                  @Value("${offender-summaries.max-identifiers:500}") int maxIdentifiers) {
+        this.offenderRepository = offenderRepository;
+        this.userAccessService = userAccessService;
+        this.maxIdentifiers = maxIdentifiers;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OffenderSummaryResult> getOffenderSummaries(OffenderSummariesRequest request, Collection<? extends GrantedAuthority> authorities) {
+        final var identifiers = request.getIdentifiers();
+        if (identifiers.size() > maxIdentifiers) {
+            throw new BadRequestException(format("A maximum of %d identifiers can be requested but %d were supplied", maxIdentifiers, identifiers.size()));
+        }
+
+        final var offendersByIdentifier = findOffenders(request.getIdentifierType(), new LinkedHashSet<>(identifiers));
+        final var matches = identifiers.stream()
+                .map(identifier -> offendersByIdentifier.getOrDefault(keyOf(request.getIdentifierType(), identifier), List.of()))
+                .map(this::mostLikelyOf)
+                .collect(toList());
+
+        final var found = matches.stream().filter(offenders -> offenders.size() == 1).map(offenders -> offenders.get(0)).collect(toList());
+        final var accessLimitations = userAccessService.accessLimitationsOf(
+                found.stream().map(OffenderTransformer::offenderAccessDetailOf).collect(toList()),
+                authorities);
+        final var accessLimitationByOffender = new IdentityHashMap<Offender, AccessLimitation>();
+        for (int i = 0; i < found.size(); i++) {
+            accessLimitationByOffender.put(found.get(i), accessLimitations.get(i));
+        }
+
+        return IntStream.range(0, identifiers.size())
+                .mapToObj(i -> resultOf(identifiers.get(i), matches.get(i), accessLimitationByOffender))
+                .collect(toList());
+    }
+
+    private Map<String, List<Offender>> findOffenders(IdentifierType identifierType, Collection<String> identifiers) {
+        final Function<List<String>, List<Offender>> finder;
+        final Function<Offender, String> key;
+        switch (identifierType) {
+            case NOMS_NUMBER:
+                finder = nomsNumbers -> offenderRepository.findAllByNomsNumberIn(nomsNumbers.stream().map(String::toUpperCase).collect(toList()));
+                key = offender -> offender.getNomsNumber().toUpperCase();
+                break;
+            case OFFENDER_ID:
+                finder = offenderIds -> offenderRepository.findAllByOffenderIdIn(offenderIds.stream().flatMap(OffenderSummaryService::offenderIdOf).collect(toList()));
+                key = offender -> String.valueOf(offender.getOffenderId());
+                break;
+            default:
+                finder = offenderRepository::findAllByCrnIn;
+                key = Offender::getCrn;
+        }
+        return Lists.partition(List.copyOf(identifiers), IN_LIST_SIZE)
+                .stream()
+                .flatMap(chunk -> finder.apply(chunk).stream())
+                .collect(groupingBy(key));
+    }
+
+    private static String keyOf(IdentifierType identifierType, String identifier) {
+        return identifierType == IdentifierType.NOMS_NUMBER ? identifier.toUpperCase() : identifier;
+    }
+
+    private static Stream<Long> offenderIdOf(String identifier) {
+        try {
+            return Stream.of(Long.valueOf(identifier));
+        } catch (NumberFormatException e) {
+            return Stream.empty();
+        }
+    }
+
+    // mirrors OffenderRepository.findMostLikelyByNomsNumber for the small number of offenders sharing a NOMS number
+    private List<Offender> mostLikelyOf(List<Offender> offenders) {
+        if (offenders.size() <= 1) {
+            return offenders;
+        }
+        final var activeOffenders = offenders.stream().filter(Offender::hasActiveSentence).collect(toList());
+        return activeOffenders.size() == 1 ? activeOffenders : offenders;
+    }
+
+    private OffenderSummaryResult resultOf(String identifier, List<Offender> offenders, Map<Offender, AccessLimitation> accessLimitations) {
+        final var result = OffenderSummaryResult.builder().identifier(identifier);
+        if (offenders.isEmpty()) {
+            return result.status(Status.NOT_FOUND).build();
+        }
+        if (offenders.size() > 1) {
+            return result.status(Status.DUPLICATE).message(format("Expecting only a single active offender but found %d offenders", offenders.size())).build();
+        }
+
+        final var offender = offenders.get(0);
+        final var accessLimitation = accessLimitations.get(offender);
+        if (accessLimitation.isUserExcluded()) {
+            return result.status(Status.EXCLUDED).message(accessLimitation.getExclusionMessage()).build();
+        }
+        if (accessLimitation.isUserRestricted()) {
+            return result.status(Status.RESTRICTED).message(accessLimitation.getRestrictionMessage()).build();
+        }
+        return result.status(Status.FOUND).offender(OffenderTransformer.offenderSummaryOf(offender)).build();
+    }
+}
@@ -8,6 +8,7 @@ import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.OffenderUpdate;
 
 import javax.transaction.Transactional;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -31,6 +32,14 @@ public class OffenderUpdatesService {
         return maybeOffenderUpdate;
     }
 
+    public List<OffenderUpdate> getAndLockNextUpdates(final int limit) {
+        final var offenderUpdates = offenderDeltaService.lockNextUpdates(limit);
+        if (offenderUpdates.isEmpty()) {
+            return offenderDeltaService.lockNextFailedUpdates(limit);
+        }
+        return offenderUpdates;
+    }
+
     private Optional<OffenderUpdate> lockNext(final Supplier<Optional<OffenderUpdate>> supplier) {
         for (int i = 0; i < retries; i++) {
             try {
@@ -55,4 +64,14 @@ public class OffenderUpdatesService {
     public void markAsFailed(final Long offenderDeltaId) {
         offenderDeltaService.markAsFailed(offenderDeltaId);
     }
+
+    @Transactional
+    public void deleteUpdates(final List<Long> offenderDeltaIds) {
+        offenderDeltaService.deleteDeltas(offenderDeltaIds);
+    }
+
+    @Transactional
+    public void markAllAsFailed(final List<Long> offenderDeltaIds) {
+        offenderDeltaService.markAllAsFailed(offenderDeltaIds);
+    }
 }
@@ -0,0 +1,125 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs independent read-only queries for a single request, either one after another in one transaction or
+ * concurrently on a bounded pool. Each concurrent query runs in its own read-only transaction, and so on its own
+ * connection, as the user of the submitting request so the VPD client identifier is the same on every connection.
+ * Entities do not survive the transaction they were loaded in, so queries should return transformed results.
+ */
+@Component
+public class ParallelQueryRunner {
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate timedReadOnlyTransaction;
+    private final CurrentUserSupplier currentUserSupplier;
+    private final Duration timeout;
+
+    @Autowired
+    public ParallelQueryRunner(@Qualifier("standardTransactionManager") PlatformTransactionManager transactionManager,
+                               CurrentUserSupplier currentUserSupplier,
+                               MeterRegistry meterRegistry,
+                               @Value("${parallel-queries.pool-size:8}") int poolSize,
+                               @Value("${parallel-queries.queue-capacity:100}") int queueCapacity,
+                               @Value("${parallel-queries.timeout:10s}") Duration timeout) {
+        this(ExecutorServiceMetrics.monitor(meterRegistry, boundedExecutor(poolSize, queueCapacity), "parallelQueries", Tags.empty()),
+                transactionManager,
+                currentUserSupplier,
+                timeout);
+    }
+
+    ParallelQueryRunner(ExecutorService executor,
+                        PlatformTransactionManager transactionManager,
+                        CurrentUserSupplier currentUserSupplier,
+                        Duration timeout) {
+        this.executor = executor;
+        this.currentUserSupplier = currentUserSupplier;
+        this.timeout = timeout;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timedReadOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.timedReadOnlyTransaction.setReadOnly(true);
+        // also applied as the JDBC query timeout, so abandoned queries do not keep running on the database
+        this.timedReadOnlyTransaction.setTimeout((int) Math.max(1, timeout.toSeconds()));
+    }
+
+    /**
+     * Runs the query on the calling thread in a read-only transaction, joining the current one if there is one.
+     */
+    public <T> T inTransaction(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    /**
+     * Starts the query on the pool in its own read-only transaction. If the pool is saturated the query runs on the
+     * calling thread instead.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        final var username = currentUserSupplier.username();
+        return CompletableFuture.supplyAsync(
+                () -> CurrentUserSupplier.onBehalfOf(username, () -> timedReadOnlyTransaction.execute(status -> query.get())),
+                executor);
+    }
+
+    /**
+     * Waits for all the submitted queries, failing the request with a 503 if they do not all complete in time.
+     */
+    public void awaitAll(CompletableFuture<?>... queries) {
+        try {
+            CompletableFuture.allOf(queries).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Stream.of(queries).forEach(query -> query.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, String.format("Queries did not complete within %s", timeout), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Stream.of(queries).forEach(query -> query.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted waiting for queries", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService boundedExecutor(int poolSize, int queueCapacity) {
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("parallel-queries-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -1,10 +1,13 @@
 package uk.gov.justice.digital.delius.service;
 
 import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
+import uk.gov.justice.digital.delius.config.CachingConfig;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.KeyValue;
 import uk.gov.justice.digital.delius.data.api.LocalDeliveryUnit;
@@ -30,6 +33,7 @@ import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.digital.delius.transformers.TypesTransformer.ynToBoolean;
 
 @Service
+@Slf4j
 public class ReferenceDataService {
 
     public static final String POM_AUTO_TRANSFER_ALLOCATION_REASON_CODE = "AUT";
@@ -196,6 +200,17 @@ public class ReferenceDataService {
         return standardReferenceRepository.findByCodeAndCodeSetName(tier, "TIER");
     }
 
+    @CacheEvict(cacheNames = {
+            CachingConfig.STANDARD_REFERENCE_CACHE,
+            CachingConfig.CONTACT_TYPE_CACHE,
+            CachingConfig.BUSINESS_INTERACTION_CACHE,
+            CachingConfig.BUSINESS_INTERACTION_XML_MAP_CACHE,
+            CachingConfig.PROBATION_AREA_CACHE,
+            CachingConfig.TRANSFER_REASON_CACHE}, allEntries = true)
+    public void evictCachedReferenceData() {
+        log.info("Evicting all cached reference data");
+    }
+
     private boolean getPossibleActiveLdus(District district) {
         return ynToBoolean(district.getSelectable()) || district.getCode().endsWith("UAT") || district.getCode().endsWith("UNA") || district.getCode().endsWith("IAV");
     }
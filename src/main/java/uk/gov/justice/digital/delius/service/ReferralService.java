@@ -3,6 +3,7 @@ package uk.gov.justice.digital.delius.service;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.NsiMapping;
@@ -15,6 +16,7 @@ import uk.gov.justice.digital.delius.data.api.ReferralStartResponse;
 import uk.gov.justice.digital.delius.data.api.Requirement;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewNsi;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewNsiManager;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ContactRepository;
 import uk.gov.justice.digital.delius.transformers.NsiPatchRequestTransformer;
 import uk.gov.justice.digital.delius.transformers.ReferralTransformer;
@@ -54,9 +56,9 @@ public class ReferralService {
     private final DeliusIntegrationContextConfig deliusIntegrationContextConfig;
 
     @Transactional
-    public ReferralStartResponse startNsiReferral(final String crn,
-                                                  final String contextName,
-                                                  final ContextlessReferralStartRequest referralStart) {
+    public Mono<ReferralStartResponse> startNsiReferral(final String crn,
+                                                        final String contextName,
+                                                        final ContextlessReferralStartRequest referralStart) {
 
         var context = getContext(contextName);
         var nsiMapping = context.getNsiMapping();
@@ -80,26 +82,31 @@ public class ReferralService {
                 .provider(context.getProviderCode())
                 .build()).build();
 
-        final var newNsi = deliusApiClient.createNewNsi(newNsiRequest);
-        return ReferralStartResponse.builder().nsiId(newNsi.getId()).build();
+        return deliusApiClient.createNewNsi(newNsiRequest)
+            .map(newNsi -> ReferralStartResponse.builder().nsiId(newNsi.getId()).build());
     }
 
+    /**
+     * Deletes the referral's future appointments, then ends its NSI. The NSI is left open should any of the deletes fail.
+     */
     @Transactional
-    public ReferralEndResponse endNsiReferral(final String crn, final String contextName, final ContextlessReferralEndRequest request) {
+    public Mono<ReferralEndResponse> endNsiReferral(final String crn, final String contextName, final ContextlessReferralEndRequest request) {
 
         final var nsi = getExistingMatchingNsi(crn, contextName, request.getSentenceId(), request.getContractType(), request.getStartedAt(), request.getReferralId())
             .orElseThrow(() -> new BadRequestException(format("Cannot find NSI for CRN: %s Sentence: %d and ContractType %s", crn, request.getSentenceId(), request.getContractType())));
 
         final var offenderId = offenderService.offenderIdOfCrn(crn)
             .orElseThrow(() -> new BadRequestException(format("Cannot find Offender Id for CRN: %s", crn)));
-        deleteFutureAppointments(offenderId, contextName, nsi);
+        final var deletes = deleteFutureAppointments(offenderId, contextName, nsi);
 
         final var jsonPatch = nsiPatchRequestTransformer.mapEndTypeToOutcomeOf(request, getContext(contextName));
-        deliusApiClient.patchNsi(nsi.getNsiId(), jsonPatch);
+        final var patch = deliusApiClient.patchNsi(nsi.getNsiId(), jsonPatch);
 
-        return new ReferralEndResponse(nsi.getNsiId());
+        return deletes.then(patch).thenReturn(new ReferralEndResponse(nsi.getNsiId()));
     }
 
+    // not read-only: whether an NSI exists decides what is written to Delius, so it must be read from the primary
+    @Transactional
     public Optional<Nsi> getExistingMatchingNsi(@NotNull final String crn,
                                                 @NotNull final String contextName,
                                                 @NotNull final Long sentenceId,
@@ -167,17 +174,19 @@ public class ReferralService {
             .toList();
    }
 
-    void deleteFutureAppointments(Long offenderId, String contextName, Nsi nsi) {
+    Mono<Void> deleteFutureAppointments(Long offenderId, String contextName, Nsi nsi) {
 
         final var context = getContext(contextName);
         final var applicableContactTypes = context.getContactMapping().getAllAppointmentContactTypes();
         final var today = LocalDate.now();
 
-        contactRepository.findByOffenderAndNsiId(offenderId, nsi.getNsiId()).stream()
+        final var futureAppointmentIds = contactRepository.findByOffenderAndNsiId(offenderId, nsi.getNsiId()).stream()
             .filter(contact -> Objects.isNull(contact.getContactOutcomeType())) // Have no existing outcome
             .filter(contact -> applicableContactTypes.contains(contact.getContactType().getCode())) // Of the correct contact type
             .filter(contact -> !contact.getContactDate().isBefore(today)) // Is not historic
-            .forEach(contact -> deliusApiClient.deleteContact(contact.getContactId()));
+            .map(Contact::getContactId)
+            .collect(toList());
+        return deliusApiClient.sendAll(futureAppointmentIds, deliusApiClient::deleteContact).then();
     }
 
     Optional<Long> getRequirement(String crn, Long sentenceId, IntegrationContext context) {
@@ -1,15 +1,22 @@
 package uk.gov.justice.digital.delius.service;
 
+import com.google.common.base.Suppliers;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.EnumUtils;
 import org.springframework.stereotype.Service;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.jpa.standard.entity.*;
 import uk.gov.justice.digital.delius.jpa.standard.repository.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static uk.gov.justice.digital.delius.service.SpgNotificationService.NotificationEvents.*;
 
 @Service
@@ -21,15 +28,21 @@ public class SpgNotificationService {
     private final ProbationAreaRepository probationAreaRepository;
     private final SpgNotificationRepository spgNotificationRepository;
     private final SpgNotificationHelperRepository spgNotificationHelperRepository;
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final InterestedCRCCache interestedCRCCache;
+    private final FeatureSwitches featureSwitches;
 
 
-    public SpgNotificationService(BusinessInteractionRepository businessInteractionRepository, BusinessInteractionXmlMapRepository businessInteractionXmlMapRepository, StandardReferenceRepository standardReferenceRepository, ProbationAreaRepository probationAreaRepository, SpgNotificationRepository spgNotificationRepository, SpgNotificationHelperRepository spgNotificationHelperRepository) {
+    public SpgNotificationService(BusinessInteractionRepository businessInteractionRepository, BusinessInteractionXmlMapRepository businessInteractionXmlMapRepository, StandardReferenceRepository standardReferenceRepository, ProbationAreaRepository probationAreaRepository, SpgNotificationRepository spgNotificationRepository, SpgNotificationHelperRepository spgNotificationHelperRepository, PendingNotificationRepository pendingNotificationRepository, InterestedCRCCache interestedCRCCache, FeatureSwitches featureSwitches) {
         this.businessInteractionRepository = businessInteractionRepository;
         this.businessInteractionXmlMapRepository = businessInteractionXmlMapRepository;
         this.standardReferenceRepository = standardReferenceRepository;
         this.probationAreaRepository = probationAreaRepository;
         this.spgNotificationRepository = spgNotificationRepository;
         this.spgNotificationHelperRepository = spgNotificationHelperRepository;
+        this.pendingNotificationRepository = pendingNotificationRepository;
+        this.interestedCRCCache = interestedCRCCache;
+        this.featureSwitches = featureSwitches;
     }
 
     enum NotificationEvents {
@@ -59,23 +72,44 @@ public class SpgNotificationService {
         // these events represent what the Delius code indicate what is inserted for this scenario and match what we see in test for Delius
         // It would be preferable to know what the actual requirement is here to get this correct. In test we have also seen "SPGALF01" business interactions
         // sent as well but not sure how or why they were sent
-        createNotificationsFor(INSERT_EVENT, event.getOffenderId(), event.getEventId());
-        event.getCourtAppearances().forEach(courtAppearance -> createNotificationsFor(INSERT_COURT_APPEARANCE, event.getOffenderId(), courtAppearance.getCourtAppearanceId()));
-        createNotificationsFor(UPDATE_OFFENDER, event.getOffenderId());
+        val notifications = new ArrayList<Notification>();
+        notifications.add(new Notification(INSERT_EVENT, event.getOffenderId(), event.getEventId(), null));
+        event.getCourtAppearances().forEach(courtAppearance -> notifications.add(new Notification(INSERT_COURT_APPEARANCE, event.getOffenderId(), courtAppearance.getCourtAppearanceId(), null)));
+        notifications.add(new Notification(UPDATE_OFFENDER, event.getOffenderId(), event.getOffenderId(), null));
+        createNotificationsFor(notifications);
     }
 
     public void notifyNewCustodyKeyDate(String custodyKeyTypeCode, Event event) {
-        createNotificationsFor(INSERT_CUSTODY_KEY_DATE, event.getOffenderId(), keyDateIdOf(custodyKeyTypeCode, event), event.getEventId());
+        notifyNewCustodyKeyDate(List.of(custodyKeyTypeCode), event);
     }
 
+    public void notifyNewCustodyKeyDate(List<String> custodyKeyTypeCodes, Event event) {
+        createNotificationsFor(custodyKeyTypeCodes
+                .stream()
+                .map(custodyKeyTypeCode -> new Notification(INSERT_CUSTODY_KEY_DATE, event.getOffenderId(), keyDateIdOf(custodyKeyTypeCode, event), event.getEventId()))
+                .collect(toList()));
+    }
 
     public void notifyUpdateOfCustodyKeyDate(String custodyKeyTypeCode, Event event) {
-        createNotificationsFor(UPDATE_CUSTODY_KEY_DATE, event.getOffenderId(), keyDateIdOf(custodyKeyTypeCode, event), event.getEventId());
+        notifyUpdateOfCustodyKeyDate(List.of(custodyKeyTypeCode), event);
     }
 
+    public void notifyUpdateOfCustodyKeyDate(List<String> custodyKeyTypeCodes, Event event) {
+        createNotificationsFor(custodyKeyTypeCodes
+                .stream()
+                .map(custodyKeyTypeCode -> new Notification(UPDATE_CUSTODY_KEY_DATE, event.getOffenderId(), keyDateIdOf(custodyKeyTypeCode, event), event.getEventId()))
+                .collect(toList()));
+    }
 
     public void notifyDeletedCustodyKeyDate(KeyDate deletedKeyDate, Event event) {
-        createNotificationsFor(DELETE_CUSTODY_KEY_DATE, event.getOffenderId(), deletedKeyDate.getKeyDateId(), event.getEventId());
+        notifyDeletedCustodyKeyDate(List.of(deletedKeyDate), event);
+    }
+
+    public void notifyDeletedCustodyKeyDate(List<KeyDate> deletedKeyDates, Event event) {
+        createNotificationsFor(deletedKeyDates
+                .stream()
+                .map(deletedKeyDate -> new Notification(DELETE_CUSTODY_KEY_DATE, event.getOffenderId(), deletedKeyDate.getKeyDateId(), event.getEventId()))
+                .collect(toList()));
     }
 
     public void notifyUpdateOfCustodyLocationChange(Offender offender, Event event) {
@@ -104,42 +138,131 @@ public class SpgNotificationService {
     }
 
     private void createNotificationsFor(NotificationEvents notificationEvent, Long offenderId, Long uniqueId, Long parentId ) {
+        createNotificationsFor(List.of(new Notification(notificationEvent, offenderId, uniqueId, parentId)));
+    }
+
+    private void createNotificationsFor(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        val deliveries = deliveriesOf(notifications, LocalDateTime.now());
+        if (featureSwitches.getNotifications().isOutbox()) {
+            // the interested CRCs and creation time are captured now and the notifications written later by NotificationOutboxDispatcher
+            pendingNotificationRepository.saveAll(deliveries
+                    .stream()
+                    .map(delivery -> PendingNotification
+                            .builder()
+                            .notificationType(delivery.notification().notificationEvent().name())
+                            .offenderId(delivery.notification().offenderId())
+                            .uniqueId(delivery.notification().uniqueId())
+                            .parentEntityId(delivery.notification().parentId())
+                            .receiverProbationAreaId(delivery.receiver().getProbationAreaId())
+                            .createdDatetime(delivery.dateCreated())
+                            .nextAttemptDatetime(delivery.dateCreated())
+                            .build())
+                    .collect(toList()));
+        } else {
+            writeDeliveries(deliveries);
+        }
+    }
+
+    static boolean isSpgNotification(PendingNotification pendingNotification) {
+        return EnumUtils.isValidEnum(NotificationEvents.class, pendingNotification.getNotificationType());
+    }
+
+    /**
+     * Writes the SPG notifications recorded while the outbox was in use, to the CRCs interested when they were recorded.
+     */
+    void writePendingNotifications(List<PendingNotification> pendingNotifications) {
+        val receivers = probationAreaRepository
+                .findAllById(pendingNotifications.stream().map(PendingNotification::getReceiverProbationAreaId).distinct().collect(toList()))
+                .stream()
+                .collect(toMap(ProbationArea::getProbationAreaId, identity()));
+        writeDeliveries(pendingNotifications
+                .stream()
+                .map(pendingNotification -> new Delivery(
+                        new Notification(
+                                NotificationEvents.valueOf(pendingNotification.getNotificationType()),
+                                pendingNotification.getOffenderId(),
+                                pendingNotification.getUniqueId(),
+                                pendingNotification.getParentEntityId()),
+                        receivers.get(pendingNotification.getReceiverProbationAreaId()),
+                        pendingNotification.getCreatedDatetime()))
+                .collect(toList()));
+    }
+
+    /**
+     * A notification for each CRC interested in its offender. The interested CRCs are found once per offender.
+     */
+    private List<Delivery> deliveriesOf(List<Notification> notifications, LocalDateTime dateCreated) {
+        val interestedAreas = notifications
+                .stream()
+                .map(Notification::offenderId)
+                .distinct()
+                .collect(toMap(identity(), this::areasThatHaveAnInterestInOffender));
+        return notifications
+                .stream()
+                .flatMap(notification -> interestedAreas.get(notification.offenderId())
+                        .stream()
+                        .map(probationArea -> new Delivery(notification, probationArea, dateCreated)))
+                .collect(toList());
+    }
+
+    /**
+     * Writes the deliveries as SPG notifications. The reference data is found once per business interaction and the
+     * control references all at once, so the number of round trips does not grow with the number of rows written. The
+     * rows themselves are inserted in JDBC batches when the transaction is flushed.
+     */
+    private void writeDeliveries(List<Delivery> deliveries) {
+        // nothing is looked up when no CRC is interested
+        val sendingProbationArea = Suppliers.memoize(() -> probationAreaRepository.findCachedByCode("N00").orElseThrow(() -> new RuntimeException("No probation area for send SPG")));
+        val controlReferences = Suppliers.memoize(() -> nextControlReferencesFor(sendingProbationArea.get(), deliveries.size()).iterator());
+        val businessInteractions = new EnumMap<NotificationEvents, BusinessInteraction>(NotificationEvents.class);
+        val messageContextIds = new EnumMap<NotificationEvents, Long>(NotificationEvents.class);
+
         spgNotificationRepository.saveAll(
-            areasThatHaveAnInterestInOffender(offenderId)
+            deliveries
                     .stream()
-                    .map(probationArea ->
-                            {
-                                val sendingProbationArea = probationAreaRepository.findByCode("N00").orElseThrow(() -> new RuntimeException("No probation area for send SPG"));
-                                val businessInteraction = businessInteractionRepository
-                                        .findByBusinessInteractionCode(notificationEvent.getNotificationCode())
-                                        .orElseThrow(() -> new RuntimeException(String.format("No SPG business interaction code found for %s", notificationEvent.getNotificationCode())));
-
-                                log.info("Sending SPG notification {} to {}", notificationEvent.getNotificationCode(), probationArea.getCode());
-
-                                // for these values I have looked at the legacy Delius code and looked at what the Delius application
-                                // does in test when writing these records. For now I have to assumed the values are correct however we
-                                // need to be aware that the values are not derived from any acceptance criteria but is "as is" Delius code
-                                return SpgNotification
-                                        .builder()
-                                        .offenderId(offenderId)
-                                        .businessInteraction(businessInteraction)
-                                        .receiverIdentity(probationArea)
-                                        .senderIdentity(sendingProbationArea)
-                                        .uniqueId(uniqueId)
-                                        .parentEntityId(parentId)
-                                        .dateCreated(LocalDateTime.now())
-                                        .spgMessageContextId(messageContextIdFor(businessInteraction))
-                                        .controlReference(nextControlReferenceFor(sendingProbationArea))
-                                        .processedFlag(0L)
-                                        .errorFlag(0L)
-                                        .messageDirection("O")
-                                        .exportToFileFlag(0L)
-                                        .build();
-                        }).collect(toList()));
-    }
-
-    private Long nextControlReferenceFor(ProbationArea sendingProbationArea) {
-        return spgNotificationHelperRepository.getNextControlSequence(sendingProbationArea.getCode());
+                    .map(delivery ->
+                    {
+                        val notification = delivery.notification();
+                        val probationArea = delivery.receiver();
+                        val notificationEvent = notification.notificationEvent();
+                        val businessInteraction = businessInteractions.computeIfAbsent(notificationEvent, this::businessInteractionFor);
+                        val messageContextId = messageContextIds.computeIfAbsent(notificationEvent, key -> messageContextIdFor(businessInteraction));
+
+                        log.info("Sending SPG notification {} to {}", notificationEvent.getNotificationCode(), probationArea.getCode());
+
+                        // for these values I have looked at the legacy Delius code and looked at what the Delius application
+                        // does in test when writing these records. For now I have to assumed the values are correct however we
+                        // need to be aware that the values are not derived from any acceptance criteria but is "as is" Delius code
+                        return SpgNotification
+                                .builder()
+                                .offenderId(notification.offenderId())
+                                .businessInteraction(businessInteraction)
+                                .receiverIdentity(probationArea)
+                                .senderIdentity(sendingProbationArea.get())
+                                .uniqueId(notification.uniqueId())
+                                .parentEntityId(notification.parentId())
+                                .dateCreated(delivery.dateCreated())
+                                .spgMessageContextId(messageContextId)
+                                .controlReference(controlReferences.get().next())
+                                .processedFlag(0L)
+                                .errorFlag(0L)
+                                .messageDirection("O")
+                                .exportToFileFlag(0L)
+                                .build();
+                    }).collect(toList()));
+    }
+
+    private BusinessInteraction businessInteractionFor(NotificationEvents notificationEvent) {
+        return businessInteractionRepository
+                .findByBusinessInteractionCode(notificationEvent.getNotificationCode())
+                .orElseThrow(() -> new RuntimeException(String.format("No SPG business interaction code found for %s", notificationEvent.getNotificationCode())));
+    }
+
+    private List<Long> nextControlReferencesFor(ProbationArea sendingProbationArea, int count) {
+        return spgNotificationHelperRepository.getNextControlSequences(sendingProbationArea.getCode(), count);
     }
 
     private Long messageContextIdFor(BusinessInteraction businessInteraction) {
@@ -166,7 +289,13 @@ public class SpgNotificationService {
     }
 
     private List<ProbationArea> areasThatHaveAnInterestInOffender(Long offenderId) {
-        return spgNotificationHelperRepository.getInterestedCRCs(String.valueOf(offenderId));
+        return interestedCRCCache.interestedCRCsOf(offenderId);
+    }
+
+    private record Notification(NotificationEvents notificationEvent, Long offenderId, Long uniqueId, Long parentId) {
+    }
+
+    private record Delivery(Notification notification, ProbationArea receiver, LocalDateTime dateCreated) {
     }
 
     private Long keyDateIdOf(String custodyKeyTypeCode, Event event) {
@@ -1,8 +1,11 @@
 package uk.gov.justice.digital.delius.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.data.api.ContactableHuman;
 import uk.gov.justice.digital.delius.data.api.ManagedOffender;
 import uk.gov.justice.digital.delius.data.api.StaffDetails;
@@ -11,12 +14,14 @@ import uk.gov.justice.digital.delius.jpa.standard.entity.Staff;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Team;
 import uk.gov.justice.digital.delius.jpa.standard.repository.StaffHelperRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.StaffRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.StaffRepository.StaffIdentifiers;
 import uk.gov.justice.digital.delius.ldap.repository.LdapRepository;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusUser;
 import uk.gov.justice.digital.delius.transformers.OffenderTransformer;
 import uk.gov.justice.digital.delius.transformers.StaffTransformer;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -34,18 +39,34 @@ public class StaffService {
 
     @Transactional(readOnly = true)
     public Optional<List<ManagedOffender>> getManagedOffendersByStaffCode(final String staffCode, final boolean current) {
-
-        return staffRepository.findByOfficerCode(staffCode).map(
-                staff -> OffenderTransformer.managedOffenderOf(staff, current)
-        );
+        return staffRepository.findIdentifiersByOfficerCode(staffCode)
+                .map(staff -> managedOffendersOf(staff, current, Sort.unsorted(), Pageable.unpaged()));
     }
 
     @Transactional(readOnly = true)
     public Optional<List<ManagedOffender>> getManagedOffendersByStaffIdentifier(final long staffIdentifier, final boolean current) {
+        return getManagedOffendersByStaffIdentifier(staffIdentifier, current, Sort.unsorted(), Pageable.unpaged());
+    }
 
-        return staffRepository.findByStaffId(staffIdentifier).map(
-                staff -> OffenderTransformer.managedOffenderOf(staff, current)
-        );
+    @Transactional(readOnly = true)
+    public Optional<List<ManagedOffender>> getManagedOffendersByStaffIdentifier(final long staffIdentifier, final boolean current, final Sort sort, final Pageable pageable) {
+        sort.stream()
+                .map(Sort.Order::getProperty)
+                .filter(property -> !StaffRepository.MANAGED_OFFENDER_SORT_PROPERTIES.contains(property))
+                .findFirst()
+                .ifPresent(property -> {
+                    throw new BadRequestException(String.format("Managed offenders cannot be sorted by %s", property));
+                });
+
+        return staffRepository.findIdentifiersByStaffId(staffIdentifier)
+                .map(staff -> managedOffendersOf(staff, current, sort, pageable));
+    }
+
+    private List<ManagedOffender> managedOffendersOf(final StaffIdentifiers staff, final boolean current, final Sort sort, final Pageable pageable) {
+        return staffRepository.findManagedOffenders(staff.getStaffId(), current, sort, pageable)
+                .stream()
+                .map(row -> OffenderTransformer.managedOffenderOf(row, staff.getStaffId(), staff.getOfficerCode()))
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
@@ -73,10 +94,19 @@ public class StaffService {
     public List<StaffDetails> getStaffDetailsByUsernames(final Set<String> usernames) {
         final var capitalisedUsernames = usernames.stream().map(String::toUpperCase).collect(Collectors.toSet());
 
-        return staffRepository.findByUsernames(capitalisedUsernames)
+        final var staffDetails = staffRepository.findByUsernames(capitalisedUsernames)
                 .stream()
                 .map(StaffTransformer::staffDetailsOf)
-                .map(addFieldsFromLdap())
+                .collect(Collectors.toList());
+        final var nDeliusUsers = ldapRepository.getDeliusUsersNoRoles(staffDetails
+                .stream()
+                .map(StaffDetails::getUsername)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        return staffDetails
+                .stream()
+                .map(details -> withFieldsFrom(details, Optional.ofNullable(details.getUsername()).map(nDeliusUsers::get)))
                 .collect(Collectors.toList());
     }
 
@@ -120,14 +150,15 @@ public class StaffService {
     }
 
     private Function<StaffDetails, StaffDetails> addFieldsFromLdap() {
-        return staffDetails -> {
-            var nDeliusUser = ldapRepository.getDeliusUserNoRoles(staffDetails.getUsername());
-            return staffDetails
-                .toBuilder()
-                .email(nDeliusUser.map(NDeliusUser::getMail).orElse(null))
-                .telephoneNumber(nDeliusUser.map(NDeliusUser::getTelephoneNumber).orElse(null))
-                .build();
-        };
+        return staffDetails -> withFieldsFrom(staffDetails, ldapRepository.getDeliusUserNoRoles(staffDetails.getUsername()));
+    }
+
+    private static StaffDetails withFieldsFrom(final StaffDetails staffDetails, final Optional<NDeliusUser> nDeliusUser) {
+        return staffDetails
+            .toBuilder()
+            .email(nDeliusUser.map(NDeliusUser::getMail).orElse(null))
+            .telephoneNumber(nDeliusUser.map(NDeliusUser::getTelephoneNumber).orElse(null))
+            .build();
     }
 
     private Staff createStaffInArea(final String surname, final String forename, final ProbationArea probationArea) {
@@ -6,53 +6,81 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.digital.delius.data.api.AccessLimitation;
 import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+
 @Service
 public class UserAccessService {
     private final UserService userService;
-    private final OffenderService offenderService;
+    private final AccessControlIndex accessControlIndex;
     private final CurrentUserSupplier currentUserSupplier;
     private final Set<String> ignoreExclusionRoles;
     private final Set<String> ignoreRestrictionRoles;
 
     public UserAccessService(UserService userService,
-                             OffenderService offenderService,
+                             AccessControlIndex accessControlIndex,
                              CurrentUserSupplier currentUserSupplier,
                              @Value("${user-access.scopes.dont-apply-exclusions-for}") Set<String> ignoreExclusionRoles,
                              @Value("${user-access.scopes.dont-apply-restrictions-for}") Set<String> ignoreRestrictionRoles) {
         this.userService = userService;
-        this.offenderService = offenderService;
+        this.accessControlIndex = accessControlIndex;
         this.currentUserSupplier = currentUserSupplier;
         this.ignoreExclusionRoles = ignoreExclusionRoles;
         this.ignoreRestrictionRoles = ignoreRestrictionRoles;
     }
 
+    /**
+     * Checks the current user may see the offender using the access control index, so the offender's flags are
+     * looked up without loading the offender and the user's exclusions and restrictions only if the flags need them.
+     */
     public void checkExclusionsAndRestrictions(String crn, Collection<? extends GrantedAuthority> authorities) {
         final var username = currentUserSupplier.username();
-        if (username.isPresent() && shouldCheckExclusion(authorities)) {
-
-            final var excludedException = offenderService.getOffenderByCrn(crn)
-                .map(o -> userService.accessLimitationOf(username.get(), o))
-                .filter(AccessLimitation::isUserExcluded)
-                .map(accessLimitation -> new AccessDeniedException(accessLimitation.getExclusionMessage()));
+        final var checkExclusion = username.isPresent() && shouldCheckExclusion(authorities);
+        final var checkRestriction = shouldCheckRestriction(authorities);
 
-            if (excludedException.isPresent())
-                throw excludedException.get();
+        if (!checkExclusion && !checkRestriction) {
+            return;
         }
 
-        if (shouldCheckRestriction(authorities)) {
-            final var restrictedException = offenderService.getOffenderByCrn(crn)
-                .map(o -> username.map(u -> userService.accessLimitationOf(u, o))
-                                         .orElseGet(() -> buildAnonymousUserAccessLimitation(o)))
-                .filter(AccessLimitation::isUserRestricted)
-                .map(accessLimitation -> new AccessDeniedException(accessLimitation.getRestrictionMessage()));
+        accessControlIndex.offenderAccessFlagsOf(crn).ifPresent(offender -> {
+            final var accessLimitation = username
+                .map(u -> userService.accessLimitationOf(u, offender))
+                .orElseGet(() -> buildAnonymousUserAccessLimitation(offender));
 
-            if (restrictedException.isPresent())
-                throw restrictedException.get();
-        }
+            if (checkExclusion && accessLimitation.isUserExcluded())
+                throw new AccessDeniedException(accessLimitation.getExclusionMessage());
+
+            if (checkRestriction && accessLimitation.isUserRestricted())
+                throw new AccessDeniedException(accessLimitation.getRestrictionMessage());
+        });
+    }
+
+    /**
+     * Evaluates exclusions and restrictions for many offenders at once, loading the current user at most once. The
+     * returned limitations are in the same order as the offenders and only reflect the checks that apply to the
+     * caller's authorities.
+     */
+    public List<AccessLimitation> accessLimitationsOf(List<uk.gov.justice.digital.delius.data.api.OffenderDetail> offenders, Collection<? extends GrantedAuthority> authorities) {
+        final var username = currentUserSupplier.username();
+        final var checkExclusion = username.isPresent() && shouldCheckExclusion(authorities);
+        final var checkRestriction = shouldCheckRestriction(authorities);
+
+        final var accessLimitations = username
+            .filter(u -> checkExclusion || checkRestriction)
+            .map(u -> userService.accessLimitationsOf(u, offenders))
+            .orElseGet(() -> offenders.stream().map(this::buildAnonymousUserAccessLimitation).collect(toList()));
+
+        return accessLimitations.stream()
+            .map(accessLimitation -> accessLimitation.toBuilder()
+                .userExcluded(checkExclusion && accessLimitation.isUserExcluded())
+                .userRestricted(checkRestriction && accessLimitation.isUserRestricted())
+                .build())
+            .collect(toList());
     }
 
     private boolean shouldCheckExclusion(Collection<? extends GrantedAuthority> authorities) {
@@ -69,6 +97,15 @@ public class UserAccessService {
             .noneMatch(ignoreRestrictionRoles::contains);
     }
 
+    private AccessLimitation buildAnonymousUserAccessLimitation(OffenderAccessFlags offender) {
+        return AccessLimitation.builder()
+            .userRestricted(offender.hasCurrentRestriction())
+            .restrictionMessage(offender.getRestrictionMessage())
+            .userExcluded(false)    // Can't exclude without a username
+            .exclusionMessage(offender.getExclusionMessage())
+            .build();
+    }
+
     private AccessLimitation buildAnonymousUserAccessLimitation(uk.gov.justice.digital.delius.data.api.OffenderDetail offender) {
         return AccessLimitation.builder()
             .userRestricted(offender.getCurrentRestriction())
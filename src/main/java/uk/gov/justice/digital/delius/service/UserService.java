@@ -1,24 +1,28 @@
 package uk.gov.justice.digital.delius.service;
 
+import com.google.common.base.Suppliers;
 import com.microsoft.applicationinsights.TelemetryClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.ldap.NameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.AccessLimitation;
 import uk.gov.justice.digital.delius.data.api.OffenderDetail;
+import uk.gov.justice.digital.delius.data.api.OffenderUserAccess;
 import uk.gov.justice.digital.delius.data.api.UserDetails;
 import uk.gov.justice.digital.delius.data.api.UserRole;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
 import uk.gov.justice.digital.delius.ldap.repository.LdapRepository;
+import uk.gov.justice.digital.delius.service.AccessControlIndex.UserAccessLists;
 import uk.gov.justice.digital.delius.service.wrapper.UserRepositoryWrapper;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
@@ -29,34 +33,72 @@ public class UserService {
     private final UserRepositoryWrapper userRepositoryWrapper;
     private final LdapRepository ldapRepository;
     private final TelemetryClient telemetryClient;
+    private final AccessControlIndex accessControlIndex;
 
     @Autowired
-    public UserService(final UserRepositoryWrapper userRepositoryWrapper, final LdapRepository ldapRepository, final TelemetryClient telemetryClient) {
+    public UserService(final UserRepositoryWrapper userRepositoryWrapper, final LdapRepository ldapRepository, final TelemetryClient telemetryClient, final AccessControlIndex accessControlIndex) {
         this.userRepositoryWrapper = userRepositoryWrapper;
         this.ldapRepository = ldapRepository;
         this.telemetryClient = telemetryClient;
+        this.accessControlIndex = accessControlIndex;
     }
 
-    @Transactional(readOnly = true)
     public AccessLimitation accessLimitationOf(final String subject, final OffenderDetail offenderDetail) {
+        return accessLimitationOf(subject, accessFlagsOf(offenderDetail));
+    }
+
+    public AccessLimitation accessLimitationOf(final String subject, final OffenderAccessFlags offender) {
+        return accessLimitationOf(() -> accessControlIndex.userAccessListsOf(subject), offender);
+    }
+
+    public List<AccessLimitation> accessLimitationsOf(final String subject, final List<OffenderDetail> offenderDetails) {
+        // the user is only looked up once, and only if any of the offenders have exclusions or restrictions
+        final Supplier<UserAccessLists> userAccessLists = Suppliers.memoize(() -> accessControlIndex.userAccessListsOf(subject));
+        return offenderDetails.stream()
+                .map(offenderDetail -> accessLimitationOf(userAccessLists, accessFlagsOf(offenderDetail)))
+                .collect(toList());
+    }
+
+    /**
+     * The access the user has to each of the offenders, in the order of the CRNs. The offenders' flags are batch
+     * loaded and the user's exclusions and restrictions looked up once, and only if any offender needs them.
+     */
+    public List<OffenderUserAccess> offenderUserAccessOf(final String subject, final List<String> crns) {
+        final var offenders = accessControlIndex.offenderAccessFlagsOf(crns);
+        final Supplier<UserAccessLists> userAccessLists = Suppliers.memoize(() -> accessControlIndex.userAccessListsOf(subject));
+        return crns.stream()
+                .map(crn -> Optional.ofNullable(offenders.get(crn))
+                        .map(offender -> OffenderUserAccess.builder()
+                                .crn(crn)
+                                .status(OffenderUserAccess.Status.FOUND)
+                                .accessLimitation(accessLimitationOf(userAccessLists, offender))
+                                .build())
+                        .orElseGet(() -> OffenderUserAccess.builder()
+                                .crn(crn)
+                                .status(OffenderUserAccess.Status.NOT_FOUND)
+                                .build()))
+                .collect(toList());
+    }
+
+    private AccessLimitation accessLimitationOf(final Supplier<UserAccessLists> userAccessListsSupplier, final OffenderAccessFlags offender) {
         final var accessLimitationBuilder = AccessLimitation.builder();
 
-        if (offenderDetail.getCurrentExclusion() || offenderDetail.getCurrentRestriction()) {
-            final var user = userRepositoryWrapper.getUser(subject);
+        if (offender.hasCurrentExclusion() || offender.hasCurrentRestriction()) {
+            final var userAccessLists = userAccessListsSupplier.get();
 
-            if (offenderDetail.getCurrentExclusion()) {
-                final var userExcluded = user.isExcludedFrom(offenderDetail.getOffenderId());
+            if (offender.hasCurrentExclusion()) {
+                final var userExcluded = userAccessLists.isExcludedFrom(offender.getOffenderId());
                 accessLimitationBuilder.userExcluded(userExcluded);
                 if (userExcluded) {
-                    accessLimitationBuilder.exclusionMessage(offenderDetail.getExclusionMessage());
+                    accessLimitationBuilder.exclusionMessage(offender.getExclusionMessage());
                 }
             }
 
-            if (offenderDetail.getCurrentRestriction()) {
-                final var userRestricted = !user.isRestrictedUserFor(offenderDetail.getOffenderId());
+            if (offender.hasCurrentRestriction()) {
+                final var userRestricted = !userAccessLists.isRestrictedUserFor(offender.getOffenderId());
                 accessLimitationBuilder.userRestricted(userRestricted);
                 if (userRestricted) {
-                    accessLimitationBuilder.restrictionMessage(offenderDetail.getRestrictionMessage());
+                    accessLimitationBuilder.restrictionMessage(offender.getRestrictionMessage());
                 }
             }
         }
@@ -64,6 +106,16 @@ public class UserService {
         return accessLimitationBuilder.build();
     }
 
+    private static OffenderAccessFlags accessFlagsOf(final OffenderDetail offenderDetail) {
+        return OffenderAccessFlags.builder()
+                .offenderId(offenderDetail.getOffenderId())
+                .currentExclusion(Boolean.TRUE.equals(offenderDetail.getCurrentExclusion()) ? 1L : 0L)
+                .exclusionMessage(offenderDetail.getExclusionMessage())
+                .currentRestriction(Boolean.TRUE.equals(offenderDetail.getCurrentRestriction()) ? 1L : 0L)
+                .restrictionMessage(offenderDetail.getRestrictionMessage())
+                .build();
+    }
+
     public Optional<UserDetails> getUserDetails(final String username) {
         final var ldapUser = ldapRepository.getDeliusUser(username);
         return ldapUser.map(user -> {
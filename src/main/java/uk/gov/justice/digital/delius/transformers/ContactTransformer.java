@@ -1,12 +1,14 @@
 package uk.gov.justice.digital.delius.transformers;
 
 import com.google.common.collect.ImmutableList;
+import uk.gov.justice.digital.delius.data.api.AppointmentOutcome;
 import uk.gov.justice.digital.delius.data.api.Contact;
 import uk.gov.justice.digital.delius.data.api.ContactSummary;
 import uk.gov.justice.digital.delius.data.api.Human;
 import uk.gov.justice.digital.delius.data.api.KeyValue;
 import uk.gov.justice.digital.delius.data.api.Nsi;
 import uk.gov.justice.digital.delius.data.api.StaffHuman;
+import uk.gov.justice.digital.delius.jpa.dao.ContactSummaryRow;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ContactOutcomeType;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ContactType;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
@@ -26,34 +28,57 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static java.util.Comparator.comparing;
 import static uk.gov.justice.digital.delius.transformers.TypesTransformer.ynToBoolean;
 import static uk.gov.justice.digital.delius.transformers.TypesTransformer.zeroOneToBoolean;
 
 public class ContactTransformer {
 
-    public static ContactSummary contactSummaryOf(uk.gov.justice.digital.delius.jpa.standard.entity.Contact contact) {
+    public static ContactSummary contactSummaryOf(ContactSummaryRow contact) {
         return ContactSummary.builder()
             .contactId(contact.getContactId())
             .contactStart(DateConverter.toOffsetDateTime(contact.getContactDate(), contact.getContactStartTime()))
             .contactEnd(DateConverter.toOffsetDateTime(contact.getContactDate(), contact.getContactEndTime()))
-            .type(contactTypeOf(contact.getContactType()))
+            .type(uk.gov.justice.digital.delius.data.api.ContactType.builder()
+                .code(contact.getContactTypeCode())
+                .description(contact.getContactTypeDescription())
+                .shortDescription(contact.getContactTypeShortDescription())
+                .appointment(contact.getAttendanceContact())
+                .build())
             .officeLocation(Optional.ofNullable(contact.getOfficeLocation())
                 .map(OfficeLocationTransformer::officeLocationOf)
                 .orElse(null))
             .notes(contact.getNotes())
-            .provider(ContactTransformer.probationAreaOf(contact.getProbationArea()))
-            .team(ContactTransformer.teamOf(contact.getTeam()))
-            .staff(ContactTransformer.staffOf(contact.getStaff()))
+            .provider(keyValueOf(contact.getProbationAreaCode(), contact.getProbationAreaDescription()))
+            .team(keyValueOf(contact.getTeamCode(), contact.getTeamDescription()))
+            .staff(Optional.ofNullable(contact.getStaffCode())
+                .map(code -> StaffHuman
+                    .builder()
+                    .code(code)
+                    .forenames(combinedForenamesOf(contact.getStaffForename(), contact.getStaffForename2()))
+                    .surname(contact.getStaffSurname())
+                    .build())
+                .orElse(null))
             .sensitive(ynToBoolean(contact.getSensitive()))
-            .outcome(AppointmentTransformer.appointmentOutcomeOf(contact))
-            .rarActivity(contact.isRarActivity())
+            // attended, complied and hours credited are de-normalised onto the contact, see AppointmentTransformer
+            .outcome(Optional.ofNullable(contact.getOutcomeCode())
+                .map(code -> AppointmentOutcome.builder()
+                    .code(code)
+                    .description(contact.getOutcomeDescription())
+                    .attended(ynToBoolean(contact.getAttended()))
+                    .complied(ynToBoolean(contact.getComplied()))
+                    .hoursCredited(contact.getHoursCredited())
+                    .build())
+                .orElse(null))
+            .rarActivity("Y".equals(contact.getRarActivity()))
             .build();
     }
 
+    private static KeyValue keyValueOf(String code, String description) {
+        return Optional.ofNullable(code).map(c -> KeyValue.builder().code(c).description(description).build()).orElse(null);
+    }
+
     public static List<Contact> contactsOf(List<uk.gov.justice.digital.delius.jpa.standard.entity.Contact> contacts) {
         return contacts.stream()
-                .sorted(comparing(uk.gov.justice.digital.delius.jpa.standard.entity.Contact::getCreatedDateTime))
                 .map(ContactTransformer::contactOf)
                 .collect(Collectors.toList());
     }
@@ -19,6 +19,7 @@ import uk.gov.justice.digital.delius.data.api.PhoneNumber;
 import uk.gov.justice.digital.delius.data.api.PreviousConviction;
 import uk.gov.justice.digital.delius.data.api.ResponsibleOfficer;
 import uk.gov.justice.digital.delius.data.api.Team;
+import uk.gov.justice.digital.delius.jpa.dao.ManagedOffenderRow;
 import uk.gov.justice.digital.delius.jpa.standard.entity.AddressAssessment;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Disability;
 import uk.gov.justice.digital.delius.jpa.standard.entity.District;
@@ -216,6 +217,19 @@ public class OffenderTransformer {
                 .build();
     }
 
+    /**
+     * Only the fields required to evaluate exclusions and restrictions, avoiding loading any associations
+     */
+    public static OffenderDetail offenderAccessDetailOf(Offender offender) {
+        return OffenderDetail.builder()
+                .offenderId(offender.getOffenderId())
+                .currentExclusion(zeroOneToBoolean(offender.getCurrentExclusion()))
+                .exclusionMessage(offender.getExclusionMessage())
+                .currentRestriction(zeroOneToBoolean(offender.getCurrentRestriction()))
+                .restrictionMessage(offender.getRestrictionMessage())
+                .build();
+    }
+
     public static OffenderDetailSummary offenderSummaryOf(Offender offender) {
         return OffenderDetailSummary.builder()
                 .offenderId(offender.getOffenderId())
@@ -471,70 +485,22 @@ public class OffenderTransformer {
         return responsibleOfficers;
     }
 
-    private static ManagedOffender convertToManagedOffender(uk.gov.justice.digital.delius.jpa.standard.entity.OffenderManager om, Staff staff) {
-
-        return ManagedOffender.builder()
-                .staffCode(staff.getOfficerCode())
-                .staffIdentifier(staff.getStaffId())
-                .offenderId(om.getOffenderId())
-                .nomsNumber(Optional.ofNullable(om.getManagedOffender()).map(Offender::getNomsNumber).orElse(null))
-                .crnNumber(Optional.ofNullable(om.getManagedOffender()).map(Offender::getCrn).orElse(null))
-                .offenderSurname(Optional.ofNullable(om.getManagedOffender()).map(Offender::getSurname).orElse(null))
-                .isCurrentRo(Objects.nonNull(om.getActiveResponsibleOfficer()))
-                .isCurrentOm(isCurrentManager(om.getActiveFlag(), om.getEndDate()))
-                .isCurrentPom(false)
-                .omStartDate(om.getAllocationDate())
-                .omEndDate(om.getEndDate())
-                .build();
-    }
-
-    private static ManagedOffender convertToManagedOffender(uk.gov.justice.digital.delius.jpa.standard.entity.PrisonOffenderManager pom, Staff staff) {
-
+    public static ManagedOffender managedOffenderOf(ManagedOffenderRow row, Long staffIdentifier, String staffCode) {
         return ManagedOffender.builder()
-                .staffCode(staff.getOfficerCode())
-                .staffIdentifier(staff.getStaffId())
-                .offenderId(pom.getOffenderId())
-                .nomsNumber(Optional.ofNullable(pom.getManagedOffender()).map(Offender::getNomsNumber).orElse(null))
-                .crnNumber(Optional.ofNullable(pom.getManagedOffender()).map(Offender::getCrn).orElse(null))
-                .offenderSurname(Optional.ofNullable(pom.getManagedOffender()).map(Offender::getSurname).orElse(null))
-                .isCurrentRo(Objects.nonNull(pom.getActiveResponsibleOfficer()))
-                .isCurrentOm(false)
-                .isCurrentPom(isCurrentManager(pom.getActiveFlag(), pom.getEndDate()))
-                .omStartDate(null)
-                .omEndDate(null)
+                .staffCode(staffCode)
+                .staffIdentifier(staffIdentifier)
+                .offenderId(row.getOffenderId())
+                .nomsNumber(row.getNomsNumber())
+                .crnNumber(row.getCrnNumber())
+                .offenderSurname(row.getOffenderSurname())
+                .isCurrentRo(row.isCurrentRo())
+                .isCurrentOm(row.isCurrentOm())
+                .isCurrentPom(row.isCurrentPom())
+                .omStartDate(row.getOmStartDate())
+                .omEndDate(row.getOmEndDate())
                 .build();
     }
 
-    public static List<uk.gov.justice.digital.delius.data.api.ManagedOffender> managedOffenderOf(Staff staff, boolean current) {
-
-        List<ManagedOffender> managedOffenders = new ArrayList<>();
-
-        if (staff.getOffenderManagers() != null && !staff.getOffenderManagers().isEmpty()) {
-            managedOffenders.addAll(
-                    staff.getOffenderManagers().stream()
-                            .map(offenderManager -> convertToManagedOffender(offenderManager, staff))
-                            .collect(toList()));
-        }
-
-        if (staff.getPrisonOffenderManagers() != null && !staff.getPrisonOffenderManagers().isEmpty()) {
-            managedOffenders.addAll(
-                    staff.getPrisonOffenderManagers().stream()
-                            .map(prisonOffenderManager -> convertToManagedOffender(prisonOffenderManager, staff))
-                            .collect(toList()));
-        }
-
-        if (current && !managedOffenders.isEmpty()) {
-
-            // Filter the list of managed offenders to only those which hold currently active OM, POM or RO roles
-            return managedOffenders
-                    .stream()
-                    .filter(mo -> (mo.isCurrentOm() || mo.isCurrentPom() || mo.isCurrentRo()))
-                    .collect(toList());
-        }
-
-        return managedOffenders;
-    }
-
     public static List<AdditionalIdentifier> additionalIdentifiersOf(List<uk.gov.justice.digital.delius.jpa.standard.entity.AdditionalIdentifier> additionalIdentifiers) {
         return Optional.ofNullable(additionalIdentifiers)
                 .map(identifiers -> identifiers
@@ -0,0 +1,21 @@
+create table PENDING_NOTIFICATION
+(
+    PENDING_NOTIFICATION_ID NUMBER         not null primary key,
+    NOTIFICATION_TYPE       VARCHAR2(40)   not null,
+    OFFENDER_ID             NUMBER         not null,
+    UNIQUE_ID               NUMBER,
+    PARENT_ENTITY_ID        NUMBER,
+    RECEIVER_PROBATION_AREA_ID NUMBER,
+    CREATED_DATETIME        TIMESTAMP      not null,
+    NEXT_ATTEMPT_DATETIME   TIMESTAMP,
+    ATTEMPTS                NUMBER default 0 not null,
+    LAST_ERROR              VARCHAR2(4000)
+);
+
+create index PENDING_NOTIFICATION_NEXT_IDX on PENDING_NOTIFICATION (NEXT_ATTEMPT_DATETIME);
+create index PENDING_NOTIFICATION_OFF_IDX on PENDING_NOTIFICATION (OFFENDER_ID, PENDING_NOTIFICATION_ID);
+
+create sequence PENDING_NOTIFICATION_ID_SEQ
+    maxvalue 900000000000000000
+    cache 500
+    ;
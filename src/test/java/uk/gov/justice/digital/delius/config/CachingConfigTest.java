@@ -0,0 +1,56 @@
+package uk.gov.justice.digital.delius.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingConfigTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SimpleCacheManager cacheManager = (SimpleCacheManager) new CachingConfig().cacheManager(meterRegistry, Duration.ofHours(1), 2);
+
+    {
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void createsAllReferenceDataCaches() {
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrderElementsOf(CachingConfig.REFERENCE_DATA_CACHES);
+    }
+
+    @Test
+    void recordsHitsAndMisses() {
+        final var cache = cacheManager.getCache(CachingConfig.CONTACT_TYPE_CACHE);
+
+        assertThat(cache.get("CRSNOTE")).isNull();
+        cache.put("CRSNOTE", "contact type");
+        assertThat(cache.get("CRSNOTE").get()).isEqualTo("contact type");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingConfig.CONTACT_TYPE_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingConfig.CONTACT_TYPE_CACHE).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void isBoundedInSize() {
+        final var cache = cacheManager.getCache(CachingConfig.STANDARD_REFERENCE_CACHE);
+
+        cache.put("A", "A");
+        cache.put("B", "B");
+        cache.put("C", "C");
+
+        assertThat(((ExpiringCache) cache).getNativeCache().size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void canBeCleared() {
+        final var cache = cacheManager.getCache(CachingConfig.TRANSFER_REASON_CACHE);
+        cache.put("CASE ORDER", "transfer reason");
+
+        cache.clear();
+
+        assertThat(cache.get("CASE ORDER")).isNull();
+    }
+}
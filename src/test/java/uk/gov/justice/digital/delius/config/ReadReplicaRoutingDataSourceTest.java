@@ -0,0 +1,117 @@
+package uk.gov.justice.digital.delius.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+    private static final Instant NOON = Instant.parse("2021-06-01T12:00:00Z");
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Clock clock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReadReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(30), meterRegistry, clock);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() throws SQLException {
+        when(clock.instant()).thenReturn(NOON);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertThat(connectionForTransaction(true)).isSameAs(replicaConnection);
+        assertThat(meterRegistry.get("delius.datasource.connections").tag("target", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writableTransactionsUseThePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(connectionForTransaction(false)).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void connectionsOutsideTransactionsUseThePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimaryUntilRetried() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("standby unavailable")).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(clock.instant()).thenReturn(NOON, NOON, NOON.plusSeconds(29), NOON.plusSeconds(31));
+
+        assertThat(connectionForTransaction(true)).isSameAs(primaryConnection);
+        assertThat(connectionForTransaction(true)).isSameAs(primaryConnection);
+        assertThat(connectionForTransaction(true)).isSameAs(replicaConnection);
+
+        verify(replica, times(2)).getConnection();
+        assertThat(meterRegistry.get("delius.datasource.replica.fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void transactionsBegunWhileAnotherIsSuspendedAreRoutedByTheirOwnReadOnlyFlag() throws SQLException {
+        when(clock.instant()).thenReturn(NOON);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        ReadReplicaRoutingDataSource.transactionBegun(true);
+        try {
+            assertThat(connectionForTransaction(false)).isSameAs(primaryConnection);
+            assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        } finally {
+            ReadReplicaRoutingDataSource.transactionCompleted();
+        }
+    }
+
+    @Test
+    void connectionsAfterAReadOnlyTransactionCompletesUseThePrimary() throws SQLException {
+        when(clock.instant()).thenReturn(NOON);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(connectionForTransaction(true)).isSameAs(replicaConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    private Connection connectionForTransaction(boolean readOnly) throws SQLException {
+        ReadReplicaRoutingDataSource.transactionBegun(readOnly);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            ReadReplicaRoutingDataSource.transactionCompleted();
+        }
+    }
+}
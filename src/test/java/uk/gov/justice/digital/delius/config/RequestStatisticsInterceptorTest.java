@@ -0,0 +1,78 @@
+package uk.gov.justice.digital.delius.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestStatisticsInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestStatisticsInterceptor interceptor = new RequestStatisticsInterceptor(meterRegistry, 50);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        handler = new HandlerMethod(this, RequestStatisticsInterceptorTest.class.getDeclaredMethod("setUp"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestStatistics.stop();
+    }
+
+    @Test
+    void publishesStatisticsTaggedWithTheHandler() throws SQLException {
+        final var connection = mock(Connection.class);
+        final var statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("select 1 from dual")).thenReturn(statement);
+
+        interceptor.preHandle(request, response, handler);
+        final var instrumented = RequestStatisticsAspect.instrument(connection);
+        instrumented.prepareStatement("select 1 from dual").executeQuery();
+        instrumented.prepareStatement("select 1 from dual").execute();
+        RequestStatistics.current().orElseThrow().recordLdapCall();
+        interceptor.afterCompletion(request, response, handler, null);
+
+        final var statements = meterRegistry.get("delius.request.jdbc.statements").tag("handler", "RequestStatisticsInterceptorTest.setUp").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("delius.request.ldap.calls").summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("delius.request.jdbc.time").timer().count()).isEqualTo(1);
+        verify(statement).executeQuery();
+        verify(statement).execute();
+    }
+
+    @Test
+    void statementsOutsideOfARequestAreNotRecorded() throws SQLException {
+        final var connection = mock(Connection.class);
+        when(connection.prepareStatement("select 1 from dual")).thenReturn(mock(PreparedStatement.class));
+
+        RequestStatisticsAspect.instrument(connection).prepareStatement("select 1 from dual").execute();
+
+        assertThat(RequestStatistics.current()).isEmpty();
+        assertThat(meterRegistry.find("delius.request.jdbc.statements").summary()).isNull();
+    }
+
+    @Test
+    void streamedRequestsAreRecordedWhenStreamingStarts() {
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        assertThat(RequestStatistics.current()).isEmpty();
+        assertThat(meterRegistry.get("delius.request.jdbc.statements").summary().count()).isEqualTo(1);
+    }
+}
@@ -8,12 +8,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateResponse;
+import uk.gov.justice.digital.delius.data.api.AppointmentCreateResult;
 import uk.gov.justice.digital.delius.data.api.AppointmentRescheduleResponse;
 import uk.gov.justice.digital.delius.data.api.AppointmentUpdateResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeRequest;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeUpdate;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
 import uk.gov.justice.digital.delius.jpa.filters.AppointmentFilter;
 import uk.gov.justice.digital.delius.service.AppointmentService;
@@ -23,6 +27,7 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -65,12 +70,13 @@ public class AppointmentBookingControllerTest {
             .teamCode("CRSUATU")
             .build();
         when(appointmentService.createAppointment("1", 2L, appointmentCreateRequest))
-            .thenReturn(AppointmentCreateResponse.builder().appointmentId(3L).build());
+            .thenReturn(Mono.just(AppointmentCreateResponse.builder().appointmentId(3L).build()));
 
         Long appointmentIdResponse = given()
             .contentType(APPLICATION_JSON_VALUE)
             .body(appointmentCreateRequest)
             .when()
+            .async()
             .post("/secure/offenders/crn/1/sentence/2/appointments")
             .then()
             .statusCode(201)
@@ -95,12 +101,13 @@ public class AppointmentBookingControllerTest {
             .countsTowardsRarDays(false)
             .build();
         when(appointmentService.createAppointment("1", 2L, "commissioned-rehabilitation-services", appointmentCreateRequest))
-            .thenReturn(AppointmentCreateResponse.builder().appointmentId(3L).build());
+            .thenReturn(Mono.just(AppointmentCreateResponse.builder().appointmentId(3L).build()));
 
         Long appointmentIdResponse = given()
             .contentType(APPLICATION_JSON_VALUE)
             .body(appointmentCreateRequest)
             .when()
+            .async()
             .post("/secure/offenders/crn/1/sentence/2/appointments/context/commissioned-rehabilitation-services")
             .then()
             .statusCode(201)
@@ -122,12 +129,13 @@ public class AppointmentBookingControllerTest {
             .initiatedByServiceProvider(true)
             .build();
         when(appointmentService.rescheduleAppointment("1", 2L, "commissioned-rehabilitation-services", appointmentRescheduleRequest))
-            .thenReturn(AppointmentRescheduleResponse.builder().appointmentId(3L).build());
+            .thenReturn(Mono.just(AppointmentRescheduleResponse.builder().appointmentId(3L).build()));
 
         Long appointmentIdResponse = given()
             .contentType(APPLICATION_JSON_VALUE)
             .body(appointmentRescheduleRequest)
             .when()
+            .async()
             .post("/secure/offenders/crn/1/appointments/2/reschedule/context/commissioned-rehabilitation-services")
             .then()
             .statusCode(200)
@@ -150,12 +158,13 @@ public class AppointmentBookingControllerTest {
             .initiatedByServiceProvider(true)
             .build();
         when(appointmentService.rescheduleAppointment("1", 2L, "commissioned-rehabilitation-services", appointmentRescheduleRequest))
-            .thenReturn(AppointmentRescheduleResponse.builder().appointmentId(3L).build());
+            .thenReturn(Mono.just(AppointmentRescheduleResponse.builder().appointmentId(3L).build()));
 
         Long appointmentIdResponse = given()
             .contentType(APPLICATION_JSON_VALUE)
             .body(appointmentRescheduleRequest)
             .when()
+            .async()
             .post("/secure/offenders/crn/1/appointments/2/reschedule/context/commissioned-rehabilitation-services")
             .then()
             .statusCode(200)
@@ -178,12 +187,13 @@ public class AppointmentBookingControllerTest {
 
         when(appointmentService.updateAppointmentOutcome(eq("1"), eq(2L), eq("commissioned-rehabilitation-services"),
             eq(request)))
-            .thenReturn(AppointmentUpdateResponse.builder().appointmentId(2L).build());
+            .thenReturn(Mono.just(AppointmentUpdateResponse.builder().appointmentId(2L).build()));
 
         Long appointmentIdResponse = given()
             .contentType(APPLICATION_JSON_VALUE)
             .body(request)
             .when()
+            .async()
             .post("/secure/offenders/crn/1/appointments/2/outcome/context/commissioned-rehabilitation-services")
             .then()
             .statusCode(200)
@@ -194,4 +204,70 @@ public class AppointmentBookingControllerTest {
 
         assertThat(appointmentIdResponse).isEqualTo(2L);
     }
+
+    @Test
+    public void updatesManyAppointmentOutcomesUsingContextlessClientEndpoint() {
+
+        final var outcome = ContextlessAppointmentOutcomeRequest.builder()
+            .notes("notes")
+            .attended("LATE")
+            .notifyPPOfAttendanceBehaviour(true)
+            .build();
+        final var updates = List.of(
+            ContextlessAppointmentOutcomeUpdate.builder().appointmentId(2L).outcome(outcome).build(),
+            ContextlessAppointmentOutcomeUpdate.builder().appointmentId(3L).outcome(outcome).build());
+
+        when(appointmentService.updateAppointmentOutcomes("1", "commissioned-rehabilitation-services", updates))
+            .thenReturn(Flux.just(AppointmentUpdateResponse.builder().appointmentId(2L).build(),
+                AppointmentUpdateResponse.builder().appointmentId(3L).build()));
+
+        AppointmentUpdateResponse[] responses = given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(updates)
+            .when()
+            .async()
+            .post("/secure/offenders/crn/1/appointments/outcome/bulk/context/commissioned-rehabilitation-services")
+            .then()
+            .statusCode(200)
+            .extract()
+            .body()
+            .as(AppointmentUpdateResponse[].class);
+
+        assertThat(responses).extracting(AppointmentUpdateResponse::getAppointmentId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void createsManyAppointmentsReportingThoseNotCreatedUsingContextlessClientEndpoint() {
+        OffsetDateTime now = Instant.now().atZone(ZoneId.of("UTC")).toOffsetDateTime().truncatedTo(ChronoUnit.SECONDS);
+
+        final var requestBuilder = ContextlessAppointmentCreateRequest.builder()
+            .contractType("ACC")
+            .officeLocationCode("CRSSHEF")
+            .notes("http://url")
+            .countsTowardsRarDays(false);
+        final var requests = List.of(
+            requestBuilder.appointmentStart(now).appointmentEnd(now.plusHours(1)).build(),
+            requestBuilder.appointmentStart(now.plusDays(7)).appointmentEnd(now.plusDays(7).plusHours(1)).build());
+
+        when(appointmentService.createAppointments("1", 2L, "commissioned-rehabilitation-services", requests))
+            .thenReturn(Flux.just(
+                AppointmentCreateResult.builder().appointment(AppointmentCreateResponse.builder().appointmentId(3L).build()).build(),
+                AppointmentCreateResult.builder().errorStatus(409).errorMessage("Conflicts with another appointment").build()));
+
+        AppointmentCreateResult[] results = given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(requests)
+            .when()
+            .async()
+            .post("/secure/offenders/crn/1/sentence/2/appointments/bulk/context/commissioned-rehabilitation-services")
+            .then()
+            .statusCode(207)
+            .extract()
+            .body()
+            .as(AppointmentCreateResult[].class);
+
+        assertThat(results[0].getAppointment().getAppointmentId()).isEqualTo(3L);
+        assertThat(results[1].getAppointment()).isNull();
+        assertThat(results[1].getErrorStatus()).isEqualTo(409);
+    }
 }
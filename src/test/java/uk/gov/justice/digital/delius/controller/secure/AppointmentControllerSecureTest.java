@@ -12,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.digital.delius.data.api.Appointment.Attended;
 import uk.gov.justice.digital.delius.data.api.AppointmentDetail;
+import uk.gov.justice.digital.delius.data.api.AppointmentDetailPage;
 import uk.gov.justice.digital.delius.data.api.AppointmentOutcome;
 import uk.gov.justice.digital.delius.data.api.AppointmentType;
 import uk.gov.justice.digital.delius.data.api.AppointmentType.OrderType;
@@ -20,6 +21,7 @@ import uk.gov.justice.digital.delius.data.api.KeyValue;
 import uk.gov.justice.digital.delius.data.api.OfficeLocation;
 import uk.gov.justice.digital.delius.data.api.StaffHuman;
 import uk.gov.justice.digital.delius.jpa.filters.AppointmentFilter;
+import uk.gov.justice.digital.delius.jpa.filters.AppointmentKeyset;
 import uk.gov.justice.digital.delius.service.AppointmentService;
 import uk.gov.justice.digital.delius.service.OffenderService;
 
@@ -81,6 +83,34 @@ public class AppointmentControllerSecureTest {
                 .build());
     }
 
+    @Test
+    public void gettingAPageOfOffenderAppointmentsByCrn() {
+        final var cursor = new AppointmentKeyset(LocalDate.of(2021, 6, 1), 2L).toCursor();
+        when(offenderService.offenderIdOfCrn("CRN1")).thenReturn(Optional.of(1L));
+        when(appointmentService.appointmentDetailsPageFor(eq(1L), filterCaptor.capture(), eq(2)))
+            .thenReturn(new AppointmentDetailPage(List.of(anAppointmentDetail(3L), anAppointmentDetail(4L)), "next"));
+
+        final var observed = given()
+            .when()
+            .get("/secure/offenders/crn/CRN1/appointments/page?attended=ATTENDED&cursor={cursor}&pageSize=2", cursor)
+            .then()
+            .statusCode(200)
+            .extract()
+            .body()
+            .as(AppointmentDetailPage.class);
+
+        assertThat(observed.getContent())
+            .extracting("appointmentId", Long.class)
+            .containsExactly(3L, 4L);
+        assertThat(observed.getNextCursor()).isEqualTo("next");
+
+        assertThat(filterCaptor.getValue())
+            .isEqualTo(AppointmentFilter.builder()
+                .attended(Optional.of(Attended.ATTENDED))
+                .after(Optional.of(new AppointmentKeyset(LocalDate.of(2021, 6, 1), 2L)))
+                .build());
+    }
+
     @Test
     public void gettingAppointment() {
         final var appointment = anAppointmentDetail(100L);
@@ -11,12 +11,15 @@ import uk.gov.justice.digital.delius.service.OffenderDeltaLockedException;
 import uk.gov.justice.digital.delius.service.OffenderUpdatesService;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -100,4 +103,75 @@ class OffenderUpdatesResourceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("offenders/nextUpdates")
+    class GetNextUpdates {
+
+        @Test
+        @DisplayName("Will get a batch of updates")
+        void willGetNextUpdates() {
+            when(offenderUpdatesService.getAndLockNextUpdates(50)).thenReturn(List.of(
+                    OffenderUpdate.builder().offenderDeltaId(1L).offenderId(99L).status("INPROGRESS").build(),
+                    OffenderUpdate.builder().offenderDeltaId(2L).offenderId(98L).status("INPROGRESS").build()));
+
+            given()
+                    .contentType(APPLICATION_JSON_VALUE)
+                    .when()
+                    .get("/secure/offenders/nextUpdates?limit=50")
+                    .then()
+                    .statusCode(200)
+                    .body("offenderDeltaId", contains(1, 2))
+            ;
+        }
+
+        @Test
+        @DisplayName("Will return an empty list when no updates present")
+        void willReturnEmptyListWhenNoUpdates() {
+            when(offenderUpdatesService.getAndLockNextUpdates(100)).thenReturn(List.of());
+
+            given()
+                    .contentType(APPLICATION_JSON_VALUE)
+                    .when()
+                    .get("/secure/offenders/nextUpdates")
+                    .then()
+                    .statusCode(200)
+                    .body("size()", equalTo(0))
+            ;
+        }
+    }
+
+    @Nested
+    @DisplayName("offenders/updates")
+    class BulkUpdates {
+
+        @Test
+        @DisplayName("Will delete a batch of updates")
+        void willDeleteUpdates() {
+            given()
+                    .contentType(APPLICATION_JSON_VALUE)
+                    .body(List.of(1L, 2L))
+                    .when()
+                    .delete("/secure/offenders/updates")
+                    .then()
+                    .statusCode(200)
+            ;
+
+            verify(offenderUpdatesService).deleteUpdates(List.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("Will mark a batch of updates as failed")
+        void willMarkUpdatesAsFailed() {
+            given()
+                    .contentType(APPLICATION_JSON_VALUE)
+                    .body(List.of(1L, 2L))
+                    .when()
+                    .put("/secure/offenders/updates/markAsFailed")
+                    .then()
+                    .statusCode(200)
+            ;
+
+            verify(offenderUpdatesService).markAllAsFailed(List.of(1L, 2L));
+        }
+    }
+}
@@ -136,4 +136,20 @@ class ReferenceDataResourceTest {
                     .body("referenceDataSets[1].description", is("POM Allocation Reason"));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("evictReferenceDataCache")
+    class EvictReferenceDataCache {
+        @Test
+        @DisplayName("Will evict the cached reference data")
+        void WillEvictCachedReferenceData() {
+            given()
+                    .when()
+                    .delete("/secure/referenceData/cache")
+                    .then()
+                    .statusCode(204);
+
+            verify(referenceDataService).evictCachedReferenceData();
+        }
+    }
+}
@@ -155,4 +155,24 @@ class DocumentFilterTest {
 
     }
 
-}
\ No newline at end of file
+    @DisplayName("allowsType")
+    @Nested
+    class AllowsType {
+        @Test
+        @DisplayName("every type is allowed when there is no filter")
+        void everyTypeIsAllowedWhenThereIsNoFilter() {
+            assertThat(noFilter().allowsType(Type.CONTACT_DOCUMENT)).isTrue();
+            assertThat(noFilter().allowsType(Type.PRECONS_DOCUMENT)).isTrue();
+        }
+
+        @Test
+        @DisplayName("only the filtered type is allowed")
+        void onlyTheFilteredTypeIsAllowed() {
+            final var documentFilter = DocumentFilter.of("ASSESSMENT_DOCUMENT", null).getOrElseThrow(shouldBeRight);
+
+            assertThat(documentFilter.allowsType(Type.ASSESSMENT_DOCUMENT)).isTrue();
+            assertThat(documentFilter.allowsType(Type.CONTACT_DOCUMENT)).isFalse();
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.digital.delius.config.SecurityUserContext;
 import uk.gov.justice.digital.delius.jwt.Jwt;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -118,4 +119,30 @@ public class CurrentUserSupplierTest {
 
         assertThat(currentUserSupplier.username()).get().isEqualTo("NationalUser");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void willReturnDelegatedUserWhileRunningOnBehalfOfAnotherThread() {
+        final var username = CurrentUserSupplier.onBehalfOf(Optional.of("testy.test"), () -> currentUserSupplier.username());
+
+        assertThat(username).get().isEqualTo("testy.test");
+    }
+
+    @Test
+    public void willForgetDelegatedUserOnceTaskCompletes() {
+        when(securityUserContext.isSecure()).thenReturn(false);
+
+        CurrentUserSupplier.onBehalfOf(Optional.of("testy.test"), () -> "done");
+
+        assertThat(currentUserSupplier.username()).isNotPresent();
+    }
+
+    @Test
+    public void willRestoreOuterDelegatedUserOnceNestedTaskCompletes() {
+        final var usernames = CurrentUserSupplier.onBehalfOf(Optional.of("outer.user"), () -> {
+            final var inner = CurrentUserSupplier.onBehalfOf(Optional.of("inner.user"), () -> currentUserSupplier.username());
+            return List.of(inner, currentUserSupplier.username());
+        });
+
+        assertThat(usernames).containsExactly(Optional.of("inner.user"), Optional.of("outer.user"));
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.justice.digital.delius.jpa.oracle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientIdentifierTrackerTest {
+    private static final String SET = "call PKG_VPD_CTX.SET_CLIENT_IDENTIFIER(?)";
+    private static final String CLEAR = "call PKG_VPD_CTX.CLEAR_CLIENT_IDENTIFIER()";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientIdentifierTracker tracker = new ClientIdentifierTracker(meterRegistry);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void setsIdentifierOnFirstUse() throws SQLException {
+        tracker.apply(connection, Optional.of("john.smith"));
+
+        verify(connection).prepareStatement(SET);
+        verify(statement).setString(1, "john.smith");
+    }
+
+    @Test
+    void doesNotSetIdentifierAgainForSameUser() throws SQLException {
+        tracker.apply(connection, Optional.of("john.smith"));
+        tracker.apply(connection, Optional.of("john.smith"));
+
+        verify(connection, times(1)).prepareStatement(SET);
+        assertThat(meterRegistry.counter("delius.vpd.client_identifier.round_trips_saved").count()).isEqualTo(3);
+    }
+
+    @Test
+    void setsIdentifierWhenUserChanges() throws SQLException {
+        tracker.apply(connection, Optional.of("john.smith"));
+        tracker.apply(connection, Optional.of("jane.doe"));
+
+        verify(connection, times(2)).prepareStatement(SET);
+        verify(statement).setString(1, "jane.doe");
+        verify(connection, never()).prepareStatement(CLEAR);
+    }
+
+    @Test
+    void clearsIdentifierLazilyWhenNextUsedWithoutUser() throws SQLException {
+        tracker.apply(connection, Optional.of("john.smith"));
+        tracker.apply(connection, Optional.empty());
+        tracker.apply(connection, Optional.empty());
+
+        verify(connection, times(1)).prepareStatement(CLEAR);
+    }
+
+    @Test
+    void doesNothingWithoutUserOnCleanConnection() throws SQLException {
+        tracker.apply(connection, Optional.empty());
+
+        verify(connection, never()).prepareStatement(any());
+    }
+
+    @Test
+    void forgetsIdentifierWhenSettingFails() throws SQLException {
+        when(statement.execute()).thenThrow(new SQLException("boom")).thenReturn(true);
+
+        assertThatThrownBy(() -> tracker.apply(connection, Optional.of("john.smith"))).isInstanceOf(SQLException.class);
+        tracker.apply(connection, Optional.of("john.smith"));
+
+        verify(connection, times(2)).prepareStatement(SET);
+    }
+}
@@ -0,0 +1,149 @@
+package uk.gov.justice.digital.delius.ldap.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ldap.core.AttributesMapper;
+import org.springframework.ldap.core.DirContextOperations;
+import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.support.LdapUtils;
+import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusRole;
+import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusUser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LdapRepositoryTest {
+    private static final NDeliusUser USER = NDeliusUser.builder()
+            .dn(LdapUtils.newLdapName("cn=john.smith,ou=Users"))
+            .cn("john.smith")
+            .mail("john.smith@service.justice.gov.uk")
+            .build();
+
+    @Mock
+    private LdapTemplate ldapTemplate;
+    @Mock
+    private LdapTemplate authenticationTemplate;
+
+    private LdapRepository ldapRepository;
+
+    @BeforeEach
+    void setUp() {
+        ldapRepository = new LdapRepository(ldapTemplate, authenticationTemplate, "ou=Users", new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("A user and their roles are looked up once and then served from memory")
+    void userAndRolesAreCached() {
+        givenUser(List.of(USER));
+        givenRoles("UMBI001");
+
+        ldapRepository.getDeliusUser("John.Smith");
+        final var user = ldapRepository.getDeliusUser("john.smith");
+
+        assertThat(user).get().extracting(NDeliusUser::getRoles).isEqualTo(List.of(NDeliusRole.builder().cn("UMBI001").build()));
+        assertThat(ldapRepository.getEmail("john.smith")).isEqualTo("john.smith@service.justice.gov.uk");
+        verify(authenticationTemplate, times(1)).find(any(LdapQuery.class), eq(NDeliusUser.class));
+        verify(ldapTemplate, times(1)).search(any(LdapQuery.class), any(AttributesMapper.class));
+    }
+
+    @Test
+    @DisplayName("A user that does not exist is remembered as not existing")
+    void unknownUsersAreCached() {
+        givenUser(List.of());
+
+        ldapRepository.getDeliusUser("nobody");
+        final var user = ldapRepository.getDeliusUserNoRoles("nobody");
+
+        assertThat(user).isEmpty();
+        assertThat(ldapRepository.getEmail("nobody")).isNull();
+        verify(authenticationTemplate, times(1)).find(any(LdapQuery.class), eq(NDeliusUser.class));
+    }
+
+    @Test
+    @DisplayName("Adding a role drops the user's cached roles")
+    void addingRoleDropsRoles() {
+        givenUser(List.of(USER));
+        givenRoles("UMBI001");
+        ldapRepository.getDeliusUser("john.smith");
+
+        ldapRepository.addRole("john.smith", "UMBI002");
+        ldapRepository.getDeliusUser("john.smith");
+
+        verify(authenticationTemplate, times(2)).find(any(LdapQuery.class), eq(NDeliusUser.class));
+        verify(ldapTemplate, times(2)).search(any(LdapQuery.class), any(AttributesMapper.class));
+    }
+
+    @Test
+    @DisplayName("Changing a password drops the cached user")
+    void changingPasswordDropsUser() {
+        givenUser(List.of(USER));
+        when(authenticationTemplate.searchForContext(any(LdapQuery.class))).thenReturn(mock(DirContextOperations.class));
+        ldapRepository.getDeliusUserNoRoles("john.smith");
+
+        ldapRepository.changePassword("john.smith", "secret");
+        ldapRepository.getDeliusUserNoRoles("john.smith");
+
+        verify(authenticationTemplate, times(2)).find(any(LdapQuery.class), eq(NDeliusUser.class));
+        verify(authenticationTemplate).modifyAttributes(any(DirContextOperations.class));
+    }
+
+    @Test
+    @DisplayName("Roles for users found by email are cached by DN")
+    void rolesForUsersFoundByEmailAreCached() {
+        givenUser(List.of(USER));
+        givenRoles("UMBI001");
+
+        ldapRepository.getDeliusUserByEmail("john.smith@service.justice.gov.uk");
+        ldapRepository.getDeliusUser("john.smith");
+
+        verify(authenticationTemplate, times(1)).find(any(LdapQuery.class), eq(NDeliusUser.class));
+        verify(ldapTemplate, times(1)).search(any(LdapQuery.class), any(AttributesMapper.class));
+    }
+
+    @Test
+    @DisplayName("Users for many usernames are searched for together, only for those not already cached")
+    void usersAreBatchLoaded() {
+        givenUser(List.of(USER));
+        ldapRepository.getDeliusUserNoRoles("john.smith");
+        final var janeSmith = USER.toBuilder().dn(LdapUtils.newLdapName("cn=jane.smith,ou=Users")).cn("jane.smith").build();
+        when(authenticationTemplate.find(any(LdapQuery.class), eq(NDeliusUser.class))).thenReturn(List.of(janeSmith));
+
+        final var users = ldapRepository.getDeliusUsersNoRoles(List.of("JOHN.SMITH", "Jane.Smith", "nobody"));
+        ldapRepository.getDeliusUsersNoRoles(List.of("jane.smith", "nobody"));
+
+        assertThat(users).containsOnlyKeys("JOHN.SMITH", "Jane.Smith");
+        assertThat(users.get("Jane.Smith")).isEqualTo(janeSmith);
+        final var query = ArgumentCaptor.forClass(LdapQuery.class);
+        verify(authenticationTemplate, times(2)).find(query.capture(), eq(NDeliusUser.class));
+        assertThat(query.getValue().filter().encode()).isEqualTo("(|(cn=jane.smith)(cn=nobody))");
+    }
+
+    private void givenUser(List<NDeliusUser> users) {
+        when(authenticationTemplate.find(any(LdapQuery.class), eq(NDeliusUser.class))).thenReturn(users);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRoles(String... roles) {
+        when(ldapTemplate.search(any(LdapQuery.class), any(AttributesMapper.class))).thenReturn(
+                Stream.of(roles).map(role -> NDeliusRole.builder().cn(role).build()).collect(toList()));
+    }
+}
@@ -0,0 +1,224 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
+import uk.gov.justice.digital.delius.jpa.national.entity.Exclusion;
+import uk.gov.justice.digital.delius.jpa.national.entity.Restriction;
+import uk.gov.justice.digital.delius.jpa.national.entity.User;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
+import uk.gov.justice.digital.delius.service.wrapper.UserRepositoryWrapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AccessControlIndexTest {
+    @Mock
+    private OffenderRepository offenderRepository;
+    @Mock
+    private UserRepositoryWrapper userRepositoryWrapper;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AccessControlIndex accessControlIndex;
+    private final List<Long> polledAfter = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        accessControlIndex = new AccessControlIndex(offenderRepository, userRepositoryWrapper, jdbcTemplate, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Offender flags are looked up once and then served from memory")
+    void offenderFlagsAreCached() {
+        when(offenderRepository.findAccessFlagsByCrn("X12345")).thenReturn(Optional.of(flagsFor(1L)));
+
+        accessControlIndex.offenderAccessFlagsOf("X12345");
+        final var flags = accessControlIndex.offenderAccessFlagsOf("X12345");
+
+        assertThat(flags).contains(flagsFor(1L));
+        verify(offenderRepository, times(1)).findAccessFlagsByCrn("X12345");
+    }
+
+    @Test
+    @DisplayName("Offender flags for many CRNs are loaded together, only for those not already cached")
+    void offenderFlagsAreBatchLoaded() {
+        when(offenderRepository.findAccessFlagsByCrn("X1")).thenReturn(Optional.of(flagsFor(1L, "X1")));
+        when(offenderRepository.findAccessFlagsByCrnIn(List.of("X2", "X3"))).thenReturn(List.of(flagsFor(2L, "X2")));
+        accessControlIndex.offenderAccessFlagsOf("X1");
+
+        final var flags = accessControlIndex.offenderAccessFlagsOf(List.of("X1", "X2", "X3", "X2"));
+        accessControlIndex.offenderAccessFlagsOf(List.of("X2", "X3"));
+
+        assertThat(flags).containsOnlyKeys("X1", "X2");
+        assertThat(flags.get("X2").getOffenderId()).isEqualTo(2L);
+        verify(offenderRepository, times(1)).findAccessFlagsByCrnIn(any());
+    }
+
+    @Test
+    @DisplayName("A user's lists are loaded once regardless of the case of the username")
+    void userListsAreCached() {
+        when(userRepositoryWrapper.getUser("Bobby.Davro")).thenReturn(User.builder()
+                .exclusions(List.of(Exclusion.builder().offenderId(1L).build()))
+                .build());
+
+        accessControlIndex.userAccessListsOf("Bobby.Davro");
+        final var lists = accessControlIndex.userAccessListsOf("bobby.davro");
+
+        assertThat(lists.isExcludedFrom(1L)).isTrue();
+        verify(userRepositoryWrapper, times(1)).getUser(any());
+    }
+
+    @Test
+    @DisplayName("Exclusions and restrictions only apply until they end")
+    void endedEntriesDoNotApply() {
+        when(userRepositoryWrapper.getUser("bobby.davro")).thenReturn(User.builder()
+                .exclusions(List.of(
+                        Exclusion.builder().offenderId(1L).exclusionEnd(LocalDateTime.now().minusDays(1)).build(),
+                        Exclusion.builder().offenderId(2L).exclusionEnd(LocalDateTime.now().minusDays(1)).build(),
+                        Exclusion.builder().offenderId(2L).exclusionEnd(LocalDateTime.now().plusDays(1)).build()))
+                .restrictions(List.of(
+                        Restriction.builder().offenderId(3L).restrictionEnd(LocalDateTime.now().minusDays(1)).build(),
+                        Restriction.builder().offenderId(4L).build()))
+                .build());
+
+        final var lists = accessControlIndex.userAccessListsOf("bobby.davro");
+
+        assertThat(lists.isExcludedFrom(1L)).isFalse();
+        assertThat(lists.isExcludedFrom(2L)).isTrue();
+        assertThat(lists.isRestrictedUserFor(3L)).isFalse();
+        assertThat(lists.isRestrictedUserFor(4L)).isTrue();
+        assertThat(lists.isRestrictedUserFor(5L)).isFalse();
+    }
+
+    @Nested
+    @DisplayName("Following offender deltas")
+    class FollowingOffenderDeltas {
+        @BeforeEach
+        void setUp() {
+            when(jdbcTemplate.queryForObject("SELECT MAX(OFFENDER_DELTA_ID) FROM OFFENDER_DELTA", Long.class)).thenReturn(10L);
+            accessControlIndex.invalidateChangedEntries();
+
+            when(offenderRepository.findAccessFlagsByCrn("X1")).thenReturn(Optional.of(flagsFor(1L)));
+            when(offenderRepository.findAccessFlagsByCrn("X2")).thenReturn(Optional.of(flagsFor(2L)));
+            when(userRepositoryWrapper.getUser("bobby.davro")).thenReturn(User.builder().build());
+            accessControlIndex.offenderAccessFlagsOf("X1");
+            accessControlIndex.offenderAccessFlagsOf("X2");
+            accessControlIndex.userAccessListsOf("bobby.davro");
+        }
+
+        @Test
+        @DisplayName("A change to an offender drops just that offender's flags")
+        void offenderChangeDropsOffenderFlags() throws SQLException {
+            givenDeltas(delta(11L, 1L, "OFFENDER"));
+
+            accessControlIndex.invalidateChangedEntries();
+            accessControlIndex.offenderAccessFlagsOf("X1");
+            accessControlIndex.offenderAccessFlagsOf("X2");
+            accessControlIndex.userAccessListsOf("bobby.davro");
+
+            verify(offenderRepository, times(2)).findAccessFlagsByCrn("X1");
+            verify(offenderRepository, times(1)).findAccessFlagsByCrn("X2");
+            verify(userRepositoryWrapper, times(1)).getUser("bobby.davro");
+        }
+
+        @Test
+        @DisplayName("A change to an exclusion drops every user's lists")
+        void exclusionChangeDropsUserLists() throws SQLException {
+            givenDeltas(delta(11L, 1L, "EXCLUSION"));
+
+            accessControlIndex.invalidateChangedEntries();
+            accessControlIndex.userAccessListsOf("bobby.davro");
+
+            verify(userRepositoryWrapper, times(2)).getUser("bobby.davro");
+        }
+
+        @Test
+        @DisplayName("Polling resumes after the last delta seen")
+        void pollingResumesAfterLastDelta() throws SQLException {
+            givenDeltas(delta(11L, 1L, "OFFENDER"), delta(14L, 2L, "OFFENDER"));
+
+            accessControlIndex.invalidateChangedEntries();
+            accessControlIndex.invalidateChangedEntries();
+
+            assertThat(polledAfter).containsExactly(10L, 14L);
+        }
+    }
+
+    private static OffenderAccessFlags flagsFor(Long offenderId) {
+        return flagsFor(offenderId, null);
+    }
+
+    private static OffenderAccessFlags flagsFor(Long offenderId, String crn) {
+        return OffenderAccessFlags.builder()
+                .offenderId(offenderId)
+                .crn(crn)
+                .currentExclusion(1L)
+                .currentRestriction(0L)
+                .build();
+    }
+
+    private ResultSet delta(long offenderDeltaId, long offenderId, String sourceTable) throws SQLException {
+        final var resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("OFFENDER_DELTA_ID")).thenReturn(offenderDeltaId);
+        when(resultSet.getLong("OFFENDER_ID")).thenReturn(offenderId);
+        when(resultSet.getString("SOURCE_TABLE")).thenReturn(sourceTable);
+        return resultSet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDeltas(ResultSet... deltas) {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            final RowMapper<Object> mapper = invocation.getArgument(1);
+            final var afterOffenderDeltaId = offenderDeltaIdPolledAfter(invocation.getArgument(0));
+            polledAfter.add(afterOffenderDeltaId);
+            final var rows = new ArrayList<>();
+            for (var row = 0; row < deltas.length; row++) {
+                if (deltas[row].getLong("OFFENDER_DELTA_ID") > afterOffenderDeltaId) {
+                    rows.add(mapper.mapRow(deltas[row], row));
+                }
+            }
+            return rows;
+        });
+    }
+
+    private static long offenderDeltaIdPolledAfter(PreparedStatementCreator statementCreator) throws SQLException {
+        final var connection = mock(Connection.class);
+        final var statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        statementCreator.createPreparedStatement(connection);
+
+        final var offenderDeltaId = ArgumentCaptor.forClass(Long.class);
+        verify(statement).setLong(eq(1), offenderDeltaId.capture());
+        return offenderDeltaId.getValue();
+    }
+}
@@ -15,6 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
@@ -24,8 +27,10 @@ import uk.gov.justice.digital.delius.data.api.AppointmentDetail;
 import uk.gov.justice.digital.delius.data.api.AppointmentType;
 import uk.gov.justice.digital.delius.data.api.AppointmentType.OrderType;
 import uk.gov.justice.digital.delius.data.api.AppointmentType.RequiredOptional;
+import uk.gov.justice.digital.delius.data.api.AppointmentUpdateResponse;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeRequest;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeUpdate;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
 import uk.gov.justice.digital.delius.data.api.KeyValue;
 import uk.gov.justice.digital.delius.data.api.Nsi;
@@ -33,7 +38,9 @@ import uk.gov.justice.digital.delius.data.api.Requirement;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ContactDto;
 import uk.gov.justice.digital.delius.data.api.deliusapi.NewContact;
 import uk.gov.justice.digital.delius.data.api.deliusapi.ReplaceContact;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.filters.AppointmentFilter;
+import uk.gov.justice.digital.delius.jpa.filters.AppointmentKeyset;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ContactType;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ContactType.ContactTypeBuilder;
@@ -47,11 +54,15 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static com.fasterxml.jackson.databind.node.TextNode.valueOf;
 import static java.util.Arrays.asList;
@@ -60,9 +71,12 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 import static uk.gov.justice.digital.delius.utils.DateConverter.toLondonLocalDate;
@@ -94,6 +108,8 @@ public class AppointmentServiceTest {
     private ContactTypeRepository contactTypeRepository;
     @Mock
     private JsonPatchSupport jsonPatchSupport;
+    @Mock
+    private CurrentUserSupplier currentUserSupplier;
 
     @Captor
     private ArgumentCaptor<Specification<Contact>> specificationArgumentCaptor;
@@ -126,7 +142,7 @@ public class AppointmentServiceTest {
         );
 
         service = new AppointmentService(contactTypeRepository, contactRepository, referralService, deliusApiClient,
-            integrationContextConfig, jsonPatchSupport);
+            integrationContextConfig, jsonPatchSupport, currentUserSupplier);
     }
 
     @Nested
@@ -164,6 +180,80 @@ public class AppointmentServiceTest {
             assertThat(observed).hasSize(2).extracting("appointmentId", Long.class).containsExactly(1L, 2L);
         }
 
+        @Test
+        public void gettingAFullPageOfAppointmentDetails() {
+            final var contacts = List.of(
+                EntityHelper.aContact().toBuilder().contactId(1L).contactDate(LocalDate.of(2021, 6, 2)).build(),
+                EntityHelper.aContact().toBuilder().contactId(2L).contactDate(LocalDate.of(2021, 6, 1)).build());
+            final var filter = anAppointmentFilter();
+            when(contactRepository.findAll(specificationArgumentCaptor.capture(), sortArgumentCaptor.capture(), eq(2)))
+                .thenReturn(contacts);
+
+            final var observed = service.appointmentDetailsPageFor(1L, filter, 2);
+
+            assertThat(sortArgumentCaptor.getValue()).isEqualTo(Sort.by(DESC, "contactDate", "contactId"));
+            assertThat(specificationArgumentCaptor.getValue()).isEqualTo(filter.toBuilder().offenderId(1L).build());
+            assertThat(observed.getContent()).extracting("appointmentId", Long.class).containsExactly(1L, 2L);
+            assertThat(AppointmentKeyset.fromCursor(observed.getNextCursor())).isEqualTo(new AppointmentKeyset(LocalDate.of(2021, 6, 1), 2L));
+        }
+
+        @Test
+        public void gettingTheLastPageOfAppointmentDetails() {
+            final var filter = anAppointmentFilter().toBuilder().after(of(new AppointmentKeyset(LocalDate.of(2021, 6, 1), 2L))).build();
+            when(contactRepository.findAll(specificationArgumentCaptor.capture(), sortArgumentCaptor.capture(), eq(2)))
+                .thenReturn(List.of(EntityHelper.aContact().toBuilder().contactId(3L).build()));
+
+            final var observed = service.appointmentDetailsPageFor(1L, filter, 2);
+
+            assertThat(specificationArgumentCaptor.getValue()).isEqualTo(filter.toBuilder().offenderId(1L).build());
+            assertThat(observed.getContent()).extracting("appointmentId", Long.class).containsExactly(3L);
+            assertThat(observed.getNextCursor()).isNull();
+        }
+
+        @Test
+        public void streamingAppointmentDetailsReadsAPageAtATime() {
+            final var firstPage = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> EntityHelper.aContact().toBuilder().contactId(id).contactDate(LocalDate.of(2021, 6, 1)).build())
+                .collect(Collectors.toList());
+            final var lastPage = List.of(EntityHelper.aContact().toBuilder().contactId(101L).contactDate(LocalDate.of(2021, 5, 1)).build());
+            final var filter = anAppointmentFilter();
+            when(contactRepository.findAll(specificationArgumentCaptor.capture(), sortArgumentCaptor.capture(), eq(100)))
+                .thenReturn(firstPage, lastPage);
+
+            final var observed = service.streamAppointmentDetailsFor(1L, filter).collectList().block();
+
+            assertThat(observed).hasSize(101);
+            assertThat(specificationArgumentCaptor.getAllValues()).containsExactly(
+                filter.toBuilder().offenderId(1L).build(),
+                filter.toBuilder().offenderId(1L).after(of(new AppointmentKeyset(LocalDate.of(2021, 6, 1), 100L))).build());
+        }
+
+        @Test
+        public void streamedPagesAreReadAsTheRequestingUser() {
+            final var workerSupplier = new CurrentUserSupplier(null);
+            final var pageUsers = new ArrayList<Optional<String>>();
+            final var firstPage = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> EntityHelper.aContact().toBuilder().contactId(id).build())
+                .collect(Collectors.toList());
+            when(currentUserSupplier.username()).thenReturn(of("john.smith"));
+            when(contactRepository.findAll(any(AppointmentFilter.class), any(Sort.class), eq(100))).thenAnswer(invocation -> {
+                pageUsers.add(workerSupplier.username());
+                return pageUsers.size() == 1 ? firstPage : List.of();
+            });
+
+            service.streamAppointmentDetailsFor(1L, anAppointmentFilter()).collectList().block();
+
+            assertThat(pageUsers).containsExactly(of("john.smith"), of("john.smith"));
+        }
+
+        @Test
+        public void appointmentCursorsRoundTrip() {
+            final var keyset = new AppointmentKeyset(LocalDate.of(2021, 6, 1), 2500012345L);
+
+            assertThat(AppointmentKeyset.fromCursor(keyset.toCursor())).isEqualTo(keyset);
+            assertThrows(IllegalArgumentException.class, () -> AppointmentKeyset.fromCursor("not-a-cursor"));
+        }
+
         @Test
         public void gettingAppointment() {
             final var contact = EntityHelper.aContact().toBuilder().contactId(200L).build();
@@ -205,11 +295,11 @@ public class AppointmentServiceTest {
                 .startTime(LocalTime.of(10, 0))
                 .endTime(LocalTime.of(11, 0))
                 .build();
-            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(createdContact);
+            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(Mono.just(createdContact));
 
             // When
             final var appointmentCreateRequest = aAppointmentCreateRequest(startTime, endTime, null, true, true);
-            final var response = service.createAppointment("X007", 1L, appointmentCreateRequest);
+            final var response = service.createAppointment("X007", 1L, appointmentCreateRequest).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(3L);
@@ -265,16 +355,105 @@ public class AppointmentServiceTest {
                 .startTime(LocalTime.of(10, 0))
                 .endTime(LocalTime.of(11, 0))
                 .build();
-            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(createdContact);
+            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(Mono.just(createdContact));
 
             // When
             final var appointmentCreateRequest = aContextlessAppointmentCreateRequest(referralStart, startTime, endTime, CONTRACT_TYPE, referralId);
-            final var response = service.createAppointment("X007", 1L, CONTEXT, appointmentCreateRequest);
+            final var response = service.createAppointment("X007", 1L, CONTEXT, appointmentCreateRequest).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(3L);
         }
 
+        @Test
+        public void createsManyAppointmentsInOrderLookingUpTheirNsiOnce() {
+            // Given
+            final var referralId = UUID.randomUUID();
+            final var referralStart = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            final var firstStartTime = referralStart.plusMinutes(2);
+            final var secondStartTime = firstStartTime.plusDays(7);
+
+            when(referralService.getExistingMatchingNsi("X007", CONTEXT, 1L, CONTRACT_TYPE, referralStart, referralId))
+                .thenReturn(of(aNsiWithRARRequirement()));
+            havingContactType(true, builder -> builder.attendanceContact(true), RAR_CONTACT_TYPE);
+            givenBulkCallsAreSent();
+
+            final var contactBuilder = ContactDto.builder()
+                .date(LocalDate.of(2021, 1, 31))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(11, 0));
+            when(deliusApiClient.createNewContact(aDeliusNewContactRequest(firstStartTime, firstStartTime.plusHours(1), NSI_ID, null)))
+                .thenReturn(Mono.just(contactBuilder.id(3L).build()));
+            when(deliusApiClient.createNewContact(aDeliusNewContactRequest(secondStartTime, secondStartTime.plusHours(1), NSI_ID, null)))
+                .thenReturn(Mono.just(contactBuilder.id(4L).build()));
+
+            // When
+            final var responses = service.createAppointments("X007", 1L, CONTEXT, List.of(
+                aContextlessAppointmentCreateRequest(referralStart, firstStartTime, firstStartTime.plusHours(1), CONTRACT_TYPE, referralId),
+                aContextlessAppointmentCreateRequest(referralStart, secondStartTime, secondStartTime.plusHours(1), CONTRACT_TYPE, referralId)))
+                .collectList().block();
+
+            // Then
+            assertThat(responses).extracting(result -> result.getAppointment().getAppointmentId()).containsExactly(3L, 4L);
+            verify(referralService).getExistingMatchingNsi("X007", CONTEXT, 1L, CONTRACT_TYPE, referralStart, referralId);
+            verify(contactTypeRepository).findByCode(RAR_CONTACT_TYPE);
+        }
+
+        @Test
+        public void createsTheRestOfManyAppointmentsWhenOneFails() {
+            // Given
+            final var referralStart = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            final var firstStartTime = referralStart.plusMinutes(2);
+            final var secondStartTime = firstStartTime.plusDays(7);
+
+            when(referralService.getExistingMatchingNsi("X007", CONTEXT, 1L, CONTRACT_TYPE, referralStart, null))
+                .thenReturn(of(aNsiWithRARRequirement()));
+            havingContactType(true, builder -> builder.attendanceContact(true), RAR_CONTACT_TYPE);
+            givenBulkCallsAreSent();
+
+            when(deliusApiClient.createNewContact(aDeliusNewContactRequest(firstStartTime, firstStartTime.plusHours(1), NSI_ID, null)))
+                .thenReturn(Mono.error(WebClientResponseException.create(409, "Conflict", null, "Conflicts with another appointment".getBytes(), null)));
+            when(deliusApiClient.createNewContact(aDeliusNewContactRequest(secondStartTime, secondStartTime.plusHours(1), NSI_ID, null)))
+                .thenReturn(Mono.just(ContactDto.builder()
+                    .id(4L)
+                    .date(LocalDate.of(2021, 1, 31))
+                    .startTime(LocalTime.of(10, 0))
+                    .endTime(LocalTime.of(11, 0))
+                    .build()));
+
+            // When
+            final var results = service.createAppointments("X007", 1L, CONTEXT, List.of(
+                aContextlessAppointmentCreateRequest(referralStart, firstStartTime, firstStartTime.plusHours(1), CONTRACT_TYPE, null),
+                aContextlessAppointmentCreateRequest(referralStart, secondStartTime, secondStartTime.plusHours(1), CONTRACT_TYPE, null)))
+                .collectList().block();
+
+            // Then
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).getAppointment()).isNull();
+            assertThat(results.get(0).getErrorStatus()).isEqualTo(409);
+            assertThat(results.get(0).getErrorMessage()).isEqualTo("Conflicts with another appointment");
+            assertThat(results.get(1).getAppointment().getAppointmentId()).isEqualTo(4L);
+        }
+
+        @Test
+        public void createsNoneOfManyAppointmentsWhenAnNsiDoesNotExist() {
+            // Given
+            final var referralStart = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            final var startTime = referralStart.plusMinutes(2);
+
+            when(referralService.getExistingMatchingNsi("X007", CONTEXT, 1L, CONTRACT_TYPE, referralStart, null)).thenReturn(of(aNsiWithRARRequirement()));
+            when(referralService.getExistingMatchingNsi("X007", CONTEXT, 1L, "PWB", referralStart, null)).thenReturn(empty());
+
+            // When/Then
+            final var requests = List.of(
+                aContextlessAppointmentCreateRequest(referralStart, startTime, startTime.plusHours(1), CONTRACT_TYPE, null),
+                aContextlessAppointmentCreateRequest(referralStart, startTime, startTime.plusHours(1), "PWB", null));
+            final var exception = assertThrows(BadRequestException.class,
+                () -> service.createAppointments("X007", 1L, CONTEXT, requests));
+            assertThat(exception.getMessage()).isEqualTo("Cannot find NSI for CRN: X007 Sentence: 1 and ContractType PWB");
+            verifyNoInteractions(deliusApiClient);
+        }
+
         @Test
         public void failsToCreateAppointmentFromContextlessRequestWhenNsiDoesNotExist() {
             // Given
@@ -339,12 +518,12 @@ public class AppointmentServiceTest {
             when(jsonPatchSupport.getAsText("/contactType", jsonPatch)).thenReturn(of(RAR_CONTACT_TYPE));
 
             final var updatedContact = ContactDto.builder().id(3L).build();
-            when(deliusApiClient.patchContact(appointmentId, jsonPatch)).thenReturn(updatedContact);
+            when(deliusApiClient.patchContact(appointmentId, jsonPatch)).thenReturn(Mono.just(updatedContact));
 
             havingContactType(true, builder -> builder.attendanceContact(true), RAR_CONTACT_TYPE);
 
             // When
-            final var response = service.patchAppointment(crn, appointmentId, jsonPatch);
+            final var response = service.patchAppointment(crn, appointmentId, jsonPatch).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(updatedContact.getId());
@@ -359,10 +538,10 @@ public class AppointmentServiceTest {
             final var jsonPatch = new JsonPatch(emptyList());
 
             final var updatedContact = ContactDto.builder().id(3L).build();
-            when(deliusApiClient.patchContact(appointmentId, jsonPatch)).thenReturn(updatedContact);
+            when(deliusApiClient.patchContact(appointmentId, jsonPatch)).thenReturn(Mono.just(updatedContact));
 
             // When
-            final var response = service.patchAppointment(crn, appointmentId, jsonPatch);
+            final var response = service.patchAppointment(crn, appointmentId, jsonPatch).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(updatedContact.getId());
@@ -389,15 +568,37 @@ public class AppointmentServiceTest {
 
             final var updatedContact = ContactDto.builder().id(3L).build();
             when(deliusApiClient.patchContact(eq(appointmentId), argThat(patch -> asString(patch).equals(expectedJsonPatch))))
-                .thenReturn(updatedContact);
+                .thenReturn(Mono.just(updatedContact));
 
             // When
-            final var response = service.updateAppointmentOutcome(crn, appointmentId, CONTEXT, request);
+            final var response = service.updateAppointmentOutcome(crn, appointmentId, CONTEXT, request).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(updatedContact.getId());
             verify(deliusApiClient).patchContact(eq(appointmentId), argThat(patch -> asString(patch).equals(expectedJsonPatch)));
         }
+        @Test
+        public void updateManyAppointmentOutcomesInOrder() {
+            // Given
+            final var crn = "X123456";
+            final var outcome = ContextlessAppointmentOutcomeRequest.builder()
+                .notes("some notes")
+                .attended("LATE")
+                .notifyPPOfAttendanceBehaviour(false)
+                .build();
+            givenBulkCallsAreSent();
+            when(deliusApiClient.patchContact(eq(123456L), any())).thenReturn(Mono.just(ContactDto.builder().id(123456L).build()));
+            when(deliusApiClient.patchContact(eq(123457L), any())).thenReturn(Mono.just(ContactDto.builder().id(123457L).build()));
+
+            // When
+            final var responses = service.updateAppointmentOutcomes(crn, CONTEXT, List.of(
+                ContextlessAppointmentOutcomeUpdate.builder().appointmentId(123456L).outcome(outcome).build(),
+                ContextlessAppointmentOutcomeUpdate.builder().appointmentId(123457L).outcome(outcome).build()))
+                .collectList().block();
+
+            // Then
+            assertThat(responses).extracting(AppointmentUpdateResponse::getAppointmentId).containsExactly(123456L, 123457L);
+        }
     }
 
     @Nested
@@ -426,11 +627,11 @@ public class AppointmentServiceTest {
                 .endTime(updatedEndTime.toLocalTime())
                 .officeLocation("CRSLOND")
                 .build();
-            when(deliusApiClient.replaceContact(appointmentId, deliusNewContactRequest)).thenReturn(replacedContact);
+            when(deliusApiClient.replaceContact(appointmentId, deliusNewContactRequest)).thenReturn(Mono.just(replacedContact));
 
             // When
             final var appointmentRescheduleRequest = aContextlessAppointmentRescheduleRequest(updatedStartTime, updatedEndTime, "CRSLOND", true);
-            final var response = service.rescheduleAppointment("X007", appointmentId, CONTEXT, appointmentRescheduleRequest);
+            final var response = service.rescheduleAppointment("X007", appointmentId, CONTEXT, appointmentRescheduleRequest).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(2L);
@@ -459,11 +660,11 @@ public class AppointmentServiceTest {
                 .endTime(updatedEndTime.toLocalTime())
                 .officeLocation(null)
                 .build();
-            when(deliusApiClient.replaceContact(appointmentId, deliusNewContactRequest)).thenReturn(replacedContact);
+            when(deliusApiClient.replaceContact(appointmentId, deliusNewContactRequest)).thenReturn(Mono.just(replacedContact));
 
             // When
             final var appointmentRescheduleRequest = aContextlessAppointmentRescheduleRequest(updatedStartTime, updatedEndTime, null, true);
-            final var response = service.rescheduleAppointment("X007", appointmentId, CONTEXT, appointmentRescheduleRequest);
+            final var response = service.rescheduleAppointment("X007", appointmentId, CONTEXT, appointmentRescheduleRequest).block();
 
             // Then
             assertThat(response.getAppointmentId()).isEqualTo(2L);
@@ -517,6 +718,14 @@ public class AppointmentServiceTest {
         when(contactTypeRepository.findByCode(contactTypeAsString)).thenReturn(result);
     }
 
+    private void givenBulkCallsAreSent() {
+        when(deliusApiClient.sendAll(anyList(), any())).thenAnswer(invocation -> {
+            final List<Object> requests = invocation.getArgument(0);
+            final Function<Object, Mono<Object>> call = invocation.getArgument(1);
+            return Flux.fromIterable(requests).concatMap(call);
+        });
+    }
+
     private Nsi aNsiWithRARRequirement() {
         return Nsi.builder().nsiId(NSI_ID).requirement(
             Requirement.builder().requirementTypeMainCategory(
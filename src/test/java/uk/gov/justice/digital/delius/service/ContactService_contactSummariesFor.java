@@ -13,12 +13,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import uk.gov.justice.digital.delius.jpa.dao.ContactSummaryRow;
 import uk.gov.justice.digital.delius.jpa.filters.ContactFilter;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Contact;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ContactRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ContactTypeRepository;
-import uk.gov.justice.digital.delius.util.EntityHelper;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -40,15 +41,15 @@ public class ContactService_contactSummariesFor {
     @Test
     public void contactSummariesFor() {
         final var contacts = List.of(
-            EntityHelper.aContact().toBuilder().contactId(1L).build(),
-            EntityHelper.aContact().toBuilder().contactId(2L).build()
+            ContactSummaryRow.builder().contactId(1L).contactDate(LocalDate.now()).build(),
+            ContactSummaryRow.builder().contactId(2L).contactDate(LocalDate.now()).build()
         );
         final var filter = ContactFilter.builder()
             .from(Optional.of(LocalDateTime.of(2021, 5, 26, 0, 0)))
             .to(Optional.of(LocalDateTime.of(2021, 6, 2, 0, 0)))
             .contactTypes(Optional.of(List.of("CT1", "CT2")))
             .build();
-        when(contactRepository.findAll(specificationCaptor.capture(), pageableCaptor.capture()))
+        when(contactRepository.findSummaries(specificationCaptor.capture(), pageableCaptor.capture()))
             .thenReturn(new PageImpl(contacts, PageRequest.of(10, 20), 1000));
 
         final var observed = subject.contactSummariesFor(123L, filter, 1, 10);
@@ -99,18 +99,18 @@ class ConvictionServiceTest {
     }
 
     @Test
-    void convictionsOrderedByCreationDate() {
-        when(eventRepository.findByOffenderId(1L))
+    void convictionsKeepRepositoryOrder() {
+        when(eventRepository.findConvictionsByOffenderId(1L, false))
                 .thenReturn(ImmutableList.of(
+                        aEvent().toBuilder().eventId(999L).referralDate(now()).build(),
                         aEvent().toBuilder().eventId(99L).referralDate(now().minusDays(1)).build(),
-                        aEvent().toBuilder().eventId(9L).referralDate(now().minusDays(2)).build(),
-                        aEvent().toBuilder().eventId(999L).referralDate(now()).build()
+                        aEvent().toBuilder().eventId(9L).referralDate(now().minusDays(2)).build()
                 ));
 
         assertThat(convictionService.convictionsFor(1L, false)
                 .stream().map(uk.gov.justice.digital.delius.data.api.Conviction::getConvictionId)
                 .collect(Collectors.toList()))
-                .containsSequence(999L, 99L, 9L);
+                .containsExactly(999L, 99L, 9L);
 
     }
 
@@ -143,20 +143,14 @@ class ConvictionServiceTest {
     }
 
     @Test
-    void deletedRecordsIgnored() {
-        when(eventRepository.findByOffenderId(1L))
-                .thenReturn(ImmutableList.of(
-                        aEvent().toBuilder().eventId(1L).build(),
-                        aEvent().toBuilder().eventId(2L).softDeleted(true).build(),
-                        aEvent().toBuilder().eventId(3L).build()
-                ));
+    void activeOnlyConvictionsAreFilteredByRepository() {
+        when(eventRepository.findConvictionsByOffenderId(1L, true))
+                .thenReturn(ImmutableList.of(aEvent().toBuilder().eventId(1L).activeFlag(true).build()));
 
-        assertThat(convictionService.convictionsFor(1L, false)
+        assertThat(convictionService.convictionsFor(1L, true)
                 .stream().map(uk.gov.justice.digital.delius.data.api.Conviction::getConvictionId)
                 .collect(Collectors.toList()))
-                .contains(1L, 3L);
-
-
+                .containsExactly(1L);
     }
 
     @Test
@@ -30,11 +30,13 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.digital.delius.util.EntityHelper.aCustodyEvent;
 import static uk.gov.justice.digital.delius.util.EntityHelper.aKeyDate;
@@ -149,6 +151,30 @@ public class ConvictionService_AddOrReplaceOrDeleteCustodyKeyDatesTest {
         assertThat(custody.getKeyDates().getSentenceExpiryDate()).isEqualTo(LocalDate.of(2030, 1, 1));
     }
 
+    @Test
+    void willNotifyEachKindOfChangeOnce() {
+        final var sentenceExpiryDate = aKeyDate("SED", "sentenceExpiryDate", LocalDate.of(2039, 9, 30));
+        final var event = aCustodyEvent(88L, new ArrayList<>(List.of(
+                aKeyDate("LED", "licenceExpiryDate", LocalDate.of(2039, 9, 30)),
+                aKeyDate("PED", "paroleEligibilityDate", LocalDate.of(2039, 9, 30)),
+                sentenceExpiryDate
+        )));
+        when(eventRepository.findById(88L)).thenReturn(Optional.of(event));
+
+        convictionService.addOrReplaceOrDeleteCustodyKeyDates(99L, 88L, ReplaceCustodyKeyDates
+                .builder()
+                .conditionalReleaseDate(LocalDate.of(2030, 1, 1))
+                .expectedReleaseDate(LocalDate.of(2030, 1, 1))
+                .licenceExpiryDate(LocalDate.of(2030, 1, 2))
+                .paroleEligibilityDate(LocalDate.of(2030, 1, 2))
+                .build());
+
+        verify(spgNotificationService).notifyDeletedCustodyKeyDate(List.of(sentenceExpiryDate), event);
+        verify(spgNotificationService).notifyNewCustodyKeyDate(argThat((List<String> codes) -> codes.size() == 2 && codes.containsAll(List.of("ACR", "EXP"))), eq(event));
+        verify(spgNotificationService).notifyUpdateOfCustodyKeyDate(argThat((List<String> codes) -> codes.size() == 2 && codes.containsAll(List.of("LED", "PED"))), eq(event));
+        verifyNoMoreInteractions(spgNotificationService);
+    }
+
     @Test
     void willNotNotifyIAPSWhenSentenceExpiryDateChangesUpdateExistingKeyDates() {
         when(eventRepository.findById(88L)).thenReturn(Optional.of(aCustodyEvent(88L, new ArrayList<>(List.of(
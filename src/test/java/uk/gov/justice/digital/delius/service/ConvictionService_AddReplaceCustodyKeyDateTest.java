@@ -156,7 +156,7 @@ public class ConvictionService_AddReplaceCustodyKeyDateTest {
                         .date(LocalDate.now())
                         .build()));
 
-                verify(spgNotificationService, never()).notifyNewCustodyKeyDate(any(), any());
+                verify(spgNotificationService, never()).notifyNewCustodyKeyDate(any(String.class), any());
             }
         }
 
@@ -17,6 +17,7 @@ import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.entitybuilders.EventEntityBuilder;
 import uk.gov.justice.digital.delius.entitybuilders.KeyDateEntityBuilder;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
+import uk.gov.justice.digital.delius.jpa.standard.entity.KeyDate;
 import uk.gov.justice.digital.delius.jpa.standard.repository.EventRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
 import uk.gov.justice.digital.delius.service.ConvictionService.SingleActiveCustodyConvictionNotFoundException;
@@ -308,8 +309,8 @@ public class ConvictionService_DeleteCustodyKeyDateTest {
                 verify(eventRepository).save(activeCustodyEvent1);
                 verify(eventRepository).save(activeCustodyEvent2);
 
-                verify(spgNotificationService).notifyDeletedCustodyKeyDate(any(), eq(activeCustodyEvent1));
-                verify(spgNotificationService).notifyDeletedCustodyKeyDate(any(), eq(activeCustodyEvent2));
+                verify(spgNotificationService).notifyDeletedCustodyKeyDate(any(KeyDate.class), eq(activeCustodyEvent1));
+                verify(spgNotificationService).notifyDeletedCustodyKeyDate(any(KeyDate.class), eq(activeCustodyEvent2));
 
                 verify(telemetryClient, times(2)).trackEvent(eq("KeyDateDeleted"), any(), isNull());
             }
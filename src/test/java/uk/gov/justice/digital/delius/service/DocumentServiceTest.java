@@ -1,5 +1,7 @@
 package uk.gov.justice.digital.delius.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,43 +16,51 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
+import uk.gov.justice.digital.delius.data.api.DocumentLink;
 import uk.gov.justice.digital.delius.data.api.OffenderDocumentDetail;
 import uk.gov.justice.digital.delius.data.api.OffenderDocumentDetail.Type;
 import uk.gov.justice.digital.delius.data.api.OffenderDocuments;
 import uk.gov.justice.digital.delius.data.filters.DocumentFilter;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.national.repository.DocumentRepository;
+import uk.gov.justice.digital.delius.jpa.standard.entity.AddressAssessmentDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ApprovedPremisesReferralDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.AssessmentDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.CaseAllocationDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ContactDocument;
 import uk.gov.justice.digital.delius.jpa.standard.entity.CourtReportDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Document;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
+import uk.gov.justice.digital.delius.jpa.standard.entity.EventDocument;
 import uk.gov.justice.digital.delius.jpa.standard.entity.InstitutionalReportDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.NsiDocument;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Offender;
-import uk.gov.justice.digital.delius.jpa.standard.repository.AddressAssessmentDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.ApprovedPremisesReferralDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.AssessmentDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.CaseAllocationDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.ContactDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.CourtReportDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.EventDocumentRepository;
+import uk.gov.justice.digital.delius.jpa.standard.entity.OffenderDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PersonalCircumstanceDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PersonalContactDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ReferralDocument;
+import uk.gov.justice.digital.delius.jpa.standard.entity.UPWAppointmentDocument;
+import uk.gov.justice.digital.delius.jpa.standard.repository.DocumentIndexRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.EventRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.InstitutionReportDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.NsiDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderDocumentRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.PersonalCircumstanceDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.PersonalContactDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.ReferralDocumentRepository;
-import uk.gov.justice.digital.delius.jpa.standard.repository.UPWAppointmentDocumentRepository;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -80,38 +90,21 @@ public class DocumentServiceTest {
     @Mock
     private OffenderRepository offenderRepository;
     @Mock
-    private OffenderDocumentRepository offenderDocumentRepository;
-    @Mock
-    private EventDocumentRepository eventDocumentRepository;
-    @Mock
-    private CourtReportDocumentRepository courtReportDocumentRepository;
-    @Mock
-    private InstitutionReportDocumentRepository institutionReportDocumentRepository;
+    private DocumentIndexRepository documentIndexRepository;
     @Mock
     private EventRepository eventRepository;
     @Mock
-    private AddressAssessmentDocumentRepository addressAssessmentRepository;
-    @Mock
-    private ApprovedPremisesReferralDocumentRepository approvedPremisesReferralDocumentRepository;
-    @Mock
-    private AssessmentDocumentRepository assessmentDocumentRepository;
-    @Mock
-    private CaseAllocationDocumentRepository caseAllocationDocumentRepository;
-    @Mock
-    private PersonalContactDocumentRepository personalContactDocumentRepository;
-    @Mock
-    private ReferralDocumentRepository referralDocumentRepository;
-    @Mock
-    private NsiDocumentRepository nsiDocumentRepository;
-    @Mock
-    private PersonalCircumstanceDocumentRepository personalCircumstanceDocumentRepository;
+    private AlfrescoService alfrescoService;
     @Mock
-    private UPWAppointmentDocumentRepository upwAppointmentDocumentRepository;
+    private PlatformTransactionManager transactionManager;
     @Mock
-    private ContactDocumentRepository contactDocumentRepository;
+    private CurrentUserSupplier currentUserSupplier;
     @Captor
-    private ArgumentCaptor<Specification<CourtReportDocument>> courtReportDocumentSpecification;
+    private ArgumentCaptor<Collection<Class<? extends Document>>> documentTypes;
 
+    private final FeatureSwitches featureSwitches = new FeatureSwitches();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
 
     @BeforeEach
     public void before() {
@@ -119,38 +112,21 @@ public class DocumentServiceTest {
         documentService = new DocumentService(
             documentRepository,
             offenderRepository,
-            offenderDocumentRepository,
-            eventDocumentRepository,
-            courtReportDocumentRepository,
-            institutionReportDocumentRepository,
+            documentIndexRepository,
             eventRepository,
-            addressAssessmentRepository,
-            approvedPremisesReferralDocumentRepository,
-            assessmentDocumentRepository,
-            caseAllocationDocumentRepository,
-            personalContactDocumentRepository,
-            referralDocumentRepository,
-            nsiDocumentRepository,
-            personalCircumstanceDocumentRepository,
-            upwAppointmentDocumentRepository,
-            contactDocumentRepository
+            alfrescoService,
+            new ParallelQueryRunner(executor, transactionManager, currentUserSupplier, Duration.ofSeconds(5)),
+            featureSwitches,
+            meterRegistry
         );
         when(offenderRepository.findByOffenderId(any())).thenReturn(Optional.of(anOffender()));
-        when(offenderDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(eventDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List
-            .of());
-        when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of());
         when(eventRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(addressAssessmentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(approvedPremisesReferralDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(assessmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(personalContactDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(referralDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(nsiDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(personalCircumstanceDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(upwAppointmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
-        when(contactDocumentRepository.findByOffenderId(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    public void after() {
+        executor.shutdownNow();
     }
 
     @Test
@@ -162,7 +138,7 @@ public class DocumentServiceTest {
 
     @Test
     public void singleConvictionAddedWhenSingleCourtReport() {
-        when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List.of(aCourtReportDocument()));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(aCourtReportDocument()));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -177,7 +153,7 @@ public class DocumentServiceTest {
         event.setEventId(99L);
 
         when(eventRepository.findByOffenderId(any())).thenReturn(List.of(event));
-        when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List.of(courtReportDocument));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(courtReportDocument));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -192,8 +168,7 @@ public class DocumentServiceTest {
         event.setEventId(99L);
 
         when(eventRepository.findByOffenderId(any())).thenReturn(List.of(event));
-        when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List
-            .of(courtReportDocument));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(courtReportDocument));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -202,7 +177,7 @@ public class DocumentServiceTest {
 
     @Test
     public void singleConvictionAddedWhenSingleInstitutionalReport() {
-        when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anInstitutionalReportDocument()));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(anInstitutionalReportDocument()));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -217,7 +192,7 @@ public class DocumentServiceTest {
         event.setEventId(99L);
 
         when(eventRepository.findByOffenderId(any())).thenReturn(List.of(event));
-        when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of(institutionalReportDocument));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(institutionalReportDocument));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -232,7 +207,7 @@ public class DocumentServiceTest {
         event.setEventId(99L);
 
         when(eventRepository.findByOffenderId(any())).thenReturn(List.of(event));
-        when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of(institutionalReportDocument));
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(institutionalReportDocument));
 
         final OffenderDocuments documents = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
@@ -289,7 +264,7 @@ public class DocumentServiceTest {
 
     @Test
     public void eventDocumentsDistributedToEachConviction() {
-        when(eventDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             anEventDocument(1L),
             anEventDocument(2L),
             anEventDocument(2L),
@@ -305,8 +280,7 @@ public class DocumentServiceTest {
 
     @Test
     public void courtReportsDocumentsDistributedToEachConviction() {
-        when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List
-            .of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
                 aCourtReportDocument(1L),
                 aCourtReportDocument(2L),
                 aCourtReportDocument(2L),
@@ -322,7 +296,7 @@ public class DocumentServiceTest {
 
     @Test
     public void institutionReportDocumentsDistributedToEachConviction() {
-        when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             anInstitutionalReportDocument(1L),
             anInstitutionalReportDocument(2L),
             anInstitutionalReportDocument(2L),
@@ -338,7 +312,7 @@ public class DocumentServiceTest {
 
     @Test
     public void addressAssessmentDocumentsAddedToOffenderDocuments() {
-        when(addressAssessmentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             anAddressAssessmentDocument(),
             anAddressAssessmentDocument()
         ));
@@ -350,7 +324,7 @@ public class DocumentServiceTest {
 
     @Test
     public void approvedPremisesReferralDocumentsDistributedToEachConviction() {
-        when(approvedPremisesReferralDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             anApprovedPremisesReferralDocument(1L),
             anApprovedPremisesReferralDocument(2L),
             anApprovedPremisesReferralDocument(2L),
@@ -366,7 +340,7 @@ public class DocumentServiceTest {
 
     @Test
     public void assessmentDocumentsDistributedToEachConviction() {
-        when(assessmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             anAssessmentDocument(1L),
             anAssessmentDocument(2L),
             anAssessmentDocument(2L),
@@ -382,7 +356,7 @@ public class DocumentServiceTest {
 
     @Test
     public void caseAllocationDocumentsDistributedToEachConviction() {
-        when(caseAllocationDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aCaseAllocationDocument(1L),
             aCaseAllocationDocument(2L),
             aCaseAllocationDocument(2L),
@@ -398,7 +372,7 @@ public class DocumentServiceTest {
 
     @Test
     public void personalContactDocumentsAddedToOffenderDocuments() {
-        when(personalContactDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aPersonalContactDocument(),
             aPersonalContactDocument()
         ));
@@ -410,7 +384,7 @@ public class DocumentServiceTest {
 
     @Test
     public void referralDocumentsDistributedToEachConviction() {
-        when(referralDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aReferralDocument(1L),
             aReferralDocument(2L),
             aReferralDocument(2L),
@@ -426,7 +400,7 @@ public class DocumentServiceTest {
 
     @Test
     public void nsiDocumentsDistributedToEachConvictionAndOffender() {
-        when(nsiDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aNsiDocument(1L),
             aNsiDocument(2L),
             aNsiDocument(2L),
@@ -445,7 +419,7 @@ public class DocumentServiceTest {
 
     @Test
     public void personalCircumstanceDocumentsAddedToOffenderDocuments() {
-        when(personalCircumstanceDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aPersonalCircumstanceDocument(),
             aPersonalCircumstanceDocument()
         ));
@@ -457,7 +431,7 @@ public class DocumentServiceTest {
 
     @Test
     public void upwAppointmentDocumentsDistributedToEachConviction() {
-        when(upwAppointmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aUPWAppointmentDocument(1L),
             aUPWAppointmentDocument(2L),
             aUPWAppointmentDocument(2L),
@@ -473,7 +447,7 @@ public class DocumentServiceTest {
 
     @Test
     public void contactDocumentsDistributedToEachConvictionAndOffender() {
-        when(contactDocumentRepository.findByOffenderId(any())).thenReturn(List.of(
+        when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
             aContactDocument(1L),
             aContactDocument(2L),
             aContactDocument(2L),
@@ -510,20 +484,28 @@ public class DocumentServiceTest {
     class Filters {
         @BeforeEach
         void setUp() {
-            when(eventDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anEventDocument(1L)));
-            when(courtReportDocumentRepository.findAll(courtReportDocumentSpecification.capture())).thenReturn(List.of(aCourtReportDocument(1L)));
-            when(institutionReportDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anInstitutionalReportDocument(1L)));
-            when(approvedPremisesReferralDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anApprovedPremisesReferralDocument(1L)));
-            when(assessmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anAssessmentDocument(1L)));
-            when(caseAllocationDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aCaseAllocationDocument(1L)));
-            when(referralDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aReferralDocument(1L)));
-            when(nsiDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aNsiDocument(1L), aNsiDocument()));
-            when(upwAppointmentDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aUPWAppointmentDocument(1L)));
-            when(contactDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aContactDocument(1L), aContactDocument()));
-            when(offenderDocumentRepository.findByOffenderId(any())).thenReturn(List.of(anOffenderDocument()));
-            when(addressAssessmentRepository.findByOffenderId(any())).thenReturn(List.of(anAddressAssessmentDocument()));
-            when(personalContactDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aPersonalContactDocument()));
-            when(personalCircumstanceDocumentRepository.findByOffenderId(any())).thenReturn(List.of(aPersonalCircumstanceDocument()));
+            final List<Document> allDocuments = List.of(
+                anEventDocument(1L),
+                aCourtReportDocument(1L),
+                anInstitutionalReportDocument(1L),
+                anApprovedPremisesReferralDocument(1L),
+                anAssessmentDocument(1L),
+                aCaseAllocationDocument(1L),
+                aReferralDocument(1L),
+                aNsiDocument(1L),
+                aNsiDocument(),
+                aUPWAppointmentDocument(1L),
+                aContactDocument(1L),
+                aContactDocument(),
+                anOffenderDocument(),
+                anAddressAssessmentDocument(),
+                aPersonalContactDocument(),
+                aPersonalCircumstanceDocument());
+            // behave like the query, which only returns documents of the requested types
+            when(documentIndexRepository.findByOffenderId(any(), any())).thenAnswer(invocation -> {
+                final Collection<Class<? extends Document>> requestedTypes = invocation.getArgument(1);
+                return allDocuments.stream().filter(document -> requestedTypes.contains(document.getClass())).collect(toList());
+            });
             when(offenderRepository.findByOffenderId(any())).thenReturn(Optional.of(anOffender()
                 .toBuilder()
                 .previousConvictionsAlfrescoDocumentId("123")
@@ -539,24 +521,26 @@ public class DocumentServiceTest {
         @Nested
         class NoFilterSupplied {
             @Test
-            @DisplayName("When no filter all repositories are queried")
-            void whenNoFilterAllRepositoriesAreQueried() {
+            @DisplayName("When no filter all document types are queried at once")
+            void whenNoFilterAllDocumentTypesAreQueriedAtOnce() {
                 documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
 
-                verify(eventDocumentRepository).findByOffenderId(1L);
-                verify(courtReportDocumentRepository).findAll(courtReportDocumentSpecification.capture());
-                verify(institutionReportDocumentRepository).findByOffenderId(1L);
-                verify(approvedPremisesReferralDocumentRepository).findByOffenderId(1L);
-                verify(assessmentDocumentRepository).findByOffenderId(1L);
-                verify(caseAllocationDocumentRepository).findByOffenderId(1L);
-                verify(referralDocumentRepository).findByOffenderId(1L);
-                verify(nsiDocumentRepository).findByOffenderId(1L);
-                verify(upwAppointmentDocumentRepository).findByOffenderId(1L);
-                verify(contactDocumentRepository).findByOffenderId(1L);
-                verify(offenderDocumentRepository).findByOffenderId(1L);
-                verify(addressAssessmentRepository).findByOffenderId(1L);
-                verify(personalContactDocumentRepository).findByOffenderId(1L);
-                verify(personalCircumstanceDocumentRepository).findByOffenderId(1L);
+                verify(documentIndexRepository).findByOffenderId(eq(1L), documentTypes.capture());
+                assertThat(documentTypes.getValue()).containsExactlyInAnyOrder(
+                    EventDocument.class,
+                    CourtReportDocument.class,
+                    InstitutionalReportDocument.class,
+                    ApprovedPremisesReferralDocument.class,
+                    AssessmentDocument.class,
+                    CaseAllocationDocument.class,
+                    ReferralDocument.class,
+                    NsiDocument.class,
+                    UPWAppointmentDocument.class,
+                    ContactDocument.class,
+                    OffenderDocument.class,
+                    AddressAssessmentDocument.class,
+                    PersonalContactDocument.class,
+                    PersonalCircumstanceDocument.class);
             }
 
             @Test
@@ -574,47 +558,29 @@ public class DocumentServiceTest {
         @TestInstance(PER_CLASS)
         class FilterWithJustType {
             @Test
-            @DisplayName("Will only query the repository related to the type")
-            void willOnlyQueryTheRepositoryRelatedToTheCourtReportType() {
+            @DisplayName("Will only query documents of the type")
+            void willOnlyQueryDocumentsOfTheCourtReportType() {
                 documentService.offenderDocumentsFor(1L, DocumentFilter.of("COURT_REPORT_DOCUMENT", null).get());
 
-                verify(courtReportDocumentRepository).findAll(courtReportDocumentSpecification.capture());
-                verifyNoInteractions(eventDocumentRepository,
-                    institutionReportDocumentRepository,
-                    approvedPremisesReferralDocumentRepository,
-                    assessmentDocumentRepository,
-                    caseAllocationDocumentRepository,
-                    referralDocumentRepository,
-                    nsiDocumentRepository,
-                    upwAppointmentDocumentRepository,
-                    contactDocumentRepository,
-                    offenderDocumentRepository,
-                    addressAssessmentRepository,
-                    personalContactDocumentRepository,
-                    personalCircumstanceDocumentRepository
-                );
+                verify(documentIndexRepository).findByOffenderId(eq(1L), documentTypes.capture());
+                assertThat(documentTypes.getValue()).containsExactly(CourtReportDocument.class);
             }
 
             @Test
-            @DisplayName("Will only query the repository related to other types")
-            void willOnlyQueryTheRepositoryRelatedToOtherDocumentTypes() {
+            @DisplayName("Will only query documents of other types")
+            void willOnlyQueryDocumentsOfOtherDocumentTypes() {
                 documentService.offenderDocumentsFor(1L, DocumentFilter.of("ASSESSMENT_DOCUMENT", null).get());
 
-                verify(assessmentDocumentRepository).findByOffenderId(any());
-                verifyNoInteractions(eventDocumentRepository,
-                    institutionReportDocumentRepository,
-                    approvedPremisesReferralDocumentRepository,
-                    courtReportDocumentRepository,
-                    caseAllocationDocumentRepository,
-                    referralDocumentRepository,
-                    nsiDocumentRepository,
-                    upwAppointmentDocumentRepository,
-                    contactDocumentRepository,
-                    offenderDocumentRepository,
-                    addressAssessmentRepository,
-                    personalContactDocumentRepository,
-                    personalCircumstanceDocumentRepository
-                );
+                verify(documentIndexRepository).findByOffenderId(eq(1L), documentTypes.capture());
+                assertThat(documentTypes.getValue()).containsExactly(AssessmentDocument.class);
+            }
+
+            @Test
+            @DisplayName("Will not query documents when the type is not held in the document table")
+            void willNotQueryDocumentsForTypesHeldElsewhere() {
+                documentService.offenderDocumentsFor(1L, DocumentFilter.of("CPSPACK_DOCUMENT", null).get());
+
+                verifyNoInteractions(documentIndexRepository);
             }
 
             @Test
@@ -649,4 +615,84 @@ public class DocumentServiceTest {
         }
     }
 
+    @DisplayName("Inserting a document")
+    @Nested
+    @MockitoSettings(strictness = Strictness.LENIENT)
+    class InsertDocument {
+        @Test
+        @DisplayName("Cached Alfresco metadata for the offender is evicted once the document is linked")
+        void evictsCachedAlfrescoMetadataForOffender() {
+            when(documentRepository.lookupProbationArea("N02")).thenReturn(2L);
+            when(documentRepository.lookupUser(2L, "andy")).thenReturn(3L);
+            when(offenderRepository.findByCrn("X12345")).thenReturn(Optional.of(anOffender()));
+
+            documentService.insertDocument(DocumentLink.builder()
+                .crn("X12345")
+                .alfrescoId("fa63c379-8b31-4e36-a152-2a57dfe251c4")
+                .alfrescoUser("andy")
+                .probationAreaCode("N02")
+                .documentName("report.pdf")
+                .tableName("EVENT")
+                .entityId(1L)
+                .build());
+
+            final var inOrder = inOrder(documentRepository, alfrescoService);
+            inOrder.verify(documentRepository).save(any());
+            inOrder.verify(alfrescoService).evictDocumentsFor("X12345", "fa63c379-8b31-4e36-a152-2a57dfe251c4");
+        }
+    }
+
+    @DisplayName("Fetching in parallel")
+    @Nested
+    @MockitoSettings(strictness = Strictness.LENIENT)
+    class ParallelFetch {
+        @BeforeEach
+        void setUp() {
+            when(documentIndexRepository.findByOffenderId(any(), any())).thenReturn(List.of(
+                anEventDocument(1L),
+                aCourtReportDocument(2L),
+                aContactDocument(1L),
+                aContactDocument(),
+                anOffenderDocument()));
+            when(offenderRepository.findByOffenderId(any())).thenReturn(Optional.of(anOffender()
+                .toBuilder()
+                .previousConvictionsAlfrescoDocumentId("123")
+                .build()));
+            when(eventRepository.findByOffenderId(any())).thenReturn(List.of(
+                anEvent().toBuilder().eventId(3L).cpsAlfrescoDocumentId("456").build(),
+                anEvent().toBuilder().eventId(1L).cpsAlfrescoDocumentId("789").build()));
+        }
+
+        @Test
+        @DisplayName("Documents are the same, in the same order, as when fetched sequentially")
+        void sameDocumentsAsSequentialFetch() {
+            final var sequential = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
+
+            featureSwitches.getDocuments().setParallelFetch(true);
+            final var parallel = documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
+
+            assertThat(parallel).isEqualTo(sequential);
+            assertThat(parallel.getConvictions()).extracting("convictionId").containsExactly("3", "1", "2");
+            assertThat(parallel.getConvictions().get(1).getDocuments()).extracting("type.code").containsExactly(
+                Type.CPSPACK_DOCUMENT.name(),
+                Type.CONVICTION_DOCUMENT.name(),
+                Type.CONTACT_DOCUMENT.name());
+            assertThat(parallel.getDocuments()).extracting("type.code").containsExactly(
+                Type.PRECONS_DOCUMENT.name(),
+                Type.OFFENDER_DOCUMENT.name(),
+                Type.CONTACT_DOCUMENT.name());
+        }
+
+        @Test
+        @DisplayName("Each fetch is timed against the mode it ran in")
+        void fetchesAreTimedByMode() {
+            documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
+            featureSwitches.getDocuments().setParallelFetch(true);
+            documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
+            documentService.offenderDocumentsFor(1L, DocumentFilter.noFilter());
+
+            assertThat(meterRegistry.get(DocumentService.DOCUMENTS_FETCH_TIMER).tag("mode", "sequential").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get(DocumentService.DOCUMENTS_FETCH_TIMER).tag("mode", "parallel").timer().count()).isEqualTo(2);
+        }
+    }
 }
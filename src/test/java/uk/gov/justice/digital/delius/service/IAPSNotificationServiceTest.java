@@ -4,12 +4,17 @@ import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.jpa.standard.entity.IAPSEvent;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
 import uk.gov.justice.digital.delius.jpa.standard.repository.IAPSEventRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,12 +24,15 @@ import static uk.gov.justice.digital.delius.util.EntityHelper.anEvent;
 public class IAPSNotificationServiceTest {
     @Mock
     private IAPSEventRepository iapsEventRepository;
+    @Mock
+    private PendingNotificationRepository pendingNotificationRepository;
+    private final FeatureSwitches featureSwitches = new FeatureSwitches();
 
     private IAPSNotificationService iapsNotificationService;
 
     @BeforeEach
     public void before() {
-        iapsNotificationService = new IAPSNotificationService(iapsEventRepository);
+        iapsNotificationService = new IAPSNotificationService(iapsEventRepository, pendingNotificationRepository, featureSwitches);
     }
 
     @Test
@@ -40,4 +48,33 @@ public class IAPSNotificationServiceTest {
 
         assertThat(iapsEvent.getIapsFlag()).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void notifyEventUpdatedRecordsPendingNotificationWhenOutboxInUse() {
+        featureSwitches.getNotifications().setOutbox(true);
+
+        iapsNotificationService.notifyEventUpdated(anEvent(99L));
+
+        val pendingNotification = ArgumentCaptor.forClass(PendingNotification.class);
+        Mockito.verify(pendingNotificationRepository).save(pendingNotification.capture());
+        assertThat(pendingNotification.getValue().getNotificationType()).isEqualTo(IAPSNotificationService.EVENT_UPDATED);
+        assertThat(pendingNotification.getValue().getUniqueId()).isEqualTo(99L);
+        Mockito.verifyNoInteractions(iapsEventRepository);
+    }
+
+    @Test
+    public void pendingNotificationsFlagEachEventOnce() {
+        val iapsEvent = IAPSEvent
+                .builder()
+                .eventId(99L)
+                .iapsFlag(0L)
+                .build();
+        Mockito.when(iapsEventRepository.findAllById(List.of(99L))).thenReturn(List.of(iapsEvent));
+
+        iapsNotificationService.writePendingNotifications(List.of(
+                PendingNotification.builder().notificationType(IAPSNotificationService.EVENT_UPDATED).uniqueId(99L).build(),
+                PendingNotification.builder().notificationType(IAPSNotificationService.EVENT_UPDATED).uniqueId(99L).build()));
+
+        assertThat(iapsEvent.getIapsFlag()).isEqualTo(1L);
+    }
+}
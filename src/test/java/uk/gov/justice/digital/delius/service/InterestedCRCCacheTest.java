@@ -0,0 +1,111 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
+import uk.gov.justice.digital.delius.jpa.standard.repository.SpgNotificationHelperRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InterestedCRCCacheTest {
+    private static final List<ProbationArea> CRCS = List.of(ProbationArea.builder().code("C01").build());
+
+    @Mock
+    private SpgNotificationHelperRepository spgNotificationHelperRepository;
+
+    @AfterEach
+    void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+    }
+
+    @Test
+    @DisplayName("An offender's CRCs are looked up once per transaction")
+    void crcsAreLookedUpOncePerTransaction() {
+        final var cache = cacheFor(Duration.ZERO);
+        when(spgNotificationHelperRepository.getInterestedCRCs("99")).thenReturn(CRCS);
+
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+        assertThat(cache.interestedCRCsOf(99L)).isEqualTo(CRCS);
+        completeTransaction();
+
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+
+        verify(spgNotificationHelperRepository, times(2)).getInterestedCRCs("99");
+    }
+
+    @Test
+    @DisplayName("An offender's CRCs are looked up every time outside a transaction when they are not shared")
+    void crcsAreNotCachedOutsideTransactions() {
+        final var cache = cacheFor(Duration.ZERO);
+        when(spgNotificationHelperRepository.getInterestedCRCs("99")).thenReturn(CRCS);
+
+        cache.interestedCRCsOf(99L);
+        cache.interestedCRCsOf(99L);
+
+        verify(spgNotificationHelperRepository, times(2)).getInterestedCRCs("99");
+    }
+
+    @Test
+    @DisplayName("An offender's CRCs can be shared between transactions")
+    void crcsAreSharedBetweenTransactions() {
+        final var cache = cacheFor(Duration.ofSeconds(30));
+        when(spgNotificationHelperRepository.getInterestedCRCs("99")).thenReturn(CRCS);
+
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+        completeTransaction();
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+
+        verify(spgNotificationHelperRepository, times(1)).getInterestedCRCs("99");
+    }
+
+    @Test
+    @DisplayName("Changing an offender's managers drops the CRCs from the transaction and those shared")
+    void invalidatingDropsCrcs() {
+        final var cache = cacheFor(Duration.ofSeconds(30));
+        when(spgNotificationHelperRepository.getInterestedCRCs("99")).thenReturn(CRCS);
+
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+        cache.invalidate(99L);
+        cache.interestedCRCsOf(99L);
+        completeTransaction();
+        beginTransaction();
+        cache.interestedCRCsOf(99L);
+
+        verify(spgNotificationHelperRepository, times(3)).getInterestedCRCs("99");
+    }
+
+    private InterestedCRCCache cacheFor(Duration timeToLive) {
+        return new InterestedCRCCache(spgNotificationHelperRepository, new SimpleMeterRegistry(), timeToLive, 100);
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void completeTransaction() {
+        final var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -0,0 +1,150 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationLockRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxDispatcherTest {
+    @Mock
+    private PendingNotificationRepository pendingNotificationRepository;
+    @Mock
+    private PendingNotificationLockRepository pendingNotificationLockRepository;
+    @Mock
+    private SpgNotificationService spgNotificationService;
+    @Mock
+    private IAPSNotificationService iapsNotificationService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationOutboxDispatcher(pendingNotificationRepository, pendingNotificationLockRepository,
+                spgNotificationService, iapsNotificationService, new FeatureSwitches(), transactionManager, meterRegistry,
+                Duration.ofSeconds(5), 10, 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("A batch of due notifications is written and removed from the outbox")
+    void batchIsWrittenAndRemoved() {
+        final var spg = pending(1L, "UPDATE_OFFENDER", 0L);
+        final var iaps = pending(2L, IAPSNotificationService.EVENT_UPDATED, 0L);
+        when(pendingNotificationLockRepository.lockDuePendingNotificationIds(any(), anyInt())).thenReturn(List.of(1L, 2L), List.of());
+        when(pendingNotificationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(spg, iaps));
+        when(pendingNotificationRepository.findOldestCreatedDatetimeOfUndispatched()).thenReturn(Optional.empty());
+
+        dispatcher.dispatchDue();
+
+        verify(spgNotificationService).writePendingNotifications(List.of(spg));
+        verify(iapsNotificationService).writePendingNotifications(List.of(iaps));
+        verify(pendingNotificationRepository).deleteAll(List.of(spg, iaps));
+        assertThat(counter("dispatched")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("When a batch fails only the failing notification is held back, with a backoff")
+    void failedBatchIsRetriedOneAtATime() {
+        final var good = pending(1L, "UPDATE_OFFENDER", 0L);
+        final var bad = pending(2L, "UPDATE_CUSTODY", 1L);
+        when(pendingNotificationLockRepository.lockDuePendingNotificationIds(any(), anyInt())).thenReturn(List.of(1L, 2L), List.of());
+        when(pendingNotificationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(good, bad));
+        when(pendingNotificationRepository.findLockedById(1L)).thenReturn(Optional.of(good));
+        when(pendingNotificationRepository.findLockedById(2L)).thenReturn(Optional.of(bad));
+        when(pendingNotificationRepository.findOldestCreatedDatetimeOfUndispatched()).thenReturn(Optional.of(LocalDateTime.now().minusMinutes(1)));
+        lenient().doThrow(new IllegalStateException("no business interaction"))
+                .when(spgNotificationService).writePendingNotifications(argThat(notifications -> notifications.contains(bad)));
+
+        dispatcher.dispatchDue();
+
+        verify(pendingNotificationRepository).deleteAll(List.of(good));
+        verify(pendingNotificationRepository, never()).deleteAll(List.of(bad));
+        assertThat(bad.getAttempts()).isEqualTo(2L);
+        assertThat(bad.getLastError()).contains("no business interaction");
+        assertThat(bad.getNextAttemptDatetime()).isCloseTo(LocalDateTime.now().plusSeconds(60), within(5, ChronoUnit.SECONDS));
+        assertThat(counter("dispatched")).isEqualTo(1);
+        assertThat(counter("retried")).isEqualTo(1);
+        assertThat(meterRegistry.get("delius.notifications.outbox.lag").timeGauge().value()).isGreaterThanOrEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("A notification that keeps failing is parked once it runs out of attempts")
+    void notificationIsParkedAfterMaxAttempts() {
+        final var bad = pending(2L, IAPSNotificationService.EVENT_UPDATED, 2L);
+        when(pendingNotificationLockRepository.lockDuePendingNotificationIds(any(), anyInt())).thenReturn(List.of(2L), List.of());
+        when(pendingNotificationRepository.findAllById(List.of(2L))).thenReturn(List.of(bad));
+        when(pendingNotificationRepository.findLockedById(2L)).thenReturn(Optional.of(bad));
+        when(pendingNotificationRepository.findOldestCreatedDatetimeOfUndispatched()).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("event gone")).when(iapsNotificationService).writePendingNotifications(anyList());
+
+        dispatcher.dispatchDue();
+
+        assertThat(bad.getAttempts()).isEqualTo(3L);
+        assertThat(bad.getNextAttemptDatetime()).isNull();
+        assertThat(counter("failed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("An offender's next notification is claimed once the one before it has been written")
+    void claimsAgainUntilNothingIsDue() {
+        final var first = pending(1L, "UPDATE_OFFENDER", 0L);
+        final var second = pending(2L, "UPDATE_CUSTODY", 0L);
+        when(pendingNotificationLockRepository.lockDuePendingNotificationIds(any(), anyInt())).thenReturn(List.of(1L), List.of(2L), List.of());
+        when(pendingNotificationRepository.findAllById(List.of(1L))).thenReturn(List.of(first));
+        when(pendingNotificationRepository.findAllById(List.of(2L))).thenReturn(List.of(second));
+        when(pendingNotificationRepository.findOldestCreatedDatetimeOfUndispatched()).thenReturn(Optional.empty());
+
+        dispatcher.dispatchDue();
+
+        final var inOrder = inOrder(spgNotificationService);
+        inOrder.verify(spgNotificationService).writePendingNotifications(List.of(first));
+        inOrder.verify(spgNotificationService).writePendingNotifications(List.of(second));
+        assertThat(counter("dispatched")).isEqualTo(2);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("delius.notifications.outbox").tag("result", result).counter().count();
+    }
+
+    private static PendingNotification pending(Long id, String notificationType, Long attempts) {
+        return PendingNotification.builder()
+                .pendingNotificationId(id)
+                .notificationType(notificationType)
+                .offenderId(99L)
+                .uniqueId(id)
+                .createdDatetime(LocalDateTime.now())
+                .nextAttemptDatetime(LocalDateTime.now())
+                .attempts(attempts)
+                .build();
+    }
+}
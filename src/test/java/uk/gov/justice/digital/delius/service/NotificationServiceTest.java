@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
@@ -80,11 +81,11 @@ class NotificationServiceTest {
 
             final var deliusNewContactRequest = aDeliusNewContactRequest(contactDateTime, 99L, 100L);
             final var createdContact = ContactDto.builder().id(3L).build();
-            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(createdContact);
+            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(Mono.just(createdContact));
 
             // When
             final var appointmentCreateRequest = aContextlessNotificationCreateRequest(referralStart, contactDateTime, CONTRACT_TYPE, referralId);
-            final var response = service.notifyContact("X007", 100L, CONTEXT, appointmentCreateRequest);
+            final var response = service.notifyContact("X007", 100L, CONTEXT, appointmentCreateRequest).block();
 
             // Then
             assertThat(response.getContactId()).isEqualTo(3L);
@@ -104,11 +105,11 @@ class NotificationServiceTest {
 
             final var deliusNewContactRequest = aDeliusNewContactRequest(contactDateTime, 99L, 100L);
             final var createdContact = ContactDto.builder().id(3L).build();
-            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(createdContact);
+            when(deliusApiClient.createNewContact(deliusNewContactRequest)).thenReturn(Mono.just(createdContact));
 
             // When
             final var appointmentCreateRequest = aContextlessNotificationCreateRequest(referralStart, contactDateTime, CONTRACT_TYPE, referralId);
-            final var response = service.notifyContact("X007", 100L, CONTEXT, appointmentCreateRequest);
+            final var response = service.notifyContact("X007", 100L, CONTEXT, appointmentCreateRequest).block();
 
             // Then
             assertThat(response.getContactId()).isEqualTo(3L);
@@ -0,0 +1,65 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderDelta;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderDeltaLockRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderDeltaRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OffenderDeltaService_streamDeltasAfterTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private OffenderDeltaRepository offenderDeltaRepository;
+    @Mock
+    private OffenderDeltaLockRepository offenderDeltaLockRepository;
+    @Mock
+    private CurrentUserSupplier currentUserSupplier;
+
+    private final CurrentUserSupplier workerSupplier = new CurrentUserSupplier(null);
+    private final List<Optional<String>> cursorUsers = new CopyOnWriteArrayList<>();
+
+    private OffenderDeltaService offenderDeltaService;
+
+    @BeforeEach
+    public void before() {
+        offenderDeltaService = new OffenderDeltaService(jdbcTemplate, offenderDeltaRepository, offenderDeltaLockRepository, currentUserSupplier, Duration.ofMillis(10));
+        when(currentUserSupplier.username()).thenReturn(Optional.of("john.smith"));
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            cursorUsers.add(workerSupplier.username());
+            return Stream.<OffenderDelta>empty();
+        });
+    }
+
+    @Test
+    public void theCursorIsOpenedAsTheRequestingUser() {
+        offenderDeltaService.streamDeltasAfter(10L).collectList().block();
+
+        assertThat(cursorUsers).containsExactly(Optional.of("john.smith"));
+    }
+
+    @Test
+    public void everyPollOfTheFeedIsMadeAsTheRequestingUser() {
+        offenderDeltaService.followDeltasAfter(10L).take(Duration.ofMillis(100)).collectList().block();
+
+        assertThat(cursorUsers).hasSizeGreaterThan(1).containsOnly(Optional.of("john.smith"));
+    }
+}
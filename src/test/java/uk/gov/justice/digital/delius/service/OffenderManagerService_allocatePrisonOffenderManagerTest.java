@@ -67,6 +67,8 @@ public class OffenderManagerService_allocatePrisonOffenderManagerTest {
     private ContactService contactService;
     @Mock
     private TelemetryClient telemetryClient;
+    @Mock
+    private InterestedCRCCache interestedCRCCache;
     @Captor
     private ArgumentCaptor<PrisonOffenderManager> prisonOffenderManagerArgumentCaptor;
     @Captor
@@ -85,7 +87,8 @@ public class OffenderManagerService_allocatePrisonOffenderManagerTest {
                 teamService,
                 referenceDataService,
                 contactService,
-                telemetryClient);
+                telemetryClient,
+                interestedCRCCache);
     }
 
     @Nested
@@ -456,6 +459,28 @@ public class OffenderManagerService_allocatePrisonOffenderManagerTest {
             verify(contactService).addContactForPOMAllocation(isA(PrisonOffenderManager.class));
         }
 
+        @Test
+        public void shouldDropInterestedCRCsForOffender() {
+            when(offenderRepository.findMostLikelyByNomsNumber(any())).thenReturn(Either.right(Optional.of(
+                    anOffender()
+                            .toBuilder()
+                            .offenderId(99L)
+                            .prisonOffenderManagers(List.of())
+                            .build())));
+            when(prisonOffenderManagerRepository.save(any())).thenAnswer(args -> args.getArgument(0));
+            when(teamService.findOrCreatePrisonOffenderManagerTeamInArea(any())).thenReturn(aTeam());
+
+            offenderManagerService.allocatePrisonOffenderManagerByStaffId(
+                    "G9542VP",
+                    12345L,
+                    CreatePrisonOffenderManager
+                            .builder()
+                            .nomsPrisonInstitutionCode("N01")
+                            .build());
+
+            verify(interestedCRCCache).invalidate(99L);
+        }
+
         @Test
         public void shouldAddTelemetryEventForPOMAllocation() {
             when(offenderRepository.findMostLikelyByNomsNumber(any())).thenReturn(Either.right(Optional.of(
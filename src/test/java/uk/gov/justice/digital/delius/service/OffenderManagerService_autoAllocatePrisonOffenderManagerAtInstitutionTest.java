@@ -45,6 +45,8 @@ public class OffenderManagerService_autoAllocatePrisonOffenderManagerAtInstituti
     private ContactService contactService;
     @Mock
     private TelemetryClient telemetryClient;
+    @Mock
+    private InterestedCRCCache interestedCRCCache;
     @Captor
     private ArgumentCaptor<PrisonOffenderManager> prisonOffenderManagerArgumentCaptor;
     @Captor
@@ -63,7 +65,8 @@ public class OffenderManagerService_autoAllocatePrisonOffenderManagerAtInstituti
                 teamService,
                 referenceDataService,
                 contactService,
-                telemetryClient);
+                telemetryClient,
+                interestedCRCCache);
 
         when(probationAreaRepository.findByInstitutionByNomsCDECode(any())).thenAnswer(args -> {
             var code = args.getArgument(0).toString();
@@ -50,6 +50,8 @@ public class OffenderManagerService_deallocatePrisonerOffenderManagerTest {
     private ContactService contactService;
     @Mock
     private TelemetryClient telemetryClient;
+    @Mock
+    private InterestedCRCCache interestedCRCCache;
     @Captor
     private ArgumentCaptor<PrisonOffenderManager> prisonOffenderManagerArgumentCaptor;
     @Captor
@@ -68,7 +70,8 @@ public class OffenderManagerService_deallocatePrisonerOffenderManagerTest {
             teamService,
             referenceDataService,
             contactService,
-            telemetryClient);
+            telemetryClient,
+            interestedCRCCache);
     }
 
     @Test
@@ -46,6 +46,8 @@ class OffenderManagerService_getAllOffenderManagersTest {
     private ContactService contactService;
     @Mock
     private TelemetryClient telemetryClient;
+    @Mock
+    private InterestedCRCCache interestedCRCCache;
 
     private OffenderManagerService offenderManagerService;
 
@@ -60,7 +62,8 @@ class OffenderManagerService_getAllOffenderManagersTest {
                 teamService,
                 referenceDataService,
                 contactService,
-                telemetryClient);
+                telemetryClient,
+                interestedCRCCache);
     }
 
     @Nested
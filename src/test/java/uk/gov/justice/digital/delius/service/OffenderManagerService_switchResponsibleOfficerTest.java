@@ -57,6 +57,8 @@ public class OffenderManagerService_switchResponsibleOfficerTest {
     private ContactService contactService;
     @Mock
     private TelemetryClient telemetryClient;
+    @Mock
+    private InterestedCRCCache interestedCRCCache;
     @Captor
     private ArgumentCaptor<ResponsibleOfficer> responsibleOfficerArgumentCaptor;
 
@@ -73,7 +75,8 @@ public class OffenderManagerService_switchResponsibleOfficerTest {
                 teamService,
                 referenceDataService,
                 contactService,
-                telemetryClient);
+                telemetryClient,
+                interestedCRCCache);
 
     }
 
@@ -191,6 +194,12 @@ public class OffenderManagerService_switchResponsibleOfficerTest {
                 assertThat(responsibleOfficerArgumentCaptor.getValue().getOffenderId()).isEqualTo(99L);
             }
 
+            @Test
+            @DisplayName("then the CRCs interested in the offender will be looked up again")
+            void willDropInterestedCRCs() {
+                verify(interestedCRCCache).invalidate(99L);
+            }
+
             @Test
             @DisplayName("then community offender manager will be set as the responsible officer")
             void willSetCOMAsRo() {
@@ -8,17 +8,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import uk.gov.justice.digital.delius.controller.NotFoundException;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderPrimaryIdentifiersRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
 import uk.gov.justice.digital.delius.util.EntityHelper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.digital.delius.util.EntityHelper.anOffender;
 
@@ -30,12 +38,14 @@ class OffenderServiceTest {
     private OffenderPrimaryIdentifiersRepository offenderPrimaryIdentifiersRepository;
     @Mock
     private ConvictionService convictionService;
+    @Mock
+    private CurrentUserSupplier currentUserSupplier;
 
     private OffenderService service;
 
     @BeforeEach
     void setUp() {
-        service = new OffenderService(offenderRepository, offenderPrimaryIdentifiersRepository, convictionService);
+        service = new OffenderService(offenderRepository, offenderPrimaryIdentifiersRepository, convictionService, currentUserSupplier);
     }
 
 
@@ -261,4 +271,52 @@ class OffenderServiceTest {
                 .hasFieldOrPropertyWithValue("personalContactId", contact.getPersonalContactId());
         }
     }
+
+    @Nested
+    class StreamOffenderIdsAfter {
+        @Test
+        void readsEachPageAfterTheLastIdOfThePreviousPage() {
+            when(offenderRepository.findOffenderIdsAfter(0L, PageRequest.of(0, 1000))).thenReturn(idsBetween(1, 1000));
+            when(offenderRepository.findOffenderIdsAfter(1000L, PageRequest.of(0, 1000))).thenReturn(idsBetween(1001, 1002));
+
+            final var offenderIds = service.streamOffenderIdsAfter(0L).collectList().block();
+
+            assertThat(offenderIds).isEqualTo(idsBetween(1, 1002));
+        }
+
+        @Test
+        void stopsAfterAnEmptyFirstPage() {
+            when(offenderRepository.findOffenderIdsAfter(5L, PageRequest.of(0, 1000))).thenReturn(List.of());
+
+            final var offenderIds = service.streamOffenderIdsAfter(5L).collectList().block();
+
+            assertThat(offenderIds).isEqualTo(List.of());
+        }
+
+        @Test
+        void readsEachPageAsTheRequestingUser() {
+            final var workerSupplier = new CurrentUserSupplier(null);
+            final var pageUsers = new ArrayList<Optional<String>>();
+            when(currentUserSupplier.username()).thenReturn(Optional.of("john.smith"));
+            when(offenderRepository.findOffenderIdsAfter(anyLong(), any())).thenAnswer(invocation -> {
+                pageUsers.add(workerSupplier.username());
+                return pageUsers.size() == 1 ? idsBetween(1, 1000) : List.of();
+            });
+
+            service.streamOffenderIdsAfter(0L).collectList().block();
+
+            assertThat(pageUsers).isEqualTo(List.of(Optional.of("john.smith"), Optional.of("john.smith")));
+        }
+
+        @Test
+        void isNotReadUntilSubscribed() {
+            service.streamOffenderIdsAfter(0L);
+
+            verify(offenderRepository, never()).findOffenderIdsAfter(anyLong(), any());
+        }
+
+        private List<Long> idsBetween(long first, long last) {
+            return LongStream.rangeClosed(first, last).boxed().collect(Collectors.toList());
+        }
+    }
 }
@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.digital.delius.controller.CustodyNotFoundException;
 import uk.gov.justice.digital.delius.data.api.OffenderLatestRecall;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Custody;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Disposal;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
@@ -42,6 +43,8 @@ public class OffenderServiceTest_getOffenderLatestRecall {
     private OffenderPrimaryIdentifiersRepository mockOffenderPrimaryIdentifiersRepository;
     @Mock
     private ConvictionService mockConvictionService;
+    @Mock
+    private CurrentUserSupplier mockCurrentUserSupplier;
 
     private OffenderService offenderService;
 
@@ -50,7 +53,8 @@ public class OffenderServiceTest_getOffenderLatestRecall {
         offenderService = new OffenderService(
                 mockOffenderRepository,
                 mockOffenderPrimaryIdentifiersRepository,
-                mockConvictionService
+                mockConvictionService,
+                mockCurrentUserSupplier
         );
     }
 
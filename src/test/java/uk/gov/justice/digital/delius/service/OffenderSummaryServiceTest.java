@@ -0,0 +1,128 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.digital.delius.controller.BadRequestException;
+import uk.gov.justice.digital.delius.data.api.AccessLimitation;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest.IdentifierType;
+import uk.gov.justice.digital.delius.data.api.OffenderSummaryResult;
+import uk.gov.justice.digital.delius.data.api.OffenderSummaryResult.Status;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
+import uk.gov.justice.digital.delius.util.EntityHelper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OffenderSummaryServiceTest {
+    @Mock
+    private OffenderRepository offenderRepository;
+    @Mock
+    private UserAccessService userAccessService;
+
+    private OffenderSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OffenderSummaryService(offenderRepository, userAccessService, 2000);
+    }
+
+    @Test
+    void returnsResultsInRequestOrderWithMissingOffendersMarkedNotFound() {
+        final var first = EntityHelper.anOffender().toBuilder().offenderId(1L).crn("X00001").build();
+        final var second = EntityHelper.anOffender().toBuilder().offenderId(2L).crn("X00002").build();
+        when(offenderRepository.findAllByCrnIn(List.of("X00002", "X99999", "X00001"))).thenReturn(List.of(first, second));
+        when(userAccessService.accessLimitationsOf(anyList(), any())).thenReturn(List.of(noLimitation(), noLimitation()));
+
+        final var results = service.getOffenderSummaries(request(IdentifierType.CRN, "X00002", "X99999", "X00001"), List.of());
+
+        assertThat(results).extracting(OffenderSummaryResult::getIdentifier).containsExactly("X00002", "X99999", "X00001");
+        assertThat(results).extracting(OffenderSummaryResult::getStatus).containsExactly(Status.FOUND, Status.NOT_FOUND, Status.FOUND);
+        assertThat(results.get(0).getOffender().getOffenderId()).isEqualTo(2L);
+        assertThat(results.get(2).getOffender().getOffenderId()).isEqualTo(1L);
+    }
+
+    @Test
+    void excludedAndRestrictedOffendersAreReturnedWithoutDetail() {
+        final var excluded = EntityHelper.anOffender().toBuilder().offenderId(1L).crn("X00001").build();
+        final var restricted = EntityHelper.anOffender().toBuilder().offenderId(2L).crn("X00002").build();
+        when(offenderRepository.findAllByCrnIn(anyList())).thenReturn(List.of(excluded, restricted));
+        when(userAccessService.accessLimitationsOf(anyList(), any())).thenReturn(List.of(
+                AccessLimitation.builder().userExcluded(true).exclusionMessage("excluded").build(),
+                AccessLimitation.builder().userRestricted(true).restrictionMessage("restricted").build()));
+
+        final var results = service.getOffenderSummaries(request(IdentifierType.CRN, "X00001", "X00002"), List.of());
+
+        assertThat(results).extracting(OffenderSummaryResult::getStatus).containsExactly(Status.EXCLUDED, Status.RESTRICTED);
+        assertThat(results).extracting(OffenderSummaryResult::getMessage).containsExactly("excluded", "restricted");
+        assertThat(results).extracting(OffenderSummaryResult::getOffender).containsOnlyNulls();
+    }
+
+    @Test
+    void nomsNumbersAreMatchedIgnoringCaseAndDuplicatesReported() {
+        final var single = EntityHelper.anOffender().toBuilder().offenderId(1L).nomsNumber("G9542VP").build();
+        final var duplicate1 = EntityHelper.anOffender().toBuilder().offenderId(2L).nomsNumber("G1111AA").currentDisposal(0L).build();
+        final var duplicate2 = EntityHelper.anOffender().toBuilder().offenderId(3L).nomsNumber("G1111AA").currentDisposal(0L).build();
+        when(offenderRepository.findAllByNomsNumberIn(List.of("G9542VP", "G1111AA"))).thenReturn(List.of(single, duplicate1, duplicate2));
+        when(userAccessService.accessLimitationsOf(anyList(), any())).thenReturn(List.of(noLimitation()));
+
+        final var results = service.getOffenderSummaries(request(IdentifierType.NOMS_NUMBER, "g9542vp", "G1111AA"), List.of());
+
+        assertThat(results).extracting(OffenderSummaryResult::getStatus).containsExactly(Status.FOUND, Status.DUPLICATE);
+    }
+
+    @Test
+    void invalidOffenderIdsAreNotFound() {
+        when(offenderRepository.findAllByOffenderIdIn(List.of(1L))).thenReturn(List.of());
+        when(userAccessService.accessLimitationsOf(anyList(), any())).thenReturn(List.of());
+
+        final var results = service.getOffenderSummaries(request(IdentifierType.OFFENDER_ID, "1", "banana"), List.of());
+
+        assertThat(results).extracting(OffenderSummaryResult::getStatus).containsExactly(Status.NOT_FOUND, Status.NOT_FOUND);
+    }
+
+    @Test
+    void largeRequestsAreQueriedInChunks() {
+        when(offenderRepository.findAllByCrnIn(anyList())).thenReturn(List.of());
+        when(userAccessService.accessLimitationsOf(anyList(), any())).thenReturn(List.of());
+
+        service.getOffenderSummaries(request(IdentifierType.CRN, crns(1500)), List.of());
+
+        verify(offenderRepository, times(2)).findAllByCrnIn(anyList());
+    }
+
+    @Test
+    void rejectsRequestsWithTooManyIdentifiers() {
+        service = new OffenderSummaryService(offenderRepository, userAccessService, 2);
+
+        assertThatThrownBy(() -> service.getOffenderSummaries(request(IdentifierType.CRN, "X00001", "X00002", "X00003"), List.of()))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(offenderRepository);
+    }
+
+    private static OffenderSummariesRequest request(IdentifierType identifierType, String... identifiers) {
+        return OffenderSummariesRequest.builder().identifierType(identifierType).identifiers(List.of(identifiers)).build();
+    }
+
+    private static String[] crns(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("X%05d", i)).collect(Collectors.toList()).toArray(String[]::new);
+    }
+
+    private static AccessLimitation noLimitation() {
+        return AccessLimitation.builder().userExcluded(false).userRestricted(false).build();
+    }
+}
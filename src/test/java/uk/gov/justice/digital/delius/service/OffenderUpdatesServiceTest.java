@@ -11,13 +11,16 @@ import uk.gov.justice.digital.delius.controller.NotFoundException;
 import uk.gov.justice.digital.delius.data.api.OffenderUpdate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -145,6 +148,30 @@ public class OffenderUpdatesServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getAndLockNextUpdates")
+    class GetNextUpdates {
+        @Test
+        public void retrievesBatchOfNewUpdates() {
+            when(offenderDeltaService.lockNextUpdates(10)).thenReturn(List.of(anOffenderDelta()));
+
+            final var offenderUpdates = offenderUpdatesService.getAndLockNextUpdates(10);
+
+            assertThat(offenderUpdates).extracting("offenderId").containsExactly(2L);
+            verify(offenderDeltaService, never()).lockNextFailedUpdates(anyInt());
+        }
+
+        @Test
+        public void triesFailedUpdatesIfNoNewUpdatesFound() {
+            when(offenderDeltaService.lockNextUpdates(10)).thenReturn(List.of());
+            when(offenderDeltaService.lockNextFailedUpdates(10)).thenReturn(List.of(anOffenderDelta().setAsFailed()));
+
+            final var offenderUpdates = offenderUpdatesService.getAndLockNextUpdates(10);
+
+            assertThat(offenderUpdates).extracting("failedUpdate").containsExactly(true);
+        }
+    }
+
     @Nested
     @DisplayName("deleteUpdate()")
     class DeleteUpdate {
@@ -0,0 +1,103 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ParallelQueryRunnerTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CurrentUserSupplier currentUserSupplier;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ParallelQueryRunner parallelQueryRunner;
+
+    @BeforeEach
+    public void before() {
+        parallelQueryRunner = new ParallelQueryRunner(executor, transactionManager, currentUserSupplier, Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    public void after() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void queriesRunAsTheSubmittingUser() {
+        when(currentUserSupplier.username()).thenReturn(Optional.of("john.smith"));
+        final var workerSupplier = new CurrentUserSupplier(null);
+
+        final var query = parallelQueryRunner.submit(workerSupplier::username);
+        parallelQueryRunner.awaitAll(query);
+
+        assertThat(query.join()).get().isEqualTo("john.smith");
+    }
+
+    @Test
+    public void queriesRunOnAnotherThreadInAReadOnlyTransaction() {
+        when(currentUserSupplier.username()).thenReturn(Optional.empty());
+
+        final var query = parallelQueryRunner.submit(() -> Thread.currentThread().getName());
+        parallelQueryRunner.awaitAll(query);
+
+        assertThat(query.join()).isNotEqualTo(Thread.currentThread().getName());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    public void failuresAreRethrownToTheCaller() {
+        when(currentUserSupplier.username()).thenReturn(Optional.empty());
+
+        final var query = parallelQueryRunner.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(() -> parallelQueryRunner.awaitAll(query))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    public void requestFailsWithServiceUnavailableWhenQueriesTakeTooLong() {
+        when(currentUserSupplier.username()).thenReturn(Optional.empty());
+
+        final var quick = parallelQueryRunner.submit(() -> "quick");
+        final var slow = parallelQueryRunner.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        });
+
+        assertThatThrownBy(() -> parallelQueryRunner.awaitAll(quick, slow))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(slow).isCancelled();
+    }
+}
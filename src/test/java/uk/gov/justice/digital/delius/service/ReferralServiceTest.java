@@ -10,6 +10,8 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig;
 import uk.gov.justice.digital.delius.config.DeliusIntegrationContextConfig.IntegrationContext;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
@@ -37,8 +39,10 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -50,6 +54,7 @@ import static java.util.Optional.ofNullable;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -162,9 +167,9 @@ public class ReferralServiceTest {
             when(requirementService.getActiveRequirement(OFFENDER_CRN, SENTENCE_ID, RAR_TYPE_CODE)).thenReturn(of(requirement));
             var deliusApiResponse = NsiDto.builder().id(66853L).build();
 
-            when(deliusApiClient.createNewNsi(any())).thenReturn(deliusApiResponse);
+            when(deliusApiClient.createNewNsi(any())).thenReturn(Mono.just(deliusApiResponse));
 
-            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST);
+            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST).block();
 
             verify(deliusApiClient).createNewNsi(eq(NewNsi.builder()
                 .type(NSI_TYPE)
@@ -195,9 +200,9 @@ public class ReferralServiceTest {
             when(requirementService.getActiveRequirement(OFFENDER_CRN, SENTENCE_ID, RAR_TYPE_CODE)).thenReturn(of(requirement));
             var deliusApiResponse = NsiDto.builder().id(66853L).build();
 
-            when(deliusApiClient.createNewNsi(any())).thenReturn(deliusApiResponse);
+            when(deliusApiClient.createNewNsi(any())).thenReturn(Mono.just(deliusApiResponse));
 
-            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST.withReferralId(null));
+            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST.withReferralId(null)).block();
 
             verify(deliusApiClient).createNewNsi(eq(NewNsi.builder()
                 .type(NSI_TYPE)
@@ -227,9 +232,9 @@ public class ReferralServiceTest {
             when(requirementService.getActiveRequirement(OFFENDER_CRN, SENTENCE_ID, RAR_TYPE_CODE)).thenReturn(empty());
             var deliusApiResponse = NsiDto.builder().id(66853L).build();
 
-            when(deliusApiClient.createNewNsi(any())).thenReturn(deliusApiResponse);
+            when(deliusApiClient.createNewNsi(any())).thenReturn(Mono.just(deliusApiResponse));
 
-            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST);
+            var response = referralService.startNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_START_REQUEST).block();
 
             verify(deliusApiClient).createNewNsi(eq(NewNsi.builder()
                 .type(NSI_TYPE)
@@ -262,6 +267,12 @@ public class ReferralServiceTest {
             when(offenderService.offenderIdOfCrn("X123456")).thenReturn(ofNullable(OFFENDER_ID));
             when(nsiService.getNsiByCodes(OFFENDER_ID, SENTENCE_ID, singletonList(NSI_TYPE)))
                 .thenReturn(of(NsiWrapper.builder().nsis(singletonList(MATCHING_NSI)).build()));
+            when(deliusApiClient.patchNsi(eq(MATCHING_NSI.getNsiId()), any())).thenReturn(Mono.just(NsiDto.builder().id(MATCHING_NSI.getNsiId()).build()));
+            when(deliusApiClient.sendAll(anyList(), any())).thenAnswer(invocation -> {
+                final List<Long> contactIds = invocation.getArgument(0);
+                final Function<Long, Mono<Void>> delete = invocation.getArgument(1);
+                return Flux.fromIterable(contactIds).concatMap(delete);
+            });
         }
 
         @Test
@@ -273,7 +284,7 @@ public class ReferralServiceTest {
             when(nsiPatchRequestTransformer.mapEndTypeToOutcomeOf(REFERRAL_END_REQUEST, integrationContext)).thenReturn(jsonPatch);
 
             // When
-            var response = referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST);
+            var response = referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST).block();
 
             // Then
             verify(deliusApiClient).patchNsi(MATCHING_NSI.getNsiId(), jsonPatch);
@@ -290,7 +301,7 @@ public class ReferralServiceTest {
             when(nsiPatchRequestTransformer.mapEndTypeToOutcomeOf(referralEndRequestWithNoId, integrationContext)).thenReturn(jsonPatch);
 
             // When
-            var response = referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, referralEndRequestWithNoId);
+            var response = referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, referralEndRequestWithNoId).block();
 
             // Then
             verify(deliusApiClient).patchNsi(MATCHING_NSI.getNsiId(), jsonPatch);
@@ -309,9 +320,10 @@ public class ReferralServiceTest {
                     .build()));
             JsonPatch jsonPatch = new JsonPatch(emptyList());
             when(nsiPatchRequestTransformer.mapEndTypeToOutcomeOf(REFERRAL_END_REQUEST, integrationContext)).thenReturn(jsonPatch);
+            when(deliusApiClient.deleteContact(999L)).thenReturn(Mono.empty());
 
             // When
-            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST);
+            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST).block();
 
             // Then
             verify(deliusApiClient).deleteContact(999L);
@@ -328,7 +340,7 @@ public class ReferralServiceTest {
                 .thenReturn(new JsonPatch(emptyList()));
 
             // When
-            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST);
+            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST).block();
 
             // Then
             verify(deliusApiClient, times(0)).deleteContact(any());
@@ -344,7 +356,7 @@ public class ReferralServiceTest {
                 .thenReturn(new JsonPatch(emptyList()));
 
             // When
-            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST);
+            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST).block();
 
             // Then
             verify(deliusApiClient, times(0)).deleteContact(any());
@@ -363,7 +375,7 @@ public class ReferralServiceTest {
                 .thenReturn(new JsonPatch(emptyList()));
 
             // When
-            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST);
+            referralService.endNsiReferral("X123456", INTEGRATION_CONTEXT, REFERRAL_END_REQUEST).block();
 
             // Then
             verify(deliusApiClient, times(0)).deleteContact(any());
@@ -1,6 +1,7 @@
 package uk.gov.justice.digital.delius.service;
 
 import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -12,30 +13,42 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import uk.gov.justice.digital.delius.config.FeatureSwitches;
 import uk.gov.justice.digital.delius.jpa.standard.entity.AdditionalIdentifier;
 import uk.gov.justice.digital.delius.jpa.standard.entity.BusinessInteraction;
 import uk.gov.justice.digital.delius.jpa.standard.entity.BusinessInteractionXmlMap;
 import uk.gov.justice.digital.delius.jpa.standard.entity.CourtAppearance;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Offender;
+import uk.gov.justice.digital.delius.jpa.standard.entity.PendingNotification;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
 import uk.gov.justice.digital.delius.jpa.standard.entity.SpgNotification;
 import uk.gov.justice.digital.delius.jpa.standard.entity.StandardReference;
 import uk.gov.justice.digital.delius.jpa.standard.repository.BusinessInteractionRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.BusinessInteractionXmlMapRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.PendingNotificationRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.ProbationAreaRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.SpgNotificationHelperRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.SpgNotificationRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.StandardReferenceRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.digital.delius.util.EntityHelper.aCustodyEvent;
 import static uk.gov.justice.digital.delius.util.EntityHelper.aKeyDate;
@@ -55,6 +68,9 @@ public class SpgNotificationServiceTest {
     private SpgNotificationRepository spgNotificationRepository;
     @Mock
     private SpgNotificationHelperRepository spgNotificationHelperRepository;
+    @Mock
+    private PendingNotificationRepository pendingNotificationRepository;
+    private final FeatureSwitches featureSwitches = new FeatureSwitches();
 
     @Captor
     private ArgumentCaptor<List<SpgNotification>> spgNotificationsCaptor;
@@ -78,11 +94,12 @@ public class SpgNotificationServiceTest {
                 .builder()
                 .standardReferenceListId(88L)
                 .build()));
-        when(probationAreaRepository.findByCode(any())).thenReturn(Optional.of(ProbationArea.builder().build()));
+        when(probationAreaRepository.findCachedByCode(any())).thenReturn(Optional.of(ProbationArea.builder().build()));
         when(spgNotificationHelperRepository.getInterestedCRCs(any())).thenReturn(ImmutableList.of());
-        when(spgNotificationHelperRepository.getNextControlSequence(any())).thenReturn(1L);
+        when(spgNotificationHelperRepository.getNextControlSequences(any(), anyInt())).thenAnswer(
+                params -> LongStream.rangeClosed(1, params.getArgument(1, Integer.class)).boxed().collect(toList()));
 
-        spgNotificationService = new SpgNotificationService(businessInteractionRepository, businessInteractionXmlMapRepository, standardReferenceRepository, probationAreaRepository, spgNotificationRepository, spgNotificationHelperRepository);
+        spgNotificationService = new SpgNotificationService(businessInteractionRepository, businessInteractionXmlMapRepository, standardReferenceRepository, probationAreaRepository, spgNotificationRepository, spgNotificationHelperRepository, pendingNotificationRepository, new InterestedCRCCache(spgNotificationHelperRepository, new SimpleMeterRegistry(), Duration.ZERO, 100), featureSwitches);
     }
 
     @Test
@@ -689,6 +706,136 @@ public class SpgNotificationServiceTest {
 
     }
 
+    @Nested
+    class RoundTrips {
+        @Test
+        public void controlReferencesAndInterestedCRCsAreFetchedOncePerCall() {
+            when(spgNotificationHelperRepository.getInterestedCRCs(any())).thenReturn(ImmutableList.of(
+                    ProbationArea.builder().code("AA").build(),
+                    ProbationArea.builder().code("AB").build(),
+                    ProbationArea.builder().code("AC").build()));
+
+            spgNotificationService.notifyNewCourtCaseCreated(Event
+                    .builder()
+                    .offenderId(99L)
+                    .courtAppearances(ImmutableList.of(
+                            CourtAppearance.builder().courtAppearanceId(20L).build(),
+                            CourtAppearance.builder().courtAppearanceId(21L).build()
+                    ))
+                    .build());
+
+            verify(spgNotificationRepository).saveAll(spgNotificationsCaptor.capture());
+            assertThat(spgNotificationsCaptor.getValue()).hasSize(12);
+            assertThat(spgNotificationsCaptor.getValue()).extracting(SpgNotification::getControlReference).doesNotHaveDuplicates();
+            verify(spgNotificationHelperRepository).getInterestedCRCs(any());
+            verify(spgNotificationHelperRepository).getNextControlSequences(any(), eq(12));
+            verifyNoMoreInteractions(spgNotificationHelperRepository);
+            verify(businessInteractionRepository, times(3)).findByBusinessInteractionCode(any());
+            verify(probationAreaRepository, times(1)).findCachedByCode("N00");
+        }
+
+        @Test
+        public void controlReferencesForSeveralKeyDatesAreFetchedOnce() {
+            when(spgNotificationHelperRepository.getInterestedCRCs(any())).thenReturn(ImmutableList.of(
+                    ProbationArea.builder().code("AA").build(),
+                    ProbationArea.builder().code("AB").build()));
+
+            val event = aCustodyEvent(99L, 77L, ImmutableList.of(aKeyDate(88L, "POM1"), aKeyDate(89L, "POM2"), aKeyDate(90L, "LED")));
+            spgNotificationService.notifyUpdateOfCustodyKeyDate(List.of("POM1", "POM2", "LED"), event);
+
+            verify(spgNotificationRepository).saveAll(spgNotificationsCaptor.capture());
+            assertThat(spgNotificationsCaptor.getValue())
+                    .hasSize(6)
+                    .extracting(SpgNotification::getUniqueId)
+                    .containsOnly(88L, 89L, 90L);
+            assertThat(spgNotificationsCaptor.getValue()).extracting(SpgNotification::getControlReference).doesNotHaveDuplicates();
+            verify(spgNotificationHelperRepository).getNextControlSequences(any(), eq(6));
+        }
+
+        @Test
+        @MockitoSettings(strictness = Strictness.LENIENT)
+        public void nothingIsLookedUpForNoKeyDates() {
+            spgNotificationService.notifyDeletedCustodyKeyDate(List.of(), aCustodyEvent(99L, 77L, ImmutableList.of()));
+
+            verifyNoInteractions(spgNotificationHelperRepository, spgNotificationRepository, pendingNotificationRepository);
+        }
+    }
+
+    @Nested
+    @MockitoSettings(strictness = Strictness.LENIENT)
+    class Outbox {
+        @Captor
+        private ArgumentCaptor<List<PendingNotification>> pendingNotificationsCaptor;
+
+        @BeforeEach
+        public void before() {
+            featureSwitches.getNotifications().setOutbox(true);
+        }
+
+        @Test
+        public void notificationsAreRecordedAsPendingForEachInterestedCRCInsteadOfWritten() {
+            when(spgNotificationHelperRepository.getInterestedCRCs("77")).thenReturn(ImmutableList.of(
+                    ProbationArea.builder().probationAreaId(1L).code("AA").build(),
+                    ProbationArea.builder().probationAreaId(2L).code("AB").build()));
+
+            val event = aCustodyEvent(99L, 77L, ImmutableList.of(aKeyDate(88L, "POM1")));
+            spgNotificationService.notifyUpdateOfCustodyKeyDate("POM1", event);
+
+            verify(pendingNotificationRepository).saveAll(pendingNotificationsCaptor.capture());
+            assertThat(pendingNotificationsCaptor.getValue())
+                    .hasSize(2)
+                    .allSatisfy(pendingNotification -> {
+                        assertThat(pendingNotification.getNotificationType()).isEqualTo("UPDATE_CUSTODY_KEY_DATE");
+                        assertThat(pendingNotification.getOffenderId()).isEqualTo(77L);
+                        assertThat(pendingNotification.getUniqueId()).isEqualTo(88L);
+                        assertThat(pendingNotification.getParentEntityId()).isEqualTo(99L);
+                        assertThat(pendingNotification.getCreatedDatetime()).isNotNull();
+                        assertThat(pendingNotification.getNextAttemptDatetime()).isEqualTo(pendingNotification.getCreatedDatetime());
+                    })
+                    .extracting(PendingNotification::getReceiverProbationAreaId)
+                    .containsExactly(1L, 2L);
+            verify(spgNotificationRepository, never()).saveAll(any());
+        }
+
+        @Test
+        public void pendingNotificationsAreWrittenToTheCRCsInterestedWhenRecorded() {
+            val recordedAt = LocalDateTime.of(2021, 6, 1, 12, 0);
+            when(probationAreaRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                    ProbationArea.builder().probationAreaId(1L).code("AA").build(),
+                    ProbationArea.builder().probationAreaId(2L).code("AB").build()));
+
+            spgNotificationService.writePendingNotifications(LongStream.of(1L, 2L)
+                    .mapToObj(receiverProbationAreaId -> PendingNotification
+                            .builder()
+                            .notificationType("UPDATE_CUSTODY_KEY_DATE")
+                            .offenderId(77L)
+                            .uniqueId(88L)
+                            .parentEntityId(99L)
+                            .receiverProbationAreaId(receiverProbationAreaId)
+                            .createdDatetime(recordedAt)
+                            .build())
+                    .collect(toList()));
+
+            verify(spgNotificationRepository).saveAll(spgNotificationsCaptor.capture());
+            assertThat(findFor(SpgNotificationService.NotificationEvents.UPDATE_CUSTODY_KEY_DATE.getNotificationCode()))
+                    .hasSize(2)
+                    .allSatisfy(notification -> {
+                        assertThat(notification.getUniqueId()).isEqualTo(88L);
+                        assertThat(notification.getDateCreated()).isEqualTo(recordedAt);
+                    })
+                    .extracting(notification -> notification.getReceiverIdentity().getCode())
+                    .containsExactly("AA", "AB");
+            verify(spgNotificationHelperRepository, never()).getInterestedCRCs(any());
+            verify(pendingNotificationRepository, never()).saveAll(any());
+        }
+
+        @Test
+        public void onlySpgNotificationTypesAreRecognised() {
+            assertThat(SpgNotificationService.isSpgNotification(PendingNotification.builder().notificationType("UPDATE_OFFENDER").build())).isTrue();
+            assertThat(SpgNotificationService.isSpgNotification(PendingNotification.builder().notificationType(IAPSNotificationService.EVENT_UPDATED).build())).isFalse();
+        }
+    }
+
     private List<SpgNotification> findFor(String businessInteraction) {
         return spgNotificationsCaptor
                 .getAllValues()
@@ -10,21 +10,31 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.data.api.ContactableHuman;
+import uk.gov.justice.digital.delius.data.api.ManagedOffender;
 import uk.gov.justice.digital.delius.data.api.StaffDetails;
+import uk.gov.justice.digital.delius.jpa.dao.ManagedOffenderRow;
 import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Staff;
 import uk.gov.justice.digital.delius.jpa.standard.repository.StaffHelperRepository;
 import uk.gov.justice.digital.delius.jpa.standard.repository.StaffRepository;
+import uk.gov.justice.digital.delius.jpa.standard.repository.StaffRepository.StaffIdentifiers;
 import uk.gov.justice.digital.delius.ldap.repository.LdapRepository;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusUser;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.never;
@@ -212,8 +222,8 @@ public class StaffServiceTest {
 
         var frazierNDelius = NDeliusUser.builder().telephoneNumber("111 222").mail("joefrazier@service.com").build();
         var foremanNDelius = NDeliusUser.builder().telephoneNumber("333 444").mail("georgeforeman@service.com").build();
-        when(ldapRepository.getDeliusUserNoRoles("joefrazier")).thenReturn(Optional.of(frazierNDelius));
-        when(ldapRepository.getDeliusUserNoRoles("georgeforeman")).thenReturn(Optional.of(foremanNDelius));
+        when(ldapRepository.getDeliusUsersNoRoles(Set.of("joefrazier", "georgeforeman")))
+                .thenReturn(Map.of("joefrazier", frazierNDelius, "georgeforeman", foremanNDelius));
 
         List<StaffDetails> staffDetailsList = staffService.getStaffDetailsByUsernames(usernames);
 
@@ -225,6 +235,28 @@ public class StaffServiceTest {
         assertThat(foremanUserDetails.getEmail()).isEqualTo("georgeforeman@service.com");
         assertThat(frazierUserDetails.getUsername()).isEqualTo("joefrazier");
         assertThat(foremanUserDetails.getUsername()).isEqualTo("georgeforeman");
+        assertThat(frazierUserDetails.getTelephoneNumber()).isEqualTo("111 222");
+        verify(ldapRepository, never()).getDeliusUserNoRoles(any());
+    }
+
+    @Test
+    public void willSetNullEmailForUsersNotFoundInLDAP_getStaffDetailsByUsernames() {
+        when(staffRepository.findByUsernames(any()))
+                .thenReturn(ImmutableList.of(
+                        aStaff()
+                                .toBuilder()
+                                .user(
+                                        aUser()
+                                                .toBuilder()
+                                                .distinguishedName("joefrazier")
+                                                .build())
+                                .build()
+                ));
+        when(ldapRepository.getDeliusUsersNoRoles(Set.of("joefrazier"))).thenReturn(Map.of());
+
+        List<StaffDetails> staffDetailsList = staffService.getStaffDetailsByUsernames(Set.of("joefrazier"));
+
+        assertThat(staffDetailsList).extracting(StaffDetails::getEmail).containsExactly((String) null);
     }
 
     @Test
@@ -368,4 +400,57 @@ public class StaffServiceTest {
             assertThat(staffCaptor.getValue().getOfficerCode()).isEqualTo("MDIPOMU");
         }
     }
+
+    @DisplayName("getManagedOffendersByStaffIdentifier")
+    @Nested
+    class GetManagedOffendersByStaffIdentifier {
+        @Test
+        @DisplayName("Will return the caseload with the staff identifiers")
+        void willReturnCaseloadWithStaffIdentifiers() {
+            final var pageable = PageRequest.of(1, 50);
+            final var sort = Sort.by("offenderSurname");
+            when(staffRepository.findIdentifiersByStaffId(10L)).thenReturn(Optional.of(staffIdentifiers(10L, "N01A001")));
+            when(staffRepository.findManagedOffenders(10L, true, sort, pageable)).thenReturn(List.of(
+                    ManagedOffenderRow.builder().offenderId(1L).crnNumber("X11111").currentOm(true).build()));
+
+            assertThat(staffService.getManagedOffendersByStaffIdentifier(10L, true, sort, pageable))
+                    .hasValue(List.of(ManagedOffender.builder()
+                            .staffIdentifier(10L)
+                            .staffCode("N01A001")
+                            .offenderId(1L)
+                            .crnNumber("X11111")
+                            .isCurrentOm(true)
+                            .build()));
+        }
+
+        @Test
+        @DisplayName("Will return nothing when the staff member is not found")
+        void willReturnNothingWhenStaffNotFound() {
+            when(staffRepository.findIdentifiersByStaffId(10L)).thenReturn(Optional.empty());
+
+            assertThat(staffService.getManagedOffendersByStaffIdentifier(10L, false)).isNotPresent();
+            verify(staffRepository, never()).findManagedOffenders(any(), anyBoolean(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Will reject sorting by anything other than a managed offender column")
+        void willRejectUnknownSortProperty() {
+            assertThrows(BadRequestException.class, () ->
+                    staffService.getManagedOffendersByStaffIdentifier(10L, false, Sort.by("probationArea"), Pageable.unpaged()));
+        }
+
+        private StaffIdentifiers staffIdentifiers(Long staffId, String officerCode) {
+            return new StaffIdentifiers() {
+                @Override
+                public Long getStaffId() {
+                    return staffId;
+                }
+
+                @Override
+                public String getOfficerCode() {
+                    return officerCode;
+                }
+            };
+        }
+    }
 }
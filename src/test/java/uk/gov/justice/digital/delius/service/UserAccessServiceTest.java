@@ -8,17 +8,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import uk.gov.justice.digital.delius.data.api.AccessLimitation;
-import uk.gov.justice.digital.delius.data.api.OffenderDetail;
 import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
 
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
-import static org.mockito.Mockito.atMost;
-import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -32,22 +31,26 @@ class UserAccessServiceTest {
     private static final String RESTRICTION_MESSAGE = "Restricted message";
     private static final String EXCLUSION_MESSAGE = "Excluded message";
     private UserAccessService userAccessService;
-    private UserAccessService userAccessServiceToggleOff;
 
     @Mock
     private UserService userService;
     @Mock
-    private OffenderService offenderService;
+    private AccessControlIndex accessControlIndex;
     @Mock
     private CurrentUserSupplier currentUserSupplier;
-    @Mock
-    private OffenderDetail offender;
+
+    private final OffenderAccessFlags offender = OffenderAccessFlags.builder()
+        .offenderId(1L)
+        .crn(CRN)
+        .currentExclusion(1L)
+        .exclusionMessage(EXCLUSION_MESSAGE)
+        .currentRestriction(1L)
+        .restrictionMessage(RESTRICTION_MESSAGE)
+        .build();
 
     @BeforeEach
     public void setUp(){
-        userAccessService = new UserAccessService(userService, offenderService, currentUserSupplier,
-            Set.of(SCOPE_IGNORE_EXCLUSIONS), Set.of(SCOPE_IGNORE_RESTRICTIONS));
-        userAccessServiceToggleOff = new UserAccessService(userService, offenderService, currentUserSupplier,
+        userAccessService = new UserAccessService(userService, accessControlIndex, currentUserSupplier,
             Set.of(SCOPE_IGNORE_EXCLUSIONS), Set.of(SCOPE_IGNORE_RESTRICTIONS));
     }
 
@@ -56,13 +59,13 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(false, RESTRICTION_MESSAGE, false, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         userAccessService.checkExclusionsAndRestrictions(CRN, Collections.emptySet());
 
-        verify(offenderService, atMost(2)).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
@@ -70,15 +73,15 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(false, RESTRICTION_MESSAGE, true, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         assertThatExceptionOfType(AccessDeniedException.class)
             .isThrownBy(() -> userAccessService.checkExclusionsAndRestrictions(CRN, Collections.emptySet()))
             .withMessage(EXCLUSION_MESSAGE);
 
-        verify(offenderService, atMostOnce()).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
@@ -86,29 +89,26 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(false, RESTRICTION_MESSAGE, true, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         userAccessService.checkExclusionsAndRestrictions(CRN, Set.of(new SimpleGrantedAuthority(SCOPE_IGNORE_EXCLUSIONS)));
 
-        verify(offenderService, atMostOnce()).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
     public void givenOffenderIsRestricted_andNoUser_thenAccessDenied(){
         when(currentUserSupplier.username()).thenReturn(Optional.empty());
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
-        when(offender.getCurrentRestriction()).thenReturn(true);
-        when(offender.getRestrictionMessage()).thenReturn(RESTRICTION_MESSAGE);
-        when(offender.getExclusionMessage()).thenReturn(EXCLUSION_MESSAGE);
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
 
         assertThatExceptionOfType(AccessDeniedException.class)
             .isThrownBy(() -> userAccessService.checkExclusionsAndRestrictions(CRN, Collections.emptySet()))
             .withMessage(RESTRICTION_MESSAGE);
 
-        verify(offenderService, atMostOnce()).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
@@ -116,15 +116,15 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(true, RESTRICTION_MESSAGE, false, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         assertThatExceptionOfType(AccessDeniedException.class)
             .isThrownBy(() -> userAccessService.checkExclusionsAndRestrictions(CRN, Collections.emptySet()))
             .withMessage(RESTRICTION_MESSAGE);
 
-        verify(offenderService, atMost(2)).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
@@ -132,13 +132,13 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(true, RESTRICTION_MESSAGE, false, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         userAccessService.checkExclusionsAndRestrictions(CRN, Set.of(new SimpleGrantedAuthority(SCOPE_IGNORE_RESTRICTIONS)));
 
-        verify(offenderService, atMostOnce()).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
     }
 
     @Test
@@ -146,14 +146,24 @@ class UserAccessServiceTest {
         final var accessLimitation = new AccessLimitation(true, RESTRICTION_MESSAGE, true, EXCLUSION_MESSAGE);
 
         when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
-        when(offenderService.getOffenderByCrn(CRN)).thenReturn(Optional.of(offender));
+        when(accessControlIndex.offenderAccessFlagsOf(CRN)).thenReturn(Optional.of(offender));
         when(userService.accessLimitationOf(USER_NAME, offender)).thenReturn(accessLimitation);
 
         assertThatExceptionOfType(AccessDeniedException.class)
             .isThrownBy(() -> userAccessService.checkExclusionsAndRestrictions(CRN, Collections.emptySet()))
             .withMessage(EXCLUSION_MESSAGE);
 
-        verify(offenderService, atMostOnce()).getOffenderByCrn(CRN);
-        verifyNoMoreInteractions(offenderService, userService, currentUserSupplier, offender);
+        verify(accessControlIndex).offenderAccessFlagsOf(CRN);
+        verifyNoMoreInteractions(accessControlIndex, userService, currentUserSupplier);
+    }
+
+    @Test
+    public void givenAllChecksAreIgnored_thenOffenderIsNotLookedUp(){
+        when(currentUserSupplier.username()).thenReturn(Optional.of(USER_NAME));
+
+        userAccessService.checkExclusionsAndRestrictions(CRN,
+            Set.of(new SimpleGrantedAuthority(SCOPE_IGNORE_EXCLUSIONS), new SimpleGrantedAuthority(SCOPE_IGNORE_RESTRICTIONS)));
+
+        verifyNoInteractions(accessControlIndex, userService);
     }
 }
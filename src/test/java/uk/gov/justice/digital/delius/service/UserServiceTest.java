@@ -2,24 +2,30 @@ package uk.gov.justice.digital.delius.service;
 
 import com.google.common.collect.ImmutableList;
 import com.microsoft.applicationinsights.TelemetryClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 import uk.gov.justice.digital.delius.controller.BadRequestException;
 import uk.gov.justice.digital.delius.data.api.OffenderDetail;
+import uk.gov.justice.digital.delius.data.api.OffenderUserAccess;
 import uk.gov.justice.digital.delius.data.api.UserDetails;
 import uk.gov.justice.digital.delius.data.api.UserRole;
+import uk.gov.justice.digital.delius.jpa.dao.OffenderAccessFlags;
 import uk.gov.justice.digital.delius.jpa.national.entity.Exclusion;
 import uk.gov.justice.digital.delius.jpa.national.entity.Restriction;
 import uk.gov.justice.digital.delius.jpa.national.entity.User;
+import uk.gov.justice.digital.delius.jpa.standard.repository.OffenderRepository;
 import uk.gov.justice.digital.delius.ldap.repository.LdapRepository;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusRole;
 import uk.gov.justice.digital.delius.ldap.repository.entity.NDeliusUser;
 import uk.gov.justice.digital.delius.service.wrapper.UserRepositoryWrapper;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -45,11 +51,19 @@ public class UserServiceTest {
     @Mock
     private TelemetryClient telemetryClient;
 
+    @Mock
+    private OffenderRepository offenderRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepositoryWrapper, ldapRepository, telemetryClient);
+        final var accessControlIndex = new AccessControlIndex(offenderRepository, userRepositoryWrapper, jdbcTemplate, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+        userService = new UserService(userRepositoryWrapper, ldapRepository, telemetryClient, accessControlIndex);
     }
 
     @Test
@@ -301,6 +315,43 @@ public class UserServiceTest {
         assertThat(accessLimitation.getRestrictionMessage()).isEqualTo("How dare you - you are restricted");
     }
 
+    @Test
+    public void offenderUserAccessReportedForEachCrnInOrder() {
+        when(offenderRepository.findAccessFlagsByCrnIn(List.of("X3", "X1", "X2"))).thenReturn(List.of(
+                OffenderAccessFlags.builder().offenderId(1L).crn("X1").currentExclusion(1L).exclusionMessage("excluded").currentRestriction(0L).build(),
+                OffenderAccessFlags.builder().offenderId(3L).crn("X3").currentExclusion(0L).currentRestriction(1L).restrictionMessage("restricted").build()));
+        when(userRepositoryWrapper.getUser("Micky")).thenReturn(User
+                .builder()
+                .exclusions(ImmutableList.of(Exclusion.builder().offenderId(1L).build()))
+                .build());
+
+        final var userAccess = userService.offenderUserAccessOf("Micky", List.of("X3", "X1", "X2"));
+
+        assertThat(userAccess).extracting("crn").containsExactly("X3", "X1", "X2");
+        assertThat(userAccess).extracting("status").containsExactly(
+                OffenderUserAccess.Status.FOUND,
+                OffenderUserAccess.Status.FOUND,
+                OffenderUserAccess.Status.NOT_FOUND);
+        assertThat(userAccess.get(0).getAccessLimitation().isUserRestricted()).isTrue();
+        assertThat(userAccess.get(0).getAccessLimitation().getRestrictionMessage()).isEqualTo("restricted");
+        assertThat(userAccess.get(1).getAccessLimitation().isUserExcluded()).isTrue();
+        assertThat(userAccess.get(1).getAccessLimitation().getExclusionMessage()).isEqualTo("excluded");
+        assertThat(userAccess.get(2).getAccessLimitation()).isNull();
+        verify(userRepositoryWrapper).getUser("Micky");
+    }
+
+    @Test
+    public void offenderUserAccessDoesNotLoadUserWhenNoOffenderHasExclusionsOrRestrictions() {
+        when(offenderRepository.findAccessFlagsByCrnIn(List.of("X1"))).thenReturn(List.of(
+                OffenderAccessFlags.builder().offenderId(1L).crn("X1").currentExclusion(0L).currentRestriction(0L).build()));
+
+        final var userAccess = userService.offenderUserAccessOf("Micky", List.of("X1"));
+
+        assertThat(userAccess.get(0).getAccessLimitation().isUserExcluded()).isFalse();
+        assertThat(userAccess.get(0).getAccessLimitation().isUserRestricted()).isFalse();
+        verifyNoInteractions(userRepositoryWrapper);
+    }
+
     @Test
     public void userDetailsMappedFromLdapRepository() {
         when(ldapRepository.getDeliusUser(anyString())).thenReturn(
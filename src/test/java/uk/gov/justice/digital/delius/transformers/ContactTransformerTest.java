@@ -10,10 +10,11 @@ import java.time.ZoneOffset;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import uk.gov.justice.digital.delius.data.api.ContactSummary;
+import uk.gov.justice.digital.delius.jpa.dao.ContactSummaryRow;
 import uk.gov.justice.digital.delius.jpa.standard.entity.LicenceCondition;
 import uk.gov.justice.digital.delius.jpa.standard.entity.LicenceConditionTypeMainCat;
+import uk.gov.justice.digital.delius.jpa.standard.entity.OfficeLocation;
 import uk.gov.justice.digital.delius.jpa.standard.entity.StandardReference;
-import uk.gov.justice.digital.delius.util.EntityHelper;
 import uk.gov.justice.digital.delius.utils.DateConverter;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -73,13 +74,11 @@ class ContactTransformerTest {
 
     @Test
     public void contactSummaryFromContactHandlesNulls() {
-        final var contact = EntityHelper.aContact().toBuilder()
-            .contactStartTime(null)
-            .contactEndTime(null)
-            .officeLocation(null)
-            .notes(null)
-            .sensitive(null)
-            .contactOutcomeType(null)
+        final var contact = ContactSummaryRow.builder()
+            .contactId(1L)
+            .contactDate(LocalDate.of(2021, 6, 1))
+            .contactTypeCode("CT1")
+            .attendanceContact(false)
             .build();
         final var observed = ContactTransformer.contactSummaryOf(contact);
         final var expectedDate = DateConverter.toOffsetDateTime(LocalDateTime.of(contact.getContactDate(), LocalTime.MIDNIGHT));
@@ -90,6 +89,9 @@ class ContactTransformerTest {
             .hasFieldOrPropertyWithValue("contactEnd", expectedDate)
             .hasFieldOrPropertyWithValue("officeLocation", null)
             .hasFieldOrPropertyWithValue("notes", null)
+            .hasFieldOrPropertyWithValue("provider", null)
+            .hasFieldOrPropertyWithValue("team", null)
+            .hasFieldOrPropertyWithValue("staff", null)
             .hasFieldOrPropertyWithValue("sensitive", null)
             .hasFieldOrPropertyWithValue("outcome", null)
             .hasFieldOrPropertyWithValue("rarActivity", false);
@@ -97,41 +99,28 @@ class ContactTransformerTest {
 
     @Test
     public void contactSummaryFromContact() {
-        final var contact = EntityHelper.aContact().toBuilder()
+        final var contact = ContactSummaryRow.builder()
             .contactId(1L)
             .contactDate(LocalDate.of(2021, 6, 1))
             .contactStartTime(LocalTime.of(12, 0))
             .contactEndTime(LocalTime.of(13, 0))
-            .contactType(EntityHelper.aContactType().toBuilder()
-                .attendanceContact(true)
-                .code("CT1")
-                .description("Some contact type")
-                .shortDescription("Some contact type short description")
-                .build())
-            .officeLocation(EntityHelper.anOfficeLocation().toBuilder()
-                .code("OL1")
-                .description("Some office location")
-                .build())
+            .attendanceContact(true)
+            .contactTypeCode("CT1")
+            .contactTypeDescription("Some contact type")
+            .contactTypeShortDescription("Some contact type short description")
+            .officeLocation(OfficeLocation.builder().code("OL1").description("Some office location").build())
             .notes("Some notes")
-            .probationArea(EntityHelper.aProbationArea().toBuilder()
-                .code("PA1")
-                .description("Some probation area")
-                .build())
-            .team(EntityHelper.aTeam().toBuilder()
-                .code("T1")
-                .description("Some team")
-                .build())
-            .staff(EntityHelper.aStaff().toBuilder()
-                .officerCode("S1")
-                .forename("FN1")
-                .forname2("FN2")
-                .surname("SN")
-                .build())
+            .probationAreaCode("PA1")
+            .probationAreaDescription("Some probation area")
+            .teamCode("T1")
+            .teamDescription("Some team")
+            .staffCode("S1")
+            .staffForename("FN1")
+            .staffForename2("FN2")
+            .staffSurname("SN")
             .sensitive("Y")
-            .contactOutcomeType(EntityHelper.aContactOutcomeType().toBuilder()
-                .code("O1")
-                .description("Some outcome")
-                .build())
+            .outcomeCode("O1")
+            .outcomeDescription("Some outcome")
             .attended("Y")
             .complied("Y")
             .hoursCredited(123.456)
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import uk.gov.justice.digital.delius.data.api.KeyValue;
+import uk.gov.justice.digital.delius.jpa.dao.ManagedOffenderRow;
 import uk.gov.justice.digital.delius.jpa.standard.entity.AdditionalIdentifier;
 import uk.gov.justice.digital.delius.jpa.standard.entity.Disability;
 import uk.gov.justice.digital.delius.jpa.standard.entity.LocalDeliveryUnit;
@@ -205,23 +206,30 @@ public class OffenderTransformerTest {
     }
 
     @Test
-    public void currentlyManagedOffenders() {
+    public void managedOffenderCopiesAllocationAndStaff() {
+        final var row = ManagedOffenderRow.builder()
+                .offenderId(1L)
+                .nomsNumber("A1111")
+                .crnNumber("X11111")
+                .offenderSurname("SMITH")
+                .currentRo(true)
+                .currentOm(true)
+                .currentPom(false)
+                .omStartDate(LocalDate.of(2021, 6, 1))
+                .build();
 
-        // Get currently managed offenders for this officer
-        assertThat(OffenderTransformer.managedOffenderOf(anOfficerWithOffenderManagers(), true)
-                .get(0))
+        assertThat(OffenderTransformer.managedOffenderOf(row, 3L, "AAAA"))
+                .hasFieldOrPropertyWithValue("offenderId", 1L)
                 .hasFieldOrPropertyWithValue("nomsNumber", "A1111")
+                .hasFieldOrPropertyWithValue("crnNumber", "X11111")
                 .hasFieldOrPropertyWithValue("offenderSurname", "SMITH")
                 .hasFieldOrPropertyWithValue("staffCode", "AAAA")
-                .hasFieldOrPropertyWithValue("staffIdentifier", 3L);
-    }
-
-    @Test
-    public void allManagedOffenders() {
-
-        // Get current and past managed offenders for this officer
-        assertThat(new ArrayList<>(OffenderTransformer.managedOffenderOf(anOfficerWithOffenderManagers(), false)))
-                .hasSize(2);
+                .hasFieldOrPropertyWithValue("staffIdentifier", 3L)
+                .hasFieldOrPropertyWithValue("currentRo", true)
+                .hasFieldOrPropertyWithValue("currentOm", true)
+                .hasFieldOrPropertyWithValue("currentPom", false)
+                .hasFieldOrPropertyWithValue("omStartDate", LocalDate.of(2021, 6, 1))
+                .hasFieldOrPropertyWithValue("omEndDate", null);
     }
 
     @Test
@@ -365,18 +373,6 @@ public class OffenderTransformerTest {
                 .build();
     }
 
-    private Staff anOfficerWithOffenderManagers() {
-        return Staff
-                .builder()
-                .staffId(3L)
-                .officerCode("AAAA")
-                .surname("Officer")
-                .forename("First")
-                .forname2("First2")
-                .offenderManagers(aListOfOffenderManagers())
-                .build();
-    }
-
     private Staff anOfficerWithoutOffenderManagers() {
         return Staff.builder()
                 .staffId(3L)
@@ -0,0 +1,38 @@
+package uk.gov.justice.digital.delius;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements Hibernate prepares, so a test can pin how many selects a read costs.
+ * Register it on an instance field with {@link org.junit.jupiter.api.extension.RegisterExtension}.
+ */
+public class StatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+    private Statistics statistics;
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        statistics = SpringExtension.getApplicationContext(extensionContext)
+                .getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    public long statementsFor(Runnable load) {
+        statistics.clear();
+        load.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
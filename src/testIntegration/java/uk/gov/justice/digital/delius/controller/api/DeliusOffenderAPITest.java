@@ -91,6 +91,13 @@ public class DeliusOffenderAPITest {
         Mockito.when(offenderRepository.listOffenderIds(eq(1), eq(5))).thenReturn(LongStream.rangeClosed(1, 5).mapToObj(BigDecimal::valueOf).collect(Collectors.toList()));
         Mockito.when(offenderRepository.listOffenderIds(eq(6), eq(10))).thenReturn(LongStream.rangeClosed(6, 10).mapToObj(BigDecimal::valueOf).collect(Collectors.toList()));
         Mockito.when(offenderRepository.count()).thenReturn(666L);
+        // the summary and full detail lookups return whatever the plain lookups have been stubbed with
+        Mockito.when(offenderRepository.findSummaryByOffenderId(any())).thenAnswer(invocation -> offenderRepository.findByOffenderId(invocation.getArgument(0)));
+        Mockito.when(offenderRepository.findSummaryByCrn(any())).thenAnswer(invocation -> offenderRepository.findByCrn(invocation.getArgument(0)));
+        Mockito.when(offenderRepository.findSummaryByNomsNumber(any())).thenAnswer(invocation -> offenderRepository.findByNomsNumber(invocation.getArgument(0)));
+        Mockito.when(offenderRepository.findFullByOffenderId(any())).thenAnswer(invocation -> offenderRepository.findByOffenderId(invocation.getArgument(0)));
+        Mockito.when(offenderRepository.findFullByCrn(any())).thenAnswer(invocation -> offenderRepository.findByCrn(invocation.getArgument(0)));
+        Mockito.when(offenderRepository.findFullByNomsNumber(any())).thenAnswer(invocation -> offenderRepository.findByNomsNumber(invocation.getArgument(0)));
     }
 
     @Test
@@ -535,6 +542,53 @@ public class DeliusOffenderAPITest {
                 Integer.valueOf(6), Integer.valueOf(7), Integer.valueOf(8), Integer.valueOf(9), Integer.valueOf(10));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canRetrieveOffenderIdsAfterAnOffenderId() {
+        Mockito.when(offenderRepository.findOffenderIdsAfter(eq(5L), any())).thenReturn(LongStream.rangeClosed(6, 10).boxed().collect(Collectors.toList()));
+
+        Map<?, ?> ids =
+                given()
+                        .header("Authorization", aValidToken())
+                        .when()
+                        .queryParams("afterOffenderId", 5, "limit", 5)
+                        .get("/offenders/offenderIds")
+                        .then()
+                        .statusCode(200)
+                        .extract().body().as(Map.class);
+
+        final var offenderIds = (List<Integer>) ids.get("offenderIds");
+
+        assertThat(offenderIds).containsExactly(6, 7, 8, 9, 10);
+    }
+
+    @Test
+    public void offenderIdsAfterAnOffenderIdRejectsLimitsOverTheMaximum() {
+        given()
+                .header("Authorization", aValidToken())
+                .when()
+                .queryParams("afterOffenderId", 5, "limit", 10001)
+                .get("/offenders/offenderIds")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void canStreamOffenderIdsAsNewlineDelimitedJson() {
+        Mockito.when(offenderRepository.findOffenderIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 2L, 3L));
+
+        final var body = given()
+                .header("Authorization", aValidToken())
+                .accept("application/x-ndjson")
+                .when()
+                .get("/offenders/offenderIds/stream")
+                .then()
+                .statusCode(200)
+                .extract().body().asString();
+
+        assertThat(body.lines()).containsExactly("1", "2", "3");
+    }
+
     @Test
     public void offenderCountProvidesCount() {
         Count count = given()
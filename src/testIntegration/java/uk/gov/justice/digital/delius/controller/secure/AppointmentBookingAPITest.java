@@ -1,5 +1,6 @@
 package uk.gov.justice.digital.delius.controller.secure;
 
+import com.zaxxer.hikari.HikariDataSource;
 import io.restassured.RestAssured;
 import org.apache.http.entity.ContentType;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,16 +16,20 @@ import uk.gov.justice.digital.delius.controller.wiremock.DeliusApiMockServer;
 import uk.gov.justice.digital.delius.data.api.AppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentCreateRequest;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeRequest;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentOutcomeUpdate;
 import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
 
+import javax.sql.DataSource;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
 public class AppointmentBookingAPITest extends IntegrationTestBase {
@@ -40,6 +45,9 @@ public class AppointmentBookingAPITest extends IntegrationTestBase {
     @Autowired
     protected JwtAuthenticationHelper jwtAuthenticationHelper;
 
+    @Autowired
+    private DataSource dataSource;
+
     @BeforeEach
     public void setup() {
         RestAssured.port = port;
@@ -182,6 +190,74 @@ public class AppointmentBookingAPITest extends IntegrationTestBase {
             .body("appointmentId", equalTo(2500029016L));
     }
 
+    @Test
+    public void noConnectionIsHeldWhileWaitingOnTheDeliusApi() {
+
+        deliusApiMockServer.stubReplaceContactToDeliusApi();
+        final var pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        final var activeConnectionsDuringCall = new AtomicInteger(-1);
+        // listeners are told of a request before its response is sent, so while the call is still waiting on Delius
+        deliusApiMockServer.addMockServiceRequestListener((request, response) -> activeConnectionsDuringCall.set(pool.getActiveConnections()));
+
+        final var token = createJwt("bob", Collections.singletonList("ROLE_COMMUNITY_INTERVENTIONS_UPDATE"));
+
+        given()
+            .when()
+            .auth().oauth2(token)
+            .contentType(String.valueOf(ContentType.APPLICATION_JSON))
+            .body(ContextlessAppointmentRescheduleRequest.builder()
+                .updatedAppointmentStart(OffsetDateTime.of(2025, 9, 2, 11, 0, 0, 0, ZoneOffset.UTC))
+                .updatedAppointmentEnd(OffsetDateTime.of(2025, 9, 2, 12, 0, 0, 0, ZoneOffset.UTC))
+                .initiatedByServiceProvider(true)
+                .build())
+            .post("offenders/crn/X320741/appointments/2512709905/reschedule/context/commissioned-rehabilitation-services")
+            .then()
+            .assertThat()
+            .statusCode(HttpStatus.OK.value());
+
+        assertThat(activeConnectionsDuringCall.get()).isZero();
+    }
+
+    @Test
+    public void tooManyAppointmentsInOneBulkCreateAreRejected() {
+
+        final var token = createJwt("bob", Collections.singletonList("ROLE_COMMUNITY_INTERVENTIONS_UPDATE"));
+        final var request = ContextlessAppointmentCreateRequest.builder()
+            .contractType("ACC")
+            .referralStart(OffsetDateTime.of(2019, 9, 2, 0, 0, 0, 0, ZoneOffset.UTC))
+            .appointmentStart(OffsetDateTime.now())
+            .appointmentEnd(OffsetDateTime.now())
+            .notes("http://url")
+            .countsTowardsRarDays(true)
+            .build();
+
+        given()
+            .when()
+            .auth().oauth2(token)
+            .contentType(String.valueOf(ContentType.APPLICATION_JSON))
+            .body(writeValueAsString(Collections.nCopies(AppointmentBookingController.MAX_BULK_APPOINTMENTS + 1, request)))
+            .post("offenders/crn/X320741/sentence/2500295345/appointments/bulk/context/commissioned-rehabilitation-services")
+            .then()
+            .assertThat()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    public void emptyBulkOutcomeUpdatesAreRejected() {
+
+        final var token = createJwt("bob", Collections.singletonList("ROLE_COMMUNITY_INTERVENTIONS_UPDATE"));
+
+        given()
+            .when()
+            .auth().oauth2(token)
+            .contentType(String.valueOf(ContentType.APPLICATION_JSON))
+            .body(writeValueAsString(List.<ContextlessAppointmentOutcomeUpdate>of()))
+            .post("offenders/crn/X320741/appointments/outcome/bulk/context/commissioned-rehabilitation-services")
+            .then()
+            .assertThat()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     private String createJwt(final String user, final List<String> roles) {
         return jwtAuthenticationHelper.createJwt(JwtParameters.builder()
                 .username(user)
@@ -0,0 +1,124 @@
+package uk.gov.justice.digital.delius.controller.secure;
+
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import uk.gov.justice.digital.delius.FlywayRestoreExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith({SpringExtension.class, FlywayRestoreExtension.class})
+public class AppointmentPagingAPITest extends IntegrationTestBase {
+    private static final String CRN = "X320741";
+    private static final long OFFENDER_ID = 2500343964L;
+    private static final LocalDate SAME_DAY = LocalDate.of(2021, 3, 1);
+    private static final LocalDate EARLIER_DAY = LocalDate.of(2021, 2, 1);
+    // three appointments on one day and two on the one before, so page boundaries fall between appointments on the same day
+    private static final List<Long> SAME_DAY_APPOINTMENT_IDS = List.of(2503900001L, 2503900002L, 2503900003L);
+    private static final List<Long> EARLIER_DAY_APPOINTMENT_IDS = List.of(2503900004L, 2503900005L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        super.setup();
+        jdbcTemplate.update("DELETE FROM CONTACT WHERE CONTACT_ID BETWEEN 2503900001 AND 2503900005");
+        SAME_DAY_APPOINTMENT_IDS.forEach(appointmentId -> insertAppointment(appointmentId, SAME_DAY));
+        EARLIER_DAY_APPOINTMENT_IDS.forEach(appointmentId -> insertAppointment(appointmentId, EARLIER_DAY));
+    }
+
+    @Test
+    @DisplayName("paging through appointments with the next cursor returns each appointment exactly once, most recent first")
+    public void pagesHaveNoGapsOrOverlaps() {
+        final var pagedIds = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            final var page = pageAfter(cursor);
+            final var pageIds = page.getList("content.appointmentId", Long.class);
+            assertThat(pageIds).hasSizeLessThanOrEqualTo(2);
+            pagedIds.addAll(pageIds);
+            cursor = page.getString("nextCursor");
+        } while (cursor != null);
+
+        assertThat(pagedIds)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(allAppointmentIds())
+                .containsSubsequence(2503900003L, 2503900002L, 2503900001L, 2503900005L, 2503900004L);
+    }
+
+    @Test
+    @DisplayName("streams every appointment as newline delimited JSON, most recent first")
+    public void streamsAppointmentsAsNewlineDelimitedJson() {
+        final var body = given()
+                .auth().oauth2(tokenWithRoleCommunity())
+                .accept(MediaType.APPLICATION_NDJSON_VALUE)
+                .when()
+                .get(String.format("/offenders/crn/%s/appointments/stream", CRN))
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        final var streamedIds = body.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> JsonPath.from(line).getLong("appointmentId"))
+                .collect(Collectors.toList());
+
+        assertThat(streamedIds)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(allAppointmentIds())
+                .containsSubsequence(2503900003L, 2503900002L, 2503900001L, 2503900005L, 2503900004L);
+    }
+
+    private JsonPath pageAfter(String cursor) {
+        final var request = given()
+                .auth().oauth2(tokenWithRoleCommunity())
+                .queryParam("pageSize", 2);
+        if (cursor != null) {
+            request.queryParam("cursor", cursor);
+        }
+        return request
+                .when()
+                .get(String.format("/offenders/crn/%s/appointments/page", CRN))
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .jsonPath();
+    }
+
+    private List<Long> allAppointmentIds() {
+        return given()
+                .auth().oauth2(tokenWithRoleCommunity())
+                .when()
+                .get(String.format("/offenders/crn/%s/appointments", CRN))
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .jsonPath()
+                .getList("appointmentId", Long.class);
+    }
+
+    private void insertAppointment(Long appointmentId, LocalDate contactDate) {
+        // a 3 Way Meeting (NS), as the seeded appointment 2502719240
+        jdbcTemplate.update("INSERT INTO CONTACT (CONTACT_ID, CONTACT_DATE, OFFENDER_ID, VISOR_CONTACT, STAFF_ID, TEAM_ID, SOFT_DELETED, " +
+                        "VISOR_EXPORTED, PARTITION_AREA_ID, ROW_VERSION, CREATED_DATETIME, LAST_UPDATED_DATETIME, CONTACT_TYPE_ID, " +
+                        "CREATED_BY_USER_ID, LAST_UPDATED_USER_ID, TRUST_PROVIDER_FLAG, STAFF_EMPLOYEE_ID, PROBATION_AREA_ID, TRUST_PROVIDER_TEAM_ID) " +
+                        "VALUES (?, ?, ?, 'N', 2500038545, 2500031218, 0, 'N', 0, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1217, " +
+                        "2500040507, 2500040507, 0, 2500038545, 1500001001, 2500031218)",
+                appointmentId, contactDate, OFFENDER_ID);
+    }
+}
@@ -0,0 +1,28 @@
+package uk.gov.justice.digital.delius.controller.secure;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest;
+import uk.gov.justice.digital.delius.data.api.OffenderSummariesRequest.IdentifierType;
+
+import java.util.Arrays;
+
+import static io.restassured.RestAssured.given;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+public class OffenderSummariesResourceAPITest extends IntegrationTestBase {
+    @Test
+    public void blankOrMissingIdentifiersAreABadRequest() {
+        given()
+            .auth()
+            .oauth2(tokenWithRoleCommunity())
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(OffenderSummariesRequest.builder()
+                .identifierType(IdentifierType.NOMS_NUMBER)
+                .identifiers(Arrays.asList("G9542VP", " ", null))
+                .build())
+            .when()
+            .post("/offenders/summaries")
+            .then()
+            .statusCode(400);
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.justice.digital.delius.controller.secure;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.digital.delius.data.api.OffenderUserAccess;
+import uk.gov.justice.digital.delius.data.api.UserAccessRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+public class OffendersResource_checkUserAccessByCrns extends IntegrationTestBase {
+    @Test
+    public void canCheckUserAccessForManyOffendersInOneRequest() {
+        final var userAccess = given()
+            .auth()
+            .oauth2(createJwtWithUsername("bob.jones", "ROLE_PROBATION"))
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(UserAccessRequest.builder().crns(List.of("X440890", "X320741", "X777777", "X440877")).build())
+            .when()
+            .post("/offenders/userAccess")
+            .then()
+            .statusCode(200)
+            .extract()
+            .body()
+            .as(OffenderUserAccess[].class);
+
+        assertThat(userAccess).extracting("crn").containsExactly("X440890", "X320741", "X777777", "X440877");
+        assertThat(userAccess).extracting("status").containsExactly(
+            OffenderUserAccess.Status.FOUND,
+            OffenderUserAccess.Status.FOUND,
+            OffenderUserAccess.Status.NOT_FOUND,
+            OffenderUserAccess.Status.FOUND);
+
+        assertThat(userAccess[0].getAccessLimitation().isUserRestricted()).isTrue();
+        assertThat(userAccess[0].getAccessLimitation().getRestrictionMessage()).isEqualTo("This is a restricted offender record. Please contact a system administrator");
+        assertThat(userAccess[1].getAccessLimitation().isUserRestricted()).isFalse();
+        assertThat(userAccess[1].getAccessLimitation().isUserExcluded()).isFalse();
+        assertThat(userAccess[2].getAccessLimitation()).isNull();
+        assertThat(userAccess[3].getAccessLimitation().isUserExcluded()).isTrue();
+        assertThat(userAccess[3].getAccessLimitation().getExclusionMessage()).isEqualTo("You are excluded from viewing this offender record. Please contact a system administrator");
+    }
+
+    @Test
+    public void restrictedUserCanSeeRestrictedOffender() {
+        final var userAccess = given()
+            .auth()
+            .oauth2(createJwtWithUsername("bobby.davro", "ROLE_COMMUNITY"))
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(UserAccessRequest.builder().crns(List.of("X440890")).build())
+            .when()
+            .post("/offenders/userAccess")
+            .then()
+            .statusCode(200)
+            .extract()
+            .body()
+            .as(OffenderUserAccess[].class);
+
+        assertThat(userAccess[0].getAccessLimitation().isUserRestricted()).isFalse();
+    }
+
+    @Test
+    public void tooManyCrnsIsABadRequest() {
+        given()
+            .auth()
+            .oauth2(createJwtWithUsername("bob.jones", "ROLE_PROBATION"))
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(UserAccessRequest.builder().crns(Collections.nCopies(UserAccessRequest.MAX_CRNS + 1, "X320741")).build())
+            .when()
+            .post("/offenders/userAccess")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    public void blankOrMissingCrnsAreABadRequest() {
+        given()
+            .auth()
+            .oauth2(createJwtWithUsername("bob.jones", "ROLE_PROBATION"))
+            .contentType(APPLICATION_JSON_VALUE)
+            .body(UserAccessRequest.builder().crns(Arrays.asList("X320741", " ", null)).build())
+            .when()
+            .post("/offenders/userAccess")
+            .then()
+            .statusCode(400);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.justice.digital.delius.controller.secure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import uk.gov.justice.digital.delius.FlywayRestoreExtension;
+import uk.gov.justice.digital.delius.controller.wiremock.DeliusApiExtension;
+import uk.gov.justice.digital.delius.controller.wiremock.DeliusApiMockServer;
+import uk.gov.justice.digital.delius.data.api.ContextlessAppointmentRescheduleRequest;
+import uk.gov.justice.digital.delius.data.api.CreateCustodyKeyDate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith({SpringExtension.class, FlywayRestoreExtension.class})
+@TestPropertySource(properties = {
+        "spring.datasource.replica.jdbc-url=" + ReadReplicaRoutingAPITest.REPLICA_URL,
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.pool-name=standard-replica"
+})
+public class ReadReplicaRoutingAPITest extends IntegrationTestBase {
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;Mode=Oracle;DB_CLOSE_DELAY=-1";
+    private static final String CRN = "X320741";
+    private static final String KEY_DATES_OF_TYPE_POM1 = "SELECT COUNT(*) FROM KEY_DATE KD JOIN R_STANDARD_REFERENCE_LIST R ON KD.KEY_DATE_TYPE_ID = R.STANDARD_REFERENCE_LIST_ID WHERE R.CODE_VALUE = 'POM1'";
+
+    static {
+        // the replica starts as a copy of the seeded primary, so a write that reaches it rather than the primary shows
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:/db/schema", "classpath:/db/data")
+                .load()
+                .migrate();
+    }
+
+    private static final DeliusApiMockServer deliusApiMockServer = new DeliusApiMockServer(7999);
+
+    @RegisterExtension
+    static DeliusApiExtension deliusExtension = new DeliusApiExtension(deliusApiMockServer);
+
+    private final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        super.setup();
+        //noinspection SqlWithoutWhere
+        jdbcTemplate.execute("DELETE FROM KEY_DATE");
+        //noinspection SqlWithoutWhere
+        replicaJdbcTemplate.execute("DELETE FROM KEY_DATE");
+    }
+
+    @Test
+    void aWriteAfterAReadOnlyTransactionInTheSameRequestGoesToThePrimary() {
+        final var replicaConnectionsBefore = replicaConnections();
+
+        // the offender is looked up in a read-only transaction before the key date is written in another
+        given()
+                .auth().oauth2(tokenWithRoleCommunityAndCustodyUpdate())
+                .contentType("application/json")
+                .body(CreateCustodyKeyDate.builder().date(LocalDate.now().plusDays(1)).build())
+                .when()
+                .put(String.format("offenders/crn/%s/custody/keyDates/POM1", CRN))
+                .then()
+                .statusCode(200);
+
+        assertThat(replicaConnections()).isGreaterThan(replicaConnectionsBefore);
+        assertThat(jdbcTemplate.queryForObject(KEY_DATES_OF_TYPE_POM1, Long.class)).isEqualTo(1);
+        assertThat(replicaJdbcTemplate.queryForObject(KEY_DATES_OF_TYPE_POM1, Long.class)).isZero();
+    }
+
+    @Test
+    void aReadThatDecidesADeliusWriteGoesToThePrimary() {
+        deliusApiMockServer.stubReplaceContactToDeliusApi();
+        // an appointment the replica has yet to see, so it can only be rescheduled when read from the primary
+        replicaJdbcTemplate.update("DELETE FROM CONTACT WHERE CONTACT_ID = 2512709905");
+
+        given()
+                .auth().oauth2(createJwtWithUsername("bob", "ROLE_COMMUNITY_INTERVENTIONS_UPDATE"))
+                .contentType("application/json")
+                .body(ContextlessAppointmentRescheduleRequest.builder()
+                        .updatedAppointmentStart(OffsetDateTime.of(2025, 9, 2, 11, 0, 0, 0, ZoneOffset.UTC))
+                        .updatedAppointmentEnd(OffsetDateTime.of(2025, 9, 2, 12, 0, 0, 0, ZoneOffset.UTC))
+                        .initiatedByServiceProvider(true)
+                        .build())
+                .when()
+                .post(String.format("offenders/crn/%s/appointments/2512709905/reschedule/context/commissioned-rehabilitation-services", CRN))
+                .then()
+                .statusCode(200);
+    }
+
+    private double replicaConnections() {
+        return meterRegistry.get("delius.datasource.connections").tag("target", "replica").counter().count();
+    }
+}
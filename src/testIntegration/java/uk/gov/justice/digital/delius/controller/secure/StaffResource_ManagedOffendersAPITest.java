@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import uk.gov.justice.digital.delius.data.api.ManagedOffender;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
@@ -84,6 +85,48 @@ public class StaffResource_ManagedOffendersAPITest extends IntegrationTestBase {
         assertThat(mos).hasSize(5).extracting(ManagedOffender::getNomsNumber).contains("G3232VA").doesNotContain("G3333VA");
     }
 
+    @Test
+    public void getPageOfSortedManagedOffendersForOfficer() {
+        final var all = Arrays.asList(given()
+                .auth()
+                .oauth2(tokenWithRoleCommunity())
+                .contentType(APPLICATION_JSON_VALUE)
+                .when()
+                .get("/staff/staffIdentifier/18/managedOffenders?sort=offenderId,desc")
+                .then()
+                .statusCode(200)
+                .extract()
+                .body()
+                .as(ManagedOffender[].class));
+
+        final var page = Arrays.asList(given()
+                .auth()
+                .oauth2(tokenWithRoleCommunity())
+                .contentType(APPLICATION_JSON_VALUE)
+                .when()
+                .get("/staff/staffIdentifier/18/managedOffenders?sort=offenderId,desc&page=1&size=2")
+                .then()
+                .statusCode(200)
+                .extract()
+                .body()
+                .as(ManagedOffender[].class));
+
+        assertThat(all).extracting(ManagedOffender::getOffenderId).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(page).isEqualTo(all.subList(2, 4));
+    }
+
+    @Test
+    public void getManagedOffendersSortedByUnknownPropertyIsBadRequest() {
+        given()
+                .auth()
+                .oauth2(tokenWithRoleCommunity())
+                .contentType(APPLICATION_JSON_VALUE)
+                .when()
+                .get("/staff/staffIdentifier/18/managedOffenders?sort=probationArea")
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     public void getUnassignedOfficerEmptyList() {
 
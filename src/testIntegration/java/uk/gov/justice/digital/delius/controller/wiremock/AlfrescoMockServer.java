@@ -5,6 +5,7 @@ import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import org.springframework.http.HttpHeaders;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
 import static java.lang.String.format;
@@ -33,4 +34,48 @@ public class AlfrescoMockServer extends WireMockServer {
                         .withBody(body)
                 ));
     }
+
+    public void stubFetchDocumentRange(final String documentId, final String range, final String contentRange, final byte[] body) {
+        stubFor(get(urlMatching(format("/alfresco/s/noms-spg/fetch/%s", documentId)))
+                .withHeader(HttpHeaders.RANGE, equalTo(range))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/pdf")
+                        .withHeader(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .withHeader(HttpHeaders.CONTENT_RANGE, contentRange)
+                        .withStatus(206)
+                        .withBody(body)
+                ));
+    }
+
+    public void stubFetchDocumentRangeNotSatisfiable(final String documentId, final String range, final String contentRange) {
+        stubFor(get(urlMatching(format("/alfresco/s/noms-spg/fetch/%s", documentId)))
+                .withHeader(HttpHeaders.RANGE, equalTo(range))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_RANGE, contentRange)
+                        .withStatus(416)
+                ));
+    }
+
+    public void stubFetchDocumentStatus(final String documentId, final int status) {
+        stubFor(get(urlMatching(format("/alfresco/s/noms-spg/fetch/%s", documentId)))
+                .willReturn(aResponse()
+                        .withStatus(status)
+                ));
+    }
+
+    public void stubDetailsWithETag(final String documentId, final String crn, final String documentName, final String eTag) {
+        stubFor(get(urlMatching(format("/alfresco/s/noms-spg/details/%s", documentId)))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .withHeader(HttpHeaders.ETAG, eTag)
+                        .withStatus(200)
+                        .withBody(format("{ \"crn\": \"%s\", \"name\": \"%s\" }", crn, documentName))
+                ));
+        stubFor(get(urlMatching(format("/alfresco/s/noms-spg/details/%s", documentId)))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo(eTag))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.ETAG, eTag)
+                        .withStatus(304)
+                ));
+    }
 }
@@ -0,0 +1,84 @@
+package uk.gov.justice.digital.delius.jpa.standard.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev-schema")
+class PendingNotificationLockRepositoryTest {
+    private static final long OFFENDER_ID = 1L;
+    private static final long ANOTHER_OFFENDER_ID = 2L;
+
+    @Autowired
+    private PendingNotificationLockRepository pendingNotificationLockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanDatabase() {
+        jdbcTemplate.execute("delete from PENDING_NOTIFICATION");
+    }
+
+    @Test
+    @DisplayName("will claim due notifications oldest first")
+    void claimsDueNotificationsOldestFirst() {
+        final var now = LocalDateTime.now();
+        insert(3L, OFFENDER_ID, now.minusMinutes(1));
+        insert(1L, ANOTHER_OFFENDER_ID, now.minusMinutes(1));
+        insert(2L, 3L, now.plusMinutes(1));
+
+        assertThat(pendingNotificationLockRepository.lockDuePendingNotificationIds(now, 10)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("will only claim the earliest notification for an offender")
+    void claimsOnlyTheEarliestNotificationForAnOffender() {
+        final var now = LocalDateTime.now();
+        insert(1L, OFFENDER_ID, now.minusMinutes(1));
+        insert(2L, OFFENDER_ID, now.minusMinutes(1));
+        insert(3L, ANOTHER_OFFENDER_ID, now.minusMinutes(1));
+
+        assertThat(pendingNotificationLockRepository.lockDuePendingNotificationIds(now, 10)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("will hold back an offender's later notifications while the first is backed off after failing")
+    void laterNotificationsWaitForAFailedNotification() {
+        final var now = LocalDateTime.now();
+        insert(1L, OFFENDER_ID, now.plusSeconds(30));
+        insert(2L, OFFENDER_ID, now.minusMinutes(1));
+        insert(3L, ANOTHER_OFFENDER_ID, now.minusMinutes(1));
+
+        assertThat(pendingNotificationLockRepository.lockDuePendingNotificationIds(now, 10)).containsExactly(3L);
+
+        jdbcTemplate.update("delete from PENDING_NOTIFICATION where PENDING_NOTIFICATION_ID in (1, 3)");
+
+        assertThat(pendingNotificationLockRepository.lockDuePendingNotificationIds(now, 10)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("will hold back an offender's later notifications while the first is parked")
+    void laterNotificationsWaitForAParkedNotification() {
+        final var now = LocalDateTime.now();
+        insert(1L, OFFENDER_ID, null);
+        insert(2L, OFFENDER_ID, now.minusMinutes(1));
+
+        assertThat(pendingNotificationLockRepository.lockDuePendingNotificationIds(now, 10)).isEmpty();
+    }
+
+    private void insert(Long pendingNotificationId, Long offenderId, LocalDateTime nextAttemptDatetime) {
+        jdbcTemplate.update("INSERT INTO PENDING_NOTIFICATION (PENDING_NOTIFICATION_ID, NOTIFICATION_TYPE, OFFENDER_ID, UNIQUE_ID, " +
+                        "RECEIVER_PROBATION_AREA_ID, CREATED_DATETIME, NEXT_ATTEMPT_DATETIME, ATTEMPTS) VALUES (?, 'UPDATE_OFFENDER', ?, ?, 1, ?, ?, 0)",
+                pendingNotificationId, offenderId, offenderId, LocalDateTime.now().minusMinutes(5), nextAttemptDatetime);
+    }
+}
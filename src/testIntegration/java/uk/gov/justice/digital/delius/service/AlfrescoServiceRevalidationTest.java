@@ -0,0 +1,45 @@
+package uk.gov.justice.digital.delius.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import uk.gov.justice.digital.delius.config.AlfrescoConfig;
+import uk.gov.justice.digital.delius.controller.wiremock.AlfrescoExtension;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {AlfrescoConfig.class, AlfrescoService.class, SimpleMeterRegistry.class},
+properties = {
+        "alfresco.X-DocRepository-Remote-User=any_remote_user",
+        "alfresco.X-DocRepository-Real-Remote-User=any_real_user",
+        "alfresco.cache.fresh-for=0s"
+})
+@AutoConfigureWebClient
+@ExtendWith(AlfrescoExtension.class)
+public class AlfrescoServiceRevalidationTest {
+
+    @Autowired
+    private AlfrescoService alfrescoService;
+
+    @Test
+    public void shouldRevalidateStaleDetailsWithTheirETag() {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsWithETag("321", "T1234", "document.pdf", "\"v1\"");
+
+        assertThat(alfrescoService.getDocumentDetail("321", "T1234")).isPresent();
+        final var revalidated = alfrescoService.getDocumentDetail("321", "T1234");
+
+        assertThat(revalidated).hasValueSatisfying(documentMeta -> assertThat(documentMeta.getName()).isEqualTo("document.pdf"));
+        AlfrescoExtension.alfrescoMockServer.verify(getRequestedFor(urlEqualTo("/alfresco/s/noms-spg/details/321"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, absent()));
+        AlfrescoExtension.alfrescoMockServer.verify(getRequestedFor(urlEqualTo("/alfresco/s/noms-spg/details/321"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+    }
+}
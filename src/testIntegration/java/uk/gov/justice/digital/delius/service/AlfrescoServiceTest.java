@@ -1,5 +1,6 @@
 package uk.gov.justice.digital.delius.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -8,15 +9,21 @@ import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebCl
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.gov.justice.digital.delius.config.AlfrescoConfig;
 import uk.gov.justice.digital.delius.controller.wiremock.AlfrescoExtension;
 import uk.gov.justice.digital.delius.controller.wiremock.AlfrescoMockServer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@SpringBootTest(classes = {AlfrescoConfig.class, AlfrescoService.class},
+@SpringBootTest(classes = {AlfrescoConfig.class, AlfrescoService.class, SimpleMeterRegistry.class},
 properties = {
         "alfresco.X-DocRepository-Remote-User=any_remote_user",
         "alfresco.X-DocRepository-Real-Remote-User=any_real_user"
@@ -32,7 +39,7 @@ public class AlfrescoServiceTest {
     public void shouldBeNotFoundIfDocumentDoesNotBelongToOffender() {
         AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("123", "T1234", "document.pdf");
 
-        assertThat(alfrescoService.getDocument("123", "NOT_T1234").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(alfrescoService.getDocument("123", "NOT_T1234", new HttpHeaders()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
@@ -40,11 +47,79 @@ public class AlfrescoServiceTest {
         AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("123", "T1234", "document.pdf");
         AlfrescoExtension.alfrescoMockServer.stubFetchDocument("123", new byte[]{'a', 'b', 'c'});
 
-        final var response = alfrescoService.getDocument("123", "T1234");
+        final var response = alfrescoService.getDocument("123", "T1234", new HttpHeaders());
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody().contentLength()).isEqualTo(3);
+        assertThat(contentOf(response.getBody())).containsExactly('a', 'b', 'c');
         assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"document.pdf\"");
     }
 
+    @Test
+    public void shouldForwardRangeRequestsAndReturnPartialContent() throws IOException {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("123", "T1234", "document.pdf");
+        AlfrescoExtension.alfrescoMockServer.stubFetchDocumentRange("123", "bytes=1-2", "bytes 1-2/3", new byte[]{'b', 'c'});
+        final var requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=1-2");
+
+        final var response = alfrescoService.getDocument("123", "T1234", requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1-2/3");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(contentOf(response.getBody())).containsExactly('b', 'c');
+    }
+
+    @Test
+    public void shouldRelayRangeNotSatisfiable() {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("124", "T1234", "document.pdf");
+        AlfrescoExtension.alfrescoMockServer.stubFetchDocumentRangeNotSatisfiable("124", "bytes=5-6", "bytes */3");
+        final var requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=5-6");
+
+        final var response = alfrescoService.getDocument("124", "T1234", requestHeaders);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */3");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).isNull();
+    }
+
+    @Test
+    public void shouldFailOnOtherClientErrors() {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("125", "T1234", "document.pdf");
+        AlfrescoExtension.alfrescoMockServer.stubFetchDocumentStatus("125", 403);
+
+        assertThatThrownBy(() -> alfrescoService.getDocument("125", "T1234", new HttpHeaders()))
+                .isInstanceOf(WebClientResponseException.Forbidden.class);
+    }
+
+    @Test
+    public void shouldNotFetchDetailsAgainWhileCachedDetailsAreFresh() {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("456", "T1234", "document.pdf");
+        AlfrescoExtension.alfrescoMockServer.stubFetchDocument("456", new byte[]{'a', 'b', 'c'});
+
+        alfrescoService.getDocument("456", "T1234", new HttpHeaders());
+        final var response = alfrescoService.getDocument("456", "T1234", new HttpHeaders());
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"document.pdf\"");
+        AlfrescoExtension.alfrescoMockServer.verify(1, getRequestedFor(urlEqualTo("/alfresco/s/noms-spg/details/456")));
+        AlfrescoExtension.alfrescoMockServer.verify(2, getRequestedFor(urlEqualTo("/alfresco/s/noms-spg/fetch/456")));
+    }
+
+    @Test
+    public void shouldFetchDetailsAgainOnceEvicted() {
+        AlfrescoExtension.alfrescoMockServer.stubDetailsSuccess("789", "T1234", "document.pdf");
+
+        assertThat(alfrescoService.getDocumentDetail("789", "T1234")).isPresent();
+        alfrescoService.evictDocumentsFor("T1234", "789");
+        assertThat(alfrescoService.getDocumentDetail("789", "T1234")).isPresent();
+
+        AlfrescoExtension.alfrescoMockServer.verify(2, getRequestedFor(urlEqualTo("/alfresco/s/noms-spg/details/789")));
+    }
+
+    private byte[] contentOf(final StreamingResponseBody body) throws IOException {
+        final var outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
 }
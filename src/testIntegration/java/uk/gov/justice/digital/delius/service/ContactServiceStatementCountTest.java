@@ -0,0 +1,57 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.justice.digital.delius.StatementCountExtension;
+import uk.gov.justice.digital.delius.data.api.Contact;
+import uk.gov.justice.digital.delius.jpa.filters.ContactFilter;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static java.util.Comparator.comparing;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev-seed")
+class ContactServiceStatementCountTest {
+    private static final Long OFFENDER_ID = 2500343964L;
+
+    // the summary columns with their reference data joined, then a count for the total
+    private static final long PARTIAL_PAGE_STATEMENTS = 2;
+    // the count is skipped when the first page holds every contact
+    private static final long WHOLE_PAGE_STATEMENTS = 1;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @Autowired
+    private ContactService contactService;
+
+    @Test
+    @DisplayName("a page of contact summaries costs the same statements however many contacts it holds")
+    void summaryStatementCount() {
+        assertThat(statements.statementsFor(() -> assertThat(contactService.contactSummariesFor(OFFENDER_ID, ContactFilter.builder().build(), 0, 10)).hasSize(10)))
+                .isEqualTo(PARTIAL_PAGE_STATEMENTS);
+        assertThat(statements.statementsFor(() -> assertThat(contactService.contactSummariesFor(OFFENDER_ID, ContactFilter.builder().build(), 0, 1000)).hasSizeGreaterThan(10)))
+                .isEqualTo(WHOLE_PAGE_STATEMENTS);
+        assertThat(statements.statementsFor(() -> contactService.contactSummariesFor(OFFENDER_ID, ContactFilter.builder().appointmentsOnly(Optional.of(true)).build(), 0, 1000)))
+                .isEqualTo(WHOLE_PAGE_STATEMENTS);
+    }
+
+    @Test
+    @DisplayName("full contacts are read with their associations rather than a select or more per contact")
+    void contactStatementCount() {
+        final var contacts = new ArrayList<Contact>();
+
+        final var statementCount = statements.statementsFor(() -> contacts.addAll(contactService.contactsFor(OFFENDER_ID, ContactFilter.builder().build())));
+
+        assertThat(contacts).hasSizeGreaterThan(10).isSortedAccordingTo(comparing(Contact::getCreatedDateTime));
+        // only the events, NSI managers and whatever they in turn load eagerly are read after the contacts
+        assertThat(statementCount).isLessThan(contacts.size());
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.digital.delius.StatementCountExtension;
+import uk.gov.justice.digital.delius.data.api.Conviction;
+import uk.gov.justice.digital.delius.data.api.ReplaceCustodyKeyDates;
+import uk.gov.justice.digital.delius.helpers.CurrentUserSupplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev-seed")
+class ConvictionServiceStatementCountTest {
+    private static final Long OFFENDER_ID = 2500343964L;
+    private static final Long OFFENDER_WITH_THREE_ACTIVE_EVENTS_ID = 2600343964L;
+    private static final Long OFFENDER_WITH_ONE_ACTIVE_EVENT_ID = 35L;
+    private static final Long SOFT_DELETED_EVENT_ID = 10001L;
+    // the event, and its custody, of prison booking V74111
+    private static final Long CUSTODY_EVENT_ID = 2500295345L;
+    private static final Long CUSTODY_ID = 2500151999L;
+
+    // the events with their to-one associations joined, then one select each for the additional offences, court
+    // appearances, key dates, probation areas and remaining reference data of all the events together
+    private static final long CONVICTIONS_STATEMENTS = 6;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @Autowired
+    private ConvictionService convictionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("convictions cost the same statements however many events the offender has")
+    void convictionsStatementCount() {
+        final var threeEvents = statements.statementsFor(() -> assertThat(convictionService.convictionsFor(OFFENDER_WITH_THREE_ACTIVE_EVENTS_ID, true)).hasSize(3));
+        final var oneEvent = statements.statementsFor(() -> assertThat(convictionService.convictionsFor(OFFENDER_WITH_ONE_ACTIVE_EVENT_ID, true)).hasSize(1));
+
+        assertThat(threeEvents).isEqualTo(CONVICTIONS_STATEMENTS);
+        assertThat(oneEvent).isEqualTo(CONVICTIONS_STATEMENTS);
+    }
+
+    @Test
+    @DisplayName("convictions are ordered by referral date, most recent first")
+    void convictionsAreOrderedByReferralDate() {
+        assertThat(convictionService.convictionsFor(OFFENDER_ID, false))
+                .extracting(Conviction::getReferralDate)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("active only convictions are a subset of all convictions")
+    void activeOnlyConvictions() {
+        final var all = convictionService.convictionsFor(OFFENDER_ID, false);
+        final var active = convictionService.convictionsFor(OFFENDER_ID, true);
+
+        assertThat(active).allMatch(Conviction::getActive);
+        assertThat(all).containsAll(active);
+    }
+
+    @Test
+    @DisplayName("soft deleted events are not convictions")
+    void softDeletedEventsAreExcluded() {
+        assertThat(convictionService.convictionsFor(OFFENDER_ID, false))
+                .extracting(Conviction::getConvictionId)
+                .contains(10002L, 10003L)
+                .doesNotContain(SOFT_DELETED_EVENT_ID);
+    }
+
+    @Test
+    @DisplayName("replacing custody key dates writes the same rows in no more statements with inserts batched")
+    void replacingKeyDatesIsNoWorseWithInsertsBatched() {
+        final var options = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions();
+        assertThat(options.getJdbcBatchSize()).isEqualTo(50);
+        assertThat(options.isOrderInsertsEnabled()).isTrue();
+
+        // the reference data is cached by the first replacement so neither measured one reads it
+        keyDatesReplacedWithJdbcBatchSize(null);
+
+        final var unbatched = keyDatesReplacedWithJdbcBatchSize(1);
+        final var batched = keyDatesReplacedWithJdbcBatchSize(null);
+
+        assertThat(batched.keyDates()).hasSizeGreaterThanOrEqualTo(7).isEqualTo(unbatched.keyDates());
+        assertThat(batched.contacts()).isEqualTo(unbatched.contacts());
+        assertThat(batched.statements()).isLessThanOrEqualTo(unbatched.statements());
+    }
+
+    /**
+     * Replaces the custody key dates and counts the statements it takes, then rolls it back.
+     * A null batch size leaves the session with the one configured for the persistence unit.
+     */
+    private KeyDatesReplaced keyDatesReplacedWithJdbcBatchSize(Integer jdbcBatchSize) {
+        return CurrentUserSupplier.onBehalfOf(Optional.of("bobby.davro"), () -> new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            final var statementCount = statements.statementsFor(() -> {
+                convictionService.addOrReplaceOrDeleteCustodyKeyDates(OFFENDER_ID, CUSTODY_EVENT_ID, allKeyDates());
+                entityManager.flush();
+            });
+            @SuppressWarnings("unchecked")
+            final List<String> keyDates = entityManager
+                    .createNativeQuery("SELECT r.CODE_VALUE || ' ' || k.KEY_DATE FROM KEY_DATE k " +
+                            "JOIN R_STANDARD_REFERENCE_LIST r ON r.STANDARD_REFERENCE_LIST_ID = k.KEY_DATE_TYPE_ID " +
+                            "WHERE k.CUSTODY_ID = :custodyId AND k.SOFT_DELETED = 0 ORDER BY r.CODE_VALUE")
+                    .setParameter("custodyId", CUSTODY_ID)
+                    .getResultList();
+            final var contacts = ((Number) entityManager
+                    .createNativeQuery("SELECT COUNT(*) FROM CONTACT WHERE EVENT_ID = :eventId")
+                    .setParameter("eventId", CUSTODY_EVENT_ID)
+                    .getSingleResult())
+                    .longValue();
+            status.setRollbackOnly();
+            return new KeyDatesReplaced(statementCount, keyDates, contacts);
+        }));
+    }
+
+    private static ReplaceCustodyKeyDates allKeyDates() {
+        return ReplaceCustodyKeyDates.builder()
+                .conditionalReleaseDate(LocalDate.of(2030, 1, 1))
+                .licenceExpiryDate(LocalDate.of(2030, 1, 2))
+                .hdcEligibilityDate(LocalDate.of(2030, 1, 3))
+                .paroleEligibilityDate(LocalDate.of(2030, 1, 4))
+                .sentenceExpiryDate(LocalDate.of(2030, 1, 5))
+                .expectedReleaseDate(LocalDate.of(2030, 1, 6))
+                .postSentenceSupervisionEndDate(LocalDate.of(2030, 1, 7))
+                .build();
+    }
+
+    private record KeyDatesReplaced(long statements, List<String> keyDates, long contacts) {
+    }
+}
@@ -14,9 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 import uk.gov.justice.digital.delius.OffenderDeltaHelper;
 
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.LongStream;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static uk.gov.justice.digital.delius.service.OffenderDeltaService.IN_PROGRESS_IS_FAILED_AFTER_MINUTES;
@@ -29,6 +32,9 @@ class OffenderDeltaServiceTest {
     @Autowired
     private OffenderDeltaService offenderDeltaService;
 
+    @Autowired
+    private OffenderUpdatesService offenderUpdatesService;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -328,4 +334,121 @@ class OffenderDeltaServiceTest {
 
         assertThat(offenderDeltaService.lockNextFailedUpdate()).isEmpty();
     }
+
+    @Test
+    @DisplayName("can lock a batch of offender updates oldest first")
+    void lockNextUpdates_canLockBatchOfDeltas() {
+        final var oldest = OffenderDeltaHelper.anOffenderDelta(10L, LocalDateTime.now().minusMinutes(3), "CREATED").toBuilder().sourceRecordId(1L).build();
+        final var middle = OffenderDeltaHelper.anOffenderDelta(11L, LocalDateTime.now().minusMinutes(2), "CREATED").toBuilder().sourceRecordId(2L).build();
+        final var newest = OffenderDeltaHelper.anOffenderDelta(12L, LocalDateTime.now().minusMinutes(1), "CREATED").toBuilder().sourceRecordId(3L).build();
+        OffenderDeltaHelper.insert(List.of(newest, oldest, middle), jdbcTemplate);
+
+        final var offenderUpdates = offenderDeltaService.lockNextUpdates(2);
+
+        assertThat(offenderUpdates).extracting("offenderDeltaId").containsExactly(10L, 11L);
+        assertThat(offenderUpdates).extracting("status").containsOnly("INPROGRESS");
+        assertThat(offenderDeltaService.lockNextUpdates(2)).extracting("offenderDeltaId").containsExactly(12L);
+        assertThat(offenderDeltaService.lockNextUpdates(2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("will delete duplicates both within and outside of the locked batch")
+    void lockNextUpdates_willDeleteDuplicateRecords() {
+        final LocalDateTime lastUpdatedDateTime = LocalDateTime.now().minusMinutes(1);
+        final var leadRecord = OffenderDeltaHelper.anOffenderDelta(10L, lastUpdatedDateTime, "CREATED");
+        final var duplicateInBatch = OffenderDeltaHelper.anOffenderDelta(11L, lastUpdatedDateTime, "CREATED");
+        final var duplicateOutsideBatch = OffenderDeltaHelper.anOffenderDelta(12L, lastUpdatedDateTime, "CREATED");
+        OffenderDeltaHelper.insert(List.of(leadRecord, duplicateInBatch, duplicateOutsideBatch), jdbcTemplate);
+
+        final var offenderUpdates = offenderDeltaService.lockNextUpdates(2);
+
+        assertThat(offenderUpdates).extracting("offenderDeltaId").containsExactly(10L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OFFENDER_DELTA", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("will not treat deltas without a source record as duplicates, within or outside of the locked batch")
+    void lockNextUpdates_willNotDeleteDeltasWithoutASourceRecord() {
+        final LocalDateTime lastUpdatedDateTime = LocalDateTime.now().minusMinutes(1);
+        final var withoutSource = OffenderDeltaHelper.anOffenderDelta(10L, lastUpdatedDateTime, "CREATED").toBuilder().sourceRecordId(null).build();
+        final var inBatch = withoutSource.toBuilder().offenderDeltaId(11L).createdDateTime(lastUpdatedDateTime.plusSeconds(1)).build();
+        final var outsideBatch = withoutSource.toBuilder().offenderDeltaId(12L).createdDateTime(lastUpdatedDateTime.plusSeconds(2)).build();
+        OffenderDeltaHelper.insert(List.of(withoutSource, inBatch, outsideBatch), jdbcTemplate);
+
+        final var offenderUpdates = offenderDeltaService.lockNextUpdates(2);
+
+        assertThat(offenderUpdates).extracting("offenderDeltaId").containsExactly(10L, 11L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OFFENDER_DELTA", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("will delete more duplicates than fit in a single IN list")
+    void lockNextUpdates_willDeleteManyDuplicateRecords() {
+        final LocalDateTime lastUpdatedDateTime = LocalDateTime.now().minusMinutes(1);
+        OffenderDeltaHelper.insert(LongStream.rangeClosed(10L, 1510L)
+                .mapToObj(offenderDeltaId -> OffenderDeltaHelper.anOffenderDelta(offenderDeltaId, lastUpdatedDateTime, "CREATED"))
+                .collect(toList()), jdbcTemplate);
+
+        final var offenderUpdates = offenderDeltaService.lockNextUpdates(2);
+
+        assertThat(offenderUpdates).extracting("offenderDeltaId").containsExactly(10L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OFFENDER_DELTA", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("will lock a batch of failed updates and mark them as a retry")
+    void lockNextFailedUpdates_canLockBatchOfDeltas() {
+        final var failedDelta = OffenderDeltaHelper.anOffenderDelta(9L, LocalDateTime.now().minusMinutes(IN_PROGRESS_IS_FAILED_AFTER_MINUTES + 1), "INPROGRESS");
+        final var recentDelta = OffenderDeltaHelper.anOffenderDelta(10L, LocalDateTime.now().minusMinutes(IN_PROGRESS_IS_FAILED_AFTER_MINUTES - 1), "INPROGRESS");
+        OffenderDeltaHelper.insert(List.of(failedDelta, recentDelta), jdbcTemplate);
+
+        final var offenderUpdates = offenderDeltaService.lockNextFailedUpdates(10);
+
+        assertThat(offenderUpdates).extracting("offenderDeltaId").containsExactly(9L);
+        assertThat(offenderUpdates.get(0).isFailedUpdate()).isTrue();
+    }
+
+    @Test
+    @DisplayName("can delete and mark as failed a batch of updates ignoring any that no longer exist")
+    void deleteDeltasAndMarkAllAsFailed_ignoresMissingUpdates() {
+        final LocalDateTime lastUpdatedDateTime = LocalDateTime.now().minusMinutes(1);
+        OffenderDeltaHelper.insert(List.of(
+                OffenderDeltaHelper.anOffenderDelta(10L, lastUpdatedDateTime, "INPROGRESS"),
+                OffenderDeltaHelper.anOffenderDelta(11L, lastUpdatedDateTime, "INPROGRESS"),
+                OffenderDeltaHelper.anOffenderDelta(12L, lastUpdatedDateTime, "INPROGRESS")), jdbcTemplate);
+
+        offenderUpdatesService.deleteUpdates(List.of(10L, 99L));
+        offenderUpdatesService.markAllAsFailed(List.of(11L, 99L));
+
+        assertThat(jdbcTemplate.queryForList("SELECT STATUS FROM OFFENDER_DELTA ORDER BY OFFENDER_DELTA_ID", String.class))
+                .containsExactly("FAILED", "INPROGRESS");
+    }
+
+    @Test
+    @DisplayName("will stream deltas after the high-water mark in ID order")
+    void streamDeltasAfter_resumesFromHighWaterMark() {
+        OffenderDeltaHelper.insert(OffenderDeltaHelper.someDeltas(LocalDateTime.now(), 5L), jdbcTemplate);
+
+        final var deltas = offenderDeltaService.streamDeltasAfter(1002L).collectList().block();
+
+        assertThat(deltas).extracting("offenderDeltaId").containsExactly(1003L, 1004L, 1005L);
+    }
+
+    @Test
+    @DisplayName("will follow new deltas as they are added after the existing ones")
+    void followDeltasAfter_emitsNewDeltas() {
+        OffenderDeltaHelper.insert(OffenderDeltaHelper.someDeltas(LocalDateTime.now(), 2L), jdbcTemplate);
+
+        final var deltas = offenderDeltaService.followDeltasAfter(0L)
+                .doOnNext(delta -> {
+                    if (delta.getOffenderDeltaId() == 1002L) {
+                        OffenderDeltaHelper.insert(List.of(OffenderDeltaHelper.anOffenderDelta(2000L, LocalDateTime.now(), "CREATED")), jdbcTemplate);
+                    }
+                })
+                .take(3)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(deltas).extracting("offenderDeltaId").containsExactly(1001L, 1002L, 2000L);
+    }
 }
@@ -0,0 +1,47 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.justice.digital.delius.StatementCountExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev-seed")
+class OffenderServiceStatementCountTest {
+    private static final String CRN = "X320741";
+    private static final String NOMS_NUMBER = "G9542VP";
+    private static final Long OFFENDER_ID = 2500343964L;
+
+    // the offender with its reference data joined, the disabilities, their provisions, then one batch for the
+    // remaining reference data
+    private static final long SUMMARY_STATEMENTS = 4;
+    // additionally the addresses, their personal circumstances, their assessments, the aliases and the offender managers
+    private static final long FULL_STATEMENTS = 9;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @Autowired
+    private OffenderService offenderService;
+
+    @Test
+    @DisplayName("summary shape is loaded in a fixed number of statements")
+    void summaryStatementCount() {
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderSummaryByCrn(CRN)).isPresent())).isEqualTo(SUMMARY_STATEMENTS);
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderSummaryByNomsNumber(NOMS_NUMBER)).isPresent())).isEqualTo(SUMMARY_STATEMENTS);
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderSummaryByOffenderId(OFFENDER_ID)).isPresent())).isEqualTo(SUMMARY_STATEMENTS);
+    }
+
+    @Test
+    @DisplayName("full shape is loaded in a fixed number of statements")
+    void fullStatementCount() {
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderByCrn(CRN)).isPresent())).isEqualTo(FULL_STATEMENTS);
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderByNomsNumber(NOMS_NUMBER)).isPresent())).isEqualTo(FULL_STATEMENTS);
+        assertThat(statements.statementsFor(() -> assertThat(offenderService.getOffenderByOffenderId(OFFENDER_ID)).isPresent())).isEqualTo(FULL_STATEMENTS);
+    }
+}
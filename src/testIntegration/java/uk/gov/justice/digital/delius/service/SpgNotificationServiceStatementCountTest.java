@@ -0,0 +1,140 @@
+package uk.gov.justice.digital.delius.service;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.digital.delius.FlywayRestoreExtension;
+import uk.gov.justice.digital.delius.StatementCountExtension;
+import uk.gov.justice.digital.delius.jpa.standard.entity.CourtAppearance;
+import uk.gov.justice.digital.delius.jpa.standard.entity.Event;
+import uk.gov.justice.digital.delius.jpa.standard.entity.ProbationArea;
+import uk.gov.justice.digital.delius.jpa.standard.repository.SpgNotificationHelperRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev-seed")
+@ExtendWith({SpringExtension.class, FlywayRestoreExtension.class})
+class SpgNotificationServiceStatementCountTest {
+    private static final Long OFFENDER_ID = 2500343964L;
+    private static final Long EVENT_ID = 2500295345L;
+    private static final Long SENDER_PROBATION_AREA_ID = 2500900001L;
+    // the seeded CRS provider and the sender stand in for the CRCs the Delius procedure would find interested
+    private static final List<ProbationArea> INTERESTED_CRCS = List.of(
+            ProbationArea.builder().probationAreaId(2500020001L).code("CRS").build(),
+            ProbationArea.builder().probationAreaId(SENDER_PROBATION_AREA_ID).code("N00").build());
+    // the event, its four court appearances and the offender, each notified to both CRCs
+    private static final long NOTIFICATIONS = 12;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @MockBean
+    private SpgNotificationHelperRepository spgNotificationHelperRepository;
+
+    @Autowired
+    private SpgNotificationService spgNotificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        // the reference data an SPG notification is written with, which the seed does not include
+        jdbcTemplate.update("DELETE FROM BUSINESS_INTERACTION WHERE BUSINESS_INTERACTION_ID BETWEEN 2500900001 AND 2500900003");
+        jdbcTemplate.update("INSERT INTO BUSINESS_INTERACTION (BUSINESS_INTERACTION_ID, BUSINESS_INTERACTION_CODE, DESCRIPTION) VALUES " +
+                "(2500900001, 'CWBI006', 'Insert event'), (2500900002, 'CWBI007', 'Insert court appearance'), (2500900003, 'OIBI027', 'Update offender')");
+        jdbcTemplate.update("DELETE FROM R_STANDARD_REFERENCE_LIST WHERE STANDARD_REFERENCE_LIST_ID = 2500900001");
+        jdbcTemplate.update("DELETE FROM R_REFERENCE_DATA_MASTER WHERE REFERENCE_DATA_MASTER_ID = 2500900001");
+        jdbcTemplate.update("INSERT INTO R_REFERENCE_DATA_MASTER (REFERENCE_DATA_MASTER_ID, CODE_SET_NAME, DESCRIPTION, LIST_SEQUENCE) " +
+                "VALUES (2500900001, 'SPG MESSAGE CONTEXT', 'SPG message context', 'N')");
+        jdbcTemplate.update("INSERT INTO R_STANDARD_REFERENCE_LIST (STANDARD_REFERENCE_LIST_ID, CODE_VALUE, CODE_DESCRIPTION, SELECTABLE, " +
+                "CREATED_BY_USER_ID, CREATED_DATETIME, LAST_UPDATED_USER_ID, LAST_UPDATED_DATETIME, REFERENCE_DATA_MASTER_ID) " +
+                "VALUES (2500900001, 'UNK', 'Unknown', 'Y', 2500040507, CURRENT_TIMESTAMP, 2500040507, CURRENT_TIMESTAMP, 2500900001)");
+        jdbcTemplate.update("DELETE FROM PROBATION_AREA WHERE PROBATION_AREA_ID = ?", SENDER_PROBATION_AREA_ID);
+        jdbcTemplate.update("INSERT INTO PROBATION_AREA (PROBATION_AREA_ID, CODE, DESCRIPTION, SELECTABLE, CREATED_BY_USER_ID, CREATED_DATETIME, " +
+                "LAST_UPDATED_USER_ID, LAST_UPDATED_DATETIME, PRIVATE, ORGANISATION_ID, ADDRESS_ID, START_DATE, SPG_ACTIVE_ID) " +
+                "VALUES (?, 'N00', 'National SPG sender', 'Y', 1500503033, CURRENT_TIMESTAMP, 1, CURRENT_TIMESTAMP, 0, 1500001001, 1500809765, " +
+                "CURRENT_TIMESTAMP, 2500010759)", SENDER_PROBATION_AREA_ID);
+
+        when(spgNotificationHelperRepository.getInterestedCRCs(anyString())).thenReturn(INTERESTED_CRCS);
+        when(spgNotificationHelperRepository.getNextControlSequences(anyString(), anyInt()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.getArgument(1), 0L));
+    }
+
+    @Test
+    @DisplayName("the notifications for a new court case are inserted in one JDBC batch rather than a statement each")
+    void newCourtCaseStatementCount() {
+        // the reference data is cached by the first notification so neither measured one reads it
+        newCourtCaseNotifiedWithJdbcBatchSize(null);
+
+        final var unbatched = newCourtCaseNotifiedWithJdbcBatchSize(1);
+        final var batched = newCourtCaseNotifiedWithJdbcBatchSize(null);
+
+        assertThat(unbatched.notifications()).isEqualTo(NOTIFICATIONS);
+        assertThat(batched.notifications()).isEqualTo(NOTIFICATIONS);
+        // every notification still takes its id from the sequence, but they share a single insert
+        assertThat(batched.statements()).isEqualTo(unbatched.statements() - (NOTIFICATIONS - 1));
+    }
+
+    /**
+     * Notifies a new court case and counts the statements it takes up to and including the flush, then rolls it back.
+     * A null batch size leaves the session with the one configured for the persistence unit.
+     */
+    private Notified newCourtCaseNotifiedWithJdbcBatchSize(Integer jdbcBatchSize) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            final var statementCount = statements.statementsFor(() -> {
+                spgNotificationService.notifyNewCourtCaseCreated(aNewCourtCase());
+                entityManager.flush();
+            });
+            final var notifications = ((Number) entityManager
+                    .createNativeQuery("SELECT COUNT(*) FROM SPG_NOTIFICATION WHERE OFFENDER_ID = :offenderId")
+                    .setParameter("offenderId", OFFENDER_ID)
+                    .getSingleResult())
+                    .longValue();
+            status.setRollbackOnly();
+            return new Notified(statementCount, notifications);
+        });
+    }
+
+    private static Event aNewCourtCase() {
+        return Event.builder()
+                .eventId(EVENT_ID)
+                .offenderId(OFFENDER_ID)
+                .courtAppearances(List.of(
+                        CourtAppearance.builder().courtAppearanceId(2500900001L).build(),
+                        CourtAppearance.builder().courtAppearanceId(2500900002L).build(),
+                        CourtAppearance.builder().courtAppearanceId(2500900003L).build(),
+                        CourtAppearance.builder().courtAppearanceId(2500900004L).build()))
+                .build();
+    }
+
+    private record Notified(long statements, long notifications) {
+    }
+}